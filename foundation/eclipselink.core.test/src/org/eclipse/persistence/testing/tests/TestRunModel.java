@@ -62,6 +62,7 @@ public void addTests() {
             tests.add("org.eclipse.persistence.testing.tests.feature.TopLinkBatchUpdatesTestModel");
             tests.add("org.eclipse.persistence.testing.tests.feature.JDBCBatchUpdatesTestModel");
             tests.add("org.eclipse.persistence.testing.tests.feature.ParameterizedBatchUpdatesTestModel");
+            tests.add("org.eclipse.persistence.testing.tests.feature.MultiRowInsertBatchUpdatesTestModel");
             tests.add("org.eclipse.persistence.testing.tests.feature.NativeBatchWritingTestModel");
             tests.add("org.eclipse.persistence.testing.tests.feature.EmployeeJoinFetchTestModel");
             tests.add("org.eclipse.persistence.testing.tests.types.TypeTestModelWithAccessors");
@@ -82,6 +82,9 @@ public static TestSuite getClientServerTestSuite() {
         suite.setName("ClientServerTestSuite");
         suite.addTest(new ClientServerTest());
         suite.addTest(new ConcurrencyManagerTest());
+        suite.addTest(new ConcurrencyManagerQueuedLocksTest());
+        suite.addTest(new ConcurrentConnectionPoolTest());
+        suite.addTest(new VirtualThreadClientsTest());
         suite.addTest(new ClientServerConcurrentWriteTest());
         suite.addTest(new ClientServerSequenceDeadlockTest());
         suite.addTest(new ClientServerSequenceDeadlockTest2());
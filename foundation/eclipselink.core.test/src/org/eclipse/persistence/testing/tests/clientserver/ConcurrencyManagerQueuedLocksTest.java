@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.clientserver;
+
+import org.eclipse.persistence.internal.helper.ConcurrencyManager;
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Test the locking semantics of a cache key using queued locks:
+ * readers wait on the writer, the writer waits on the readers,
+ * a deferred lock does not wait on the writer, but its release does,
+ * and a clone of the cache key is locked independently of the original.
+ */
+public class ConcurrencyManagerQueuedLocksTest extends AutoVerifyTestCase {
+    protected static final long WAIT = 200;
+
+    protected boolean shouldUseQueuedLocks;
+    protected CacheKey cacheKey;
+    protected volatile String error;
+
+    public ConcurrencyManagerQueuedLocksTest() {
+        setDescription("Tests the cache key locks using queued locks instead of the monitor.");
+    }
+
+    public void setup() {
+        this.shouldUseQueuedLocks = ConcurrencyManager.shouldUseQueuedLocks();
+        ConcurrencyManager.setShouldUseQueuedLocks(true);
+        this.cacheKey = new CacheKey(Integer.valueOf(1));
+        this.error = null;
+    }
+
+    public void test() throws Throwable {
+        // A reader waits on the writer.
+        this.cacheKey.acquire();
+        LockThread reader = new LockThread() {
+            public void lock() {
+                cacheKey.acquireReadLock();
+            }
+            public void unlock() {
+                cacheKey.releaseReadLock();
+            }
+        };
+        reader.start();
+        checkWaiting(reader, "Read lock acquired while the cache key was acquired.");
+        if (this.cacheKey.acquireReadLockNoWait()) {
+            this.cacheKey.releaseReadLock();
+        }
+        this.cacheKey.release();
+        checkAcquired(reader, "Read lock not acquired after the cache key was released.");
+
+        // A writer waits on the reader.
+        LockThread writer = new LockThread() {
+            public void lock() {
+                cacheKey.acquire();
+            }
+            public void unlock() {
+                cacheKey.release();
+            }
+        };
+        writer.start();
+        checkWaiting(writer, "Cache key acquired while read locked.");
+        if (this.cacheKey.acquireNoWait()) {
+            this.error = "Cache key acquired with no wait while read locked.";
+            this.cacheKey.release();
+        }
+        reader.finish();
+        checkAcquired(writer, "Cache key not acquired after the read lock was released.");
+
+        // A deferred lock does not wait on the writer, but its release waits for the writer to release.
+        LockThread deferred = new LockThread() {
+            public void lock() {
+                cacheKey.acquireDeferredLock();
+            }
+            public void unlock() {
+                cacheKey.releaseDeferredLock();
+            }
+        };
+        deferred.start();
+        checkAcquired(deferred, "Deferred lock waited on the cache key.");
+        deferred.release();
+        Thread.sleep(WAIT);
+        if (!deferred.isAlive()) {
+            this.error = "Deferred lock released while the cache key was acquired.";
+        }
+        writer.finish();
+        deferred.join(WAIT * 10);
+        if (deferred.isAlive()) {
+            this.error = "Deferred lock not released after the cache key was released.";
+        }
+
+        // Threads waiting for the release are woken.
+        this.cacheKey.acquire();
+        Thread waiter = new Thread() {
+            public void run() {
+                try {
+                    cacheKey.waitUntilReleased(0);
+                } catch (InterruptedException exception) {
+                    error = exception.toString();
+                }
+            }
+        };
+        waiter.start();
+        Thread.sleep(WAIT);
+        this.cacheKey.release();
+        waiter.join(WAIT * 10);
+        if (waiter.isAlive()) {
+            this.error = "Waiting thread not woken after the cache key was released.";
+        }
+        if (this.cacheKey.isAcquired() || (this.cacheKey.getNumberOfReaders() != 0)) {
+            this.error = "Cache key still locked: " + this.cacheKey.getDepth() + " " + this.cacheKey.getNumberOfReaders();
+        }
+
+        // A clone has its own lock, so is locked independently of the original.
+        QueuedLockCacheKey original = new QueuedLockCacheKey();
+        final QueuedLockCacheKey clone = (QueuedLockCacheKey)original.clone();
+        if ((clone.getQueuedLock() == null) || (clone.getQueuedLock() == original.getQueuedLock())) {
+            this.error = "Cache key clone shares the queued lock of the original.";
+        }
+        original.acquire();
+        LockThread cloneWriter = new LockThread() {
+            public void lock() {
+                clone.acquire();
+            }
+            public void unlock() {
+                clone.release();
+            }
+        };
+        cloneWriter.start();
+        checkAcquired(cloneWriter, "Cache key clone not acquired while the original was acquired.");
+        if (!original.acquireNoWait()) {
+            this.error = "Cache key not acquired again by its owner while its clone was acquired.";
+        } else {
+            original.release();
+        }
+        original.release();
+        cloneWriter.finish();
+        if (clone.isAcquired() || original.isAcquired()) {
+            this.error = "Cache key or its clone still locked.";
+        }
+        ConcurrencyManager.setShouldUseQueuedLocks(false);
+        if (((QueuedLockCacheKey)original.clone()).getQueuedLock() != null) {
+            this.error = "Cache key clone has a queued lock while queued locks are not used.";
+        }
+    }
+
+    protected void checkWaiting(LockThread thread, String message) throws InterruptedException {
+        Thread.sleep(WAIT);
+        if (thread.isLocked) {
+            this.error = message;
+        }
+    }
+
+    protected void checkAcquired(LockThread thread, String message) throws InterruptedException {
+        synchronized (thread) {
+            if (!thread.isLocked) {
+                thread.wait(WAIT * 10);
+            }
+        }
+        if (!thread.isLocked) {
+            this.error = message;
+        }
+    }
+
+    public void verify() {
+        if (this.error != null) {
+            throw new TestErrorException(this.error);
+        }
+    }
+
+    public void reset() {
+        ConcurrencyManager.setShouldUseQueuedLocks(this.shouldUseQueuedLocks);
+    }
+
+    /**
+     * Exposes the queued lock of the cache key.
+     */
+    protected static class QueuedLockCacheKey extends CacheKey {
+        public QueuedLockCacheKey() {
+            super(Integer.valueOf(2));
+        }
+
+        public Object getQueuedLock() {
+            return this.queuedLock;
+        }
+    }
+
+    /**
+     * Acquires a lock, holds it until released, then releases it.
+     */
+    protected abstract class LockThread extends Thread {
+        public volatile boolean isLocked;
+        public volatile boolean isReleased;
+
+        public abstract void lock();
+
+        public abstract void unlock();
+
+        public void run() {
+            try {
+                lock();
+                synchronized (this) {
+                    this.isLocked = true;
+                    notifyAll();
+                    while (!this.isReleased) {
+                        wait();
+                    }
+                }
+                unlock();
+            } catch (Throwable exception) {
+                error = exception.toString();
+            }
+        }
+
+        public synchronized void release() {
+            this.isReleased = true;
+            notifyAll();
+        }
+
+        public void finish() throws InterruptedException {
+            release();
+            join(WAIT * 10);
+        }
+    }
+}
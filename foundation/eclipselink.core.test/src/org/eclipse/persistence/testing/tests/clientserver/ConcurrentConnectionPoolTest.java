@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.clientserver;
+
+import org.eclipse.persistence.exceptions.ConcurrencyException;
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.ConcurrentConnectionPool;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Test the ConcurrentConnectionPool:
+ * a waiting thread is handed off the released connection, a wait times out,
+ * the pool shrinks back to its minimum size, and the statistics are recorded.
+ */
+public class ConcurrentConnectionPoolTest extends AutoVerifyTestCase {
+    protected static final long WAIT = 200;
+
+    protected ServerSession serverSession;
+    protected ConcurrentConnectionPool pool;
+    protected volatile Accessor waiterConnection;
+    protected volatile String error;
+
+    public ConcurrentConnectionPoolTest() {
+        setDescription("Tests acquiring and releasing connections from a concurrent connection pool.");
+    }
+
+    public void setup() {
+        this.serverSession = (ServerSession)new Project(getSession().getDatasourceLogin().clone()).createServerSession();
+        this.serverSession.setSessionLog(getSession().getSessionLog());
+        this.pool = new ConcurrentConnectionPool("concurrent", this.serverSession.getDatasourceLogin(), 1, 1, 2, this.serverSession);
+        this.serverSession.addConnectionPool(this.pool);
+        this.serverSession.login();
+        this.waiterConnection = null;
+        this.error = null;
+    }
+
+    public void test() throws Throwable {
+        Accessor connection1 = this.pool.acquireConnection();
+        Accessor connection2 = this.pool.acquireConnection();
+        if ((this.pool.getTotalNumberOfConnections() != 2) || (this.pool.getSaturation() != 100)) {
+            throw new TestErrorException("Pool not saturated: " + this.pool.getTotalNumberOfConnections() + " " + this.pool.getSaturation());
+        }
+
+        // A waiting thread is handed off the released connection.
+        Thread waiter = new Thread() {
+            public void run() {
+                try {
+                    waiterConnection = pool.acquireConnection();
+                } catch (Throwable exception) {
+                    error = exception.toString();
+                }
+            }
+        };
+        waiter.start();
+        Thread.sleep(WAIT);
+        if ((this.pool.getNumberOfWaitingClients() != 1) || (this.waiterConnection != null)) {
+            throw new TestErrorException("Thread not waiting for a connection.");
+        }
+        this.pool.releaseConnection(connection1);
+        waiter.join(WAIT * 10);
+        if (this.waiterConnection != connection1) {
+            throw new TestErrorException("Released connection not handed off to the waiting thread.");
+        }
+
+        // The wait times out.
+        this.pool.setWaitTimeout((int)WAIT);
+        try {
+            this.pool.releaseConnection(this.pool.acquireConnection());
+            throw new TestErrorException("Connection acquired from an exhausted pool.");
+        } catch (ConcurrencyException expected) {
+            if (expected.getErrorCode() != ConcurrencyException.WAIT_TIMEOUT_ON_CONNECTION_POOL) {
+                throw expected;
+            }
+        }
+
+        // The pool shrinks back to the minimum size.
+        this.pool.releaseConnection(connection2);
+        this.pool.releaseConnection(this.waiterConnection);
+    }
+
+    public void verify() {
+        if (this.error != null) {
+            throw new TestErrorException(this.error);
+        }
+        if ((this.pool.getTotalNumberOfConnections() != 1) || (this.pool.getConnectionsAvailable().size() != 1) || (this.pool.getNumberOfConnectionsUsed() != 0)) {
+            throw new TestErrorException("Pool not shrunk to the minimum size: " + this.pool.getTotalNumberOfConnections() + " " + this.pool.getConnectionsAvailable().size());
+        }
+        if ((this.pool.getAcquireCount() != 3) || (this.pool.getWaitCount() != 2) || (this.pool.getTimeoutCount() != 1)) {
+            throw new TestErrorException("Incorrect statistics, acquires: " + this.pool.getAcquireCount() + " waits: " + this.pool.getWaitCount() + " timeouts: " + this.pool.getTimeoutCount());
+        }
+        if (this.pool.getMaxAcquireTime() < this.pool.getAverageAcquireTime()) {
+            throw new TestErrorException("Incorrect acquire times: " + this.pool.getMaxAcquireTime() + " " + this.pool.getAverageAcquireTime());
+        }
+    }
+
+    public void reset() {
+        if (this.serverSession != null) {
+            this.serverSession.logout();
+            this.serverSession = null;
+        }
+    }
+}
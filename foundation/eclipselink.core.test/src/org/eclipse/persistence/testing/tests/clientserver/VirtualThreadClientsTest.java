@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.clientserver;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.ClientSession;
+import org.eclipse.persistence.sessions.server.ConnectionPool;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Stress a ServerSession with thousands of concurrent clients, each on its own virtual thread
+ * when the JDK supports them (otherwise a large pool of platform threads is used).
+ * The connection pools are much smaller than the number of clients, so clients wait for connections,
+ * and for the cache locks, while other clients hold them across database calls.
+ */
+public class VirtualThreadClientsTest extends AutoVerifyTestCase {
+    protected static final int CLIENTS = 5000;
+
+    protected ServerSession serverSession;
+    protected AtomicInteger completed;
+    protected List<Throwable> errors;
+    protected boolean usesVirtualThreads;
+
+    public VirtualThreadClientsTest() {
+        setDescription("Tests thousands of virtual thread clients reading and writing through a ServerSession.");
+    }
+
+    public void setup() {
+        DatabaseLogin login = (DatabaseLogin)getSession().getLogin().clone();
+        this.serverSession = (ServerSession)new Project(login).createServerSession(2, 4);
+        this.serverSession.useReadConnectionPool(2, 4);
+        this.serverSession.setSessionLog(getSession().getSessionLog());
+        this.serverSession.login();
+        this.serverSession.addDescriptors(new ArrayList(getSession().getDescriptors().values()));
+        this.completed = new AtomicInteger();
+        this.errors = new ArrayList<Throwable>();
+    }
+
+    /**
+     * Return a virtual thread per task executor if the JDK supports virtual threads.
+     */
+    protected ExecutorService buildExecutor() {
+        try {
+            Method method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            this.usesVirtualThreads = true;
+            return (ExecutorService)method.invoke(null);
+        } catch (Exception unsupported) {
+            this.usesVirtualThreads = false;
+            return Executors.newFixedThreadPool(200);
+        }
+    }
+
+    public void test() throws Exception {
+        final List<Employee> employees = getSession().readAllObjects(Employee.class);
+        ExecutorService executor = buildExecutor();
+        try {
+            for (int index = 0; index < CLIENTS; index++) {
+                final int clientIndex = index;
+                executor.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            ClientSession client = serverSession.acquireClientSession();
+                            try {
+                                // Reads use the read pool, and build objects under the cache locks.
+                                Employee employee = employees.get(clientIndex % employees.size());
+                                client.readAllObjects(Employee.class);
+                                client.readObject(employee);
+                                // Transactions hold a write connection until they complete.
+                                client.beginTransaction();
+                                try {
+                                    client.readObject(employee);
+                                } finally {
+                                    client.rollbackTransaction();
+                                }
+                            } finally {
+                                client.release();
+                            }
+                            completed.incrementAndGet();
+                        } catch (Throwable error) {
+                            synchronized (errors) {
+                                errors.add(error);
+                            }
+                        }
+                    }
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        if (!executor.awaitTermination(10, TimeUnit.MINUTES)) {
+            executor.shutdownNow();
+            throw new TestErrorException("Clients did not complete, completed: " + this.completed.get());
+        }
+    }
+
+    public void verify() {
+        if (!this.errors.isEmpty()) {
+            throw new TestErrorException(this.errors.size() + " clients failed, virtual threads: " + this.usesVirtualThreads, this.errors.get(0));
+        }
+        if (this.completed.get() != CLIENTS) {
+            throw new TestErrorException("Only " + this.completed.get() + " of " + CLIENTS + " clients completed.");
+        }
+        for (ConnectionPool pool : this.serverSession.getConnectionPools().values()) {
+            if (pool.getTotalNumberOfConnections() > pool.getMaxNumberOfConnections()) {
+                throw new TestErrorException("Pool " + pool.getName() + " exceeded its maximum: " + pool.getTotalNumberOfConnections());
+            }
+        }
+    }
+
+    public void reset() {
+        if (this.serverSession != null) {
+            this.serverSession.logout();
+            this.serverSession = null;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedcache;
+
+import java.util.*;
+
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.sessions.*;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+import org.eclipse.persistence.sessions.serializers.ChangeSetSerializer;
+import org.eclipse.persistence.sessions.serializers.JavaSerializer;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+import org.eclipse.persistence.testing.models.employee.domain.EmploymentPeriod;
+import org.eclipse.persistence.testing.models.employee.domain.Project;
+
+/**
+ * Test the ChangeSetSerializer round trips a cache coordination change set
+ * with direct, reference, collection and aggregate changes the same as Java serialization,
+ * and is smaller.
+ */
+public class ChangeSetSerializerTest extends AutoVerifyTestCase {
+    protected SessionEventListener listener;
+    protected UnitOfWorkChangeSet changeSet;
+    protected MergeChangeSetCommand command;
+    protected byte[] javaBytes;
+    protected byte[] bytes;
+
+    public ChangeSetSerializerTest() {
+        setDescription("Test the binary change set serializer round trips a change set the same as Java serialization.");
+    }
+
+    public void setup() {
+        getAbstractSession().beginTransaction();
+        this.listener = new SessionEventAdapter() {
+            public void postCalculateUnitOfWorkChangeSet(SessionEvent event) {
+                changeSet = (UnitOfWorkChangeSet)event.getProperty("UnitOfWorkChangeSet");
+            }
+        };
+        getSession().getEventManager().addListener(this.listener);
+    }
+
+    public void test() {
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Employee employee = (Employee)uow.readObject(Employee.class, builder.get("manager").notNull());
+        Employee manager = (Employee)uow.readObject(Employee.class, builder.get("id").notEqual(employee.getManager().getId()).and(builder.get("id").notEqual(employee.getId())));
+        Project project = (Project)uow.readObject(Project.class);
+        employee.setFirstName("Serialized");
+        employee.setSalary(employee.getSalary() + 1);
+        employee.setManager(manager);
+        employee.setPeriod(new EmploymentPeriod(new java.sql.Date(System.currentTimeMillis()), null));
+        if (employee.getProjects().contains(project)) {
+            employee.removeProject(project);
+        } else {
+            employee.addProject(project);
+        }
+        uow.commit();
+
+        this.command = new MergeChangeSetCommand();
+        this.command.setChangeSet(this.changeSet.buildCacheCoordinationMergeChangeSet(getAbstractSession()));
+        this.command.setServiceId(new ServiceId("channel", "id", "url"));
+        ChangeSetSerializer serializer = new ChangeSetSerializer();
+        serializer.initialize(UnitOfWorkChangeSet.class, null, getSession());
+        this.javaBytes = (byte[])JavaSerializer.instance.serialize(this.command, getSession());
+        this.bytes = (byte[])serializer.serialize(this.command, getSession());
+        MergeChangeSetCommand javaCommand = (MergeChangeSetCommand)JavaSerializer.instance.deserialize(this.javaBytes, getSession());
+        MergeChangeSetCommand binaryCommand = (MergeChangeSetCommand)serializer.deserialize(this.bytes, getSession());
+
+        String expected = describe(javaCommand.getChangeSet(getAbstractSession()));
+        String result = describe(binaryCommand.getChangeSet(getAbstractSession()));
+        if (!expected.equals(result)) {
+            throw new TestErrorException("The change set does not match Java serialization, expected: " + expected + " got: " + result);
+        }
+        if (!binaryCommand.getServiceId().getId().equals("id") || !binaryCommand.getServiceId().getChannel().equals("channel")) {
+            throw new TestErrorException("The service id was not serialized: " + binaryCommand.getServiceId());
+        }
+    }
+
+    /**
+     * Describe the change sets in a canonical order.
+     */
+    protected String describe(UnitOfWorkChangeSet changeSet) {
+        return describe(changeSet.getAllChangeSets().keySet()) + " deleted: " + describe(changeSet.getDeletedObjects().keySet());
+    }
+
+    protected String describe(Collection<ObjectChangeSet> changeSets) {
+        Set<String> descriptions = new TreeSet<String>();
+        for (ObjectChangeSet changeSet : changeSets) {
+            descriptions.add(describe(changeSet));
+        }
+        return descriptions.toString();
+    }
+
+    protected String describe(ObjectChangeSet changeSet) {
+        if (changeSet == null) {
+            return "null";
+        }
+        StringBuilder description = new StringBuilder();
+        description.append(changeSet.getClassName()).append(" id: ").append(changeSet.getId());
+        description.append(" version: ").append(changeSet.getWriteLockValue()).append(" ").append(changeSet.getInitialWriteLockValue());
+        description.append(" new: ").append(changeSet.isNew()).append(" sync: ").append(changeSet.getSynchronizationType());
+        Set<String> records = new TreeSet<String>();
+        for (Object change : changeSet.getChanges()) {
+            ChangeRecord record = (ChangeRecord)change;
+            String value;
+            if (record instanceof DirectToFieldChangeRecord) {
+                value = String.valueOf(((DirectToFieldChangeRecord)record).getNewValue());
+            } else if (record instanceof ObjectReferenceChangeRecord) {
+                ObjectChangeSet target = (ObjectChangeSet)((ObjectReferenceChangeRecord)record).getNewValue();
+                value = (target == null) ? "null" : target.getClassName() + ":" + target.getId();
+            } else if (record instanceof AggregateChangeRecord) {
+                value = describe((ObjectChangeSet)((AggregateChangeRecord)record).getChangedObject());
+            } else if (record instanceof CollectionChangeRecord) {
+                value = ids(((CollectionChangeRecord)record).getAddObjectList().keySet()) + " " + ids(((CollectionChangeRecord)record).getRemoveObjectList().keySet());
+            } else {
+                value = record.getClass().getSimpleName();
+            }
+            records.add(record.getAttribute() + "=" + value);
+        }
+        description.append(" ").append(records);
+        return description.toString();
+    }
+
+    protected String ids(Collection<ObjectChangeSet> changeSets) {
+        Set<String> ids = new TreeSet<String>();
+        for (ObjectChangeSet changeSet : changeSets) {
+            ids.add(String.valueOf(changeSet.getId()));
+        }
+        return ids.toString();
+    }
+
+    public void verify() {
+        if (this.bytes[0] != 1) {
+            throw new TestErrorException("The change set was not serialized in the binary format.");
+        }
+        if (this.bytes.length >= this.javaBytes.length) {
+            throw new TestErrorException("The binary change set is not smaller than Java serialization: " + this.bytes.length + " " + this.javaBytes.length);
+        }
+    }
+
+    public void reset() {
+        getSession().getEventManager().removeListener(this.listener);
+        getAbstractSession().rollbackTransaction();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
@@ -0,0 +1,144 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedcache;
+
+import java.util.*;
+
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.sessions.*;
+import org.eclipse.persistence.internal.sessions.coordination.CommandBatcher;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.sessions.coordination.CommandManager;
+import org.eclipse.persistence.sessions.coordination.CommandProcessor;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+import org.eclipse.persistence.testing.models.employee.domain.Project;
+
+/**
+ * Test the CommandBatcher coalesces the change sets of several commits to the same object
+ * into its latest state, and sends them as one batch when the batch size is reached.
+ */
+public class CommandBatchingTest extends AutoVerifyTestCase {
+    protected SessionEventListener listener;
+    protected List<UnitOfWorkChangeSet> changeSets;
+    protected CommandManager commandManager;
+    protected CommandBatcher batcher;
+    protected UnitOfWorkChangeSet batch;
+    protected Employee employee;
+    protected Project project;
+
+    public CommandBatchingTest() {
+        setDescription("Test cache coordination commands are coalesced and batched.");
+    }
+
+    public void setup() {
+        getAbstractSession().beginTransaction();
+        this.changeSets = new ArrayList<UnitOfWorkChangeSet>();
+        this.listener = new SessionEventAdapter() {
+            public void postCalculateUnitOfWorkChangeSet(SessionEvent event) {
+                changeSets.add((UnitOfWorkChangeSet)event.getProperty("UnitOfWorkChangeSet"));
+            }
+        };
+        getSession().getEventManager().addListener(this.listener);
+        this.commandManager = getDatabaseSession().getCommandManager();
+    }
+
+    public void test() {
+        ExpressionBuilder builder = new ExpressionBuilder();
+        this.employee = (Employee)getSession().readObject(Employee.class, builder.isEmpty("projects"));
+        this.project = (Project)getSession().readObject(Project.class);
+        List<UnitOfWorkChangeSet> remoteChangeSets = new ArrayList<UnitOfWorkChangeSet>();
+        for (int index = 0; index < 3; index++) {
+            UnitOfWork uow = getSession().acquireUnitOfWork();
+            Employee employeeClone = (Employee)uow.registerObject(this.employee);
+            employeeClone.setFirstName("Batch" + index);
+            if (index == 0) {
+                employeeClone.setSalary(employeeClone.getSalary() + 1);
+            }
+            // Add then remove the project, which cancels out.
+            Project projectClone = (Project)uow.registerObject(this.project);
+            if (index == 1) {
+                employeeClone.addProject(projectClone);
+            } else if (index == 2) {
+                employeeClone.removeProject(projectClone);
+            }
+            uow.commit();
+            remoteChangeSets.add(this.changeSets.get(this.changeSets.size() - 1).buildCacheCoordinationMergeChangeSet(getAbstractSession()));
+        }
+
+        this.batch = new UnitOfWorkChangeSet();
+        for (UnitOfWorkChangeSet changeSet : remoteChangeSets) {
+            if (!this.batch.coalesceCacheCoordinationChangeSet(changeSet)) {
+                throw new TestErrorException("The change set could not be coalesced.");
+            }
+        }
+
+        RemoteCommandManager rcm = new RemoteCommandManager((CommandProcessor)getSession());
+        rcm.setShouldPropagateAsynchronously(false);
+        this.batcher = new CommandBatcher(rcm, 60000, 3);
+        for (UnitOfWorkChangeSet changeSet : remoteChangeSets) {
+            MergeChangeSetCommand command = new MergeChangeSetCommand();
+            command.setChangeSet(changeSet);
+            this.batcher.addCommand(command);
+        }
+    }
+
+    public void verify() {
+        ObjectChangeSet employeeChangeSet = null;
+        for (ObjectChangeSet changeSet : this.batch.getAllChangeSets().keySet()) {
+            if ((changeSet.getClassType() == Employee.class) && changeSet.getId().equals(this.employee.getId())) {
+                if (employeeChangeSet != null) {
+                    throw new TestErrorException("The employee change sets were not coalesced.");
+                }
+                employeeChangeSet = changeSet;
+            }
+        }
+        if (employeeChangeSet == null) {
+            throw new TestErrorException("The employee change set is missing.");
+        }
+        DirectToFieldChangeRecord firstName = (DirectToFieldChangeRecord)employeeChangeSet.getChangesForAttributeNamed("firstName");
+        if ((firstName == null) || !"Batch2".equals(firstName.getNewValue())) {
+            throw new TestErrorException("The coalesced change set does not have the latest first name: " + firstName);
+        }
+        if (employeeChangeSet.getChangesForAttributeNamed("salary") == null) {
+            throw new TestErrorException("The coalesced change set is missing the earlier salary change.");
+        }
+        CollectionChangeRecord projects = (CollectionChangeRecord)employeeChangeSet.getChangesForAttributeNamed("projects");
+        if ((projects != null) && !projects.getAddObjectList().isEmpty()) {
+            throw new TestErrorException("The project added then removed should not be added: " + projects.getAddObjectList());
+        }
+        if (this.batcher.getBatchCount() != 1) {
+            throw new TestErrorException("The commands should be sent as one batch: " + this.batcher);
+        }
+        if ((this.batcher.getCommandCount() != 3) || (this.batcher.getCoalescedCount() < 2)) {
+            throw new TestErrorException("The batch statistics are incorrect: " + this.batcher.getCommandCount() + " " + this.batcher.getCoalescedCount());
+        }
+    }
+
+    public void reset() {
+        // End the batch window, so its thread does not wait for the rest of the window.
+        if (this.batcher != null) {
+            this.batcher.shutdown();
+            this.batcher = null;
+        }
+        getSession().getEventManager().removeListener(this.listener);
+        getDatabaseSession().setCommandManager(this.commandManager);
+        getAbstractSession().rollbackTransaction();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
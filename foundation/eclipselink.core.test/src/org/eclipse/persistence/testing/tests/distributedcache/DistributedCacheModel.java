@@ -39,12 +39,26 @@ public void addTests() {
         suite5.addTest(new OrderedListMergeTest());
         suite5.addTest(new OrderedListMergeTest2());
         suite5.addTest(new OrderedListMergeTest3());
+        TestSuite suite6 = new TestSuite();
+        suite6.setName("ChangeSetSerializer Test Suite");
+        suite6.addTest(new ChangeSetSerializerTest());
+
+        TestSuite suite7 = new TestSuite();
+        suite7.setName("CommandBatching Test Suite");
+        suite7.addTest(new CommandBatchingTest());
+
+        TestSuite suite8 = new TestSuite();
+        suite8.setName("ParallelMerge Test Suite");
+        suite8.addTest(new ParallelMergeTest());
 
         addTest(suite1);
         addTest(suite2);
         addTest(suite3);
         addTest(suite4);
         addTest(suite5);
+        addTest(suite6);
+        addTest(suite7);
+        addTest(suite8);
     }
 
     public void addRequiredSystems() {
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.distributedcache;
+
+import java.util.*;
+
+import org.eclipse.persistence.internal.identitymaps.CacheKey;
+import org.eclipse.persistence.internal.sessions.*;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Test a large cache coordination change set is merged in parallel,
+ * and the merged objects have the same changes as a serial merge.
+ */
+public class ParallelMergeTest extends AutoVerifyTestCase {
+    protected SessionEventListener listener;
+    protected List<UnitOfWorkChangeSet> changeSets;
+    protected List<Employee> employees;
+
+    public ParallelMergeTest() {
+        setDescription("Test a large cache coordination change set is merged in parallel.");
+    }
+
+    public void setup() {
+        getAbstractSession().beginTransaction();
+        this.changeSets = new ArrayList<UnitOfWorkChangeSet>();
+        this.listener = new SessionEventAdapter() {
+            public void postCalculateUnitOfWorkChangeSet(SessionEvent event) {
+                changeSets.add((UnitOfWorkChangeSet)event.getProperty("UnitOfWorkChangeSet"));
+            }
+        };
+        getSession().getEventManager().addListener(this.listener);
+    }
+
+    public void test() {
+        this.employees = getSession().readAllObjects(Employee.class);
+        Map<Employee, String> originalNames = new IdentityHashMap<Employee, String>();
+        Map<Employee, Object> originalVersions = new IdentityHashMap<Employee, Object>();
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        for (Employee employee : this.employees) {
+            originalNames.put(employee, employee.getFirstName());
+            originalVersions.put(employee, getCacheKey(employee).getWriteLockValue());
+            Employee employeeClone = (Employee)uow.registerObject(employee);
+            employeeClone.setFirstName("Merged" + employee.getId());
+        }
+        uow.commit();
+        UnitOfWorkChangeSet changeSet = this.changeSets.get(this.changeSets.size() - 1).buildCacheCoordinationMergeChangeSet(getAbstractSession());
+
+        // Undo the local merge in the cache, so the changes must be merged again from the change set.
+        for (Employee employee : this.employees) {
+            employee.setFirstName(originalNames.get(employee));
+            getCacheKey(employee).setWriteLockValue(originalVersions.get(employee));
+        }
+
+        MergeManager manager = new MergeManager(getAbstractSession());
+        manager.mergeIntoDistributedCache();
+        manager.setCascadePolicy(MergeManager.CASCADE_ALL_PARTS);
+        manager.setParallelMergeThreshold(2);
+        manager.setParallelMergeThreads(4);
+        manager.setParallelMergePlatform(getAbstractSession().getServerPlatform());
+        if (!manager.shouldMergeInParallel(changeSet)) {
+            throw new TestWarningException("The change set would not be merged in parallel.");
+        }
+        manager.mergeChangesFromChangeSet(changeSet);
+    }
+
+    public void verify() {
+        for (Employee employee : this.employees) {
+            if (!("Merged" + employee.getId()).equals(employee.getFirstName())) {
+                throw new TestErrorException("The change was not merged: " + employee);
+            }
+            if (getCacheKey(employee).isAcquired()) {
+                throw new TestErrorException("The lock was not released: " + employee);
+            }
+        }
+    }
+
+    protected CacheKey getCacheKey(Employee employee) {
+        return getAbstractSession().getIdentityMapAccessorInstance().getCacheKeyForObject(employee);
+    }
+
+    public void reset() {
+        getSession().getEventManager().removeListener(this.listener);
+        getAbstractSession().rollbackTransaction();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
@@ -246,6 +246,8 @@ public static TestSuite getMiscTestSuite() {
         suite.addTest(new HelperSystemPropertyTest());
         suite.addTest(new GermanUmlautsWriteTest());
         suite.addTest(new ReconnectFlushStatementCacheTest());
+        suite.addTest(new StatementCacheEvictionTest());
+        suite.addTest(new HistogramMonitorTest());
         suite.addTest(new TransactionIsolationTest());
         suite.addTest(new SessionIsConnectedFlagTest());
         suite.addTest(new ContainerIndirectionPolicySerializationTest());
@@ -295,6 +297,7 @@ public static TestSuite getSequenceTestSuite() {
         suite.addTest(new SequencingConcurrencyTest(7, 100, true, false));
         suite.addTest(new SequencingConcurrencyTest(7, 100, true, false, 2));
         suite.addTest(new SequencingConcurrencyTest(7, 100, true, true));
+        suite.addTest(new SequencingConcurrencyTest(7, 100, true, true, 1, 50));
         suite.addTest(new SequencingRollbackTest(true));
         suite.addTest(new SequencingRollbackTest(false));
         suite.addTest(new SequenceStringPKInsertTest());
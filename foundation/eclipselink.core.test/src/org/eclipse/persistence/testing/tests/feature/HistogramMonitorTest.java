@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+import org.eclipse.persistence.tools.profiler.Histogram;
+import org.eclipse.persistence.tools.profiler.HistogramExporter;
+import org.eclipse.persistence.tools.profiler.HistogramMonitor;
+import org.eclipse.persistence.tools.profiler.JMXHistogramExporter;
+
+/**
+ * Ensure the histogram monitor records the distribution of the operation times
+ * per operation, query and descriptor, and exports them through JMX and its exporters.
+ */
+public class HistogramMonitorTest extends AutoVerifyTestCase {
+    protected SessionProfiler originalProfiler;
+    protected HistogramMonitor monitor;
+    protected JMXHistogramExporter jmxExporter;
+    protected ReadAllQuery query;
+    protected int exportCount;
+    protected int releaseCount;
+
+    public HistogramMonitorTest() {
+        setDescription("Ensure the histogram monitor records the distribution of the operation times.");
+    }
+
+    public void setup() {
+        this.originalProfiler = getSession().getProfiler();
+        this.monitor = new HistogramMonitor();
+        this.jmxExporter = new JMXHistogramExporter();
+        this.monitor.addExporter(this.jmxExporter);
+        this.monitor.addExporter(new HistogramExporter() {
+            public void initialize(HistogramMonitor monitor) {
+            }
+            public void export(HistogramMonitor monitor) {
+                exportCount++;
+            }
+            public void release(HistogramMonitor monitor) {
+                releaseCount++;
+            }
+        });
+        this.exportCount = 0;
+        this.releaseCount = 0;
+        getSession().setProfiler(this.monitor);
+        this.monitor.initialize();
+    }
+
+    public void test() {
+        this.query = new ReadAllQuery(Employee.class);
+        this.query.setName("histogramTest");
+        this.query.dontMaintainCache();
+        for (int index = 0; index < 10; index++) {
+            getSession().executeQuery(this.query);
+        }
+        this.monitor.dumpResults();
+    }
+
+    public void verify() {
+        checkHistogram("Timer:" + this.query.getMonitorName(), 10);
+        checkHistogram("Timer:ReadAllQuery", 10);
+        checkHistogram("Timer:Descriptor:" + Employee.class.getName(), 10);
+        checkHistogram(SessionProfiler.ObjectBuilding, 1);
+        checkHistogram("Timer:" + this.query.getMonitorName() + ":ObjectBuilding", 1);
+        checkHistogram("Timer:Descriptor:" + Employee.class.getName() + ":ObjectBuilding", 1);
+        if (this.exportCount != 1) {
+            throw new TestErrorException("The histograms were not exported: " + this.exportCount);
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            Object count = server.invoke(this.jmxExporter.getObjectName(), "getCount",
+                    new Object[] {"Timer:ReadAllQuery"}, new String[] {String.class.getName()});
+            if (((Number)count).longValue() != this.monitor.getCount("Timer:ReadAllQuery")) {
+                throw new TestErrorException("The MBean count does not match the monitor: " + count);
+            }
+        } catch (TestErrorException error) {
+            throw error;
+        } catch (Exception exception) {
+            throw new TestErrorException("The monitor was not registered as an MBean.", exception);
+        }
+
+        // The exporters are released by the listener on logout, which unregisters the MBean.
+        ObjectName objectName = this.jmxExporter.getObjectName();
+        SessionEventListener logoutListener = this.monitor.getLogoutListener();
+        if ((logoutListener == null) || !getSession().getEventManager().getListeners().contains(logoutListener)) {
+            throw new TestErrorException("The monitor did not listen to the logout of the session.");
+        }
+        logoutListener.postLogout(new SessionEvent(SessionEvent.PostLogout, getSession()));
+        if (server.isRegistered(objectName) || (this.jmxExporter.getObjectName() != null)) {
+            throw new TestErrorException("The MBean was not unregistered on logout: " + objectName);
+        }
+        if (this.releaseCount != 1) {
+            throw new TestErrorException("The exporters were not released on logout: " + this.releaseCount);
+        }
+    }
+
+    protected void checkHistogram(String operation, long minimumCount) {
+        Histogram histogram = this.monitor.getHistogram(operation);
+        if ((histogram == null) || (histogram.getCount() < minimumCount)) {
+            throw new TestErrorException(operation + " was not recorded: " + histogram);
+        }
+        long p50 = histogram.getPercentile(50);
+        long p99 = histogram.getPercentile(99);
+        if ((p50 <= 0) || (p50 > p99) || (p99 > histogram.getMax())) {
+            throw new TestErrorException(operation + " has incorrect percentiles: " + histogram);
+        }
+    }
+
+    public void reset() {
+        getSession().setProfiler(this.originalProfiler);
+        if (this.monitor != null) {
+            this.monitor.release();
+            if (this.monitor.getLogoutListener() != null) {
+                getSession().getEventManager().removeListener(this.monitor.getLogoutListener());
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import org.eclipse.persistence.internal.databaseaccess.*;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Run the parameterized batch writing tests with the batched inserts written as multi-row inserts.
+ */
+public class MultiRowInsertBatchUpdatesTestModel extends ParameterizedBatchUpdatesTestModel {
+
+    public MultiRowInsertBatchUpdatesTestModel() {
+        super();
+    }
+
+    public void addForcedRequiredSystems() {
+        if (!getSession().getPlatform().supportsMultiRowInsert()) {
+            throw new TestWarningException("Multi-row inserts are not supported on this database.");
+        }
+        super.addForcedRequiredSystems();
+        getSession().getPlatform().setUsesMultiRowInsertBatchWriting(true);
+    }
+
+    public void reset() {
+        super.reset();
+        getSession().getPlatform().setUsesMultiRowInsertBatchWriting(false);
+    }
+}
@@ -47,6 +47,7 @@ public class SequencingConcurrencyTest extends TestCase implements Comparator {
     public DatabaseSession dbSession;
     public int previousSequencePreallocationSize;
     public int sequencePreallocationSize;
+    public int prefetchThreshold;
     public boolean useSeparateConnectionOriginal;
     public boolean shouldLogMessages;
     public int originalLogLevel;
@@ -75,7 +76,16 @@ public SequencingConcurrencyTest(int nThreads, int nIterations, boolean useServe
      * To be called by testing framework.
      */
     public SequencingConcurrencyTest(int nThreads, int nIterations, boolean useServerSession, boolean useSeparateConnection, int sequencePreallocationSize) {
+        this(nThreads, nIterations, useServerSession, useSeparateConnection, sequencePreallocationSize, 0);
+    }
+
+    /**
+     * To be called by testing framework.
+     * The prefetch threshold (percentage) allocates the next sequences in the background, only used by a ServerSession.
+     */
+    public SequencingConcurrencyTest(int nThreads, int nIterations, boolean useServerSession, boolean useSeparateConnection, int sequencePreallocationSize, int prefetchThreshold) {
         this.nThreads = nThreads;
+        this.prefetchThreshold = prefetchThreshold;
         this.nIterations = nIterations;
         this.useServerSession = useServerSession;
         this.useSeparateConnection = useSeparateConnection;
@@ -88,6 +98,9 @@ public SequencingConcurrencyTest(int nThreads, int nIterations, boolean useServe
         shouldLogMessages = false;
         this.sequencePreallocationSize = sequencePreallocationSize;
         setName(getName() + " " + sessionUsed + " separateConnection=" + useSeparateConnection + " seqPreallocSize=" + sequencePreallocationSize + " threads=" + nThreads + " iterations=" + nIterations);
+        if (prefetchThreshold > 0) {
+            setName(getName() + " prefetchThreshold=" + prefetchThreshold);
+        }
     }
 
     /**
@@ -174,6 +187,7 @@ public void setup() {
             serverSession.addDescriptors(new org.eclipse.persistence.testing.models.employee.relational.EmployeeProject());
 //        serverSession.getSequencingControl().setPreallocationSize(sequencePreallocationSize);
             serverSession.getSequencingControl().setShouldUseSeparateConnection(useSeparateConnection);
+            serverSession.getSequencingControl().setPrefetchThreshold(prefetchThreshold);
             serverSession.setSessionLog(getSession().getSessionLog());
             if (shouldLogMessages) {
                 serverSession.setLogLevel(SessionLog.FINE);
@@ -0,0 +1,97 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.feature;
+
+import java.util.Vector;
+
+import org.eclipse.persistence.queries.DataReadQuery;
+import org.eclipse.persistence.queries.SQLCall;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.DatabaseSession;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.relational.EmployeeProject;
+import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
+
+/**
+ * Ensure the statement cache evicts the least recently used statement,
+ * and that the cache hits, misses and evictions are profiled.
+ */
+public class StatementCacheEvictionTest extends AutoVerifyTestCase {
+    protected DatabaseSession session;
+    protected PerformanceMonitor monitor;
+
+    public StatementCacheEvictionTest() {
+        setDescription("Ensure the statement cache evicts the least recently used statement.");
+    }
+
+    public void setup() {
+        DatabaseLogin login = (DatabaseLogin)getSession().getLogin().clone();
+        login.bindAllParameters();
+        login.cacheAllStatements();
+        login.setStatementCacheSize(2);
+        org.eclipse.persistence.sessions.Project project = new EmployeeProject();
+        project.setLogin(login);
+        this.session = project.createDatabaseSession();
+        this.session.setSessionLog(getSession().getSessionLog());
+        this.session.login();
+        this.monitor = new PerformanceMonitor();
+        this.session.setProfiler(this.monitor);
+    }
+
+    public void test() {
+        DataReadQuery id = buildQuery("EMP_ID");
+        DataReadQuery firstName = buildQuery("F_NAME");
+        DataReadQuery lastName = buildQuery("L_NAME");
+
+        // The cache holds two statements, the least recently used is evicted.
+        execute(id); // miss
+        execute(firstName); // miss
+        execute(id); // hit
+        execute(lastName); // miss, evicts firstName
+        execute(id); // hit
+        execute(firstName); // miss, evicts lastName
+    }
+
+    protected DataReadQuery buildQuery(String column) {
+        DataReadQuery query = new DataReadQuery(new SQLCall("SELECT " + column + " FROM EMPLOYEE WHERE EMP_ID = #EMP_ID"));
+        query.addArgument("EMP_ID");
+        return query;
+    }
+
+    protected void execute(DataReadQuery query) {
+        Vector arguments = new Vector();
+        arguments.add(Integer.valueOf(0));
+        this.session.executeQuery(query, arguments);
+    }
+
+    public void verify() {
+        checkCount(SessionProfiler.StatementCacheHits, 2);
+        checkCount(SessionProfiler.StatementCacheMisses, 4);
+        checkCount(SessionProfiler.StatementCacheEvictions, 2);
+    }
+
+    protected void checkCount(String counter, long expected) {
+        Object count = this.monitor.getOperationTimings().get(counter);
+        if ((count == null) || (((Number)count).longValue() != expected)) {
+            throw new TestErrorException(counter + " was: " + count + " expected: " + expected);
+        }
+    }
+
+    public void reset() {
+        if (this.session != null) {
+            this.session.logout();
+            this.session = null;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.helper;
+
+import java.util.Vector;
+
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.ArrayRecord;
+import org.eclipse.persistence.queries.SQLCall;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Test that an ArrayRecord using the fields index of its call returns the same values
+ * as a record looking up its fields by name, whether or not the index cached on a field matches.
+ */
+public class ArrayRecordFieldsIndexTest extends AutoVerifyTestCase {
+    protected SQLCall call;
+    protected Vector<DatabaseField> fields;
+    protected Object[] values;
+
+    public ArrayRecordFieldsIndexTest() {
+        setDescription("Test that the fields index of a call returns the same values as the lookup by name.");
+    }
+
+    public void setup() {
+        this.fields = new Vector<DatabaseField>();
+        this.fields.add(new DatabaseField("EMPLOYEE.EMP_ID"));
+        this.fields.add(new DatabaseField("EMPLOYEE.F_NAME"));
+        this.fields.add(new DatabaseField("EMPLOYEE.L_NAME"));
+        this.fields.add(new DatabaseField("ADDRESS.ADDRESS_ID"));
+        this.fields.add(new DatabaseField("ADDRESS.CITY"));
+        // The index cached on the fields does not match their position in this call.
+        for (int index = 0; index < this.fields.size(); index++) {
+            this.fields.get(index).setIndex(this.fields.size() - 1 - index);
+        }
+        this.values = new Object[] {Integer.valueOf(1), "Bob", "Smith", Integer.valueOf(2), "Ottawa"};
+        this.call = new SQLCall("SELECT 1");
+        this.call.setFields(this.fields);
+    }
+
+    public void test() {
+        if ((this.call.getFieldsIndex() == null) || (this.call.getFieldsIndex().size() != this.fields.size())) {
+            throw new TestErrorException("The fields index was not built when the fields were set: " + this.call.getFieldsIndex());
+        }
+        ArrayRecord indexedRow = new ArrayRecord(this.call.getFields(), this.call.getFieldsArray(), this.call.getFieldsIndex(), this.values.clone());
+        DatabaseRecord namedRow = new DatabaseRecord();
+        for (int index = 0; index < this.values.length; index++) {
+            namedRow.put(this.fields.get(index).getQualifiedName(), this.values[index]);
+        }
+        for (DatabaseField field : this.fields) {
+            // The same field instance is found through the index, an equal field by name.
+            DatabaseField equalField = new DatabaseField(field.getQualifiedName());
+            Object expected = namedRow.get(field.getQualifiedName());
+            if ((expected == null) || (indexedRow.get(field) != expected) || (indexedRow.get(equalField) != expected)) {
+                throw new TestErrorException("The indexed lookup of " + field + " returned " + indexedRow.get(field) + " instead of " + expected);
+            }
+        }
+        DatabaseField missingField = new DatabaseField("EMPLOYEE.SALARY");
+        if (indexedRow.containsKey(missingField) || (indexedRow.get(missingField) != null) || namedRow.containsKey(missingField)) {
+            throw new TestErrorException("A field not returned by the call was found in the row.");
+        }
+
+        // Resetting the fields rebuilds the index.
+        Vector<DatabaseField> otherFields = new Vector<DatabaseField>(this.fields.subList(3, 5));
+        this.call.setFields(otherFields);
+        ArrayRecord otherRow = new ArrayRecord(this.call.getFields(), this.call.getFieldsArray(), this.call.getFieldsIndex(), new Object[] {this.values[3], this.values[4]});
+        if ((this.call.getFieldsIndex().size() != 2) || (otherRow.get(this.fields.get(4)) != this.values[4]) || otherRow.containsKey(this.fields.get(0))) {
+            throw new TestErrorException("The fields index was not rebuilt when the fields were reset: " + this.call.getFieldsIndex());
+        }
+        this.call.setFields(null);
+        if (this.call.getFieldsIndex() != null) {
+            throw new TestErrorException("The fields index was not cleared with the fields.");
+        }
+    }
+
+    public void reset() {
+        this.call = null;
+        this.fields = null;
+        this.values = null;
+    }
+}
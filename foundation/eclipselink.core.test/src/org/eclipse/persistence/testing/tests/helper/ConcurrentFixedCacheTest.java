@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.helper;
+
+import org.eclipse.persistence.internal.helper.*;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Test that ConcurrentFixedCache evicts the entries not recently used when its max size is exceeded,
+ * and records its hits, misses and evictions.
+ */
+public class ConcurrentFixedCacheTest extends AutoVerifyTestCase {
+    protected ConcurrentFixedCache cache;
+
+    public ConcurrentFixedCacheTest() {
+        setDescription("Test of the eviction of the least recently used entries of ConcurrentFixedCache.");
+    }
+
+    public void setup() {
+        this.cache = new ConcurrentFixedCache(3);
+    }
+
+    public void test() {
+        this.cache.put("a", "A");
+        this.cache.put("b", "B");
+        this.cache.put("c", "C");
+        this.cache.get("a");
+        this.cache.get("b");
+        // Only c was not used since it was put, so is evicted.
+        this.cache.put("d", "D");
+    }
+
+    public void verify() {
+        if (this.cache.getCache().size() != 3) {
+            throw new TestErrorException("The cache size was not kept to its max size: " + this.cache.getCache().size());
+        }
+        if ((this.cache.get("c") != null) || !"A".equals(this.cache.get("a")) || !"B".equals(this.cache.get("b")) || !"D".equals(this.cache.get("d"))) {
+            throw new TestErrorException("The least recently used entry was not evicted: " + this.cache.getCache());
+        }
+        if ((this.cache.getHits() != 5) || (this.cache.getMisses() != 1) || (this.cache.getEvictions() != 1)) {
+            throw new TestErrorException("Incorrect statistics, hits: " + this.cache.getHits() + " misses: " + this.cache.getMisses() + " evictions: " + this.cache.getEvictions());
+        }
+    }
+
+    public void reset() {
+        this.cache = null;
+    }
+}
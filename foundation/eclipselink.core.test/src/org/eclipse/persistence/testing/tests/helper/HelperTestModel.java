@@ -49,6 +49,9 @@ public static TestSuite getDataTypeComparisonTestSuite() {
         suite.addTest(new TimestampFromDateTest());
         suite.addTest(new TimestampFromLongTest());
         suite.addTest(new TimestampFromStringTest());
+        suite.addTest(new ConcurrentFixedCacheTest());
+        suite.addTest(new MethodHandleAccessorTest());
+        suite.addTest(new ArrayRecordFieldsIndexTest());
 
         return suite;
 
@@ -0,0 +1,123 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.helper;
+
+import org.eclipse.persistence.exceptions.DescriptorException;
+import org.eclipse.persistence.internal.descriptors.InstanceVariableAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.MethodAttributeAccessor;
+import org.eclipse.persistence.internal.descriptors.MethodHandleAccessorFactory;
+import org.eclipse.persistence.testing.framework.*;
+
+/**
+ * Test that the field and method attribute accessors get and set private attributes through method handles,
+ * and still convert values and report errors as through reflection.
+ */
+public class MethodHandleAccessorTest extends AutoVerifyTestCase {
+    protected InstanceVariableAttributeAccessor nameAccessor;
+    protected InstanceVariableAttributeAccessor ageAccessor;
+    protected MethodAttributeAccessor salaryAccessor;
+    protected MethodAttributeAccessor failingAccessor;
+
+    public MethodHandleAccessorTest() {
+        setDescription("Test of the attribute accessors using method handles.");
+    }
+
+    public void setup() {
+        if (!MethodHandleAccessorFactory.shouldUseMethodHandles()) {
+            throw new TestWarningException("Method handles are not used with a security manager.");
+        }
+        this.nameAccessor = new InstanceVariableAttributeAccessor();
+        this.nameAccessor.setAttributeName("name");
+        this.nameAccessor.initializeAttributes(Person.class);
+        this.ageAccessor = new InstanceVariableAttributeAccessor();
+        this.ageAccessor.setAttributeName("age");
+        this.ageAccessor.initializeAttributes(Person.class);
+        this.salaryAccessor = new MethodAttributeAccessor();
+        this.salaryAccessor.setAttributeName("salary");
+        this.salaryAccessor.setGetMethodName("getSalary");
+        this.salaryAccessor.setSetMethodName("setSalary");
+        this.salaryAccessor.initializeAttributes(Person.class);
+        this.failingAccessor = new MethodAttributeAccessor();
+        this.failingAccessor.setAttributeName("failing");
+        this.failingAccessor.setGetMethodName("getFailing");
+        this.failingAccessor.setSetMethodName("setFailing");
+        this.failingAccessor.initializeAttributes(Person.class);
+    }
+
+    public void test() {
+        Person person = new Person();
+        this.nameAccessor.setAttributeValueInObject(person, "Bob");
+        this.ageAccessor.setAttributeValueInObject(person, Integer.valueOf(42));
+        this.salaryAccessor.setAttributeValueInObject(person, Long.valueOf(1000));
+        if (!"Bob".equals(this.nameAccessor.getAttributeValueFromObject(person))
+                || !Integer.valueOf(42).equals(this.ageAccessor.getAttributeValueFromObject(person))
+                || !Long.valueOf(1000).equals(this.salaryAccessor.getAttributeValueFromObject(person))) {
+            throw new TestErrorException("The attribute values were not set and got through the accessors.");
+        }
+
+        // Values that cannot be passed by the handles go through reflection, null is ignored for a primitive.
+        this.ageAccessor.setAttributeValueInObject(person, null);
+        this.salaryAccessor.setAttributeValueInObject(person, "2000");
+        if ((person.age != 42) || (person.salary != 2000)) {
+            throw new TestErrorException("The attribute values were not converted: " + person.age + ", " + person.salary);
+        }
+
+        // The set method must be invoked only once when it fails.
+        try {
+            this.failingAccessor.setAttributeValueInObject(person, "fail");
+            throw new TestErrorException("The exception of the set method was not thrown.");
+        } catch (DescriptorException expected) {
+            if (expected.getErrorCode() != DescriptorException.TARGET_INVOCATION_WHILE_SETTING_VALUE_THRU_METHOD_ACESSOR) {
+                throw expected;
+            }
+        }
+        if (person.failures != 1) {
+            throw new TestErrorException("The failing set method was invoked " + person.failures + " times.");
+        }
+
+        // An object of the wrong class is reported as through reflection.
+        try {
+            this.nameAccessor.getAttributeValueFromObject("not a person");
+            throw new TestErrorException("Getting the attribute from an object of the wrong class did not fail.");
+        } catch (DescriptorException expected) {
+            if (expected.getErrorCode() != DescriptorException.ILLEGAL_ARGUMENT_WHILE_GETTING_VALUE_THRU_INSTANCE_VARIABLE_ACCESSOR) {
+                throw expected;
+            }
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+        private long salary;
+        private int failures;
+
+        private long getSalary() {
+            return salary;
+        }
+
+        private Person setSalary(long salary) {
+            this.salary = salary;
+            return this;
+        }
+
+        public String getFailing() {
+            return null;
+        }
+
+        public void setFailing(String failing) {
+            failures++;
+            throw new IllegalStateException(failing);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.identitymaps;
+
+import java.math.BigDecimal;
+
+import org.eclipse.persistence.internal.identitymaps.ClockCacheIdentityMap;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test that the ClockCacheIdentityMap maintains its fixed size,
+ * and that objects accessed since the last sweep are given a second chance over unreferenced objects.
+ */
+public class ClockCacheIdentityMapTest extends TestCase {
+    public static final int CACHE_SIZE = 10;
+    protected ClockCacheIdentityMap map;
+
+    public ClockCacheIdentityMapTest() {
+        setDescription("Test the clock eviction of the ClockCacheIdentityMap.");
+    }
+
+    public void setup() {
+        map = new ClockCacheIdentityMap(CACHE_SIZE, null, null, false);
+    }
+
+    protected void put(int id) {
+        Employee employee = new Employee();
+        employee.setId(new BigDecimal(id));
+        map.put(employee.getId(), employee, null, 0);
+    }
+
+    public void test() {
+        // Removed keys are purged from the clock as it turns.
+        for (int index = 0; index < (CACHE_SIZE * 10); index++) {
+            put(1000 + index);
+            map.remove(new BigDecimal(1000 + index), null);
+        }
+        for (int index = 0; index < CACHE_SIZE; index++) {
+            put(index);
+        }
+        // Reference the first half, these should survive the next inserts.
+        for (int index = 0; index < (CACHE_SIZE / 2); index++) {
+            map.get(new BigDecimal(index));
+        }
+        for (int index = CACHE_SIZE; index < (CACHE_SIZE + (CACHE_SIZE / 2)); index++) {
+            put(index);
+        }
+    }
+
+    public void verify() {
+        if (map.getSize() != CACHE_SIZE) {
+            throw new TestErrorException("Cache size not maintained, expected: " + CACHE_SIZE + " found: " + map.getSize());
+        }
+        for (int index = 0; index < (CACHE_SIZE / 2); index++) {
+            if (map.get(new BigDecimal(index)) == null) {
+                throw new TestErrorException("Referenced object was evicted: " + index);
+            }
+        }
+        for (int index = CACHE_SIZE / 2; index < CACHE_SIZE; index++) {
+            if (map.get(new BigDecimal(index)) != null) {
+                throw new TestErrorException("Unreferenced object was not evicted: " + index);
+            }
+        }
+    }
+
+    public void reset() {
+        map = null;
+    }
+}
@@ -55,6 +55,7 @@ public void addTests() {
         addTest(getFullIdentityMapSuite());
         addTest(getNoIdentityMapSuite());
         addTest(getCacheIdentityMapSuite());
+        addTest(getClockCacheIdentityMapSuite());
         addTest(getSoftCacheWeakIdentityMapSuite());
         addTest(getHardCacheWeakIdentityMapSuite());
         addTest(getWeakIdentityMapSuite());
@@ -66,6 +67,8 @@ public void addTests() {
         // Bug 5840635
         addTest(new CleanupCacheKeyCorrectnessTest());
         addTest(new TriggerValueHoldersSelfReferencingOneToOneTest());
+        addTest(new OffHeapCacheTest());
+        addTest(new NonUniqueCacheIndexTest());
     }
 
     private TestSuite getCacheIdentityMapSuite() {
@@ -79,6 +82,17 @@ private TestSuite getCacheIdentityMapSuite() {
         return suite;
     }
 
+    private TestSuite getClockCacheIdentityMapSuite() {
+        TestSuite suite = new TestSuite();
+        suite.setName("Clock Cache IdentityMap Test Suite");
+        suite.setDescription("This suite tests the functionality of the ClockCacheIdentityMap");
+
+        addMultipleIdentityTests(suite, new ClockCacheIdentityMap(100, null, null, false));
+        suite.addTest(new SetWriteLockInIdentityMapTest(ClockCacheIdentityMap.class));
+        suite.addTest(new ClockCacheIdentityMapTest());
+        return suite;
+    }
+
     private TestSuite getFullIdentityMapSuite() {
         TestSuite suite = new TestSuite();
 
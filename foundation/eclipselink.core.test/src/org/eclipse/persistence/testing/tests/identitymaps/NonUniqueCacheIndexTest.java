@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.identitymaps;
+
+import java.util.*;
+
+import org.eclipse.persistence.descriptors.CacheIndex;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.*;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
+import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.queries.ReadObjectQuery;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test that check cache only queries use non-unique and sorted cache indexes,
+ * and return the same objects as conforming every object in the cache.
+ */
+public class NonUniqueCacheIndexTest extends AutoVerifyTestCase {
+    protected CacheIndex genderIndex;
+    protected CacheIndex salaryIndex;
+
+    public NonUniqueCacheIndexTest() {
+        setDescription("Test that in-memory queries use non-unique cache indexes.");
+    }
+
+    public void setup() {
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        genderIndex = new CacheIndex(new DatabaseField[] {((AbstractDirectMapping)descriptor.getMappingForAttributeName("gender")).getField()});
+        genderIndex.setIsUnique(false);
+        descriptor.getCachePolicy().addCacheIndex(genderIndex);
+        salaryIndex = new CacheIndex(new DatabaseField[] {((AbstractDirectMapping)descriptor.getMappingForAttributeName("salary")).getField()});
+        salaryIndex.setIsSorted(true);
+        descriptor.getCachePolicy().addCacheIndex(salaryIndex);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        beginTransaction();
+    }
+
+    public void test() {
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        List<Employee> employees = getSession().readAllObjects(Employee.class);
+        Employee employee = employees.get(0);
+
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Expression expression = builder.get("gender").equal(employee.getGender()).and(builder.get("salary").greaterThan(employee.getSalary() - 1));
+        if (descriptor.getCachePolicy().getPrimaryKeysByIndex(expression, null, descriptor, getAbstractSession()) == null) {
+            throw new TestErrorException("The non-unique cache indexes were not used for the query.");
+        }
+        compareResults(employees, expression);
+        compareResults(employees, builder.get("salary").lessThanEqual(employee.getSalary()).and(builder.get("salary").greaterThan(0)));
+        compareResults(employees, builder.get("salary").equal(employee.getSalary()).or(builder.get("gender").equal("Female")));
+
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        Employee clone = (Employee)uow.registerObject(employee);
+        clone.setSalary(employee.getSalary() + 1000000);
+        uow.commit();
+        Collection primaryKeys = getAbstractSession().getIdentityMapAccessorInstance().getPrimaryKeysByIndex(salaryIndex, new CacheId(new Object[] {employee.getSalary()}), descriptor);
+        if ((primaryKeys == null) || (primaryKeys.size() != 1)) {
+            throw new TestErrorException("The updated object was not re-indexed: " + primaryKeys);
+        }
+        compareResults(employees, builder.get("salary").greaterThanEqual(employee.getSalary()));
+
+        // A Long value of the int salary is converted to be looked up, a value that cannot be converted is conformed.
+        if (descriptor.getCachePolicy().getPrimaryKeysByIndex(builder.get("salary").equal(Long.valueOf(employee.getSalary())), null, descriptor, getAbstractSession()) == null) {
+            throw new TestErrorException("The non-unique cache index was not used for a Long value.");
+        }
+        ReadAllQuery query = new ReadAllQuery(Employee.class, builder.get("salary").equal(builder.getParameter("salary")));
+        query.addArgument("salary");
+        query.checkCacheOnly();
+        Vector arguments = new Vector();
+        arguments.add(Long.valueOf(employee.getSalary()));
+        List results = (List)getSession().executeQuery(query, arguments);
+        if (!results.contains(employee)) {
+            throw new TestErrorException("The object was not found by a Long parameter: " + results);
+        }
+        compareResults(employees, builder.get("salary").lessThan(employee.getSalary() + 0.5));
+
+        // An object read in the transaction is not in the cache, it is put into the cache when merged as the reference of the changed object.
+        Employee other = employees.get(employees.size() - 1);
+        getSession().getIdentityMapAccessor().removeFromIdentityMap(other);
+        uow = getSession().acquireUnitOfWork();
+        uow.beginEarlyTransaction();
+        clone = (Employee)uow.registerObject(employee);
+        ReadObjectQuery readQuery = new ReadObjectQuery(other);
+        Employee reference = (Employee)uow.executeQuery(readQuery);
+        clone.setManager(reference);
+        uow.commit();
+        Employee cached = (Employee)getSession().getIdentityMapAccessor().getFromIdentityMap(other);
+        if (cached == null) {
+            throw new TestErrorException("The referenced object was not merged into the cache.");
+        }
+        Object primaryKey = descriptor.getObjectBuilder().extractPrimaryKeyFromObject(cached, getAbstractSession());
+        primaryKeys = getAbstractSession().getIdentityMapAccessorInstance().getPrimaryKeysByIndex(salaryIndex, new CacheId(new Object[] {cached.getSalary()}), descriptor);
+        if ((primaryKeys == null) || !primaryKeys.contains(primaryKey)) {
+            throw new TestErrorException("The merged referenced object was not indexed: " + primaryKeys);
+        }
+        query = new ReadAllQuery(Employee.class, builder.get("salary").equal(cached.getSalary()));
+        query.checkCacheOnly();
+        results = (List)getSession().executeQuery(query);
+        if (!results.contains(cached)) {
+            throw new TestErrorException("The merged referenced object was not found by the cache index: " + results);
+        }
+    }
+
+    /**
+     * Compare the check cache only query results with the objects that conform.
+     */
+    protected void compareResults(List<Employee> employees, Expression expression) {
+        ReadAllQuery query = new ReadAllQuery(Employee.class, expression);
+        query.checkCacheOnly();
+        List results = (List)getSession().executeQuery(query);
+        int expected = 0;
+        for (Employee employee : employees) {
+            if (expression.doesConform(employee, getAbstractSession(), null, InMemoryQueryIndirectionPolicy.SHOULD_TRIGGER_INDIRECTION)) {
+                expected++;
+                if (!results.contains(employee)) {
+                    throw new TestErrorException("The conforming object was not returned by the cache index: " + employee + " for " + expression);
+                }
+            }
+        }
+        if (results.size() != expected) {
+            throw new TestErrorException("The cache index query returned " + results.size() + " objects, expected " + expected + " for " + expression);
+        }
+    }
+
+    public void reset() {
+        rollbackTransaction();
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        descriptor.getCachePolicy().getCacheIndexes().remove(genderIndex.getFields());
+        descriptor.getCachePolicy().getCacheIndexes().remove(salaryIndex.getFields());
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
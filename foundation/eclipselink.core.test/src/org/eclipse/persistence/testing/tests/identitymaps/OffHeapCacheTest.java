@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.identitymaps;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.expressions.ExpressionBuilder;
+import org.eclipse.persistence.internal.identitymaps.*;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test that an object evicted from the identity map is rebuilt from the off-heap tier of the cache,
+ * that the stored row is removed when the object is changed or invalidated,
+ * and that the off-heap tier is freed when its size is set to 0 or the identity map is initialized.
+ */
+public class OffHeapCacheTest extends AutoVerifyTestCase {
+    protected long originalSize;
+
+    public OffHeapCacheTest() {
+        setDescription("Test that an evicted object is rebuilt from the off-heap cache by primary key.");
+    }
+
+    public void setup() {
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        originalSize = descriptor.getCachePolicy().getOffHeapCacheSize();
+        descriptor.getCachePolicy().setOffHeapCacheSize(1024 * 1024);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        beginTransaction();
+    }
+
+    public void test() {
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        IdentityMapManager manager = getAbstractSession().getIdentityMapAccessorInstance().getIdentityMapManager();
+        OffHeapCache offHeapCache = manager.getOffHeapCache(descriptor);
+
+        Employee employee = (Employee)getSession().readObject(Employee.class);
+        Object primaryKey = descriptor.getObjectBuilder().extractPrimaryKeyFromObject(employee, getAbstractSession());
+        if (!offHeapCache.containsKey(primaryKey)) {
+            throw new TestErrorException("The row read from the database was not stored in the off-heap cache.");
+        }
+
+        // Evict the object from the identity map without removing the row.
+        manager.getIdentityMap(descriptor).remove(primaryKey, null);
+        long hits = offHeapCache.getHits();
+        ExpressionBuilder builder = new ExpressionBuilder();
+        Employee rebuilt = (Employee)getSession().readObject(Employee.class, builder.get("id").equal(employee.getId()));
+        if (offHeapCache.getHits() != hits + 1) {
+            throw new TestErrorException("The evicted object was not rebuilt from the off-heap cache.");
+        }
+        if ((rebuilt == employee) || !compareObjects(employee, rebuilt)) {
+            throw new TestErrorException("The object rebuilt from the off-heap cache does not match the original.");
+        }
+
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        Employee clone = (Employee)uow.readObject(rebuilt);
+        clone.setFirstName(clone.getFirstName() + "X");
+        uow.commit();
+        if (offHeapCache.containsKey(primaryKey)) {
+            throw new TestErrorException("The row was not removed from the off-heap cache on commit.");
+        }
+
+        getSession().refreshObject(rebuilt);
+        if (!offHeapCache.containsKey(primaryKey)) {
+            throw new TestErrorException("The refreshed row was not stored in the off-heap cache.");
+        }
+        getSession().getIdentityMapAccessor().invalidateObject(rebuilt);
+        if (offHeapCache.containsKey(primaryKey)) {
+            throw new TestErrorException("The row was not removed from the off-heap cache on invalidation.");
+        }
+
+        // The tier is removed and its buffers freed when its size is set to 0, or the identity map is initialized.
+        descriptor.getCachePolicy().setOffHeapCacheSize(0);
+        if ((manager.getOffHeapCache(descriptor) != null) || (offHeapCache.getAllocatedSize() != 0)) {
+            throw new TestErrorException("The off-heap cache was not removed when its size was set to 0.");
+        }
+        descriptor.getCachePolicy().setOffHeapCacheSize(1024 * 1024);
+        offHeapCache = manager.getOffHeapCache(descriptor);
+        getSession().refreshObject(rebuilt);
+        if (offHeapCache.getAllocatedSize() == 0) {
+            throw new TestErrorException("The refreshed row was not stored in a new off-heap cache.");
+        }
+        getSession().getIdentityMapAccessor().initializeIdentityMap(Employee.class);
+        if ((manager.getOffHeapCache(descriptor) == offHeapCache) || (offHeapCache.getAllocatedSize() != 0)) {
+            throw new TestErrorException("The off-heap cache was not removed when the identity map was initialized.");
+        }
+    }
+
+    public void reset() {
+        rollbackTransaction();
+        getSession().getDescriptor(Employee.class).getCachePolicy().setOffHeapCacheSize(originalSize);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.optimization.queryandsqlcounting.querycache;
+
+import java.util.*;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.sessions.UnitOfWork;
+
+/**
+ * Ensure a query cache that invalidates by primary key only invalidates the results containing a changed object,
+ * unless an attribute used in the selection criteria changes.
+ */
+public class QueryCacheInvalidateByPrimaryKeyTest extends QueryCacheParameterizedResultsTest {
+    protected int selectionChangedSQLStatementCount = 0;
+
+    public QueryCacheInvalidateByPrimaryKeyTest() {
+        setDescription("Ensure a query cache that invalidates by primary key only invalidates the affected results.");
+        expectedQuery2SQLStatementCount = 1;
+    }
+
+    public ReadAllQuery getReadAllQuery() {
+        ReadAllQuery testQuery = super.getReadAllQuery();
+        testQuery.getQueryResultsCachePolicy().setInvalidateByPrimaryKey(true);
+        return testQuery;
+    }
+
+    public void setup() {
+        getAbstractSession().beginTransaction();
+        super.setup();
+    }
+
+    /**
+     * Return the number of select statements executed.
+     */
+    protected int getSelectCount() {
+        int count = 0;
+        for (Object sql : tracker.getSqlStatements()) {
+            if (((String)sql).trim().toUpperCase().startsWith("SELECT")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public void test() {
+        // Change an object in the second results, only its results should be invalidated.
+        UnitOfWork uow = getSession().acquireUnitOfWork();
+        Employee employee = (Employee)uow.registerObject(((Vector)getSession().executeQuery(query, args2)).get(0));
+        employee.setSalary(employee.getSalary() + 1);
+        uow.commit();
+        int count = getSelectCount();
+        results1 = (Vector)getSession().executeQuery(query, args1);
+        query1SQLStatementCount = getSelectCount() - count;
+        count = getSelectCount();
+        results2 = (Vector)getSession().executeQuery(query, args2);
+        query2SQLStatementCount = getSelectCount() - count;
+
+        // Change the selection attribute of an object in neither results, all results should be invalidated.
+        Employee other = null;
+        for (Object object : getSession().readAllObjects(Employee.class)) {
+            String firstName = ((Employee)object).getFirstName();
+            if (!firstName.equals("Bob") && !firstName.equals("Jill")) {
+                other = (Employee)object;
+                break;
+            }
+        }
+        uow = getSession().acquireUnitOfWork();
+        employee = (Employee)uow.registerObject(other);
+        employee.setFirstName(employee.getFirstName() + "X");
+        uow.commit();
+        count = getSelectCount();
+        getSession().executeQuery(query, args1);
+        selectionChangedSQLStatementCount = getSelectCount() - count;
+    }
+
+    public void verify() {
+        super.verify();
+        if (selectionChangedSQLStatementCount != 1) {
+            throw new TestErrorException("The query cache was not invalidated when a selection attribute changed: " + selectionChangedSQLStatementCount);
+        }
+    }
+
+    public void reset() {
+        getAbstractSession().rollbackTransaction();
+        super.reset();
+    }
+}
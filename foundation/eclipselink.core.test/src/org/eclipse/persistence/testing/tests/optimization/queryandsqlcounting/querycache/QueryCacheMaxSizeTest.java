@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.optimization.queryandsqlcounting.querycache;
+
+/**
+ * Ensure the project's query results cache max size evicts the least recently used results of any query.
+ */
+public class QueryCacheMaxSizeTest extends QueryCacheParameterizedResultsTest {
+    protected int originalMaxSize = 0;
+
+    public QueryCacheMaxSizeTest() {
+        setDescription("Ensure the query results cache max size limits the total size of the cached results.");
+        expectedQuery1SQLStatementCount = 1;
+    }
+
+    public void setup() {
+        this.originalMaxSize = getSession().getProject().getQueryResultsCacheMaxSize();
+        getSession().getProject().setQueryResultsCacheMaxSize(1);
+        super.setup();
+    }
+
+    public void reset() {
+        super.reset();
+        getSession().getProject().setQueryResultsCacheMaxSize(this.originalMaxSize);
+    }
+}
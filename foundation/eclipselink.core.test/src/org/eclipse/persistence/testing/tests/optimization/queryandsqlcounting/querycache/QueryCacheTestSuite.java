@@ -30,6 +30,8 @@ public void addTests() {
         //addTest(new ReportQueryCacheTest());
         addTest(new QueryCacheParameterizedResultsTest());
         addTest(new QueryCacheMaxResultsTest());
+        addTest(new QueryCacheMaxSizeTest());
+        addTest(new QueryCacheInvalidateByPrimaryKeyTest());
         addTest(new QueryCacheChangedParameterTest());
         addTest(new ClearQueryResultsQueryCacheTest(ClearQueryResultsQueryCacheTest.CLEAR_WHOLE_CACHE));
         addTest(new ClearQueryResultsQueryCacheTest(ClearQueryResultsQueryCacheTest.CLEAR_CACHE_BY_QUERY));
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.Employee;
+
+/**
+ * Test streaming the objects of a cursored stream:
+ * all the objects are streamed, the objects consumed are released every page,
+ * and the cursor is closed with the stream.
+ */
+public class CursoredStreamStreamTest extends AutoVerifyTestCase {
+    protected static final int PAGE_SIZE = 2;
+
+    protected List normalQueryObjects;
+    protected List streamedObjects;
+    protected int maxPosition;
+    protected CursoredStream cursor;
+
+    public CursoredStreamStreamTest() {
+        setDescription("This test verifies that a stream on a cursored stream returns all the objects, and releases the objects consumed.");
+    }
+
+    public void setup() {
+        this.normalQueryObjects = getSession().readAllObjects(Employee.class);
+        this.streamedObjects = new ArrayList();
+        this.maxPosition = 0;
+    }
+
+    public void test() {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.useCursoredStream(PAGE_SIZE, PAGE_SIZE);
+        this.cursor = (CursoredStream)getSession().executeQuery(query);
+        Stream<Object> stream = this.cursor.stream();
+        try {
+            stream.forEach(object -> {
+                this.streamedObjects.add(object);
+                this.maxPosition = Math.max(this.maxPosition, this.cursor.getPosition());
+            });
+        } finally {
+            stream.close();
+        }
+    }
+
+    public void verify() {
+        if (this.normalQueryObjects.size() != this.streamedObjects.size()) {
+            throw new TestErrorException("The number of streamed objects does not match the number of objects read. Expected: "
+                    + this.normalQueryObjects.size() + ". Got: " + this.streamedObjects.size());
+        }
+        if (!this.streamedObjects.containsAll(this.normalQueryObjects)) {
+            throw new TestErrorException("The streamed objects do not match the objects read.");
+        }
+        if (this.maxPosition > PAGE_SIZE) {
+            throw new TestErrorException("The objects consumed were not released, position: " + this.maxPosition);
+        }
+        if (!this.cursor.isClosed()) {
+            throw new TestErrorException("The cursor was not closed with the stream.");
+        }
+    }
+}
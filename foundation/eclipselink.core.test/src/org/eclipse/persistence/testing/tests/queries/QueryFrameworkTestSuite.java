@@ -129,6 +129,7 @@ public void addSRGTests() {
         addTest(new CursoredStreamAnyOfTest());
         addTest(new CursoredStreamWithUnitOfWorkTest());
         addTest(new CursoredStreamDistinctTest());
+        addTest(new CursoredStreamStreamTest());
 
         //addTest(new CursoredStreamReleaseConnectionsTest(Employee.class, new org.eclipse.persistence.expressions.ExpressionBuilder().get("address").get("city").equal("Ottawa")));
         addTest(new CursoredStreamReleaseConnectionsTest(false));
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.tests.queries.optimization;
+
+import java.util.*;
+
+import org.eclipse.persistence.annotations.BatchFetchType;
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.mappings.ForeignReferenceMapping;
+import org.eclipse.persistence.queries.*;
+import org.eclipse.persistence.testing.framework.*;
+import org.eclipse.persistence.testing.models.employee.domain.*;
+
+/**
+ * Test adaptive IN batch fetching.
+ * The IN lists must all be padded to the same size, so the same statement is used,
+ * and the batched relationships must be the same as without batching.
+ * A relationship batched adaptively by default must only pad its own IN list,
+ * not those of the other relationships batched by default.
+ */
+public class AdaptiveBatchReadingTest extends TestCase {
+    protected QuerySQLTracker tracker;
+    protected List<Employee> result;
+    protected ReadAllQuery defaultBatchQuery;
+    protected List<Employee> defaultBatchResult;
+    protected List<String> defaultBatchStatements;
+    protected int defaultBatchStatementsStart;
+    protected BatchFetchType phoneNumbersBatchFetchType;
+    protected boolean isPhoneNumbersBatchFetchAdaptive;
+    protected BatchFetchType managedEmployeesBatchFetchType;
+    protected boolean hasInBatchFetchedAttribute;
+
+    public AdaptiveBatchReadingTest() {
+        setDescription("Tests adaptive IN batch reading pads the IN list to reuse the statement.");
+    }
+
+    public void setup() {
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        ForeignReferenceMapping phoneNumbersMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("phoneNumbers");
+        ForeignReferenceMapping managedEmployeesMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("managedEmployees");
+        this.phoneNumbersBatchFetchType = phoneNumbersMapping.getBatchFetchType();
+        this.isPhoneNumbersBatchFetchAdaptive = phoneNumbersMapping.isBatchFetchAdaptive();
+        this.managedEmployeesBatchFetchType = managedEmployeesMapping.getBatchFetchType();
+        this.hasInBatchFetchedAttribute = descriptor.getObjectBuilder().hasInBatchFetchedAttribute();
+        this.tracker = new QuerySQLTracker(getSession());
+    }
+
+    public void test() {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        query.setBatchFetchType(BatchFetchType.IN);
+        // Not an adaptive size, so the last partial batch is padded to it.
+        query.setBatchFetchSize(7);
+        query.setBatchFetchAdaptive(true);
+        query.addBatchReadAttribute("phoneNumbers");
+        this.result = (List<Employee>)getSession().executeQuery(query);
+        for (Employee employee : this.result) {
+            employee.getPhoneNumbers().size();
+        }
+
+        // Batch both relationships by default, only the phone numbers adaptively.
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        ForeignReferenceMapping phoneNumbersMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("phoneNumbers");
+        ForeignReferenceMapping managedEmployeesMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("managedEmployees");
+        phoneNumbersMapping.setBatchFetchType(BatchFetchType.IN);
+        phoneNumbersMapping.setBatchFetchAdaptive(true);
+        managedEmployeesMapping.setBatchFetchType(BatchFetchType.IN);
+        descriptor.getObjectBuilder().initializeBatchFetchedAttributes();
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        this.defaultBatchStatementsStart = this.tracker.getSqlStatements().size();
+        this.defaultBatchQuery = new ReadAllQuery(Employee.class);
+        this.defaultBatchResult = (List<Employee>)getSession().executeQuery(this.defaultBatchQuery);
+        for (Employee employee : this.defaultBatchResult) {
+            employee.getPhoneNumbers().size();
+            employee.getManagedEmployees().size();
+        }
+        List statements = this.tracker.getSqlStatements();
+        this.defaultBatchStatements = new ArrayList<String>(statements.subList(this.defaultBatchStatementsStart, statements.size()));
+    }
+
+    public void verify() {
+        int inSize = -1;
+        for (Object statement : this.tracker.getSqlStatements().subList(0, this.defaultBatchStatementsStart)) {
+            int size = getPhoneInSize((String)statement);
+            if (size == -1) {
+                continue;
+            }
+            if (inSize == -1) {
+                inSize = size;
+            } else if (inSize != size) {
+                throw new TestErrorException("IN list was not padded, sizes " + inSize + " and " + size + " were used.");
+            }
+        }
+        if ((this.result.size() > 1) && (inSize == -1)) {
+            throw new TestErrorException("No IN batch query was executed.");
+        }
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+        for (Employee employee : this.result) {
+            Employee databaseEmployee = (Employee)getSession().readObject(employee);
+            if (employee.getPhoneNumbers().size() != databaseEmployee.getPhoneNumbers().size()) {
+                throw new TestErrorException("Batched phone numbers " + employee.getPhoneNumbers()
+                        + " do not match " + databaseEmployee.getPhoneNumbers());
+            }
+        }
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        ForeignReferenceMapping phoneNumbersMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("phoneNumbers");
+        ForeignReferenceMapping managedEmployeesMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("managedEmployees");
+        if (phoneNumbersMapping.getBatchFetchRowsPerKey() <= 0) {
+            throw new TestErrorException("The rows read per key were not recorded.");
+        }
+
+        // The query batching by default must only have chosen the phone numbers to be adaptive.
+        BatchFetchPolicy policy = this.defaultBatchQuery.getBatchFetchPolicy();
+        if ((policy == null) || policy.isAdaptive() || !policy.isAdaptive(phoneNumbersMapping) || policy.isAdaptive(managedEmployeesMapping)) {
+            throw new TestErrorException("Adaptive batch fetching was not chosen for the adaptive mapping only: " + ((policy == null) ? null : policy.getAdaptiveMappings()));
+        }
+        int keys = this.defaultBatchResult.size();
+        int phoneBatches = 0;
+        int managedBatches = 0;
+        for (String statement : this.defaultBatchStatements) {
+            int phoneSize = getPhoneInSize(statement);
+            if (phoneSize != -1) {
+                phoneBatches++;
+                if (phoneSize != policy.computePaddedSize(keys, policy.getSize())) {
+                    throw new TestErrorException("The adaptive IN list of " + keys + " keys was not padded: " + phoneSize);
+                }
+            }
+            int managedSize = getInSize(statement, "MANAGER_ID IN (");
+            if (managedSize != -1) {
+                managedBatches++;
+                if (managedSize != keys) {
+                    throw new TestErrorException("The IN list of the mapping not batched adaptively was padded: " + managedSize);
+                }
+            }
+        }
+        if ((keys > 1) && ((phoneBatches != 1) || (managedBatches != 1))) {
+            throw new TestErrorException("Each relationship batched by default must be read in one IN batch, phone numbers: "
+                    + phoneBatches + " managed employees: " + managedBatches);
+        }
+    }
+
+    /**
+     * Return the size of the IN list of a phone number batch statement, or -1.
+     */
+    protected int getPhoneInSize(String sql) {
+        if (sql.indexOf("PHONE") == -1) {
+            return -1;
+        }
+        return getInSize(sql, " IN (");
+    }
+
+    /**
+     * Return the size of the IN list following the text in the statement, or -1.
+     */
+    protected int getInSize(String sql, String in) {
+        int start = sql.indexOf(in);
+        if (start == -1) {
+            return -1;
+        }
+        int end = sql.indexOf(')', start);
+        int size = 1;
+        for (int index = start; index < end; index++) {
+            if (sql.charAt(index) == ',') {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    public void reset() {
+        if (this.tracker != null) {
+            this.tracker.remove();
+            this.tracker = null;
+        }
+        ClassDescriptor descriptor = getSession().getDescriptor(Employee.class);
+        ForeignReferenceMapping phoneNumbersMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("phoneNumbers");
+        ForeignReferenceMapping managedEmployeesMapping = (ForeignReferenceMapping)descriptor.getMappingForAttributeName("managedEmployees");
+        phoneNumbersMapping.setBatchFetchType(this.phoneNumbersBatchFetchType);
+        phoneNumbersMapping.setBatchFetchAdaptive(this.isPhoneNumbersBatchFetchAdaptive);
+        managedEmployeesMapping.setBatchFetchType(this.managedEmployeesBatchFetchType);
+        descriptor.getObjectBuilder().initializeBatchFetchedAttributes();
+        descriptor.getObjectBuilder().setHasInBatchFetchedAttribute(this.hasInBatchFetchedAttribute);
+        getSession().getIdentityMapAccessor().initializeAllIdentityMaps();
+    }
+}
@@ -37,6 +37,7 @@ public void addBatchTests() {
         addBatchTests(BatchFetchType.JOIN);
         addBatchTests(BatchFetchType.EXISTS);
         addBatchTests(BatchFetchType.IN);
+        addTest(new AdaptiveBatchReadingTest());
     }
 
     public void addBatchTests(BatchFetchType batchType) {
@@ -46,4 +46,13 @@
      * The default size is 256, or the query's pageSize for cursor queries.
      */
     int size() default -1;
+
+    /**
+     * (Optional) Define if IN batch fetching should adapt its size.
+     * An adaptive batch fetch pads the IN list to a small set of sizes so its statements are reused,
+     * and reduces the number of keys in each IN clause if many rows are read per key.
+     * This is only used for IN type batch reading.
+     * The default is false.
+     */
+    boolean adaptive() default false;
 }
@@ -79,5 +79,17 @@ public enum CacheType {
      * This cache type should not be used to disable caching, to properly disable
      * caching set the @Cache isolation attribute to ISOLATED.
      */
-    NONE
+    NONE,
+
+    /**
+     * Similar to the CACHE identity map, it maintains a fixed number of objects
+     * specified by the application, but objects are removed from the cache on
+     * an approximate least-recently-used basis (clock, second chance).
+     * Cache hits do not acquire a lock, so this cache type scales better than
+     * CACHE when many threads read the same class concurrently.
+     * WARNING: Furnishes caching and identity, but does not guarantee
+     * identity.  This cache type should normally only be used for objects
+     * that have no relationships to them.
+     */
+    CLOCK
 }
@@ -31,6 +31,8 @@
  * <li>JDBC - JDBC batch API's are used (dynamic, or parameterized).
  * <li>Bufferred - dynamic SQL is concatenated into a batch SQL string.
  * <li>Oracle-JDBC - Oracle JDBC batch API's are used (allows row count to be returned for optimistic locking).
+ * <li>Multi-Row-Insert - JDBC batch API's are used, but batched inserts into the same table are written as a single
+ * multi-row INSERT statement, on databases that support it.
  * <li>&lt;custom-class&gt; - A custom class that extends the BatchWritingMechanism class.
  * </ul>
  * @see BatchWritingMechanism
@@ -40,6 +42,7 @@ public class BatchWriting {
     public static final String  JDBC = "JDBC";
     public static final String  Buffered = "Buffered";
     public static final String  OracleJDBC = "Oracle-JDBC";
+    public static final String  MultiRowInsert = "Multi-Row-Insert";
 
     public static final String DEFAULT = None;
 }
@@ -64,6 +64,7 @@
 import org.eclipse.persistence.descriptors.partitioning.PartitioningPolicy;
 import org.eclipse.persistence.exceptions.ExceptionHandler;
 import org.eclipse.persistence.internal.databaseaccess.BatchWritingMechanism;
+import org.eclipse.persistence.internal.helper.ConcurrencyManager;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.sessions.remote.RemoteConnection;
 import org.eclipse.persistence.logging.DefaultSessionLog;
@@ -85,6 +86,7 @@
 import org.eclipse.persistence.sessions.factories.SessionManager;
 import org.eclipse.persistence.sessions.remote.RemoteSession;
 import org.eclipse.persistence.sessions.serializers.Serializer;
+import org.eclipse.persistence.tools.profiler.HistogramMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceProfiler;
 import org.eclipse.persistence.tools.profiler.QueryMonitor;
@@ -284,6 +286,24 @@ public class PersistenceUnitProperties {
      */
     public static final String JPQL_VALIDATION = "eclipselink.jpql.validation";
 
+    /**
+     * The "<code>eclipselink.jpql.parse-cache-size</code>" property configures the
+     * maximum number of dynamic JPQL queries whose parsed query is cached by the session.
+     * When the size is exceeded the least recently used queries are evicted,
+     * and must be parsed again when next used.
+     * The cache hits, misses and evictions can be obtained from the session's project JPQL parse cache.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>a string containing a zero or greater integer value, 0 disables the cache.
+     * </ul>
+     * <p>
+     * Default: 200.
+     *
+     * @see org.eclipse.persistence.sessions.Project#setJPQLParseCacheMaxSize(int)
+     */
+    public static final String JPQL_PARSE_CACHE_SIZE = "eclipselink.jpql.parse-cache-size";
+
     /**
      * The "<code>wait</code>" property.<br>
      * This can be append to any connection pool property,
@@ -386,6 +406,28 @@ public class PersistenceUnitProperties {
      */
     public static final String CONNECTION_POOL_SHARED = "shared";
 
+    /**
+     * The "<code>concurrent</code>" property.<br>
+     * This can be append to a connection pool property,
+     * i.e. "<code>eclipselink.connection-pool.read.concurrent</code>".<br>
+     * Configures whether the connection pool acquires and releases connections
+     * without synchronizing on the pool, serving waiting threads in FIFO order,
+     * and recording the acquire time, number of waits and saturation of the pool.
+     * A thread that waits longer than the pool's wait timeout gets an exception.
+     * <p>
+     * This property is ignored in case external connection pools or a shared read connection pool are used.
+     * <p>
+     * <b>Allowed Values</b> (String)<b>:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - indicates the pool synchronizes on acquire and release
+     * <li>"<code>true</code>" - indicates the pool does not synchronize on acquire and release
+     * </ul>
+     *
+     * @see #CONNECTION_POOL
+     * @see org.eclipse.persistence.sessions.server.ConcurrentConnectionPool
+     */
+    public static final String CONNECTION_POOL_CONCURRENT = "concurrent";
+
     /**
      * The "<code>url</code>" property.<br>
      * This can be append to a connection pool property,
@@ -471,6 +513,7 @@ public class PersistenceUnitProperties {
      * <li> "<code>wait</code>" - amount of time to wait for a connection from the pool.
      * <li> "<code>url</code>" - JDBC URL for the connection.
      * <li> "<code>shared</code>" - only for the read connection pool, shares read connections across threads.
+     * <li> "<code>concurrent</code>" - acquires and releases connections without synchronizing on the pool.
      * <li> "<code>jtaDataSource</code>" - JTA DataSource name to use for the connection, if different than the default.
      * <li> "<code>nonJtaDataSource</code>" - non JTA DataSource name to use for the connection, if different than the default.
      * <li> "<code>user</code>" - user to use for the connection, if different than the default.
@@ -1181,6 +1224,26 @@ public class PersistenceUnitProperties {
      */
     public static final String CACHE_SIZE_ = "eclipselink.cache.size.";
 
+    /**
+     * Property prefix "<code>eclipselink.cache.off-heap-size.</code>" is used to specify the size in bytes
+     * of the off-heap tier of the cache for a specific entity type. The prefix must be followed by a valid entity type name.
+     * <p>
+     * Property names formed out of these prefixes by appending either entity
+     * name, or class name (indicating that the property values applies only to
+     * a particular entity) or {@link #DEFAULT} suffix (indicating that the property
+     * value applies to all entities).
+     * <p>
+     * The rows read for the entities are stored outside of the Java heap by primary key,
+     * so an entity that is no longer in the cache can be found by its Id without accessing the database.
+     * This allows a small cache to be used while caching a large number of entities.
+     * Only the size of the root entity of an inheritance hierarchy is used.
+     * The tier is not used with cache expiry.
+     * The default is 0, no off-heap tier is used.
+     *
+     * @see org.eclipse.persistence.descriptors.CachePolicy#setOffHeapCacheSize(long)
+     */
+    public static final String CACHE_OFF_HEAP_SIZE_ = "eclipselink.cache.off-heap-size.";
+
     /**
      * Property prefix "<code>eclipselink.cache.type.</code>" sets the type of cache
      * for a specific entity type. The prefix must be followed by a valid entity type name.
@@ -1347,6 +1410,30 @@ public class PersistenceUnitProperties {
      */
     public static final String CACHE_SHARED_DEFAULT = CACHE_SHARED_ + DEFAULT;
 
+    /**
+     * The "<code>eclipselink.cache.queued-locks</code>" property configures how
+     * the locks of the cache keys are implemented.
+     * By default a cache key is locked using its monitor, and waiting threads
+     * wait on the monitor. Queued locks use a java.util.concurrent synchronizer instead,
+     * waiting threads are parked, which does not pin virtual threads,
+     * and the release of the last reader of a cache key only wakes the waiting writers.
+     * The locking semantics, including deferred locks, are the same.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>false</code>" (DEFAULT) - cache keys are locked using their monitor
+     * <li>"<code>true</code>" - cache keys are locked using a queued synchronizer
+     * </ul>
+     * <p>
+     * Caution: This property configures the static singleton on
+     * {@link ConcurrencyManager#setShouldUseQueuedLocks(boolean)}
+     * which will be shared by all concurrent uses of EclipseLink.
+     * It can also be set as a system property.
+     *
+     * @see SystemProperties#CACHE_QUEUED_LOCKS
+     */
+    public static final String CACHE_QUEUED_LOCKS = "eclipselink.cache.queued-locks";
+
     /**
      * Property prefix "<code>eclipselink.cache.query-results</code>" used to
      * configure the default option for query results caching.
@@ -1365,6 +1452,23 @@ public class PersistenceUnitProperties {
      */
     public static final String QUERY_CACHE = "eclipselink.cache.query-results";
 
+    /**
+     * The "<code>eclipselink.cache.query-results.max-size</code>" property configures the
+     * maximum number of result objects held across all query results caches.
+     * Each cached result counts as the number of objects or rows it contains.
+     * When the size is exceeded the least recently used results of any query are evicted.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>a string containing a zero or greater integer value, 0 means no limit.
+     * </ul>
+     * <p>
+     * Default: 0.
+     *
+     * @see org.eclipse.persistence.sessions.Project#setQueryResultsCacheMaxSize(int)
+     */
+    public static final String QUERY_CACHE_MAX_SIZE = "eclipselink.cache.query-results.max-size";
+
     /**
      * The "<code>eclipselink.cache.database-event-listener</code>" property allows integration
      * with a database event notification service.
@@ -2222,6 +2326,25 @@ public class PersistenceUnitProperties {
      */
     public static final String SEQUENCING_SEQUENCE_DEFAULT = "eclipselink.sequencing.default-sequence-to-table";
 
+    /**
+     * The "<code>eclipselink.sequencing.prefetch-threshold</code>" property
+     * configures when the next preallocated sequence values are allocated in the background,
+     * as a percentage of the sequence allocation size.
+     * When fewer preallocated values remain than the threshold, the next values are allocated in the background,
+     * so inserting threads do not wait while the values are allocated.
+     * This is only used for sequences using a sequence connection pool, or native sequences.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>"<code>0</code>" - (DEFAULT) values are allocated when they run out
+     * <li>a percentage, i.e. "<code>25</code>"
+     * </ul>
+     *
+     * @see #JDBC_SEQUENCE_CONNECTION_POOL
+     * @see org.eclipse.persistence.sequencing.SequencingControl#setPrefetchThreshold(int)
+     */
+    public static final String SEQUENCING_PREFETCH_THRESHOLD = "eclipselink.sequencing.prefetch-threshold";
+
     /**
      * The "<code>eclipselink.session.customizer</code>" property configures a
      * {@link SessionCustomizer} used to alter the runtime configuration through
@@ -2311,6 +2434,8 @@ public class PersistenceUnitProperties {
      * batch writing.
      * <li>"<code>Oracle-JDBC</code>" - use Oracle's native batch writing. This requires the
      * use of an Oracle JDBC driver.
+     * <li>"<code>Multi-Row-Insert</code>" - use JDBC batch writing, but write the batched
+     * inserts into the same table as a single multi-row INSERT statement, on databases that support it.
      * <li>"<code>None</code>" (DEFAULT): do not use batch writing (turn it off).
      * <li>the fully qualified name for a class that extends {@link BatchWritingMechanism} abstract class
      * </ul>
@@ -2941,6 +3066,7 @@ public class PersistenceUnitProperties {
      * <ul>
      * <li>"<code>NoProfiler</code>" (DEFAULT)
      * <li>"<code>PerformanceMonitor</code>" - use {@link PerformanceMonitor}
+     * <li>"<code>HistogramMonitor</code>" - use {@link HistogramMonitor}, registered as a JMX MBean
      * <li>"<code>PerformanceProfiler</code>" - use {@link PerformanceProfiler}
      * <li>"<code>QueryMonitor</code>" - use {@link QueryMonitor}
      * <li>"<code>DMSProfiler</code>" - use {@link org.eclipse.persistence.tools.profiler.oracle.DMSPerformanceProfiler}
@@ -3070,6 +3196,38 @@ public class PersistenceUnitProperties {
      */
     public static final String QUERY_TIMEOUT_UNIT = "eclipselink.query.timeout.unit";
 
+    /**
+     * The "<code>eclipselink.query.async.pool-size</code>" property configures
+     * the number of threads used to execute asynchronous queries, such as
+     * JpaQuery.getResultListAsync(). The pool is created on the first asynchronous
+     * query and is shut down when the EntityManagerFactory is closed.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>a string containing a greater than zero integer value,
+     * the default is twice the number of available processors
+     * </ul>
+     * @see #QUERY_ASYNC_EXECUTOR
+     * @see org.eclipse.persistence.jpa.JpaQuery#getResultListAsync()
+     */
+    public static final String QUERY_ASYNC_POOL_SIZE = "eclipselink.query.async.pool-size";
+
+    /**
+     * The "<code>eclipselink.query.async.executor</code>" property configures
+     * the java.util.concurrent.Executor used to execute asynchronous queries,
+     * instead of the default thread pool. This allows a container managed executor,
+     * or a virtual thread per task executor, to be used.
+     * The executor is not shut down by EclipseLink.
+     * <p>
+     * <b>Allowed Values:</b>
+     * <ul>
+     * <li>an instance of java.util.concurrent.Executor
+     * <li>the fully qualified name of a class implementing java.util.concurrent.Executor with a default constructor
+     * </ul>
+     * @see #QUERY_ASYNC_POOL_SIZE
+     */
+    public static final String QUERY_ASYNC_EXECUTOR = "eclipselink.query.async.executor";
+
     /**
      * The "<code>eclipselink.persistence-context.close-on-commit</code>"
      * property specifies that the EntityManager will be closed or not used
@@ -3456,12 +3614,57 @@ public class PersistenceUnitProperties {
      */
     public static final String COORDINATION_THREAD_POOL_SIZE = "eclipselink.cache.coordination.thread.pool.size";
 
+    /**
+     * The "<code>eclipselink.cache.coordination.batch-window</code>"
+     * property configures the time in milliseconds cache coordination changes are buffered before they are sent.
+     * <p>
+     * The changes committed within the window are coalesced, so the changes to the same object only send
+     * its latest state, and sent as one message.
+     * This reduces the number of messages when there are many small commits,
+     * but delays the propagation of the changes by up to the window.
+     * <p>
+     * The default is 0, each commit's changes are sent when committed.
+     *
+     * @see #COORDINATION_BATCH_SIZE
+     * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setCommandBatchWindow(long)
+     */
+    public static final String COORDINATION_BATCH_WINDOW = "eclipselink.cache.coordination.batch-window";
+
+    /**
+     * The "<code>eclipselink.cache.coordination.batch-size</code>"
+     * property configures the maximum number of commits' changes batched in one cache coordination message,
+     * the batch is sent when full even if the batch window has not expired.
+     * <p>
+     * The default is 100, this is only used if a batch window is set.
+     *
+     * @see #COORDINATION_BATCH_WINDOW
+     * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setCommandBatchSize(int)
+     */
+    public static final String COORDINATION_BATCH_SIZE = "eclipselink.cache.coordination.batch-size";
+
+    /**
+     * The "<code>eclipselink.cache.coordination.parallel-merge-threshold</code>"
+     * property configures the number of object changes a received cache coordination change set
+     * must have to be merged into the cache in parallel.
+     * <p>
+     * The changes to independent objects are partitioned and merged by a fork-join pool,
+     * this reduces the time a large commit from another server takes to merge.
+     * Smaller change sets are merged on the receiving thread.
+     * <p>
+     * The default is 0, change sets are never merged in parallel.
+     *
+     * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setParallelMergeThreshold(int)
+     */
+    public static final String COORDINATION_PARALLEL_MERGE_THRESHOLD = "eclipselink.cache.coordination.parallel-merge-threshold";
+
     /**
      * The "<code>eclipselink.cache.coordination.serializer</code>" property
      * configures how cache coordination serializes message sent between nodes.
      * <p>
      * By default Java serialization is used. Other serializer can be used for improved performance
      * or integration with other systems.
+     * The {@link org.eclipse.persistence.sessions.serializers.ChangeSetSerializer} provides a compact
+     * binary format for change sets, for nodes sharing the same persistence unit.
      * <p>
      * The full class name of the serializer class should be provided.
      *
@@ -24,12 +24,15 @@
  *
  * @see QueryMonitor
  * @see PerformanceProfiler
+ * @see org.eclipse.persistence.tools.profiler.HistogramMonitor
  */
 public class ProfilerType {
     //A tool used to provide high level performance profiling information
     public static final String PerformanceProfiler = "PerformanceProfiler";
     public static final String QueryMonitor = "QueryMonitor";
     public static final String PerformanceMonitor = "PerformanceMonitor";
+    //Records the distribution (p50, p99, max) of operation times, and registers them as a JMX MBean
+    public static final String HistogramMonitor = "HistogramMonitor";
     public static final String DMSProfiler = "DMSProfiler";
     public static final String NoProfiler = "NoProfiler";
 
@@ -159,6 +159,17 @@ public class QueryHints {
      */
     public static final String QUERY_RESULTS_CACHE_INVALIDATE = "eclipselink.query-results-cache.invalidate-on-change";
 
+    /**
+     * "eclipselink.query-results-cache.invalidate-by-primary-key"
+     * <p>Configures if a change should only invalidate the query cache results that contain the changed object,
+     * instead of all of the query's cached results.
+     * Inserts, and updates of attributes used in the query's selection criteria, still invalidate all of the results.
+     *
+     * Valid values are "true" and "false", false is the default.
+     * @see org.eclipse.persistence.queries.QueryResultsCachePolicy#setInvalidateByPrimaryKey(boolean)
+     */
+    public static final String QUERY_RESULTS_CACHE_INVALIDATE_BY_PRIMARY_KEY = "eclipselink.query-results-cache.invalidate-by-primary-key";
+
     /**
      * "eclipselink.query-results-cache.type"
      * <p>Configures the cache type of the query's results cache.
@@ -299,6 +310,20 @@ public class QueryHints {
      */
     public static final String BATCH_SIZE = "eclipselink.batch.size";
 
+    /**
+     * "eclipselink.batch.adaptive"
+     * <p>Configures batch fetching using the IN batch type to adapt its size.
+     * The IN list is padded to a small set of sizes so the same statements are reused,
+     * and the number of keys in each IN clause is reduced if many rows are read per key.
+     * The batch size remains the maximum, and is also limited by the database platform.
+     * Valid values are "true" and "false" (default).
+     * @see #BATCH_SIZE
+     * @see #BATCH_TYPE
+     * @see BatchFetch
+     * @see org.eclipse.persistence.queries.ObjectLevelReadQuery#setBatchFetchAdaptive(boolean)
+     */
+    public static final String BATCH_ADAPTIVE = "eclipselink.batch.adaptive";
+
     /**
      * "eclipselink.join-fetch"
      * <p>Configures the query to optimize the retrieval of the related objects,
@@ -570,6 +595,22 @@ public class QueryHints {
      */
     public static final String CURSOR_SIZE = "eclipselink.cursor.size-sql";
 
+    /**
+     * "eclipselink.cursor.detached"
+     * <p>Configures the query to return a CursoredStream that builds its objects directly from the database,
+     * without registering them in the persistence context, or putting them in the shared cache.
+     * Objects already read from the cursor are then only referenced by the application,
+     * so large results can be streamed, such as through JpaQuery getResultStream(), with a bounded memory use.
+     * Changes made to the objects will not be updated unless merged, object identity will not be maintained.
+     * Valid values are:  HintValues.FALSE, HintValues.TRUE,
+     * "" could be used instead of default value HintValues.FALSE
+     * @see #CURSOR
+     * @see #MAINTAIN_CACHE
+     * @see org.eclipse.persistence.jpa.JpaQuery#getResultStream()
+     * @see org.eclipse.persistence.queries.CursoredStream#stream()
+     */
+    public static final String CURSOR_DETACHED = "eclipselink.cursor.detached";
+
     /**
      * "eclipselink.cursor.scrollable"
      * <p>Configures the query to return a ScrollableCursor.
@@ -59,6 +59,17 @@ public class SystemProperties {
      */
     public static final String RECORD_STACK_ON_LOCK = "eclipselink.cache.record-stack-on-lock";
 
+    /**
+     * This property can be set to "true" to guard the cache locks with a java.util.concurrent queued
+     * synchronizer instead of their monitor. Threads waiting on a cache lock are then parked instead of
+     * waiting on the monitor, so waiting virtual threads do not pin their carrier thread, and the release
+     * of the last reader of a cache key only wakes the threads waiting to write it.
+     *
+     * This can also be set through the persistence unit property of the same name,
+     * or in code statically through ConcurrencyManager.setShouldUseQueuedLocks(true)
+     */
+    public static final String CACHE_QUEUED_LOCKS = "eclipselink.cache.queued-locks";
+
     /**
      * This property can be set to disable processing of X-Many relationship
      * attributes for Query By Example objects. In previous versions of
@@ -67,6 +78,15 @@ public class SystemProperties {
      */
     public static final String DO_NOT_PROCESS_XTOMANY_FOR_QBE = "eclipselink.query.query-by-example.ignore-xtomany";
 
+    /**
+     * This property can be set to "false" to access the attributes of classes that are not weaved
+     * through reflection instead of method handles. By default the field and method attribute accessors
+     * unreflect their field or methods into method handles when initialized, unless a security manager is used.
+     *
+     * This can also be set in code statically through MethodHandleAccessorFactory.setShouldUseMethodHandles(false)
+     */
+    public static final String REFLECTION_METHOD_HANDLES = "eclipselink.reflection.method-handles";
+
     /**
      * This system property can be set to override target server platform set by the Java EE container
      * with the one either set in persistence.xml or auto detected.
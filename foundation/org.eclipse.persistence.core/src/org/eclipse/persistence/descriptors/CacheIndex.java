@@ -28,6 +28,8 @@
 public class CacheIndex implements Cloneable, Serializable {
     protected boolean isUpdateable = true;
     protected boolean isInsertable = true;
+    protected boolean isUnique = true;
+    protected boolean isSorted = false;
 
     protected List<DatabaseField> fields;
     /** Allows the cache size to be set. */
@@ -93,6 +95,47 @@ public void setIsInsertable(boolean isInsertable) {
         this.isInsertable = isInsertable;
     }
 
+    /**
+     * Return if the index values are unique.
+     */
+    public boolean isUnique() {
+        return isUnique;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the index values are unique.
+     * A unique index allows cache hits for read object queries on the index fields (default).
+     * A non-unique index allows in-memory queries (check cache only, or conforming) that compare
+     * the index fields to constants or parameters to lookup the objects in the index,
+     * instead of checking every object in the cache.
+     * A non-unique index can only be defined on fields mapped by direct mappings.
+     */
+    public void setIsUnique(boolean isUnique) {
+        this.isUnique = isUnique;
+    }
+
+    /**
+     * Return if the index is sorted, to allow range lookups.
+     */
+    public boolean isSorted() {
+        return isSorted;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if the index is sorted.
+     * A sorted index is a non-unique index on a single field with comparable values,
+     * that allows in-memory queries using =, <, <=, >, >= on the field to lookup the objects in the index.
+     * Setting the index to sorted sets it to non-unique.
+     */
+    public void setIsSorted(boolean isSorted) {
+        this.isSorted = isSorted;
+        if (isSorted) {
+            this.isUnique = false;
+        }
+    }
+
     /**
      * ADVANCED:
      * Return the type of the cache used for the index.
@@ -16,6 +16,8 @@
 
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -25,10 +27,13 @@
 
 import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.expressions.Expression;
+import org.eclipse.persistence.expressions.ExpressionOperator;
 import org.eclipse.persistence.annotations.CacheCoordinationType;
 import org.eclipse.persistence.annotations.CacheKeyType;
 import org.eclipse.persistence.annotations.DatabaseChangeNotificationType;
 import org.eclipse.persistence.config.CacheIsolationType;
+import org.eclipse.persistence.internal.expressions.LogicalExpression;
+import org.eclipse.persistence.internal.expressions.RelationExpression;
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.DatabaseField;
 import org.eclipse.persistence.internal.identitymaps.CacheId;
@@ -57,6 +62,8 @@
 public class CachePolicy implements Cloneable, Serializable {
     protected Class identityMapClass;
     protected int identityMapSize;
+    /** Size in bytes of the off-heap tier of the shared cache, 0 if not used. */
+    protected long offHeapCacheSize;
     protected boolean shouldAlwaysRefreshCache;
     protected boolean shouldOnlyRefreshCacheIfNewerVersion;
     protected boolean shouldDisableCacheHits;
@@ -788,6 +795,29 @@ public void setIdentityMapSize(int identityMapSize) {
         this.identityMapSize = identityMapSize;
     }
 
+    /**
+     * PUBLIC:
+     * Return the size in bytes of the off-heap tier of the shared cache.
+     */
+    public long getOffHeapCacheSize() {
+        return offHeapCacheSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the size in bytes of the off-heap tier of the shared cache.
+     * The rows read for objects are stored in direct buffers outside of the Java heap, by primary key.
+     * When an object is no longer in the identity map, such as a weak or soft reference that was garbage collected,
+     * a find by primary key rebuilds the object from the stored row without accessing the database.
+     * Rows are removed when the object is changed, deleted or invalidated, and the oldest rows are evicted when the size is exceeded.
+     * This allows a small identity map to be used while caching a large number of objects.
+     * Only the root descriptor's size is used, as the tier is shared by its inheritance hierarchy.
+     * The default is 0, the tier is not used. Setting the size to 0 removes the tier and frees its buffers.
+     */
+    public void setOffHeapCacheSize(long offHeapCacheSize) {
+        this.offHeapCacheSize = offHeapCacheSize;
+    }
+
     /**
      * OBSOLETE:
      * Set the type of cache coordination that will be used on objects of this type.  Possible values
@@ -896,7 +926,12 @@ public void indexObjectInCache(CacheKey cacheKey, AbstractRecord databaseRow, Ob
                 int size = fields.size();
                 Object[] values = new Object[size];
                 for (int count = 0; count < size; count++) {
-                    values[count] = databaseRow.get(fields.get(count));
+                    if (index.isUnique()) {
+                        values[count] = databaseRow.get(fields.get(count));
+                    } else {
+                        // Non-unique index values are compared with query values, so are the object's converted values.
+                        values[count] = descriptor.getObjectBuilder().extractValueFromObjectForField(domainObject, fields.get(count), session);
+                    }
                 }
                 CacheId indexValues = new CacheId(values);
                 session.getIdentityMapAccessorInstance().putCacheKeyByIndex(index, indexValues, cacheKey, descriptor);
@@ -974,6 +1009,9 @@ public CacheKey checkCacheByIndex(Expression expression, AbstractRecord translat
             return null;
         }
         for (CacheIndex index : this.cacheIndexes.values()) {
+            if (!index.isUnique()) {
+                continue;
+            }
             List<DatabaseField> fields = index.getFields();
             int size = fields.size();
             Object[] values = new Object[size];
@@ -1002,6 +1040,9 @@ public boolean isIndexableExpression(Expression expression, ClassDescriptor desc
             return false;
         }
         for (CacheIndex index : this.cacheIndexes.values()) {
+            if (!index.isUnique()) {
+                continue;
+            }
             List<DatabaseField> searchFields = index.getFields();
             int size = searchFields.size();
             Set<DatabaseField> foundFields = new HashSet(size);
@@ -1013,6 +1054,141 @@ public boolean isIndexableExpression(Expression expression, ClassDescriptor desc
         return false;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the descriptor has any non-unique cache indexes.
+     */
+    public boolean hasNonUniqueCacheIndexes() {
+        if (!hasCacheIndexes()) {
+            return false;
+        }
+        for (CacheIndex index : this.cacheIndexes.values()) {
+            if (!index.isUnique()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Index the object in the non-unique indexes using the object.
+     * This is used when an object is put into the cache directly, or merged from a clone, instead of being built or merged from its changes.
+     */
+    public void indexObjectInNonUniqueCacheIndexes(CacheKey cacheKey, Object object, ClassDescriptor descriptor, AbstractSession session) {
+        for (CacheIndex index : this.cacheIndexes.values()) {
+            if (!index.isUnique()) {
+                List<DatabaseField> fields = index.getFields();
+                int size = fields.size();
+                Object[] values = new Object[size];
+                for (int count = 0; count < size; count++) {
+                    values[count] = descriptor.getObjectBuilder().extractValueFromObjectForField(object, fields.get(count), session);
+                }
+                session.getIdentityMapAccessorInstance().putCacheKeyByIndex(index, new CacheId(values), cacheKey, descriptor);
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Lookup the primary keys of the objects that may conform to the expression in a non-unique cache index.
+     * The expression must be a conjunction including equality comparisons of all of the index's fields,
+     * or for a sorted index, an equality or range comparison of its field, to constants or parameters.
+     * The objects must still be conformed to the expression.
+     * Return null if no index can be used, and all of the objects in the cache must be conformed.
+     */
+    public Collection<Object> getPrimaryKeysByIndex(Expression expression, AbstractRecord translationRow, ClassDescriptor descriptor, AbstractSession session) {
+        if (!hasNonUniqueCacheIndexes()) {
+            return null;
+        }
+        List<Object[]> comparisons = new ArrayList<Object[]>();
+        extractIndexComparisons(expression, translationRow, descriptor, session, comparisons);
+        if (comparisons.isEmpty()) {
+            return null;
+        }
+        Collection<Object> primaryKeys = null;
+        for (CacheIndex index : this.cacheIndexes.values()) {
+            if (index.isUnique()) {
+                continue;
+            }
+            Collection<Object> indexPrimaryKeys = null;
+            if (index.isSorted()) {
+                DatabaseField field = index.getFields().get(0);
+                Object lowerValue = null;
+                boolean lowerInclusive = false;
+                Object upperValue = null;
+                boolean upperInclusive = false;
+                Object equalValue = null;
+                for (Object[] comparison : comparisons) {
+                    if (!field.equals(comparison[0])) {
+                        continue;
+                    }
+                    int selector = (Integer)comparison[1];
+                    if (selector == ExpressionOperator.Equal) {
+                        equalValue = comparison[2];
+                        break;
+                    } else if ((selector == ExpressionOperator.GreaterThan) || (selector == ExpressionOperator.GreaterThanEqual)) {
+                        lowerValue = comparison[2];
+                        lowerInclusive = selector == ExpressionOperator.GreaterThanEqual;
+                    } else {
+                        upperValue = comparison[2];
+                        upperInclusive = selector == ExpressionOperator.LessThanEqual;
+                    }
+                }
+                if (equalValue != null) {
+                    indexPrimaryKeys = session.getIdentityMapAccessorInstance().getPrimaryKeysByIndex(index, new CacheId(new Object[] {equalValue}), descriptor);
+                } else if ((lowerValue != null) || (upperValue != null)) {
+                    indexPrimaryKeys = session.getIdentityMapAccessorInstance().getPrimaryKeysByIndex(index, lowerValue, lowerInclusive, upperValue, upperInclusive, descriptor);
+                }
+            } else {
+                List<DatabaseField> fields = index.getFields();
+                int size = fields.size();
+                Object[] values = new Object[size];
+                for (int count = 0; count < size; count++) {
+                    DatabaseField field = fields.get(count);
+                    for (Object[] comparison : comparisons) {
+                        if (field.equals(comparison[0]) && (((Integer)comparison[1]) == ExpressionOperator.Equal)) {
+                            values[count] = comparison[2];
+                            break;
+                        }
+                    }
+                    if (values[count] == null) {
+                        values = null;
+                        break;
+                    }
+                }
+                if (values != null) {
+                    indexPrimaryKeys = session.getIdentityMapAccessorInstance().getPrimaryKeysByIndex(index, new CacheId(values), descriptor);
+                }
+            }
+            // Use the most selective index.
+            if ((indexPrimaryKeys != null) && ((primaryKeys == null) || (indexPrimaryKeys.size() < primaryKeys.size()))) {
+                primaryKeys = indexPrimaryKeys;
+            }
+        }
+        return primaryKeys;
+    }
+
+    /**
+     * INTERNAL:
+     * Add the field comparisons that all objects conforming to the expression must satisfy.
+     * Only the comparisons of a conjunction are required, any other expression is ignored.
+     */
+    protected void extractIndexComparisons(Expression expression, AbstractRecord translationRow, ClassDescriptor descriptor, AbstractSession session, List<Object[]> comparisons) {
+        if (expression.isLogicalExpression()) {
+            LogicalExpression logical = (LogicalExpression)expression;
+            if (logical.getOperator().getSelector() == ExpressionOperator.And) {
+                extractIndexComparisons(logical.getFirstChild(), translationRow, descriptor, session, comparisons);
+                extractIndexComparisons(logical.getSecondChild(), translationRow, descriptor, session, comparisons);
+            }
+        } else if (expression.isRelationExpression()) {
+            Object[] comparison = ((RelationExpression)expression).extractIndexValue(descriptor, translationRow, session);
+            if (comparison != null) {
+                comparisons.add(comparison);
+            }
+        }
+    }
+
     /**
      * PUBLIC:
      * Set the class of identity map to be the full identity map.
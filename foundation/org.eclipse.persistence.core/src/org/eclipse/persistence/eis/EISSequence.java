@@ -51,4 +51,9 @@ public boolean equals(Object obj) {
     public int hashCode() {
         return super.hashCode();
     }
+
+    @Override
+    protected boolean isRangeSupported() {
+        return getClass() == EISSequence.class;
+    }
 }
@@ -44,8 +44,9 @@
 import java.sql.Statement;
 import java.sql.Types;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Vector;
@@ -100,7 +101,11 @@ public class DatabaseAccessor extends DatasourceAccessor {
     /** PERF: Backdoor to disabling dynamic statements. Reverts to old prepared statement usage if set. */
     public static boolean shouldUseDynamicStatements = true;
 
-    /** Stores statement handles for common used prepared statements. */
+    /**
+     * Stores statement handles for common used prepared statements.
+     * Statements are removed while in use, and put back when released,
+     * so the insertion order is the release order, and the first statement is the least recently used.
+     */
     protected Map<String, Statement> statementCache;
 
     /** Cache of the connection's java.sql.DatabaseMetaData */
@@ -191,21 +196,26 @@ public LOBValueWriter getLOBWriter() {
      * Either return the cached dynamic statement, or a new statement.
      * This statement must be released after execution.
      */
-    public synchronized Statement allocateDynamicStatement(Connection connection) throws SQLException {
-        if (dynamicStatement == null) {
-            dynamicStatement = connection.createStatement();
-        }
-        if (isDynamicStatementInUse()) {
-            return connection.createStatement();
+    public Statement allocateDynamicStatement(Connection connection) throws SQLException {
+        this.accessorLock.lock();
+        try {
+            if (dynamicStatement == null) {
+                dynamicStatement = connection.createStatement();
+            }
+            if (isDynamicStatementInUse()) {
+                return connection.createStatement();
+            }
+            setIsDynamicStatementInUse(true);
+            return dynamicStatement;
+        } finally {
+            this.accessorLock.unlock();
         }
-        setIsDynamicStatementInUse(true);
-        return dynamicStatement;
     }
 
     /**
      * Return the cached statement for dynamic SQL execution is in use.
      * Used to handle concurrency for the dynamic statement, this
-     * method must only be called from within a synchronized method/block.
+     * method must only be called while holding the accessor's lock.
      */
     public boolean isDynamicStatementInUse() {
         return isDynamicStatementInUse;
@@ -227,8 +237,13 @@ public void setDatasourcePlatform(DatasourcePlatform platform) {
      * Set if the cached statement for dynamic SQL execution is in use.
      * Used to handle concurrency for the dynamic statement.
      */
-    public synchronized void setIsDynamicStatementInUse(boolean isDynamicStatementInUse) {
-        this.isDynamicStatementInUse = isDynamicStatementInUse;
+    public void setIsDynamicStatementInUse(boolean isDynamicStatementInUse) {
+        this.accessorLock.lock();
+        try {
+            this.isDynamicStatementInUse = isDynamicStatementInUse;
+        } finally {
+            this.accessorLock.unlock();
+        }
     }
 
     /**
@@ -745,7 +760,7 @@ public Object processResultSet(ResultSet resultSet, DatabaseCall call, Statement
                         // Bug 2804663 - LOBValueWriter is no longer a singleton
                         getLOBWriter().fetchLocatorAndWriteValue(call, resultSet);
                     } else {
-                        result = fetchRow(call.getFields(), call.getFieldsArray(), resultSet, metaData, session);
+                        result = fetchRow(call.getFields(), call.getFieldsArray(), call.getFieldsIndex(), resultSet, metaData, session);
                     }
                     if (resultSet.next()) {
                         // Raise more rows event, some apps may interpret as error or warning.
@@ -768,8 +783,11 @@ public Object processResultSet(ResultSet resultSet, DatabaseCall call, Statement
                             return buildThreadCursoredResult(call, resultSet, statement, metaData, session);
                         } else {
                             results = new Vector(16);
+                            Vector fields = call.getFields();
+                            DatabaseField[] fieldsArray = call.getFieldsArray();
+                            Map<DatabaseField, Integer> fieldsIndex = call.getFieldsIndex();
                             while (hasNext) {
-                                results.add(fetchRow(call.getFields(), call.getFieldsArray(), resultSet, metaData, session));
+                                results.add(fetchRow(fields, fieldsArray, fieldsIndex, resultSet, metaData, session));
                                 hasNext = resultSet.next();
                             }
                         }
@@ -824,8 +842,11 @@ public void run() {
                     try {
                         // Initial next was already validated before this method is called.
                         boolean hasNext = true;
+                        Vector fields = dbCall.getFields();
+                        DatabaseField[] fieldsArray = dbCall.getFieldsArray();
+                        Map<DatabaseField, Integer> fieldsIndex = dbCall.getFieldsIndex();
                         while (hasNext) {
-                            results.add(fetchRow(dbCall.getFields(), dbCall.getFieldsArray(), resultSet, metaData, session));
+                            results.add(fetchRow(fields, fieldsArray, fieldsIndex, resultSet, metaData, session));
                             hasNext = resultSet.next();
                         }
                         resultSet.close();// This must be closed in case the statement is cached and not closed.
@@ -1068,6 +1089,17 @@ protected AbstractRecord fetchRow(Vector fields, ResultSet resultSet, ResultSetM
      * PERF: This method must be highly optimized.
      */
     public AbstractRecord fetchRow(Vector fields, DatabaseField[] fieldsArray, ResultSet resultSet, ResultSetMetaData metaData, AbstractSession session) throws DatabaseException {
+        return fetchRow(fields, fieldsArray, null, resultSet, metaData, session);
+    }
+
+    /**
+     * Return a new DatabaseRow.<p>
+     * Populate the row from the data in cursor.
+     * The fields, fields array and fields index are shared by all the rows of the result set,
+     * only the values array is allocated per row.
+     * PERF: This method must be highly optimized.
+     */
+    public AbstractRecord fetchRow(Vector fields, DatabaseField[] fieldsArray, Map<DatabaseField, Integer> fieldsIndex, ResultSet resultSet, ResultSetMetaData metaData, AbstractSession session) throws DatabaseException {
         int size = fieldsArray.length;
         Object[] values = new Object[size];
         // PERF: Pass platform and optimize data flag.
@@ -1084,7 +1116,7 @@ public AbstractRecord fetchRow(Vector fields, DatabaseField[] fieldsArray, Resul
         }
 
         // Row creation is optimized through sharing the same fields for the entire result set.
-        return new ArrayRecord(fields, fieldsArray, values);
+        return new ArrayRecord(fields, fieldsArray, fieldsIndex, values);
     }
     public void populateRow(DatabaseField[] fieldsArray, Object[] values, ResultSet resultSet, ResultSetMetaData metaData, AbstractSession session, int startIndex, int endIndex) throws DatabaseException {
         // PERF: Pass platform and optimize data flag.
@@ -1418,13 +1450,19 @@ protected boolean hasStatementCache() {
     }
 
     /**
-     * The statement cache stores a fixed sized number of prepared statements.
+     * The statement cache stores a fixed sized number of prepared statements,
+     * the least recently used statement is evicted.
      */
-    protected synchronized Map<String, Statement> getStatementCache() {
-        if (statementCache == null) {
-            statementCache = new HashMap<String, Statement>(50);
+    protected Map<String, Statement> getStatementCache() {
+        this.accessorLock.lock();
+        try {
+            if (statementCache == null) {
+                statementCache = new LinkedHashMap<String, Statement>(50);
+            }
+            return statementCache;
+        } finally {
+            this.accessorLock.unlock();
         }
-        return statementCache;
     }
 
     /**
@@ -1530,12 +1568,17 @@ public Statement prepareStatement(DatabaseCall call, AbstractSession session, bo
         if (call.usesBinding(session) && call.shouldCacheStatement(session)) {
             // Check the cache by sql string, must synchronize check and removal.
             Map statementCache = getStatementCache();
-            synchronized (statementCache) {
-                statement = (PreparedStatement)statementCache.get(call.getSQLString());
-                if (statement != null) {
-                    // Need to remove to allow concurrent statement execution.
-                    statementCache.remove(call.getSQLString());
-                }
+            this.accessorLock.lock();
+            try {
+                // Need to remove to allow concurrent statement execution.
+                statement = (PreparedStatement)statementCache.remove(call.getSQLString());
+            } finally {
+                this.accessorLock.unlock();
+            }
+            if (statement != null) {
+                session.incrementProfile(SessionProfiler.StatementCacheHits);
+            } else {
+                session.incrementProfile(SessionProfiler.StatementCacheMisses);
             }
         }
 
@@ -1583,12 +1626,17 @@ public PreparedStatement prepareStatement(String sql, AbstractSession session, b
         // Check the cache by sql string, must synchronize check and removal.
         if (getPlatform().shouldCacheAllStatements()) {
             Map statementCache = getStatementCache();
-            synchronized (statementCache) {
-                statement = (PreparedStatement)statementCache.get(sql);
-                if (statement != null) {
-                    // Need to remove to allow concurrent statement execution.
-                    statementCache.remove(sql);
-                }
+            this.accessorLock.lock();
+            try {
+                // Need to remove to allow concurrent statement execution.
+                statement = (PreparedStatement)statementCache.remove(sql);
+            } finally {
+                this.accessorLock.unlock();
+            }
+            if (statement != null) {
+                session.incrementProfile(SessionProfiler.StatementCacheHits);
+            } else {
+                session.incrementProfile(SessionProfiler.StatementCacheMisses);
             }
         }
 
@@ -1647,7 +1695,8 @@ public void releaseStatement(Statement statement, String sqlString, DatabaseCall
         if (((call == null) && getPlatform().shouldCacheAllStatements())
                 || ((call != null) && call.usesBinding(session) && call.shouldCacheStatement(session))) {
             Map<String, Statement> statementCache = getStatementCache();
-            synchronized (statementCache) {
+            this.accessorLock.lock();
+            try {
                 PreparedStatement preparedStatement = (PreparedStatement)statement;
                 if (!statementCache.containsKey(sqlString)) {// May already be there by other thread.
                     preparedStatement.clearParameters();
@@ -1655,18 +1704,23 @@ public void releaseStatement(Statement statement, String sqlString, DatabaseCall
                     if (call != null) {
                         resetStatementFromCall(preparedStatement, call);
                     }
+                    statementCache.put(sqlString, preparedStatement);
                     if (statementCache.size() > getPlatform().getStatementCacheSize()) {
-                        // Currently one is removed at random...
-                        PreparedStatement removedStatement = (PreparedStatement)statementCache.remove(statementCache.keySet().iterator().next());
+                        // Evict the least recently released statement.
+                        Iterator<Statement> iterator = statementCache.values().iterator();
+                        Statement removedStatement = iterator.next();
+                        iterator.remove();
+                        session.incrementProfile(SessionProfiler.StatementCacheEvictions);
                         closeStatement(removedStatement, session, call);
                     } else {
                         decrementCallCount();
                     }
-                    statementCache.put(sqlString, preparedStatement);
                 } else {
                     // CR... Must close the statement if not cached.
                     closeStatement(statement, session, call);
                 }
+            } finally {
+                this.accessorLock.unlock();
             }
         } else if (statement == this.dynamicStatement) {
             // The dynamic statement is cached and only closed on disconnect.
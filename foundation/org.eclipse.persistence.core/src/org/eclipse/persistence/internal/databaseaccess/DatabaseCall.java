@@ -37,8 +37,10 @@
 import java.sql.Struct;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 import java.util.concurrent.TimeUnit;
 
@@ -105,6 +107,9 @@ public abstract class DatabaseCall extends DatasourceCall {
     transient protected Vector fields;
     // PERF: fields array
     transient protected DatabaseField[] fieldsArray;
+    // PERF: index of each field in the fields array, shared by all the rows fetched.
+    // Built with the fields array and published as a whole, as the call may be executed concurrently.
+    transient protected volatile Map<DatabaseField, Integer> fieldsIndex;
 
     // Field matching is required for custom SQL when the fields order is not known.
     protected boolean isFieldMatchingRequired;
@@ -389,6 +394,27 @@ public DatabaseField[] getFieldsArray() {
         return fieldsArray;
     }
 
+    /**
+     * INTERNAL:
+     * The index of each field returned by the call, built when the fields are set and shared by all the rows fetched.
+     * The fields are indexed by identity, as the mappings normally lookup the same field instances.
+     */
+    public Map<DatabaseField, Integer> getFieldsIndex() {
+        return this.fieldsIndex;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the index of each field of the array by identity, the first occurrence of a field is used.
+     */
+    protected static Map<DatabaseField, Integer> buildFieldsIndex(DatabaseField[] fieldsArray) {
+        Map<DatabaseField, Integer> fieldsIndex = new IdentityHashMap<DatabaseField, Integer>(fieldsArray.length);
+        for (int index = fieldsArray.length - 1; index >= 0; index--) {
+            fieldsIndex.put(fieldsArray[index], Integer.valueOf(index));
+        }
+        return fieldsIndex;
+    }
+
     /**
      * INTERNAL:
      * Unfortunately can't avoid referencing query and descriptor:
@@ -850,12 +876,16 @@ public void setFields(Vector fields) {
         this.fields = fields;
         if (fields != null) {
             int size = fields.size();
-            this.fieldsArray = new DatabaseField[size];
+            DatabaseField[] fieldsArray = new DatabaseField[size];
             for (int index = 0; index < size; index++) {
-                this.fieldsArray[index] = (DatabaseField)fields.get(index);
+                fieldsArray[index] = (DatabaseField)fields.get(index);
             }
+            this.fieldsArray = fieldsArray;
+            // The index is built before it is assigned, so concurrent executions never see it partially built.
+            this.fieldsIndex = buildFieldsIndex(fieldsArray);
         } else {
             this.fieldsArray = null;
+            this.fieldsIndex = null;
         }
     }
 
@@ -159,6 +159,9 @@ public class DatabasePlatform extends DatasourcePlatform {
     /** bug 4241441: Allow custom batch writing to enable batching with optimistic locking. **/
     protected boolean usesNativeBatchWriting;
 
+    /** Allow batched inserts into the same table to be written as a single multi-row insert statement. **/
+    protected boolean usesMultiRowInsertBatchWriting;
+
     /** Allow for a custom batch writing mechanism. **/
     protected BatchWritingMechanism batchWritingMechanism;
 
@@ -280,6 +283,7 @@ public DatabasePlatform() {
         this.cursorCode = -10;
         this.supportsAutoCommit = true;
         this.usesNativeBatchWriting = false;
+        this.usesMultiRowInsertBatchWriting = false;
         this.castSizeForVarcharParameter = 32672;
         this.startDelimiter = "\"";
         this.endDelimiter = "\"";
@@ -644,6 +648,17 @@ public Expression buildBatchCriteriaForComplexId(ExpressionBuilder builder,List<
                     builder.getParameter(ForeignReferenceMapping.QUERY_BATCH_PARAMETER));
     }
 
+    /**
+     * INTERNAL:
+     * Return the maximum number of values to use in the IN list of a single IN batch fetch query.
+     * Composite keys use one value per key field.
+     * This caps the batch fetch size, as databases and drivers limit the size of IN lists
+     * or the number of parameters of a statement.
+     */
+    public int getMaxBatchFetchInSize() {
+        return 32767;
+    }
+
     /**
      * INTERNAL
      * Returns null unless the platform supports call with returning
@@ -969,6 +984,7 @@ public void copyInto(Platform platform) {
         databasePlatform.setUsesBatchWriting(usesBatchWriting());
         databasePlatform.setUsesJDBCBatchWriting(usesJDBCBatchWriting());
         databasePlatform.setUsesNativeBatchWriting(usesNativeBatchWriting());
+        databasePlatform.setUsesMultiRowInsertBatchWriting(usesMultiRowInsertBatchWriting());
         databasePlatform.setUsesStreamsForBinding(usesStreamsForBinding());
         databasePlatform.shouldCreateIndicesOnForeignKeys = this.shouldCreateIndicesOnForeignKeys;
         databasePlatform.printOuterJoinInWhereClause = this.printOuterJoinInWhereClause;
@@ -2022,6 +2038,21 @@ public void setUsesNativeBatchWriting(boolean usesNativeBatchWriting){
         this.usesNativeBatchWriting = usesNativeBatchWriting;
     }
 
+    /**
+     * ADVANCED:
+     * This is used to enable multi-row insert batch writing, on platforms that support it.
+     * With parameterized batch writing, the batched inserts into the same table are written as
+     * a single INSERT statement with multiple rows of VALUES, instead of being executed through the
+     * JDBC batch API, which many drivers execute as one round trip per statement.
+     * The number of rows in a statement is limited by the platform's max multi-row insert size and parameters.
+     * @see #supportsMultiRowInsert()
+     * @see #getMaxMultiRowInsertSize()
+     * @see #getMaxMultiRowInsertParameters()
+     */
+    public void setUsesMultiRowInsertBatchWriting(boolean usesMultiRowInsertBatchWriting) {
+        this.usesMultiRowInsertBatchWriting = usesMultiRowInsertBatchWriting;
+    }
+
     public void setUsesNativeSQL(boolean usesNativeSQL) {
         this.usesNativeSQL = usesNativeSQL;
     }
@@ -2552,6 +2583,42 @@ public boolean usesNativeBatchWriting(){
         return usesNativeBatchWriting;
     }
 
+    /**
+     * ADVANCED:
+     * Return if multi-row insert batch writing is enabled.
+     * @see #setUsesMultiRowInsertBatchWriting(boolean)
+     */
+    public boolean usesMultiRowInsertBatchWriting() {
+        return usesMultiRowInsertBatchWriting;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the database supports inserting multiple rows with a single INSERT statement,
+     * i.e. INSERT INTO TABLE (A, B) VALUES (?, ?), (?, ?).
+     * This is used by multi-row insert batch writing.
+     */
+    public boolean supportsMultiRowInsert() {
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the maximum number of rows to insert in a single multi-row INSERT statement.
+     */
+    public int getMaxMultiRowInsertSize() {
+        return 1000;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the maximum number of parameters to bind in a single multi-row INSERT statement,
+     * as most databases or drivers limit the number of parameters of a statement.
+     */
+    public int getMaxMultiRowInsertParameters() {
+        return 2000;
+    }
+
     public boolean usesNativeSQL() {
         return usesNativeSQL;
     }
@@ -15,6 +15,7 @@
 package org.eclipse.persistence.internal.databaseaccess;
 
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.sessions.Login;
 import org.eclipse.persistence.queries.Call;
@@ -149,6 +150,12 @@ public abstract class DatasourceAccessor implements Accessor {
 
     protected ConnectionPool pool;
 
+    /**
+     * Guards the call count, and the cached statements of subclasses.
+     * Database calls are made while it is held, so it is not the accessor's monitor, which would pin virtual threads.
+     */
+    protected ReentrantLock accessorLock = new ReentrantLock();
+
     /**
      *    Default Constructor.
      */
@@ -165,6 +172,7 @@ public DatasourceAccessor() {
     public Object clone() {
         try {
             DatasourceAccessor accessor = (DatasourceAccessor)super.clone();
+            accessor.accessorLock = new ReentrantLock();
             if(accessor.customizer != null) {
                 accessor.customizer.setAccessor(accessor);
             }
@@ -278,53 +286,63 @@ public void beginTransaction(AbstractSession session) throws DatabaseException {
     /**
      * Used for load balancing and external pooling.
      */
-    public synchronized void decrementCallCount() {
-        int count = this.callCount;
-        // Avoid decrementing count if already zero, (failure before increment).
-        if (count <= 0) {
-            return;
-        }
-        this.callCount--;
-        if (this.usesExternalConnectionPooling && (!this.isInTransaction) && (currentSession == null || !currentSession.isExclusiveConnectionRequired()) && (count == 1)) {
-            try {
-                closeConnection();
-            } catch (DatabaseException ignore) {
-                // Don't allow for errors to be masked by disconnect.
+    public void decrementCallCount() {
+        this.accessorLock.lock();
+        try {
+            int count = this.callCount;
+            // Avoid decrementing count if already zero, (failure before increment).
+            if (count <= 0) {
+                return;
+            }
+            this.callCount--;
+            if (this.usesExternalConnectionPooling && (!this.isInTransaction) && (currentSession == null || !currentSession.isExclusiveConnectionRequired()) && (count == 1)) {
+                try {
+                    closeConnection();
+                } catch (DatabaseException ignore) {
+                    // Don't allow for errors to be masked by disconnect.
+                }
             }
+        } finally {
+            this.accessorLock.unlock();
         }
     }
 
     /**
      * Used for load balancing and external pooling.
      */
-    public synchronized void incrementCallCount(AbstractSession session) {
-        this.callCount++;
+    public void incrementCallCount(AbstractSession session) {
+        this.accessorLock.lock();
+        try {
+            this.callCount++;
 
-        if (this.callCount == 1) {
-            // If the login is null, then this accessor has never been connected.
-            if (this.login == null) {
-                throw DatabaseException.databaseAccessorNotConnected();
-            }
+            if (this.callCount == 1) {
+                // If the login is null, then this accessor has never been connected.
+                if (this.login == null) {
+                    throw DatabaseException.databaseAccessorNotConnected();
+                }
 
-            // If the connection is no longer connected, it may have timed out.
-            if (this.datasourceConnection != null) {
-                if (shouldCheckConnection && !isConnected()) {
-                    if (this.isInTransaction) {
-                        throw DatabaseException.databaseAccessorNotConnected();
-                    } else {
-                        reconnect(session);
+                // If the connection is no longer connected, it may have timed out.
+                if (this.datasourceConnection != null) {
+                    if (shouldCheckConnection && !isConnected()) {
+                        if (this.isInTransaction) {
+                            throw DatabaseException.databaseAccessorNotConnected();
+                        } else {
+                            reconnect(session);
+                        }
                     }
-                }
-            } else {
-                // If ExternalConnectionPooling is used, the connection can be re-established.
-                if (this.usesExternalConnectionPooling) {
-                    reconnect(session);
-                    session.postAcquireConnection(this);
-                    currentSession = session;
                 } else {
-                    throw DatabaseException.databaseAccessorNotConnected();
+                    // If ExternalConnectionPooling is used, the connection can be re-established.
+                    if (this.usesExternalConnectionPooling) {
+                        reconnect(session);
+                        session.postAcquireConnection(this);
+                        currentSession = session;
+                    } else {
+                        throw DatabaseException.databaseAccessorNotConnected();
+                    }
                 }
             }
+        } finally {
+            this.accessorLock.unlock();
         }
     }
 
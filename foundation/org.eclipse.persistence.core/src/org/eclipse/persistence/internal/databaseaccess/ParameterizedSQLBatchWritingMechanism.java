@@ -158,6 +158,19 @@ private void executeBatch(AbstractSession session) {
             return;
         }
 
+        DatabasePlatform platform = session.getPlatform();
+        if (platform.usesMultiRowInsertBatchWriting() && platform.supportsMultiRowInsert()) {
+            int valuesIndex = getMultiRowInsertValuesIndex(this.previousCall.getSQLString());
+            if (valuesIndex != -1) {
+                try {
+                    executeMultiRowInserts(session, valuesIndex);
+                } finally {
+                    clear();
+                }
+                return;
+            }
+        }
+
         try {
             this.databaseAccessor.incrementCallCount(session);// Decrement occurs in close.
 
@@ -189,6 +202,134 @@ private void executeBatch(AbstractSession session) {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the index of the row of values of the SQL, if it is an insert of a single row of values,
+     * that can be rewritten as a multi-row insert, otherwise -1.
+     */
+    protected int getMultiRowInsertValuesIndex(String sql) {
+        if (!sql.regionMatches(true, 0, "INSERT ", 0, 7) || (sql.charAt(sql.length() - 1) != ')')) {
+            return -1;
+        }
+        int valuesIndex = sql.lastIndexOf(" VALUES (");
+        if (valuesIndex == -1) {
+            return -1;
+        }
+        valuesIndex = valuesIndex + 8;
+        // The row of values must end the SQL, and not contain literals.
+        int depth = 0;
+        int length = sql.length();
+        for (int index = valuesIndex; index < length; index++) {
+            char next = sql.charAt(index);
+            if (next == '(') {
+                depth++;
+            } else if (next == ')') {
+                depth--;
+                if ((depth == 0) && (index != (length - 1))) {
+                    return -1;
+                }
+            } else if (next == '\'') {
+                return -1;
+            }
+        }
+        return valuesIndex;
+    }
+
+    /**
+     * INTERNAL:
+     * Execute the batched inserts as multi-row inserts, each limited to the platform's max rows and parameters.
+     */
+    protected void executeMultiRowInserts(AbstractSession session, int valuesIndex) {
+        DatabasePlatform platform = session.getPlatform();
+        String sql = this.previousCall.getSQLString();
+        String insert = sql.substring(0, valuesIndex);
+        String values = sql.substring(valuesIndex);
+        int rowSize = Math.max(this.parameters.get(0).size(), 1);
+        int maxRows = Math.max(Math.min(platform.getMaxMultiRowInsertSize(), platform.getMaxMultiRowInsertParameters() / rowSize), 1);
+        int size = this.parameters.size();
+        for (int start = 0; start < size; start = start + maxRows) {
+            int end = Math.min(start + maxRows, size);
+            StringBuilder writer = new StringBuilder(insert.length() + ((values.length() + 2) * (end - start)));
+            writer.append(insert);
+            for (int index = start; index < end; index++) {
+                if (index > start) {
+                    writer.append(", ");
+                }
+                writer.append(values);
+            }
+            // The call is only used to prepare and release the statement, so is shared by all the rows.
+            DatabaseCall call = (DatabaseCall)this.previousCall.clone();
+            call.setSQLStringInternal(writer.toString());
+            this.statementCount = this.statementCount + (end - start);
+            this.executionCount = this.executionCount + executeMultiRowInsert(session, call, start, end);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Bind the parameters of the rows from start to end to the multi-row insert call, and execute it.
+     */
+    protected int executeMultiRowInsert(AbstractSession session, DatabaseCall call, int start, int end) {
+        this.databaseAccessor.incrementCallCount(session);// Decrement occurs in release.
+        if (session.shouldLog(SessionLog.FINE, SessionLog.SQL)) {
+            session.log(SessionLog.FINE, SessionLog.SQL, call.getSQLString(), null, this.databaseAccessor, false);
+            for (int index = start; index < end; index++) {
+                StringWriter writer = new StringWriter();
+                DatabaseCall.appendLogParameters(this.parameters.get(index), this.databaseAccessor, writer, session);
+                session.log(SessionLog.FINE, SessionLog.SQL, writer.toString(), null, this.databaseAccessor, false);
+            }
+        }
+        PreparedStatement statement = null;
+        int rowCount = 0;
+        try {
+            DatabasePlatform platform = session.getPlatform();
+            session.startOperationProfile(SessionProfiler.SqlPrepare, null, SessionProfiler.ALL);
+            try {
+                statement = (PreparedStatement)this.databaseAccessor.prepareStatement(call, session);
+                if (this.queryTimeoutCache > DescriptorQueryManager.NoTimeout) {
+                    statement.setQueryTimeout(this.queryTimeoutCache);
+                }
+                int parameterIndex = 1;
+                for (int index = start; index < end; index++) {
+                    List parameterList = this.parameters.get(index);
+                    int size = parameterList.size();
+                    for (int parameter = 0; parameter < size; parameter++) {
+                        platform.setParameterValueInDatabaseCall(parameterList.get(parameter), statement, parameterIndex++, session);
+                    }
+                }
+            } finally {
+                session.endOperationProfile(SessionProfiler.SqlPrepare, null, SessionProfiler.ALL);
+            }
+            rowCount = this.databaseAccessor.executeDirectNoSelect(statement, call, session).intValue();
+            this.databaseAccessor.writeStatementsCount++;
+        } catch (SQLException exception) {
+            RuntimeException exceptionToThrow = this.databaseAccessor.processExceptionForCommError(session, exception, call);
+            try {
+                // Ensure that the statement is closed, but still ensure that the real exception is thrown.
+                this.databaseAccessor.closeStatement(statement, session, call);
+            } catch (SQLException closeException) {
+            }
+            if (exceptionToThrow == null) {
+                throw DatabaseException.sqlException(exception, this.databaseAccessor, session, false);
+            }
+            throw exceptionToThrow;
+        } catch (RuntimeException exception) {
+            try {
+                // Ensure that the statement is closed, but still ensure that the real exception is thrown.
+                this.databaseAccessor.closeStatement(statement, session, call);
+            } catch (SQLException closeException) {
+            }
+            throw exception;
+        }
+        // This is in a separate try block to ensure that the real exception is not masked by the close exception.
+        try {
+            this.databaseAccessor.releaseStatement(statement, call.getSQLString(), call, session);
+        } catch (SQLException exception) {
+            throw DatabaseException.sqlException(exception, this.databaseAccessor, session, false);
+        }
+        return rowCount;
+    }
+
     /**
      * INTERNAL:
      * Swaps out the Mechanism for the other Mechanism
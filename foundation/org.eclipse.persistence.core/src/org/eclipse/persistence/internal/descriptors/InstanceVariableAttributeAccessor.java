@@ -12,6 +12,7 @@
  ******************************************************************************/
 package org.eclipse.persistence.internal.descriptors;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Field;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
@@ -36,6 +37,10 @@ public class InstanceVariableAttributeAccessor extends AttributeAccessor {
     /** The attribute name of an object is converted to Field type to access it reflectively */
     protected transient Field attributeField;
 
+    /** PERF: Handles used to get and set the field without reflection, null if reflection must be used. */
+    protected transient MethodHandle getHandle;
+    protected transient MethodHandle setHandle;
+
     /**
      * Returns the class type of the attribute.
      */
@@ -68,6 +73,14 @@ public Class getAttributeType() {
      */
     @Override
     public Object getAttributeValueFromObject(Object anObject) throws DescriptorException {
+        // PERF: Use the method handle if available, errors are reported through reflection.
+        if (this.getHandle != null) {
+            try {
+                return (Object)this.getHandle.invokeExact(anObject);
+            } catch (Throwable exception) {
+                // Fall through to reflection to report the error.
+            }
+        }
         try {
             // PERF: Direct variable access.
             if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()){
@@ -130,6 +143,8 @@ public boolean isInstanceVariableAttributeAccessor() {
      */
     protected void setAttributeField(Field field) {
         attributeField = field;
+        this.getHandle = MethodHandleAccessorFactory.buildGetter(field);
+        this.setHandle = MethodHandleAccessorFactory.buildSetter(field);
     }
 
     /**
@@ -137,6 +152,15 @@ protected void setAttributeField(Field field) {
      */
     @Override
     public void setAttributeValueInObject(Object anObject, Object value) throws DescriptorException {
+        // PERF: Use the method handle if available, values that must be converted and errors go through reflection.
+        if (this.setHandle != null) {
+            try {
+                this.setHandle.invokeExact(anObject, value);
+                return;
+            } catch (Throwable exception) {
+                // Fall through to reflection to convert the value or report the error.
+            }
+        }
          try {
             // PERF: Direct variable access.
             if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()){
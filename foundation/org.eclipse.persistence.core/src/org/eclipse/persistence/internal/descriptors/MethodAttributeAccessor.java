@@ -18,6 +18,7 @@
  ******************************************************************************/
 package org.eclipse.persistence.internal.descriptors;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.security.AccessController;
@@ -48,6 +49,10 @@ public class MethodAttributeAccessor extends AttributeAccessor {
     protected transient Method setMethod;
     protected transient Method getMethod;
 
+    /** PERF: Handles used to invoke the get and set methods without reflection, null if reflection must be used. */
+    protected transient MethodHandle getMethodHandle;
+    protected transient MethodHandle setMethodHandle;
+
     /**
      * Return the return type of the method accessor.
      */
@@ -65,6 +70,21 @@ public Class getAttributeClass() {
      */
     @Override
     public Object getAttributeValueFromObject(Object anObject) throws DescriptorException {
+        // PERF: Use the method handle if available.
+        if (this.getMethodHandle != null) {
+            try {
+                return (Object)this.getMethodHandle.invokeExact(anObject);
+            } catch (Throwable exception) {
+                // If the object is invalid fall through to reflection to report the error,
+                // otherwise the method failed and must not be invoked again.
+                if ((anObject != null) && MethodHandleAccessorFactory.isAssignable(this.getMethod.getDeclaringClass(), anObject)) {
+                    if (exception instanceof Error) {
+                        throw (Error)exception;
+                    }
+                    throw DescriptorException.targetInvocationWhileGettingValueThruMethodAccessor(getGetMethodName(), anObject.getClass().getName(), exception);
+                }
+            }
+        }
         return getAttributeValueFromObject(anObject, (Object[]) null);
     }
 
@@ -234,6 +254,23 @@ public boolean isMethodAttributeAccessor() {
      */
     @Override
     public void setAttributeValueInObject(Object domainObject, Object attributeValue) throws DescriptorException {
+        // PERF: Use the method handle if available.
+        if (this.setMethodHandle != null) {
+            try {
+                this.setMethodHandle.invokeExact(domainObject, attributeValue);
+                return;
+            } catch (Throwable exception) {
+                // If the object or value is invalid fall through to reflection to convert the value or report the error,
+                // otherwise the method failed and must not be invoked again.
+                if ((domainObject != null) && MethodHandleAccessorFactory.isAssignable(this.setMethod.getDeclaringClass(), domainObject)
+                        && MethodHandleAccessorFactory.isAssignable(this.setMethod.getParameterTypes()[0], attributeValue)) {
+                    if (exception instanceof Error) {
+                        throw (Error)exception;
+                    }
+                    throw DescriptorException.targetInvocationWhileSettingValueThruMethodAccessor(getSetMethodName(), attributeValue, exception);
+                }
+            }
+        }
         setAttributeValueInObject(domainObject, attributeValue, new Object[] {attributeValue});
     }
 
@@ -327,6 +364,7 @@ protected void setAttributeValueInObject(Object domainObject, Object attributeVa
      */
     protected void setGetMethod(Method getMethod) {
         this.getMethod = getMethod;
+        this.getMethodHandle = MethodHandleAccessorFactory.buildGetter(getMethod);
     }
 
     /**
@@ -341,6 +379,7 @@ public void setGetMethodName(String getMethodName) {
      */
     protected void setSetMethod(Method setMethod) {
         this.setMethod = setMethod;
+        this.setMethodHandle = MethodHandleAccessorFactory.buildSetter(setMethod);
     }
 
     /**
@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.descriptors;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+
+import org.eclipse.persistence.config.SystemProperties;
+import org.eclipse.persistence.internal.helper.Helper;
+import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
+import org.eclipse.persistence.internal.security.PrivilegedGetSystemProperty;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: Build the method handles used by the attribute accessors of classes that are not weaved.
+ * <p><b>Responsibilities</b>:<ul>
+ *    <li> Unreflect the attribute's field or get and set methods when the accessor is initialized
+ *    <li> Adapt the handles to take and return Object, so they can be invoked exactly without an argument array
+ * </ul>
+ * Accessing an attribute through a handle avoids the access checks and the argument array
+ * of Field and Method on every get and set.
+ * A null handle is returned if the member cannot be unreflected, or when a security manager is used
+ * or the "eclipselink.reflection.method-handles" system property is "false",
+ * in which case the accessor continues to use reflection.
+ * @see InstanceVariableAttributeAccessor
+ * @see MethodAttributeAccessor
+ */
+public class MethodHandleAccessorFactory {
+    /** The get handles are adapted to this type. */
+    protected static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    /** The set handles are adapted to this type. */
+    protected static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    /** Cache if method handles should be used, set from the system property the first time it is checked. */
+    protected static Boolean shouldUseMethodHandles;
+
+    /**
+     * Return if method handles should be used instead of reflection.
+     * Handles are not used with a security manager, to keep the checks of the privileged reflection.
+     */
+    public static boolean shouldUseMethodHandles() {
+        if (shouldUseMethodHandles == null) {
+            String property = PrivilegedAccessHelper.shouldUsePrivilegedAccess() ?
+                    AccessController.doPrivileged(new PrivilegedGetSystemProperty(SystemProperties.REFLECTION_METHOD_HANDLES))
+                    : System.getProperty(SystemProperties.REFLECTION_METHOD_HANDLES);
+            shouldUseMethodHandles = Boolean.valueOf((property == null) || !property.equalsIgnoreCase("false"));
+        }
+        return shouldUseMethodHandles.booleanValue() && !PrivilegedAccessHelper.shouldUsePrivilegedAccess();
+    }
+
+    /**
+     * Set if method handles should be used instead of reflection by the accessors initialized from now on.
+     */
+    public static void setShouldUseMethodHandles(boolean shouldUseMethodHandles) {
+        MethodHandleAccessorFactory.shouldUseMethodHandles = Boolean.valueOf(shouldUseMethodHandles);
+    }
+
+    /**
+     * Return a handle that gets the field's value from an object, or null.
+     * The field must already be accessible.
+     */
+    public static MethodHandle buildGetter(Field field) {
+        if ((field == null) || !shouldUseMethodHandles() || Modifier.isStatic(field.getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflectGetter(field).asType(GETTER_TYPE);
+        } catch (Exception notAccessible) {
+            return null;
+        }
+    }
+
+    /**
+     * Return a handle that sets the field's value in an object, or null.
+     * The field must already be accessible, final fields are set through reflection.
+     */
+    public static MethodHandle buildSetter(Field field) {
+        if ((field == null) || !shouldUseMethodHandles() || Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflectSetter(field).asType(SETTER_TYPE);
+        } catch (Exception notAccessible) {
+            return null;
+        }
+    }
+
+    /**
+     * Return a handle that invokes the get method on an object, or null.
+     * Only get methods without parameters are supported.
+     */
+    public static MethodHandle buildGetter(Method method) {
+        if ((method == null) || !shouldUseMethodHandles() || Modifier.isStatic(method.getModifiers())
+                || (method.getParameterTypes().length != 0) || (method.getReturnType() == void.class)) {
+            return null;
+        }
+        try {
+            return MethodHandles.lookup().unreflect(method).asType(GETTER_TYPE);
+        } catch (Exception notAccessible) {
+            return null;
+        }
+    }
+
+    /**
+     * Return a handle that invokes the set method on an object, or null.
+     * Only set methods with a single parameter are supported, their return value is ignored.
+     */
+    public static MethodHandle buildSetter(Method method) {
+        if ((method == null) || !shouldUseMethodHandles() || Modifier.isStatic(method.getModifiers())
+                || (method.getParameterTypes().length != 1)) {
+            return null;
+        }
+        try {
+            // Adapting to a void return discards the value returned by fluent set methods.
+            return MethodHandles.lookup().unreflect(method).asType(SETTER_TYPE);
+        } catch (Exception notAccessible) {
+            return null;
+        }
+    }
+
+    /**
+     * Return if the value can be passed as the type by the handle.
+     * This is used when a handle fails, to know if the failure came from the conversion of the arguments,
+     * in which case the accessor falls back to reflection so the value is converted or the error reported
+     * the same way, or from the method itself.
+     */
+    public static boolean isAssignable(Class type, Object value) {
+        if (value == null) {
+            return !type.isPrimitive();
+        }
+        return Helper.getObjectClass(type).isInstance(value);
+    }
+}
@@ -35,6 +35,7 @@
 import org.eclipse.persistence.descriptors.DescriptorEventManager;
 import org.eclipse.persistence.descriptors.FetchGroupManager;
 import org.eclipse.persistence.descriptors.InheritancePolicy;
+import org.eclipse.persistence.descriptors.SerializedObjectPolicy;
 import org.eclipse.persistence.descriptors.changetracking.ChangeTracker;
 import org.eclipse.persistence.descriptors.changetracking.ObjectChangePolicy;
 import org.eclipse.persistence.exceptions.*;
@@ -1056,6 +1057,11 @@ else if (joinManager != null && joinManager.hasJoinedAttributeExpressions()) { /
                     loadBatchReadAttributes(concreteDescriptor, domainObject, cacheKey, databaseRow, query, joinManager, false);
                 }
             }
+            // The row is stored while the cache key is locked, a commit removes it after merging while holding the lock,
+            // so a row read before the commit cannot be stored after it was removed.
+            if (!cacheHit && shouldMaintainCache && (cacheKey != null) && !hasSopObject && !shouldStoreBypassCache && (fetchGroup == null)) {
+                putRowInOffHeapCache(primaryKey, domainObject, databaseRow, isSopQuery, !domainWasMissing, concreteDescriptor, session);
+            }
         } finally {
             if (shouldMaintainCache && (cacheKey != null)) {
                 // bug 2681401:
@@ -1098,6 +1104,44 @@ else if (joinManager != null && joinManager.hasJoinedAttributeExpressions()) { /
         }
     }
 
+    /**
+     * INTERNAL:
+     * Store the row the object was built from in the off-heap tier of the shared cache, if the descriptor uses one.
+     * Only complete rows are stored, so the object can be rebuilt from them.
+     * With a serialized object policy, the row stores the serialized object.
+     * This must be called while the object's cache key is locked.
+     * @param replace if the object was refreshed, any stored row is replaced.
+     */
+    protected void putRowInOffHeapCache(Object primaryKey, Object domainObject, AbstractRecord databaseRow, boolean isSopQuery, boolean replace, ClassDescriptor concreteDescriptor, AbstractSession session) {
+        IdentityMapManager manager = session.getIdentityMapAccessorInstance().getIdentityMapManager();
+        OffHeapCache offHeapCache = manager.getOffHeapCache(concreteDescriptor);
+        if ((offHeapCache == null) || (databaseRow instanceof ResultSetRecord) || (!replace && offHeapCache.containsKey(primaryKey))) {
+            return;
+        }
+        AbstractRecord row = databaseRow;
+        List<DatabaseField> fields = null;
+        if (isSopQuery) {
+            SerializedObjectPolicy policy = concreteDescriptor.getSerializedObjectPolicy();
+            fields = policy.getSelectionFields();
+            row = new DatabaseRecord(fields.size() + 1);
+            for (DatabaseField field : fields) {
+                if (!databaseRow.containsKey(field)) {
+                    return;
+                }
+                row.put(field, databaseRow.get(field));
+            }
+            policy.putObjectIntoRow(row, domainObject, session);
+        } else {
+            fields = concreteDescriptor.getAllFields();
+            for (DatabaseField field : fields) {
+                if (!databaseRow.containsKey(field)) {
+                    return;
+                }
+            }
+        }
+        offHeapCache.put(primaryKey, row, isSopQuery);
+    }
+
     /**
      * Return an instance of the receivers javaClass. Set the attributes of an instance
      * from the values stored in the database row.
@@ -24,4 +24,13 @@ public interface PersistenceObject {
     Object _persistence_new(PersistenceObject object);
     Object _persistence_get(String attribute);
     void _persistence_set(String attribute, Object value);
+    /**
+     * Return the value of the attribute by its index in the class's weaved attribute names.
+     * This avoids the string comparisons for each attribute of the get by name.
+     */
+    Object _persistence_get(int attributeIndex);
+    /**
+     * Set the value of the attribute by its index in the class's weaved attribute names.
+     */
+    void _persistence_set(int attributeIndex, Object value);
 }
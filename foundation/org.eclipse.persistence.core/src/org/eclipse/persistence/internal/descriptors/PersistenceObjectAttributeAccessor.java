@@ -12,14 +12,18 @@
  ******************************************************************************/
 package org.eclipse.persistence.internal.descriptors;
 
+import java.lang.reflect.Method;
 import java.security.AccessController;
 import java.security.PrivilegedActionException;
 
 import org.eclipse.persistence.exceptions.DescriptorException;
+import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.logging.StdErrLogger;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
 import org.eclipse.persistence.internal.security.PrivilegedGetClassLoaderForClass;
 import org.eclipse.persistence.internal.security.PrivilegedGetClassLoaderFromCurrentThread;
+import org.eclipse.persistence.internal.security.PrivilegedGetDeclaredMethod;
+import org.eclipse.persistence.internal.security.PrivilegedMethodInvoker;
 import org.eclipse.persistence.logging.SessionLog;
 
 /**
@@ -30,6 +34,12 @@ public class PersistenceObjectAttributeAccessor extends InstanceVariableAttribut
     /** Cache weaver logger finest level settings. */
     private final boolean shouldLogFinest;
 
+    /**
+     * PERF: The index of the attribute in the weaved attribute names of the class, used to get and set the attribute
+     * with a switch instead of comparing the attribute name with each attribute, -1 if the class was not weaved with indexes.
+     */
+    protected int attributeIndex = -1;
+
     public PersistenceObjectAttributeAccessor(String attributeName) {
         this.attributeName = attributeName.intern();
         // PERF: Cache weaver logger finest level settings. It won't allow to change logger settings on the fly
@@ -62,6 +72,9 @@ public Object getAttributeValueFromObject(Object object) {
                             Integer.toHexString(System.identityHashCode(contextClassLoader)),
                             Integer.toHexString(System.identityHashCode(objectClassLoader)));
         }
+        if (this.attributeIndex >= 0) {
+            return ((PersistenceObject)object)._persistence_get(this.attributeIndex);
+        }
         return ((PersistenceObject)object)._persistence_get(this.attributeName);
     }
 
@@ -71,6 +84,44 @@ public Object getAttributeValueFromObject(Object object) {
     public void initializeAttributes(Class descriptorClass) throws DescriptorException {
         this.attributeName = attributeName.intern();
         super.initializeAttributes(descriptorClass);
+        this.attributeIndex = indexOfAttribute(descriptorClass);
+    }
+
+    /**
+     * Return the index of the attribute in the attribute names weaved into the class, or -1.
+     * The weaved names include the superclasses' attributes first, so the index is the same for any subclass.
+     * The names are read from the class declaring the attribute, as a subclass weaved with indexes
+     * delegates the superclass attributes to the superclass's _persistence_get(int), which does not exist
+     * if the superclass was weaved by an earlier version; such attributes are accessed by name.
+     */
+    protected int indexOfAttribute(Class descriptorClass) {
+        Class declaringClass = descriptorClass;
+        if (this.attributeField != null) {
+            declaringClass = this.attributeField.getDeclaringClass();
+        }
+        String[] attributeNames = null;
+        try {
+            Method method = null;
+            // Only the declared method, an inherited one means this class was not weaved with indexes.
+            if (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) {
+                method = AccessController.doPrivileged(new PrivilegedGetDeclaredMethod(declaringClass, Helper.PERSISTENCE_ATTRIBUTE_NAMES, new Class[0]));
+                attributeNames = (String[])AccessController.doPrivileged(new PrivilegedMethodInvoker(method, null));
+            } else {
+                method = PrivilegedAccessHelper.getDeclaredMethod(declaringClass, Helper.PERSISTENCE_ATTRIBUTE_NAMES, new Class[0]);
+                attributeNames = (String[])PrivilegedAccessHelper.invokeMethod(method, null);
+            }
+        } catch (Exception notWeavedWithIndexes) {
+            return -1;
+        }
+        if (attributeNames == null) {
+            return -1;
+        }
+        for (int index = 0; index < attributeNames.length; index++) {
+            if (this.attributeName.equals(attributeNames[index])) {
+                return index;
+            }
+        }
+        return -1;
     }
 
 
@@ -99,6 +150,10 @@ public void setAttributeValueInObject(Object object, Object value) {
                             Integer.toHexString(System.identityHashCode(contextClassLoader)),
                             Integer.toHexString(System.identityHashCode(objectClassLoader)));
         }
+        if (this.attributeIndex >= 0) {
+            ((PersistenceObject)object)._persistence_set(this.attributeIndex, value);
+            return;
+        }
         ((PersistenceObject)object)._persistence_set(this.attributeName, value);
     }
 }
@@ -784,12 +784,17 @@ public Expression normalize(ExpressionNormalizer normalizer, Expression base, Li
             statement.setRequiresAliases(true);
         }
 
+        ReadQuery query = normalizer.getStatement().getQuery();
+        // Record any attribute used in the selection to invalidate query results cache.
+        if ((query != null) && query.shouldCacheQueryResults() && query.getQueryResultsCachePolicy().getInvalidateByPrimaryKey()) {
+            query.getQueryResultsCachePolicy().getInvalidationAttributes().add(getName());
+        }
+
         // Check if any joins need to be added.
         if (isAttribute()) {
             return this;
         }
 
-        ReadQuery query = normalizer.getStatement().getQuery();
         // Record any class used in a join to invalidate query results cache.
         if ((query != null) && query.shouldCacheQueryResults()) {
             if ((mapping != null) && (mapping.getReferenceDescriptor() != null) && (mapping.getReferenceDescriptor().getJavaClass() != null)) {
@@ -19,8 +19,10 @@
 import org.eclipse.persistence.exceptions.*;
 import org.eclipse.persistence.mappings.*;
 import org.eclipse.persistence.mappings.foundation.AbstractColumnMapping;
+import org.eclipse.persistence.mappings.foundation.AbstractDirectMapping;
 import org.eclipse.persistence.queries.*;
 import org.eclipse.persistence.internal.helper.*;
+import org.eclipse.persistence.internal.databaseaccess.Platform;
 import org.eclipse.persistence.expressions.*;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
@@ -433,6 +435,114 @@ public boolean extractFields(boolean requireExactMatch, boolean primaryKey, Clas
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * Return the field, operator selector and value if the expression compares a directly mapped field
+     * of the source object to a constant or parameter, so it can be looked up in a non-unique cache index.
+     * The value is converted to the field's classification, the same as the values in the index.
+     * If the field is the second child the operator is reversed, so 5 &lt; salary is returned as salary &gt; 5.
+     * Return null if the expression cannot be used for an index lookup.
+     */
+    public Object[] extractIndexValue(ClassDescriptor descriptor, AbstractRecord translationRow, AbstractSession session) {
+        int selector = this.operator.getSelector();
+        if ((selector != ExpressionOperator.Equal) && (selector != ExpressionOperator.LessThan) && (selector != ExpressionOperator.LessThanEqual)
+                && (selector != ExpressionOperator.GreaterThan) && (selector != ExpressionOperator.GreaterThanEqual)) {
+            return null;
+        }
+        Expression fieldChild = null;
+        Object value = null;
+        if (this.secondChild.isConstantExpression()) {
+            fieldChild = this.firstChild;
+            value = ((ConstantExpression)this.secondChild).getValue();
+        } else if (this.secondChild.isParameterExpression() && (translationRow != null)) {
+            fieldChild = this.firstChild;
+            value = translationRow.get(((ParameterExpression)this.secondChild).getField());
+        } else if (this.firstChild.isConstantExpression()) {
+            fieldChild = this.secondChild;
+            value = ((ConstantExpression)this.firstChild).getValue();
+        } else if (this.firstChild.isParameterExpression() && (translationRow != null)) {
+            fieldChild = this.secondChild;
+            value = translationRow.get(((ParameterExpression)this.firstChild).getField());
+        }
+        if ((value == null) || (fieldChild == null)) {
+            return null;
+        }
+        if (fieldChild == this.secondChild) {
+            if (selector == ExpressionOperator.LessThan) {
+                selector = ExpressionOperator.GreaterThan;
+            } else if (selector == ExpressionOperator.LessThanEqual) {
+                selector = ExpressionOperator.GreaterThanEqual;
+            } else if (selector == ExpressionOperator.GreaterThan) {
+                selector = ExpressionOperator.LessThan;
+            } else if (selector == ExpressionOperator.GreaterThanEqual) {
+                selector = ExpressionOperator.LessThanEqual;
+            }
+        }
+        AbstractDirectMapping mapping = null;
+        if (fieldChild.isFieldExpression()) {
+            FieldExpression child = (FieldExpression)fieldChild;
+            // Only the source object's fields are indexed.
+            if (!child.getBaseExpression().isExpressionBuilder()) {
+                return null;
+            }
+            DatabaseMapping fieldMapping = descriptor.getObjectBuilder().getMappingForField(child.getField());
+            if ((fieldMapping == null) || !fieldMapping.isAbstractDirectMapping()) {
+                return null;
+            }
+            mapping = (AbstractDirectMapping)fieldMapping;
+            // The value is a field value, so is only converted to the field's type.
+            value = convertIndexValue(value, mapping.getFieldClassification(mapping.getField()), descriptor, session);
+        } else if (fieldChild.isQueryKeyExpression()) {
+            QueryKeyExpression child = (QueryKeyExpression)fieldChild;
+            // Only the source object's fields are indexed.
+            if (!child.getBaseExpression().isExpressionBuilder()) {
+                return null;
+            }
+            DatabaseMapping attributeMapping = descriptor.getObjectBuilder().getMappingForAttributeName(child.getName());
+            if ((attributeMapping == null) || !attributeMapping.isAbstractDirectMapping()) {
+                return null;
+            }
+            mapping = (AbstractDirectMapping)attributeMapping;
+            value = convertIndexValue(value, Helper.getObjectClass(mapping.getAttributeClassification()), descriptor, session);
+            if (value == null) {
+                return null;
+            }
+            try {
+                value = mapping.getFieldValue(value, session);
+            } catch (ConversionException notConvertible) {
+                return null;
+            }
+        } else {
+            return null;
+        }
+        if (value == null) {
+            return null;
+        }
+        return new Object[] {mapping.getField(), Integer.valueOf(selector), value};
+    }
+
+    /**
+     * INTERNAL:
+     * Convert the value to be compared with an index's values to the class.
+     * Return null if it cannot be converted without loss, such as 4.5 to an Integer, as the index lookup would not find
+     * the same objects as conforming the value, which compares numbers by their value.
+     */
+    protected Object convertIndexValue(Object value, Class javaClass, ClassDescriptor descriptor, AbstractSession session) {
+        if ((javaClass == null) || javaClass.isInstance(value)) {
+            return value;
+        }
+        Platform platform = session.getPlatform(descriptor.getJavaClass());
+        try {
+            Object convertedValue = platform.convertObject(value, javaClass);
+            if ((convertedValue == null) || !value.equals(platform.convertObject(convertedValue, value.getClass()))) {
+                return null;
+            }
+            return convertedValue;
+        } catch (ConversionException notConvertible) {
+            return null;
+        }
+    }
+
     /**
      * Check if the expression is an equal null expression, these must be handle in a special way in SQL.
      */
@@ -83,6 +83,7 @@ public class ClassConstants extends CoreClassConstants {
 
     // Identity map classes
     public static final Class CacheIdentityMap_Class = org.eclipse.persistence.internal.identitymaps.CacheIdentityMap.class;
+    public static final Class ClockCacheIdentityMap_Class = org.eclipse.persistence.internal.identitymaps.ClockCacheIdentityMap.class;
     public static final Class FullIdentityMap_Class = org.eclipse.persistence.internal.identitymaps.FullIdentityMap.class;
     public static final Class HardCacheWeakIdentityMap_Class = org.eclipse.persistence.internal.identitymaps.HardCacheWeakIdentityMap.class;
     public static final Class NoIdentityMap_Class = org.eclipse.persistence.internal.identitymaps.NoIdentityMap.class;
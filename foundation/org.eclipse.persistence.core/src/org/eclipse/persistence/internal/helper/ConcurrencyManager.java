@@ -37,6 +37,11 @@
  * <li> Wait all other threads until the first thread is done.
  * <li> Maintain the depth of the active thread.
  * </ul>
+ * <p>
+ * By default the state is guarded by the monitor of the manager, and waiting threads use Object.wait().
+ * If queued locks are used, the state is guarded by a {@link QueuedLock} instead,
+ * which does not pin waiting virtual threads, and does not wake the readers when the last reader releases.
+ * The locking semantics, including deferred locks, are the same.
  */
 public class ConcurrencyManager implements Serializable {
 
@@ -44,6 +49,8 @@ public class ConcurrencyManager implements Serializable {
 
     protected static boolean shouldTrackStack = getPropertyRecordStackOnLock() != null;
 
+    protected static boolean shouldUseQueuedLocks = "true".equalsIgnoreCase(getPropertyQueuedLocks());
+
     protected int numberOfReaders;
     protected int depth;
     protected int numberOfWritersWaiting;
@@ -52,6 +59,9 @@ public class ConcurrencyManager implements Serializable {
     protected boolean lockedByMergeManager;
     protected Exception stack;
 
+    /** Guards the state instead of the monitor if queued locks are used, otherwise null. */
+    protected transient QueuedLock queuedLock;
+
     /**
      * Initialize the newly allocated instance of this class.
      * Set the depth to zero.
@@ -60,6 +70,23 @@ public ConcurrencyManager() {
         this.depth = 0;
         this.numberOfReaders = 0;
         this.numberOfWritersWaiting = 0;
+        if (shouldUseQueuedLocks) {
+            this.queuedLock = new QueuedLock();
+        }
+    }
+
+    /**
+     * Initialize the newly allocated instance of this class.
+     * A queued lock can be used regardless of the default, for a lock held across blocking database calls,
+     * so threads waiting for it do not pin their carrier when they are virtual threads.
+     */
+    public ConcurrencyManager(boolean shouldUseQueuedLock) {
+        this.depth = 0;
+        this.numberOfReaders = 0;
+        this.numberOfWritersWaiting = 0;
+        if (shouldUseQueuedLock) {
+            this.queuedLock = new QueuedLock();
+        }
     }
 
     /**
@@ -77,12 +104,32 @@ public void acquire() throws ConcurrencyException {
      * This should be called before entering a critical section.
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized void acquire(boolean forMerge) throws ConcurrencyException {
+    public void acquire(boolean forMerge) throws ConcurrencyException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                basicAcquire(forMerge);
+            } finally {
+                queuedLock.unlock();
+            }
+            return;
+        }
+        synchronized (this) {
+            basicAcquire(forMerge);
+        }
+    }
+
+    /**
+     * Wait for all threads except the active thread, and increment the depth.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected void basicAcquire(boolean forMerge) throws ConcurrencyException {
         while (((this.activeThread != null) || (this.numberOfReaders > 0)) && (this.activeThread != Thread.currentThread())) {
             // This must be in a while as multiple threads may be released, or another thread may rush the acquire after one is released.
             try {
                 this.numberOfWritersWaiting++;
-                wait();
+                basicWait(true, 0);
                 this.numberOfWritersWaiting--;
             } catch (InterruptedException exception) {
                 throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
@@ -113,10 +160,29 @@ public boolean acquireNoWait() throws ConcurrencyException {
      * Added for CR 2317
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyException {
+    public boolean acquireNoWait(boolean forMerge) throws ConcurrencyException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                return basicAcquireNoWait(forMerge);
+            } finally {
+                queuedLock.unlock();
+            }
+        }
+        synchronized (this) {
+            return basicAcquireNoWait(forMerge);
+        }
+    }
+
+    /**
+     * If the lock is not acquired already acquire it and return true.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected boolean basicAcquireNoWait(boolean forMerge) throws ConcurrencyException {
         if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
             //if I own the lock increment depth
-            acquire(forMerge);
+            basicAcquire(forMerge);
             return true;
         } else {
             return false;
@@ -129,19 +195,38 @@ public synchronized boolean acquireNoWait(boolean forMerge) throws ConcurrencyEx
      * Added for CR 2317
      * called with true from the merge process, if true then the refresh will not refresh the object
      */
-    public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
+    public boolean acquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                return basicAcquireWithWait(forMerge, wait);
+            } finally {
+                queuedLock.unlock();
+            }
+        }
+        synchronized (this) {
+            return basicAcquireWithWait(forMerge, wait);
+        }
+    }
+
+    /**
+     * If the lock is not acquired already, wait once for it to be released, then acquire it and return true.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected boolean basicAcquireWithWait(boolean forMerge, int wait) throws ConcurrencyException {
         if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())) {
             //if I own the lock increment depth
-            acquire(forMerge);
+            basicAcquire(forMerge);
             return true;
         } else {
             try {
-                wait(wait);
+                basicWait(true, wait);
             } catch (InterruptedException e) {
                 return false;
             }
             if ((this.activeThread == null && this.numberOfReaders == 0) || (this.activeThread == Thread.currentThread())){
-                acquire(forMerge);
+                basicAcquire(forMerge);
                 return true;
             }
             return false;
@@ -154,11 +239,30 @@ public synchronized boolean acquireWithWait(boolean forMerge, int wait) throws C
      * Added for Bug 5840635
      * Call with true from the merge process, if true then the refresh will not refresh the object.
      */
-    public synchronized boolean acquireIfUnownedNoWait(boolean forMerge) throws ConcurrencyException {
+    public boolean acquireIfUnownedNoWait(boolean forMerge) throws ConcurrencyException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                return basicAcquireIfUnownedNoWait(forMerge);
+            } finally {
+                queuedLock.unlock();
+            }
+        }
+        synchronized (this) {
+            return basicAcquireIfUnownedNoWait(forMerge);
+        }
+    }
+
+    /**
+     * If the activeThread is not set, acquire it and return true.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected boolean basicAcquireIfUnownedNoWait(boolean forMerge) throws ConcurrencyException {
         // Only acquire lock if active thread is null. Do not check current thread.
         if (this.activeThread == null && this.numberOfReaders == 0) {
              // if lock is unowned increment depth
-            acquire(forMerge);
+            basicAcquire(forMerge);
             return true;
         } else {
             return false;
@@ -176,30 +280,48 @@ public void acquireDeferredLock() throws ConcurrencyException {
             putDeferredLock(currentThread, lockManager);
         }
         lockManager.incrementDepth();
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                basicAcquireDeferredLock(lockManager, currentThread);
+            } finally {
+                queuedLock.unlock();
+            }
+            return;
+        }
         synchronized (this) {
-            while (this.numberOfReaders != 0) {
-                // There are readers of this object, wait until they are done before determining if
-                //there are any other writers.  If not we will wait on the readers for acquire.  If another
-                //thread is also waiting on the acquire then a deadlock could occur.  See bug 3049635
-                //We could release all active locks before releasing deferred but the object may not be finished building
-                //we could make the readers get a hard lock, but then we would just build a deferred lock even though
-                //the object is not being built.
-                try {
-                    this.numberOfWritersWaiting++;
-                    wait();
-                    this.numberOfWritersWaiting--;
-                } catch (InterruptedException exception) {
-                    throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
-                }
+            basicAcquireDeferredLock(lockManager, currentThread);
+        }
+    }
+
+    /**
+     * Acquire the lock if it is free or owned by the current thread, otherwise defer it.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected void basicAcquireDeferredLock(DeferredLockManager lockManager, Thread currentThread) throws ConcurrencyException {
+        while (this.numberOfReaders != 0) {
+            // There are readers of this object, wait until they are done before determining if
+            //there are any other writers.  If not we will wait on the readers for acquire.  If another
+            //thread is also waiting on the acquire then a deadlock could occur.  See bug 3049635
+            //We could release all active locks before releasing deferred but the object may not be finished building
+            //we could make the readers get a hard lock, but then we would just build a deferred lock even though
+            //the object is not being built.
+            try {
+                this.numberOfWritersWaiting++;
+                basicWait(true, 0);
+                this.numberOfWritersWaiting--;
+            } catch (InterruptedException exception) {
+                throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
             }
-            if ((this.activeThread == currentThread) || (!isAcquired())) {
-                lockManager.addActiveLock(this);
-                acquire();
-            } else {
-                lockManager.addDeferredLock(this);
-                if (AbstractSessionLog.getLog().shouldLog(SessionLog.FINER) && this instanceof CacheKey) {
-                    AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.CACHE, "acquiring_deferred_lock", ((CacheKey)this).getObject(), currentThread.getName());
-                }
+        }
+        if ((this.activeThread == currentThread) || (!isAcquired())) {
+            lockManager.addActiveLock(this);
+            basicAcquire(false);
+        } else {
+            lockManager.addDeferredLock(this);
+            if (AbstractSessionLog.getLog().shouldLog(SessionLog.FINER) && this instanceof CacheKey) {
+                AbstractSessionLog.getLog().log(SessionLog.FINER, SessionLog.CACHE, "acquiring_deferred_lock", ((CacheKey)this).getObject(), currentThread.getName());
             }
         }
     }
@@ -234,11 +356,31 @@ public void checkReadLock() throws ConcurrencyException {
      * Wait on any writer.
      * Allow concurrent reads.
      */
-    public synchronized void acquireReadLock() throws ConcurrencyException {
+    public void acquireReadLock() throws ConcurrencyException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                basicAcquireReadLock();
+            } finally {
+                queuedLock.unlock();
+            }
+            return;
+        }
+        synchronized (this) {
+            basicAcquireReadLock();
+        }
+    }
+
+    /**
+     * Wait on any writer, and increment the number of readers.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected void basicAcquireReadLock() throws ConcurrencyException {
         // Cannot check for starving writers as will lead to deadlocks.
         while ((this.activeThread != null) && (this.activeThread != Thread.currentThread())) {
             try {
-                wait();
+                basicWait(false, 0);
             } catch (InterruptedException exception) {
                 throw ConcurrencyException.waitWasInterrupted(exception.getMessage());
             }
@@ -249,15 +391,88 @@ public synchronized void acquireReadLock() throws ConcurrencyException {
     /**
      * If this is acquired return false otherwise acquire readlock and return true
      */
-    public synchronized boolean acquireReadLockNoWait() {
+    public boolean acquireReadLockNoWait() {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                return basicAcquireReadLockNoWait();
+            } finally {
+                queuedLock.unlock();
+            }
+        }
+        synchronized (this) {
+            return basicAcquireReadLockNoWait();
+        }
+    }
+
+    /**
+     * If this is acquired return false otherwise acquire readlock and return true.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected boolean basicAcquireReadLockNoWait() {
         if ((this.activeThread == null) || (this.activeThread == Thread.currentThread())) {
-            acquireReadLock();
+            basicAcquireReadLock();
             return true;
         } else {
             return false;
         }
     }
 
+    /**
+     * Wait until the active thread releases, or for writers until the active thread and all readers release,
+     * or until the timeout in milliseconds expires, 0 means no timeout.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected void basicWait(boolean isWriter, long timeout) throws InterruptedException {
+        if (this.queuedLock == null) {
+            wait(timeout);
+        } else if (isWriter) {
+            this.queuedLock.awaitAllRelease(timeout);
+        } else {
+            this.queuedLock.awaitActiveThreadRelease(timeout);
+        }
+    }
+
+    /**
+     * Wake the threads waiting on the release of the active thread, or only the writers on the release of the last reader.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected void basicNotifyRelease(boolean isActiveThread) {
+        if (this.queuedLock == null) {
+            notifyAll();
+        } else if (isActiveThread) {
+            this.queuedLock.signalActiveThreadRelease();
+        } else {
+            this.queuedLock.signalReadersRelease();
+        }
+    }
+
+    /**
+     * If this is acquired by another thread, wait until it is released, or the timeout in milliseconds expires,
+     * 0 means no timeout.
+     * This must be used instead of waiting on the monitor of the manager, which is not notified if queued locks are used.
+     */
+    public void waitUntilReleased(long timeout) throws InterruptedException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                if (isAcquired()) {
+                    queuedLock.awaitActiveThreadRelease(timeout);
+                }
+            } finally {
+                queuedLock.unlock();
+            }
+            return;
+        }
+        synchronized (this) {
+            if (isAcquired()) {
+                wait(timeout);
+            }
+        }
+    }
+
     /**
      * Return the active thread.
      */
@@ -388,7 +603,27 @@ public void putDeferredLock(Thread thread, DeferredLockManager lockManager) {
      * The notify will release the first thread waiting on the object,
      * if no threads are waiting it will do nothing.
      */
-    public synchronized void release() throws ConcurrencyException {
+    public void release() throws ConcurrencyException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                basicRelease();
+            } finally {
+                queuedLock.unlock();
+            }
+            return;
+        }
+        synchronized (this) {
+            basicRelease();
+        }
+    }
+
+    /**
+     * Decrement the depth for the active thread, and wake the waiting threads if released.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected void basicRelease() throws ConcurrencyException {
         if (this.depth == 0) {
             throw ConcurrencyException.signalAttemptedBeforeWait();
         } else {
@@ -400,7 +635,7 @@ public synchronized void release() throws ConcurrencyException {
                 this.stack = null;
             }
             this.lockedByMergeManager = false;
-            notifyAll();
+            basicNotifyRelease(true);
         }
     }
 
@@ -468,14 +703,34 @@ public void releaseDeferredLock() throws ConcurrencyException {
      * Decrement the number of readers.
      * Used to allow concurrent reads.
      */
-    public synchronized void releaseReadLock() throws ConcurrencyException {
+    public void releaseReadLock() throws ConcurrencyException {
+        QueuedLock queuedLock = this.queuedLock;
+        if (queuedLock != null) {
+            queuedLock.lock();
+            try {
+                basicReleaseReadLock();
+            } finally {
+                queuedLock.unlock();
+            }
+            return;
+        }
+        synchronized (this) {
+            basicReleaseReadLock();
+        }
+    }
+
+    /**
+     * Decrement the number of readers, and wake the waiting writers if the last reader released.
+     * The caller must hold the monitor, or the queued lock.
+     */
+    protected void basicReleaseReadLock() throws ConcurrencyException {
         if (this.numberOfReaders == 0) {
             throw ConcurrencyException.signalAttemptedBeforeWait();
         } else {
             this.numberOfReaders--;
         }
         if (this.numberOfReaders == 0) {
-            notifyAll();
+            basicNotifyRelease(false);
         }
     }
 
@@ -569,10 +824,35 @@ public static void setShouldTrackStack(boolean shouldTrackStack) {
         ConcurrencyManager.shouldTrackStack = shouldTrackStack;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the managers created use a QueuedLock instead of their monitor.
+     */
+    public static boolean shouldUseQueuedLocks() {
+        return shouldUseQueuedLocks;
+    }
+
+    /**
+     * INTERNAL:
+     * Set if the managers created from now on use a QueuedLock instead of their monitor.
+     * Existing managers, such as the cache keys already in the cache, keep their current locking.
+     * This is shared by all sessions, it is set by the "eclipselink.cache.queued-locks" persistence unit
+     * or system property.
+     */
+    public static void setShouldUseQueuedLocks(boolean shouldUseQueuedLocks) {
+        ConcurrencyManager.shouldUseQueuedLocks = shouldUseQueuedLocks;
+    }
+
     private static String getPropertyRecordStackOnLock() {
         return (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) ?
                 AccessController.doPrivileged(new PrivilegedGetSystemProperty(SystemProperties.RECORD_STACK_ON_LOCK))
                 : System.getProperty(SystemProperties.RECORD_STACK_ON_LOCK);
     }
 
+    private static String getPropertyQueuedLocks() {
+        return (PrivilegedAccessHelper.shouldUsePrivilegedAccess()) ?
+                AccessController.doPrivileged(new PrivilegedGetSystemProperty(SystemProperties.CACHE_QUEUED_LOCKS))
+                : System.getProperty(SystemProperties.CACHE_QUEUED_LOCKS);
+    }
+
 }
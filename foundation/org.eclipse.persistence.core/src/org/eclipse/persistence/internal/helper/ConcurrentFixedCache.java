@@ -15,22 +15,37 @@
 import java.io.Serializable;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Provide a concurrent fixed size caching mechanism.
  * This is used for caching EJBQL parsed queries, Update calls,
  * and other places a fixed size cache is needed.
- * The default fixed size is 100.
+ * The default fixed size is 200.
+ * <p>
+ * When the size is exceeded the least recently used entries are evicted,
+ * using the CLOCK (second chance) approximation of LRU:
+ * a get only marks the entry as referenced, without locking, and the eviction sweeps the cache,
+ * evicting the entries that were not referenced since it last passed.
+ * The number of hits, misses and evictions are recorded.
  */
 public class ConcurrentFixedCache implements Serializable {
     protected int maxSize;
     protected Map cache;
 
+    /** The iterator sweeping the cache for eviction, it continues from where the last eviction stopped. */
+    protected transient Iterator<Map.Entry<Object, CacheEntry>> evictionIterator;
+
+    /** Statistics of the cache usage. */
+    protected LongAdder hits;
+    protected LongAdder misses;
+    protected LongAdder evictions;
+
     /**
-     * Create a new concurrent cache, with a fixed size of 100.
+     * Create a new concurrent cache, with a fixed size of 200.
      */
     public ConcurrentFixedCache() {
-        this(100);
+        this(200);
     }
 
     /**
@@ -40,6 +55,9 @@ public ConcurrentFixedCache(int maxSize) {
         // PERF: Use a concurrent map to allow concurrent gets.
         this.cache = new ConcurrentHashMap(maxSize);
         this.maxSize = maxSize;
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
     }
 
     /**
@@ -51,8 +69,8 @@ public int getMaxSize() {
 
     /**
      * Set the fixed size of the parse cache.
-     * When the size is exceeded, subsequent EJBQL will not be cached.
-     * The default size is 100;
+     * When the size is exceeded, the least recently used EJBQL will be evicted.
+     * The default size is 200.
      */
     public void setMaxSize(int maxSize) {
         this.maxSize = maxSize;
@@ -63,7 +81,17 @@ public void setMaxSize(int maxSize) {
      * If the EJBQL has not been cached, null is returned.
      */
     public Object get(Object key) {
-        return this.cache.get(key);
+        CacheEntry entry = (CacheEntry)this.cache.get(key);
+        if (entry == null) {
+            this.misses.increment();
+            return null;
+        }
+        this.hits.increment();
+        // PERF: Avoid writing to the entry shared by all threads if already referenced.
+        if (!entry.isReferenced) {
+            entry.isReferenced = true;
+        }
+        return entry.value;
     }
 
     public void clear(){
@@ -72,29 +100,45 @@ public void clear(){
 
     /**
      * Add the value to the cache.
-     * Remove the
+     * Evict the least recently used entries if the max size is exceeded.
      */
     public void put(Object key, Object value) {
-        if (this.maxSize == 0) {
+        if (this.maxSize <= 0) {
             return;
         }
-        this.cache.put(key, value);
-        // Currently just removes the first one encountered, not LRU,
-        // this is not ideal, but the most concurrent and quickest way to ensure fixed size.
-        if (this.cache.size() > this.maxSize) {
-            Iterator iterator = this.cache.keySet().iterator();
-            try {
-                while ((this.cache.size() > this.maxSize) && iterator.hasNext()) {
-                    Object next = iterator.next();
-                    // Do not remove what was just put in.
-                    if (next != key) {
-                        this.cache.remove(next);
-                    }
+        if ((this.cache.put(key, new CacheEntry(value)) == null) && (this.cache.size() > this.maxSize)) {
+            evict(key);
+        }
+    }
+
+    /**
+     * Evict entries not referenced since the last sweep, until the cache is back to its max size.
+     * Referenced entries are given a second chance and their reference cleared.
+     * Only evictions are synchronized, gets and puts are not blocked.
+     */
+    protected synchronized void evict(Object key) {
+        Map<Object, CacheEntry> cache = this.cache;
+        Iterator<Map.Entry<Object, CacheEntry>> iterator = this.evictionIterator;
+        while (cache.size() > this.maxSize) {
+            if ((iterator == null) || !iterator.hasNext()) {
+                iterator = cache.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    break;
                 }
-            } catch (Exception alreadyGone) {
-                // Ignore.
+            }
+            Map.Entry<Object, CacheEntry> next = iterator.next();
+            CacheEntry entry = next.getValue();
+            // Do not remove what was just put in.
+            if (next.getKey() == key) {
+                continue;
+            }
+            if (entry.isReferenced) {
+                entry.isReferenced = false;
+            } else if (cache.remove(next.getKey(), entry)) {
+                this.evictions.increment();
             }
         }
+        this.evictionIterator = iterator;
     }
 
     /**
@@ -106,8 +150,59 @@ public void remove(Object key) {
 
     /**
      * Return the cache.
+     * The values are held in a CacheEntry that records if they were referenced.
      */
     public Map getCache() {
         return cache;
     }
+
+    /**
+     * Return the number of gets that found their value in the cache.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Return the number of gets that did not find their value in the cache.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Return the number of entries evicted from the cache because its size was exceeded.
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Reset the hits, misses and evictions.
+     */
+    public void resetStatistics() {
+        this.hits.reset();
+        this.misses.reset();
+        this.evictions.reset();
+    }
+
+    /**
+     * Value held in the cache, with whether it was referenced since the last eviction sweep.
+     */
+    public static class CacheEntry implements Serializable {
+        protected final Object value;
+        protected volatile boolean isReferenced;
+
+        public CacheEntry(Object value) {
+            this.value = value;
+        }
+
+        public Object getValue() {
+            return value;
+        }
+
+        public String toString() {
+            return String.valueOf(this.value);
+        }
+    }
 }
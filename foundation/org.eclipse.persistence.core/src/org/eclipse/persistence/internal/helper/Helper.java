@@ -131,6 +131,8 @@ public class Helper extends CoreHelper implements Serializable {
 
     public static final String PERSISTENCE_SET = "_persistence_set_";
     public static final String PERSISTENCE_GET = "_persistence_get_";
+    /** The static method weaved into persistence classes returning the attribute names in the order of their index. */
+    public static final String PERSISTENCE_ATTRIBUTE_NAMES = "_persistence_attributeNames";
     // 323403: These constants are used to search for missing weaved functions - this is a copy is of the jpa project under ClassWeaver
     public static final String PERSISTENCE_FIELDNAME_PREFIX = "_persistence_";
     public static final String PERSISTENCE_FIELDNAME_POSTFIX = "_vh";
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.internal.helper;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.AbstractQueuedSynchronizer;
+
+/**
+ * INTERNAL:
+ * <p>
+ * <b>Purpose</b>: Guard the state of a ConcurrencyManager in place of its monitor, when queued locks are used.
+ * <p>
+ * Threads block in the queue of the synchronizer instead of in Object.wait(), so blocked virtual threads
+ * do not pin their carrier thread.
+ * Writers and readers wait on separate conditions, so the release of the last reader only signals
+ * the writers, and only the release of the active thread signals the readers.
+ * <p>
+ * <b>Responsibilities</b>:
+ * <ul>
+ * <li> Provide a non-reentrant mutex, held only while the ConcurrencyManager state is read or updated.
+ * <li> Park the threads waiting for the active thread or the readers to release the ConcurrencyManager.
+ * </ul>
+ * @see ConcurrencyManager#setShouldUseQueuedLocks(boolean)
+ */
+public class QueuedLock extends AbstractQueuedSynchronizer {
+
+    /** Threads waiting for the active thread to release, lazily initialized as most locks are never contended. */
+    protected transient ConditionObject readersQueue;
+
+    /** Threads waiting for the active thread and all readers to release. */
+    protected transient ConditionObject writersQueue;
+
+    /**
+     * Acquire the mutex.
+     */
+    public void lock() {
+        acquire(1);
+    }
+
+    /**
+     * Release the mutex.
+     */
+    public void unlock() {
+        release(1);
+    }
+
+    @Override
+    protected boolean tryAcquire(int acquires) {
+        if (compareAndSetState(0, 1)) {
+            setExclusiveOwnerThread(Thread.currentThread());
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected boolean tryRelease(int releases) {
+        setExclusiveOwnerThread(null);
+        setState(0);
+        return true;
+    }
+
+    @Override
+    protected boolean isHeldExclusively() {
+        return getExclusiveOwnerThread() == Thread.currentThread();
+    }
+
+    /**
+     * Wait until the active thread releases, or the timeout in milliseconds expires, 0 means no timeout.
+     * The mutex must be held, it is released while waiting.
+     */
+    public void awaitActiveThreadRelease(long timeout) throws InterruptedException {
+        if (this.readersQueue == null) {
+            this.readersQueue = new ConditionObject();
+        }
+        await(this.readersQueue, timeout);
+    }
+
+    /**
+     * Wait until the active thread and all the readers release, or the timeout in milliseconds expires, 0 means no timeout.
+     * The mutex must be held, it is released while waiting.
+     */
+    public void awaitAllRelease(long timeout) throws InterruptedException {
+        if (this.writersQueue == null) {
+            this.writersQueue = new ConditionObject();
+        }
+        await(this.writersQueue, timeout);
+    }
+
+    protected void await(ConditionObject queue, long timeout) throws InterruptedException {
+        if (timeout > 0) {
+            queue.await(timeout, TimeUnit.MILLISECONDS);
+        } else {
+            queue.await();
+        }
+    }
+
+    /**
+     * Signal all the waiting threads that the active thread released.
+     * The mutex must be held.
+     */
+    public void signalActiveThreadRelease() {
+        if (this.readersQueue != null) {
+            this.readersQueue.signalAll();
+        }
+        signalReadersRelease();
+    }
+
+    /**
+     * Signal the writers that the last reader released.
+     * The mutex must be held.
+     */
+    public void signalReadersRelease() {
+        if (this.writersQueue != null) {
+            this.writersQueue.signalAll();
+        }
+    }
+}
@@ -79,14 +79,11 @@ public Map acquireLocksForClone(Object objectForClone, ClassDescriptor descripto
                     ((CacheKey)lockedList.next()).releaseReadLock();
                     lockedList.remove();
                 }
-                synchronized (toWaitOn) {
-                    try {
-                        if (toWaitOn.isAcquired()) {//last minute check to insure it is still locked.
-                            toWaitOn.wait();// wait for lock on object to be released
-                        }
-                    } catch (InterruptedException ex) {
-                        // Ignore exception thread should continue.
-                    }
+                try {
+                    // wait for lock on object to be released, if it is still locked.
+                    toWaitOn.waitUntilReleased(0);
+                } catch (InterruptedException ex) {
+                    // Ignore exception thread should continue.
                 }
                 Object waitObject = toWaitOn.getObject();
                 // Object may be null for loss of identity.
@@ -229,6 +226,17 @@ public CacheKey traverseRelatedLocks(Object objectForClone, Map lockedObjects, M
      * Returns true if all required locks were acquired
      */
     public void acquireRequiredLocks(MergeManager mergeManager, UnitOfWorkChangeSet changeSet) {
+        acquireRequiredLocks(mergeManager, changeSet.getAllChangeSets().values());
+    }
+
+    /**
+     * INTERNAL:
+     * Acquire the locks for all of the object change sets.
+     * This is used by a parallel merge to lock the change sets of a partition of the unit of work change set,
+     * the locks are acquired by the calling thread.
+     * @see #acquireRequiredLocks(MergeManager, UnitOfWorkChangeSet)
+     */
+    public void acquireRequiredLocks(MergeManager mergeManager, Collection<ObjectChangeSet> changeSets) {
         if (!MergeManager.LOCK_ON_MERGE) {//lockOnMerge is a backdoor and not public
             return;
         }
@@ -251,7 +259,7 @@ public void acquireRequiredLocks(MergeManager mergeManager, UnitOfWorkChangeSet
                 locksToAcquire = false;
                 //first access the changeSet and begin to acquire locks
                 ClassDescriptor descriptor = null;
-                for (ObjectChangeSet objectChangeSet : changeSet.getAllChangeSets().values()) {
+                for (ObjectChangeSet objectChangeSet : changeSets) {
                     // No Need to acquire locks for invalidated objects.
                     if ((mergeManager.shouldMergeChangesIntoDistributedCache() && (objectChangeSet.getSynchronizationType() == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS))
                             || objectChangeSet.getId() == null) {
@@ -309,33 +317,31 @@ public void acquireRequiredLocks(MergeManager mergeManager, UnitOfWorkChangeSet
                             try {
                                 if (activeCacheKey != null){
                                     //wait on the lock of the object that we couldn't get.
-                                    synchronized (activeCacheKey) {
-                                        // verify that the cache key is still locked before we wait on it, as
-                                        //it may have been released since we tried to acquire it.
-                                        if (activeCacheKey.isAcquired() && (activeCacheKey.getActiveThread() != Thread.currentThread())) {
-                                                Thread thread = activeCacheKey.getActiveThread();
-                                                if (thread.isAlive()){
-                                                    long time = System.currentTimeMillis();
-                                                    activeCacheKey.wait(MAX_WAIT);
-                                                    if (System.currentTimeMillis() - time >= MAX_WAIT){
-                                                        Object[] params = new Object[]{MAX_WAIT /1000, descriptor.getJavaClassName(), activeCacheKey.getKey(), thread.getName()};
-                                                        StringBuilder buffer = new StringBuilder(TraceLocalization.buildMessage("max_time_exceeded_for_acquirerequiredlocks_wait", params));
-                                                        StackTraceElement[] trace = thread.getStackTrace();
-                                                        for (StackTraceElement element : trace){
-                                                            buffer.append("\t\tat");
-                                                            buffer.append(element.toString());
-                                                            buffer.append("\n");
-                                                        }
-                                                        session.log(SessionLog.SEVERE, SessionLog.CACHE, buffer.toString());
-                                                        session.getIdentityMapAccessor().printIdentityMapLocks();
-                                                    }
-                                                }else{
-                                                    session.log(SessionLog.SEVERE, SessionLog.CACHE, "releasing_invalid_lock", new Object[] { thread.getName(),descriptor.getJavaClass(), objectChangeSet.getId()});
-                                                    //thread that held lock is no longer alive.  Something bad has happened like
-                                                    while (activeCacheKey.isAcquired()){
-                                                        // could have a depth greater than one.
-                                                        activeCacheKey.release();
+                                    // verify that the cache key is still locked before we wait on it, as
+                                    //it may have been released since we tried to acquire it.
+                                    Thread thread = activeCacheKey.getActiveThread();
+                                    if (activeCacheKey.isAcquired() && (thread != null) && (thread != Thread.currentThread())) {
+                                            if (thread.isAlive()){
+                                                long time = System.currentTimeMillis();
+                                                activeCacheKey.waitUntilReleased(MAX_WAIT);
+                                                if (System.currentTimeMillis() - time >= MAX_WAIT){
+                                                    Object[] params = new Object[]{MAX_WAIT /1000, descriptor.getJavaClassName(), activeCacheKey.getKey(), thread.getName()};
+                                                    StringBuilder buffer = new StringBuilder(TraceLocalization.buildMessage("max_time_exceeded_for_acquirerequiredlocks_wait", params));
+                                                    StackTraceElement[] trace = thread.getStackTrace();
+                                                    for (StackTraceElement element : trace){
+                                                        buffer.append("\t\tat");
+                                                        buffer.append(element.toString());
+                                                        buffer.append("\n");
                                                     }
+                                                    session.log(SessionLog.SEVERE, SessionLog.CACHE, buffer.toString());
+                                                    session.getIdentityMapAccessor().printIdentityMapLocks();
+                                                }
+                                            }else{
+                                                session.log(SessionLog.SEVERE, SessionLog.CACHE, "releasing_invalid_lock", new Object[] { thread.getName(),descriptor.getJavaClass(), objectChangeSet.getId()});
+                                                //thread that held lock is no longer alive.  Something bad has happened like
+                                                while (activeCacheKey.isAcquired()){
+                                                    // could have a depth greater than one.
+                                                    activeCacheKey.release();
                                                 }
                                             }
                                         }
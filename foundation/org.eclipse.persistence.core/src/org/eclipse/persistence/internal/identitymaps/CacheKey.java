@@ -290,15 +290,21 @@ public boolean acquireReadLockNoWait() {
     /**
      * INTERNAL:
      * Clones itself.
+     * The clone is locked independently of the original, so it is given its own queued lock.
      */
     public Object clone() {
-        Object object = null;
+        CacheKey object = null;
 
         try {
-            object = super.clone();
+            object = (CacheKey)super.clone();
         } catch (Exception exception) {
             throw new InternalError(exception.toString());
         }
+        if (shouldUseQueuedLocks) {
+            object.queuedLock = new QueuedLock();
+        } else {
+            object.queuedLock = null;
+        }
 
         return object;
     }
@@ -570,13 +576,13 @@ public void setTransactionId(Object transactionId) {
         this.transactionId = transactionId;
     }
 
-    public synchronized Object waitForObject(){
+    public Object waitForObject(){
         try {
             int count = 0;
             while (this.object == null && isAcquired()) {
                 if (count > MAX_WAIT_TRIES)
                     throw ConcurrencyException.maxTriesLockOnBuildObjectExceded(getActiveThread(), Thread.currentThread());
-                wait(10);
+                waitUntilReleased(10);
                 ++count;
             }
         } catch(InterruptedException ex) {
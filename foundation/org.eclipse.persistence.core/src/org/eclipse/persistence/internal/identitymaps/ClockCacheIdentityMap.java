@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+
+/**
+ * <p><b>Purpose</b>: A fixed size cache with approximate LRU eviction.<p>
+ * Unlike the CacheIdentityMap, a cache hit does not relink a shared list under a monitor,
+ * it only sets the reference bit of the ClockCacheKey.
+ * When a new object is inserted and the maxSize has been exceeded, the clock hand sweeps the
+ * keys in insertion order, giving referenced keys a second chance (clearing their bit),
+ * and removing the first unreferenced key.
+ * <p><b>Responsibilities</b>:<ul>
+ *    <li> Maintains identity through primary key values for the cached objects,
+ *    but does not guarantee identity, an evicted object may be read again as a new instance.
+ *    <li> Never locks on a cache hit.
+ *    <li> Only one thread sweeps the clock at a time, other inserting threads do not wait for it.
+ * </ul>
+ * @see ClockCacheKey
+ */
+public class ClockCacheIdentityMap extends FullIdentityMap {
+
+    /** The clock, keys in insertion order, the head is the clock hand. */
+    protected Queue<ClockCacheKey> clock;
+
+    /** The number of keys on the clock, including keys already removed from the map. */
+    protected AtomicInteger clockSize;
+
+    /** Guards the sweep, acquired with tryLock so inserts never block on it. */
+    protected ReentrantLock sweepLock;
+
+    public ClockCacheIdentityMap(int size, ClassDescriptor descriptor, AbstractSession session, boolean isolated) {
+        super(size, descriptor, session, isolated);
+        this.clock = new ConcurrentLinkedQueue<ClockCacheKey>();
+        this.clockSize = new AtomicInteger();
+        this.sweepLock = new ReentrantLock();
+    }
+
+    /**
+     * INTERNAL:
+     * Clones itself, the clock of the clone is rebuilt from its cache keys.
+     */
+    @Override
+    public Object clone() {
+        ClockCacheIdentityMap clone = (ClockCacheIdentityMap)super.clone();
+        clone.clock = new ConcurrentLinkedQueue<ClockCacheKey>();
+        for (CacheKey key : clone.getCacheKeys().values()) {
+            key.setOwningMap(clone);
+            clone.clock.add((ClockCacheKey)key);
+        }
+        clone.clockSize = new AtomicInteger(clone.clock.size());
+        clone.sweepLock = new ReentrantLock();
+        return clone;
+    }
+
+    @Override
+    public CacheKey createCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime) {
+        return new ClockCacheKey(primaryKey, object, writeLockValue, readTime, isIsolated);
+    }
+
+    /**
+     * Reduces the size of the receiver down to the maxSize by sweeping the clock.
+     * Keys removed from the map by other means are dropped from the clock as the hand passes them,
+     * the clock is also swept if it holds more than twice the maxSize to purge these.
+     * If another thread is already sweeping, return immediately.
+     */
+    protected void ensureFixedSize() {
+        int maxSize = getMaxSize();
+        // protect the case where someone attempts to break the cache by
+        // setting max size to 0.
+        if ((maxSize <= 0) || ((getSize() <= maxSize) && (this.clockSize.get() <= (maxSize * 2)))) {
+            return;
+        }
+        // Re-check after releasing the lock, as inserts that failed to acquire it rely on this thread.
+        while (this.sweepLock.tryLock()) {
+            boolean isSwept;
+            try {
+                isSwept = sweep(maxSize);
+            } finally {
+                this.sweepLock.unlock();
+            }
+            if (!isSwept || (getSize() <= maxSize)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sweep the clock until the receiver is reduced to the maxSize.
+     * Callers of this method must hold the sweepLock.
+     * @return false if the clock ran out of keys.
+     */
+    protected boolean sweep(int maxSize) {
+        // Bound the second chances given in a single sweep, as concurrent reads may keep setting the bits.
+        int secondChances = this.clockSize.get();
+        int purgeChecks = secondChances;
+        while (true) {
+            boolean isOverSize = getSize() > maxSize;
+            if (!isOverSize && ((this.clockSize.get() <= maxSize) || (purgeChecks-- <= 0))) {
+                return true;
+            }
+            ClockCacheKey key = this.clock.poll();
+            if (key == null) {
+                return false;
+            }
+            if (key.getOwningMap() != this) {
+                // Already removed.
+                this.clockSize.decrementAndGet();
+            } else if (!isOverSize) {
+                // Only purging removed keys.
+                this.clock.offer(key);
+            } else if (key.isReferenced() && (secondChances-- > 0)) {
+                key.setIsReferenced(false);
+                this.clock.offer(key);
+            } else {
+                this.clockSize.decrementAndGet();
+                super.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Access the object within the table for the given primaryKey.
+     * Mark the accessed key as referenced, no lock is acquired.
+     * @param primaryKeys is the primary key for the object to search for.
+     * @return the ClockCacheKey or null if none found for primaryKey
+     */
+    @Override
+    public CacheKey getCacheKey(Object primaryKeys, boolean forMerge) {
+        ClockCacheKey cacheKey = (ClockCacheKey)super.getCacheKey(primaryKeys, forMerge);
+        if (cacheKey != null) {
+            cacheKey.markReferenced();
+        }
+        return cacheKey;
+    }
+
+    /**
+     * Also add the key to the clock if the cacheKey is put.
+     */
+    @Override
+    protected CacheKey putCacheKeyIfAbsent(CacheKey searchKey) {
+        CacheKey cacheKey = super.putCacheKeyIfAbsent(searchKey);
+        if (cacheKey == null) {
+            this.clockSize.incrementAndGet();
+            this.clock.offer((ClockCacheKey)searchKey);
+            ensureFixedSize();
+        }
+        return cacheKey;
+    }
+
+    /**
+     * INTERNAL:
+     * This method will be used to update the max cache size, any objects exceeding the max cache size will
+     * be remove from the cache.
+     */
+    @Override
+    public void updateMaxSize(int maxSize) {
+        setMaxSize(maxSize);
+        ensureFixedSize();
+    }
+}
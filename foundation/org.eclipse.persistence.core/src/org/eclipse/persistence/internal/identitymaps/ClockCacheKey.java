@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+/**
+ * <p><b>Purpose</b>: Container class for storing objects in a ClockCacheIdentityMap.
+ * <p><b>Responsibilities</b>:<ul>
+ * <li> Provide same capabilities as superclass.
+ * <li> Maintain the reference bit used by the clock (second chance) eviction.
+ * </ul>
+ * @see ClockCacheIdentityMap
+ */
+public class ClockCacheKey extends CacheKey {
+
+    /** Set on every cache hit, cleared by the clock hand when the key is given a second chance. */
+    protected volatile boolean isReferenced;
+
+    /**
+     * Initialize the newly allocated instance of this class.
+     * @param object is the domain object.
+     * @param writeLockValue is the write lock value number.
+     */
+    public ClockCacheKey(Object primaryKey, Object object, Object writeLockValue, long readTime, boolean isIsolated) {
+        super(primaryKey, object, writeLockValue, readTime, isIsolated);
+    }
+
+    /**
+     * Return if the key has been accessed since the clock hand last passed it.
+     */
+    public boolean isReferenced() {
+        return isReferenced;
+    }
+
+    /**
+     * Mark the key as accessed.
+     * PERF: Avoid the volatile write if already set, to not invalidate the cache line on every hit.
+     */
+    public void markReferenced() {
+        if (!this.isReferenced) {
+            this.isReferenced = true;
+        }
+    }
+
+    public void setIsReferenced(boolean isReferenced) {
+        this.isReferenced = isReferenced;
+    }
+}
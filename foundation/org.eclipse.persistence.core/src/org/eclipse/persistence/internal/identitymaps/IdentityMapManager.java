@@ -19,6 +19,10 @@
 import java.io.StringWriter;
 import java.lang.reflect.Constructor;
 import java.security.AccessController;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -29,11 +33,14 @@
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.eclipse.persistence.config.ReferenceMode;
 import org.eclipse.persistence.descriptors.CacheIndex;
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.descriptors.invalidation.CacheInvalidationPolicy;
+import org.eclipse.persistence.descriptors.invalidation.NoExpiryCacheInvalidationPolicy;
 import org.eclipse.persistence.exceptions.DescriptorException;
 import org.eclipse.persistence.exceptions.EclipseLinkException;
 import org.eclipse.persistence.exceptions.QueryException;
@@ -48,16 +55,21 @@
 import org.eclipse.persistence.internal.helper.InvalidObject;
 import org.eclipse.persistence.internal.helper.WriteLockManager;
 import org.eclipse.persistence.internal.localization.LoggingLocalization;
+import org.eclipse.persistence.internal.queries.ContainerPolicy;
 import org.eclipse.persistence.internal.localization.TraceLocalization;
 import org.eclipse.persistence.internal.security.PrivilegedAccessHelper;
 import org.eclipse.persistence.internal.security.PrivilegedGetConstructorFor;
 import org.eclipse.persistence.internal.security.PrivilegedInvokeConstructor;
 import org.eclipse.persistence.internal.sessions.AbstractRecord;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
 import org.eclipse.persistence.internal.sessions.UnitOfWorkImpl;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.queries.InMemoryQueryIndirectionPolicy;
 import org.eclipse.persistence.queries.ObjectLevelReadQuery;
+import org.eclipse.persistence.queries.QueryResultsCachePolicy;
+import org.eclipse.persistence.queries.ReadAllQuery;
 import org.eclipse.persistence.queries.ReadQuery;
 import org.eclipse.persistence.sessions.Record;
 import org.eclipse.persistence.sessions.SessionProfiler;
@@ -84,9 +96,24 @@ public class IdentityMapManager implements Serializable, Cloneable {
     /** A map of class to list of queries that need to be invalidated when that class changes. */
     protected Map<Class, Set> queryResultsInvalidationsByClass;
 
+    /** A map of query key to queries that only invalidate the cached results affected by a change. */
+    protected Map<Object, ReadQuery> queryResultsInvalidatedByPrimaryKey;
+
+    /** The approximate total size of all cached query results, used to bound the total query cache size. */
+    protected AtomicLong queryResultsSize = new AtomicLong();
+
+    /** Ensures only one thread evicts query results when the total query cache size is exceeded. */
+    protected AtomicBoolean isEvictingQueryResults = new AtomicBoolean();
+
     /** A map of indexes on the cache. */
     protected Map<CacheIndex, IdentityMap> cacheIndexes;
 
+    /** A map of the non-unique indexes on the cache, used for in-memory queries. */
+    protected Map<CacheIndex, NonUniqueCacheIndex> nonUniqueCacheIndexes;
+
+    /** The off-heap tiers of the shared cache, by root class, null for unit of work and isolated caches. */
+    protected Map<Class, OffHeapCache> offHeapCaches;
+
     /** A reference to the session owning this manager. */
     protected AbstractSession session;
 
@@ -115,12 +142,17 @@ public IdentityMapManager(AbstractSession session) {
             this.identityMaps = new HashMap();
             this.queryResults = new HashMap();
             this.queryResultsInvalidationsByClass = new HashMap();
+            this.queryResultsInvalidatedByPrimaryKey = new HashMap();
             this.cacheIndexes = new HashMap();
+            this.nonUniqueCacheIndexes = new HashMap();
         } else {
             this.identityMaps = new ConcurrentHashMap();
             this.queryResults = new ConcurrentHashMap();
             this.queryResultsInvalidationsByClass = new ConcurrentHashMap();
+            this.queryResultsInvalidatedByPrimaryKey = new ConcurrentHashMap();
             this.cacheIndexes = new ConcurrentHashMap();
+            this.nonUniqueCacheIndexes = new ConcurrentHashMap();
+            this.offHeapCaches = new ConcurrentHashMap();
         }
         checkIsCacheAccessPreCheckRequired();
     }
@@ -384,6 +416,8 @@ protected IdentityMap buildNewIdentityMap(Class identityMapClass, int size, Clas
                 return new FullIdentityMap(size, descriptor, this.session, isIsolated);
             } else if (identityMapClass == ClassConstants.CacheIdentityMap_Class) {
                 return new CacheIdentityMap(size, descriptor, this.session, isIsolated);
+            } else if (identityMapClass == ClassConstants.ClockCacheIdentityMap_Class) {
+                return new ClockCacheIdentityMap(size, descriptor, this.session, isIsolated);
             }
         }
         try {
@@ -447,6 +481,8 @@ public Object clone() {
     public void clearQueryCache() {
         this.queryResults = new ConcurrentHashMap();
         this.queryResultsInvalidationsByClass = new ConcurrentHashMap();
+        this.queryResultsInvalidatedByPrimaryKey = new ConcurrentHashMap();
+        this.queryResultsSize.set(0);
     }
 
     /**
@@ -454,6 +490,118 @@ public void clearQueryCache() {
      */
     public void clearCacheIndexes() {
         this.cacheIndexes = new ConcurrentHashMap();
+        this.nonUniqueCacheIndexes = new ConcurrentHashMap();
+    }
+
+    /**
+     * INTERNAL:
+     * Return the off-heap tier of the shared cache for the descriptor, if missing create a new one.
+     * Return null if the descriptor is not configured to use one, or if this is not a shared cache.
+     * The tier is only used with no cache expiry, as the rows do not record when they were read.
+     * If the size was set to 0 since the tier was created, it is removed and its buffers freed.
+     */
+    public OffHeapCache getOffHeapCache(ClassDescriptor descriptor) {
+        if ((this.offHeapCaches == null) || !(descriptor.getCacheInvalidationPolicy() instanceof NoExpiryCacheInvalidationPolicy)) {
+            return null;
+        }
+        if (descriptor.hasInheritance()) {
+            descriptor = descriptor.getInheritancePolicy().getRootParentDescriptor();
+        }
+        long size = descriptor.getCachePolicy().getOffHeapCacheSize();
+        if ((size <= 0) || descriptor.getCachePolicy().isIsolated()) {
+            if (!this.offHeapCaches.isEmpty()) {
+                removeOffHeapCache(descriptor);
+            }
+            return null;
+        }
+        Class descriptorClass = descriptor.getJavaClass();
+        OffHeapCache offHeapCache = this.offHeapCaches.get(descriptorClass);
+        if (offHeapCache == null) {
+            OffHeapCache newOffHeapCache = new OffHeapCache(descriptor, size);
+            offHeapCache = ((ConcurrentMap<Class, OffHeapCache>)this.offHeapCaches).putIfAbsent(descriptorClass, newOffHeapCache);
+            if (offHeapCache == null) {
+                offHeapCache = newOffHeapCache;
+            }
+        }
+        return offHeapCache;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the row stored in the off-heap tier for the primary key, or null.
+     */
+    public AbstractRecord getFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor, boolean isSerializedObject) {
+        OffHeapCache offHeapCache = getOffHeapCache(descriptor);
+        if (offHeapCache == null) {
+            return null;
+        }
+        return offHeapCache.get(primaryKey, isSerializedObject, this.session);
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the row stored in the off-heap tier for the primary key.
+     * This must be called when the object is changed, removed or invalidated.
+     */
+    public void removeFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor) {
+        if ((this.offHeapCaches == null) || this.offHeapCaches.isEmpty() || (primaryKey == null)) {
+            return;
+        }
+        if (descriptor.hasInheritance()) {
+            descriptor = descriptor.getInheritancePolicy().getRootParentDescriptor();
+        }
+        OffHeapCache offHeapCache = this.offHeapCaches.get(descriptor.getJavaClass());
+        if (offHeapCache != null) {
+            offHeapCache.remove(primaryKey);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Remove all of the rows stored in the off-heap tier for the descriptor's inheritance hierarchy.
+     */
+    public void clearOffHeapCache(ClassDescriptor descriptor) {
+        if ((this.offHeapCaches == null) || this.offHeapCaches.isEmpty()) {
+            return;
+        }
+        if (descriptor.hasInheritance()) {
+            descriptor = descriptor.getInheritancePolicy().getRootParentDescriptor();
+        }
+        OffHeapCache offHeapCache = this.offHeapCaches.get(descriptor.getJavaClass());
+        if (offHeapCache != null) {
+            offHeapCache.clear();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the off-heap tier of the descriptor's inheritance hierarchy and free its buffers.
+     */
+    public void removeOffHeapCache(ClassDescriptor descriptor) {
+        if ((this.offHeapCaches == null) || this.offHeapCaches.isEmpty()) {
+            return;
+        }
+        if (descriptor.hasInheritance()) {
+            descriptor = descriptor.getInheritancePolicy().getRootParentDescriptor();
+        }
+        OffHeapCache offHeapCache = this.offHeapCaches.remove(descriptor.getJavaClass());
+        if (offHeapCache != null) {
+            offHeapCache.free();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Remove all of the off-heap tiers and free their buffers.
+     */
+    public void removeOffHeapCaches() {
+        if (this.offHeapCaches != null) {
+            for (Iterator<OffHeapCache> iterator = this.offHeapCaches.values().iterator(); iterator.hasNext();) {
+                OffHeapCache offHeapCache = iterator.next();
+                iterator.remove();
+                offHeapCache.free();
+            }
+        }
     }
 
     /**
@@ -468,7 +616,17 @@ public void clearQueryCache(ReadQuery query) {
             if ((queryKey == null) || ((String)queryKey).length() == 0) {
                 queryKey = query;
             }
-            this.queryResults.remove(queryKey);
+            removeQueryResults(queryKey);
+        }
+    }
+
+    /**
+     * Remove all of the cached results of the query.
+     */
+    protected void removeQueryResults(Object queryKey) {
+        IdentityMap map = this.queryResults.remove(queryKey);
+        if (map != null) {
+            releaseQueryResultsSize(map);
         }
     }
 
@@ -477,18 +635,297 @@ public void clearQueryCache(ReadQuery query) {
      * This is used to invalidate the query cache on any change.
      */
     public void invalidateQueryCache(Class classThatChanged) {
+        invalidateQueryCache(classThatChanged, null);
+    }
+
+    /**
+     * Invalidate/remove any results for the class from the query cache.
+     * This is used to invalidate the query cache on a commit or merge of the change set.
+     * Queries that invalidate by primary key only remove the results affected by the changes of the class,
+     * if the changes are not known all of the query's results are removed.
+     */
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
         if (this.queryResultsInvalidationsByClass == null) {
             return;
         }
-        Set invalidations = this.queryResultsInvalidationsByClass.get(classThatChanged);
-        if (invalidations != null) {
-            for (Object queryKey : invalidations) {
-                this.queryResults.remove(queryKey);
+        Set<Object> invalidations = null;
+        Class currentClass = classThatChanged;
+        while ((currentClass != null) && (currentClass != ClassConstants.OBJECT)) {
+            Set queryKeys = this.queryResultsInvalidationsByClass.get(currentClass);
+            if (queryKeys != null) {
+                if (invalidations == null) {
+                    invalidations = new HashSet<Object>();
+                }
+                invalidations.addAll(queryKeys);
+            }
+            currentClass = currentClass.getSuperclass();
+        }
+        if (invalidations == null) {
+            return;
+        }
+        List<ObjectChangeSet> changes = null;
+        for (Object queryKey : invalidations) {
+            ReadQuery query = this.queryResultsInvalidatedByPrimaryKey.get(queryKey);
+            if ((query != null) && (changeSet != null)) {
+                if (changes == null) {
+                    changes = getChangesForClass(classThatChanged, changeSet);
+                }
+                if (invalidateQueryResultsByPrimaryKey(queryKey, query, classThatChanged, changes, changeSet)) {
+                    continue;
+                }
+            }
+            removeQueryResults(queryKey);
+        }
+    }
+
+    /**
+     * Return the updated, new and deleted object changes of the class in the change set.
+     */
+    protected List<ObjectChangeSet> getChangesForClass(Class changedClass, UnitOfWorkChangeSet changeSet) {
+        List<ObjectChangeSet> changes = new ArrayList<ObjectChangeSet>();
+        for (ObjectChangeSet objectChanges : changeSet.getAllChangeSets().keySet()) {
+            if (objectChanges.getClassType(this.session) == changedClass) {
+                changes.add(objectChanges);
+            }
+        }
+        if (changeSet.hasDeletedObjects()) {
+            for (ObjectChangeSet objectChanges : changeSet.getDeletedObjects().keySet()) {
+                if (objectChanges.getClassType(this.session) == changedClass) {
+                    changes.add(objectChanges);
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Remove only the cached results of the query that contain an object changed in the changes.
+     * Return false if the changes may change which objects the query selects,
+     * in which case all of the query's results must be removed.
+     */
+    protected boolean invalidateQueryResultsByPrimaryKey(Object queryKey, ReadQuery query, Class changedClass, List<ObjectChangeSet> changes, UnitOfWorkChangeSet changeSet) {
+        if (changes.isEmpty()) {
+            return false;
+        }
+        QueryResultsCachePolicy policy = query.getQueryResultsCachePolicy();
+        Set<String> attributes = policy.getInvalidationAttributes();
+        Class referenceClass = query.getReferenceClass();
+        boolean isReferenceClass = (referenceClass != null) && (referenceClass.isAssignableFrom(changedClass) || changedClass.isAssignableFrom(referenceClass));
+        Set<Object> changedIds = new HashSet<Object>();
+        for (ObjectChangeSet objectChanges : changes) {
+            if (objectChanges.isNew()) {
+                return false;
+            }
+            if (changeSet.hasDeletedObjects() && changeSet.getDeletedObjects().containsKey(objectChanges)) {
+                // A deleted object can only remove itself from the results, unless it was joined.
+                if (!isReferenceClass) {
+                    return false;
+                }
+            } else {
+                List<String> changedAttributes = objectChanges.getChangedAttributeNames();
+                if (changedAttributes.isEmpty()) {
+                    return false;
+                }
+                for (String attribute : changedAttributes) {
+                    if ((attributes == null) || attributes.contains(attribute)) {
+                        return false;
+                    }
+                }
+            }
+            if (isReferenceClass && (objectChanges.getId() != null)) {
+                changedIds.add(objectChanges.getId());
+            }
+        }
+        if (changedIds.isEmpty()) {
+            return true;
+        }
+        IdentityMap map = this.queryResults.get(queryKey);
+        if (map == null) {
+            return true;
+        }
+        List<CacheKey> invalidKeys = new ArrayList<CacheKey>();
+        for (Enumeration cacheEnum = map.keys(false); cacheEnum.hasMoreElements();) {
+            CacheKey key = (CacheKey)cacheEnum.nextElement();
+            Set<Object> dependencies = getQueryResultDependencies(key);
+            if (dependencies == null) {
+                // The results are being put, or were replaced, and their dependencies are not known yet.
+                invalidKeys.add(key);
+            } else {
+                for (Object id : changedIds) {
+                    if (dependencies.contains(id)) {
+                        invalidKeys.add(key);
+                        break;
+                    }
+                }
             }
         }
-        Class superClass = classThatChanged.getSuperclass();
-        if ((superClass != null) && (superClass != ClassConstants.OBJECT)) {
-            invalidateQueryCache(superClass);
+        for (CacheKey key : invalidKeys) {
+            if (map.remove(key) != null) {
+                releaseQueryResultsSize(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return if the query only invalidates the cached results affected by a change.
+     * This requires the query to select objects by expression, so the attributes it selects by are known.
+     */
+    protected boolean isQueryResultsInvalidatedByPrimaryKey(ReadQuery query) {
+        QueryResultsCachePolicy policy = query.getQueryResultsCachePolicy();
+        return policy.getInvalidateOnChange() && policy.getInvalidateByPrimaryKey()
+            && query.isObjectLevelReadQuery() && (!query.isReportQuery())
+            && query.getQueryMechanism().isExpressionQueryMechanism();
+    }
+
+    /**
+     * Return the primary keys of the objects in the query results.
+     * These are stored in the results cache key's wrapper to invalidate the results when one of the objects changes.
+     */
+    protected Set<Object> buildQueryResultDependencies(ObjectLevelReadQuery query, Object results) {
+        Set<Object> dependencies = new HashSet<Object>();
+        if ((results == null) || (results == InvalidObject.instance())) {
+            return dependencies;
+        }
+        ObjectBuilder builder = query.getDescriptor().getObjectBuilder();
+        if (query.isReadAllQuery()) {
+            ContainerPolicy containerPolicy = ((ReadAllQuery)query).getContainerPolicy();
+            for (Object iterator = containerPolicy.iteratorFor(results); containerPolicy.hasNext(iterator);) {
+                Object object = containerPolicy.next(iterator, this.session);
+                if (object != null) {
+                    dependencies.add(builder.extractPrimaryKeyFromObject(object, this.session));
+                }
+            }
+        } else {
+            dependencies.add(builder.extractPrimaryKeyFromObject(results, this.session));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Return the primary keys of the objects in the cached query results of the cache key,
+     * or null if not known, as the results are not the ones the dependencies were built for.
+     */
+    protected Set<Object> getQueryResultDependencies(CacheKey key) {
+        Object info = key.getWrapper();
+        if ((info instanceof QueryResultsInfo) && (((QueryResultsInfo)info).results == key.getObject())) {
+            return ((QueryResultsInfo)info).dependencies;
+        }
+        return null;
+    }
+
+    /**
+     * Return the size of the query results, the number of objects or rows, used to bound the total query cache size.
+     */
+    protected int computeQueryResultsSize(Object results) {
+        int size = 1;
+        if (results instanceof Collection) {
+            size = Math.max(((Collection)results).size(), 1);
+        } else if (results instanceof Map) {
+            size = Math.max(((Map)results).size(), 1);
+        }
+        return size;
+    }
+
+    /**
+     * Add the size of the new query results to the total query cache size, and if it exceeds the project's
+     * query results cache max size evict the least recently used results of any query.
+     */
+    protected void updateQueryResultsSize(CacheKey cacheKey, QueryResultsInfo previousInfo, QueryResultsInfo info, int maxSize) {
+        long size = info.size;
+        if (previousInfo != null) {
+            size = size - previousInfo.size;
+        }
+        if (this.queryResultsSize.addAndGet(size) > maxSize) {
+            evictQueryResults(cacheKey, maxSize);
+        }
+    }
+
+    /**
+     * Evict the least recently used results of any query, until the total query cache size is below the max size.
+     * This is approximate, the access of results is only stamped, so the cache can be read without any lock,
+     * and the results are evicted to a bit below the max size, so the results are not scanned on every put.
+     * The total size is recomputed, so also corrects the results evicted by the query's own cache.
+     */
+    protected void evictQueryResults(CacheKey newResults, int maxSize) {
+        // Another thread is already evicting.
+        if (!this.isEvictingQueryResults.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long totalSize = 0;
+            List<CacheKey> keys = new ArrayList<CacheKey>();
+            for (IdentityMap map : this.queryResults.values()) {
+                for (Enumeration cacheEnum = map.keys(false); cacheEnum.hasMoreElements();) {
+                    CacheKey key = (CacheKey)cacheEnum.nextElement();
+                    totalSize = totalSize + getQueryResultsSize(key);
+                    // Always keep the new results, even if larger than the max size.
+                    if (key != newResults) {
+                        keys.add(key);
+                    }
+                }
+            }
+            long targetSize = maxSize - (maxSize / 10);
+            if (totalSize > maxSize) {
+                Collections.sort(keys, new Comparator<CacheKey>() {
+                    public int compare(CacheKey key, CacheKey otherKey) {
+                        return Long.compare(getQueryResultsLastAccess(key), getQueryResultsLastAccess(otherKey));
+                    }
+                });
+                for (int index = 0; (index < keys.size()) && (totalSize > targetSize); index++) {
+                    CacheKey key = keys.get(index);
+                    if (key.removeFromOwningMap() != null) {
+                        totalSize = totalSize - getQueryResultsSize(key);
+                    }
+                }
+            }
+            this.queryResultsSize.set(totalSize);
+        } finally {
+            this.isEvictingQueryResults.set(false);
+        }
+    }
+
+    /**
+     * Return the size of the cached query results, 0 if not recorded.
+     */
+    protected int getQueryResultsSize(CacheKey key) {
+        Object info = key.getWrapper();
+        if (info instanceof QueryResultsInfo) {
+            return ((QueryResultsInfo)info).size;
+        }
+        return 0;
+    }
+
+    /**
+     * Return the last access stamp of the cached query results, 0 if not recorded.
+     */
+    protected long getQueryResultsLastAccess(CacheKey key) {
+        Object info = key.getWrapper();
+        if (info instanceof QueryResultsInfo) {
+            return ((QueryResultsInfo)info).lastAccess;
+        }
+        return 0;
+    }
+
+    /**
+     * Remove the size of the removed query results from the total query cache size.
+     */
+    protected void releaseQueryResultsSize(CacheKey key) {
+        int size = getQueryResultsSize(key);
+        if (size > 0) {
+            this.queryResultsSize.addAndGet(-size);
+        }
+    }
+
+    /**
+     * Remove the size of all of the removed query's results from the total query cache size.
+     */
+    protected void releaseQueryResultsSize(IdentityMap map) {
+        if (this.session.getProject().getQueryResultsCacheMaxSize() <= 0) {
+            return;
+        }
+        for (Enumeration cacheEnum = map.keys(false); cacheEnum.hasMoreElements();) {
+            releaseQueryResultsSize((CacheKey)cacheEnum.nextElement());
         }
     }
 
@@ -540,9 +977,29 @@ public Vector getAllFromIdentityMap(Expression selectionCriteria, Class theClass
             // bug 327900 - If don't read subclasses is set on the descriptor heed it.
             boolean readSubclassesOrNoInheritance = (!descriptor.hasInheritance() || descriptor.getInheritancePolicy().shouldReadSubclasses());
 
+            // PERF: Lookup the objects that may conform in a non-unique cache index, instead of conforming every object.
+            Enumeration cacheEnum = null;
+            if ((selectionCriteria != null) && (this.nonUniqueCacheIndexes != null) && descriptor.getCachePolicy().hasNonUniqueCacheIndexes()) {
+                Collection<Object> primaryKeys = descriptor.getCachePolicy().getPrimaryKeysByIndex(selectionCriteria, (AbstractRecord)translationRow, descriptor, this.session);
+                if (primaryKeys != null) {
+                    Vector cacheKeys = new Vector(primaryKeys.size());
+                    for (Object primaryKey : primaryKeys) {
+                        // The index may contain objects no longer in the cache.
+                        CacheKey key = map.getCacheKey(primaryKey, false);
+                        if (key != null) {
+                            cacheKeys.add(key);
+                        }
+                    }
+                    cacheEnum = cacheKeys.elements();
+                }
+            }
+            if (cacheEnum == null) {
+                cacheEnum = map.keys();
+            }
+
             // cache the current time to avoid calculating it every time through the loop
             long currentTimeInMillis = System.currentTimeMillis();
-            for (Enumeration cacheEnum = map.keys(); cacheEnum.hasMoreElements();) {
+            while (cacheEnum.hasMoreElements()) {
                 CacheKey key = (CacheKey)cacheEnum.nextElement();
                 if ((key.getObject() == null) || (!shouldReturnInvalidatedObjects && descriptor.getCacheInvalidationPolicy().isInvalidated(key, currentTimeInMillis))) {
                     continue;
@@ -615,6 +1072,8 @@ public Map<Object, CacheKey> getAllCacheKeysFromIdentityMapWithEntityPK(Object[]
      */
     public void invalidateObjects(Expression selectionCriteria, Class theClass, Record translationRow, boolean shouldInvalidateOnException) {
         ClassDescriptor descriptor = this.session.getDescriptor(theClass);
+        // The stored rows cannot be conformed, so all are removed.
+        clearOffHeapCache(descriptor);
         this.session.startOperationProfile(SessionProfiler.Caching);
         try {
             IdentityMap map = getIdentityMap(descriptor, true);
@@ -1060,6 +1519,13 @@ public Object getQueryResult(ReadQuery query, List parameters, boolean shouldChe
         if ((key == null) || (shouldCheckExpiry && query.getQueryResultsCachePolicy().getCacheInvalidationPolicy().isInvalidated(key))) {
             return null;
         }
+        if (this.session.getProject().getQueryResultsCacheMaxSize() > 0) {
+            Object info = key.getWrapper();
+            if (info instanceof QueryResultsInfo) {
+                // Only stamp the access, the least recently used results are found when evicting.
+                ((QueryResultsInfo)info).lastAccess = System.nanoTime();
+            }
+        }
         return key.getObject();
     }
 
@@ -1100,6 +1566,12 @@ public void putCacheKeyByIndex(CacheIndex index, CacheId indexValues, CacheKey c
         if (indexValues == null) {
             return;
         }
+        if (!index.isUnique()) {
+            if (cacheKey != null) {
+                getNonUniqueCacheIndex(index, true).put(indexValues, cacheKey.getKey());
+            }
+            return;
+        }
         IdentityMap map = this.cacheIndexes.get(index);
         if (map == null) {
             synchronized (this.cacheIndexes) {
@@ -1113,6 +1585,83 @@ public void putCacheKeyByIndex(CacheIndex index, CacheId indexValues, CacheKey c
         map.put(indexValues, cacheKey, null, 0);
     }
 
+    /**
+     * Return the non-unique index, if missing and create is true create a new one.
+     */
+    protected NonUniqueCacheIndex getNonUniqueCacheIndex(CacheIndex index, boolean create) {
+        if (this.nonUniqueCacheIndexes == null) {
+            return null;
+        }
+        NonUniqueCacheIndex nonUniqueIndex = this.nonUniqueCacheIndexes.get(index);
+        if ((nonUniqueIndex == null) && create) {
+            synchronized (this.nonUniqueCacheIndexes) {
+                nonUniqueIndex = this.nonUniqueCacheIndexes.get(index);
+                if (nonUniqueIndex == null) {
+                    nonUniqueIndex = new NonUniqueCacheIndex(index);
+                    this.nonUniqueCacheIndexes.put(index, nonUniqueIndex);
+                }
+            }
+        }
+        return nonUniqueIndex;
+    }
+
+    /**
+     * Return the non-unique index if it can be used to lookup the descriptor's cached objects, otherwise null.
+     * The index must hold at least as many objects as the cache, otherwise some cached objects were not indexed.
+     */
+    protected NonUniqueCacheIndex getCompleteNonUniqueCacheIndex(CacheIndex index, ClassDescriptor descriptor) {
+        NonUniqueCacheIndex nonUniqueIndex = getNonUniqueCacheIndex(index, false);
+        if ((nonUniqueIndex == null) || !nonUniqueIndex.isValid()) {
+            return null;
+        }
+        IdentityMap map = getIdentityMap(descriptor, true);
+        if ((map != null) && (nonUniqueIndex.getSize() < map.getSize())) {
+            return null;
+        }
+        return nonUniqueIndex;
+    }
+
+    /**
+     * Return the primary keys for the values of the non-unique cache index,
+     * or null if the index has not been built or cannot be used.
+     */
+    public Collection<Object> getPrimaryKeysByIndex(CacheIndex index, CacheId indexValues, ClassDescriptor descriptor) {
+        NonUniqueCacheIndex nonUniqueIndex = getCompleteNonUniqueCacheIndex(index, descriptor);
+        if (nonUniqueIndex == null) {
+            return null;
+        }
+        return nonUniqueIndex.getPrimaryKeys(indexValues);
+    }
+
+    /**
+     * Return the primary keys for the range of values of the sorted cache index,
+     * or null if the index has not been built or cannot be used.
+     */
+    public Collection<Object> getPrimaryKeysByIndex(CacheIndex index, Object lowerValue, boolean lowerInclusive, Object upperValue, boolean upperInclusive, ClassDescriptor descriptor) {
+        NonUniqueCacheIndex nonUniqueIndex = getCompleteNonUniqueCacheIndex(index, descriptor);
+        if (nonUniqueIndex == null) {
+            return null;
+        }
+        return nonUniqueIndex.getPrimaryKeys(lowerValue, lowerInclusive, upperValue, upperInclusive);
+    }
+
+    /**
+     * Remove the primary key from the descriptor's non-unique indexes.
+     */
+    protected void removeFromNonUniqueCacheIndexes(Object primaryKey, ClassDescriptor descriptor) {
+        if ((this.nonUniqueCacheIndexes == null) || this.nonUniqueCacheIndexes.isEmpty() || (primaryKey == null)) {
+            return;
+        }
+        for (CacheIndex index : descriptor.getCachePolicy().getCacheIndexes().values()) {
+            if (!index.isUnique()) {
+                NonUniqueCacheIndex nonUniqueIndex = this.nonUniqueCacheIndexes.get(index);
+                if (nonUniqueIndex != null) {
+                    nonUniqueIndex.remove(primaryKey);
+                }
+            }
+        }
+    }
+
     protected AbstractSession getSession() {
         return session;
     }
@@ -1197,6 +1746,12 @@ public void initializeIdentityMap(Class theClass) throws EclipseLinkException {
         getIdentityMaps().put(javaClass, identityMap);
         clearLastAccessedIdentityMap();
         invalidateQueryCache(theClass);
+        removeOffHeapCache(descriptor);
+        if ((this.nonUniqueCacheIndexes != null) && descriptor.getCachePolicy().hasNonUniqueCacheIndexes()) {
+            for (CacheIndex index : descriptor.getCachePolicy().getCacheIndexes().values()) {
+                this.nonUniqueCacheIndexes.remove(index);
+            }
+        }
     }
 
     public void initializeIdentityMaps() {
@@ -1204,6 +1759,7 @@ public void initializeIdentityMaps() {
         setIdentityMaps(new ConcurrentHashMap());
         clearQueryCache();
         clearCacheIndexes();
+        removeOffHeapCaches();
     }
 
     /**
@@ -1404,6 +1960,10 @@ public CacheKey putInIdentityMap(Object domainObject, Object keys, Object writeL
         } else {
             cacheKey = map.put(keys, implementation, writeLockValue, readTime);
         }
+        // Objects must be in the non-unique indexes to be found by in-memory queries.
+        if ((cacheKey != null) && (this.nonUniqueCacheIndexes != null) && descriptor.getCachePolicy().hasNonUniqueCacheIndexes()) {
+            descriptor.getCachePolicy().indexObjectInNonUniqueCacheIndexes(cacheKey, implementation, descriptor, this.session);
+        }
         return cacheKey;
     }
 
@@ -1435,6 +1995,9 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
                     }
                     map = buildNewIdentityMap(query.getQueryResultsCachePolicy().getCacheType(), size, null, false);
                     this.queryResults.put(queryKey, map);
+                    if (isQueryResultsInvalidatedByPrimaryKey(query)) {
+                        this.queryResultsInvalidatedByPrimaryKey.put(queryKey, query);
+                    }
                     // Mark the query to be invalidated for the query classes.
                     if (query.getQueryResultsCachePolicy().getInvalidateOnChange()) {
                         for (Class queryClass : query.getQueryResultsCachePolicy().getInvalidationClasses()) {
@@ -1466,7 +2029,46 @@ public void putQueryResult(ReadQuery query, List parameters, Object results) {
         if (results == null) {
             results = InvalidObject.instance();
         }
-        map.put(lookupParameters, results, null, queryTime);
+        int maxSize = this.session.getProject().getQueryResultsCacheMaxSize();
+        QueryResultsInfo info = null;
+        boolean isInvalidatedByPrimaryKey = this.queryResultsInvalidatedByPrimaryKey.containsKey(queryKey);
+        if (isInvalidatedByPrimaryKey || (maxSize > 0)) {
+            // The dependencies are built before the results are put, until the info is set
+            // it does not match the results, so an invalidation removes them.
+            Set<Object> dependencies = null;
+            if (isInvalidatedByPrimaryKey) {
+                dependencies = buildQueryResultDependencies((ObjectLevelReadQuery)query, results);
+            }
+            info = new QueryResultsInfo(results, dependencies, computeQueryResultsSize(results));
+        }
+        CacheKey cacheKey = map.put(lookupParameters, results, null, queryTime);
+        if ((cacheKey != null) && (info != null)) {
+            Object previousInfo = cacheKey.getWrapper();
+            cacheKey.setWrapper(info);
+            if (maxSize > 0) {
+                updateQueryResultsSize(cacheKey, (previousInfo instanceof QueryResultsInfo) ? (QueryResultsInfo)previousInfo : null, info, maxSize);
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The wrapper of the cache key of cached query results.
+     * It is only valid for the results it was built for, the primary keys of their objects if the query
+     * is invalidated by primary key, and their size and last access if the total query cache size is bounded.
+     */
+    protected static class QueryResultsInfo {
+        protected final Object results;
+        protected final Set<Object> dependencies;
+        protected final int size;
+        protected volatile long lastAccess;
+
+        protected QueryResultsInfo(Object results, Set<Object> dependencies, int size) {
+            this.results = results;
+            this.dependencies = dependencies;
+            this.size = size;
+            this.lastAccess = System.nanoTime();
+        }
     }
 
     /**
@@ -1498,6 +2100,8 @@ public Object removeFromIdentityMap(Object key, Class domainClass, ClassDescript
         }
         IdentityMap map = getIdentityMap(descriptor, false);
         Object value;
+        removeFromOffHeapCache(key, descriptor);
+        removeFromNonUniqueCacheIndexes(key, descriptor);
 
         if (this.isCacheAccessPreCheckRequired) {
             this.session.startOperationProfile(SessionProfiler.Caching);
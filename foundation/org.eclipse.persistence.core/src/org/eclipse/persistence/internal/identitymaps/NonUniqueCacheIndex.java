@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2011, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.eclipse.persistence.descriptors.CacheIndex;
+
+/**
+ * <p><b>Purpose</b>: Hold the primary keys of the cached objects by the values of a non-unique cache index.
+ * <p><b>Responsibilities</b>:<ul>
+ *    <li> Index each object's primary key by its index values, moving it when its values change
+ *    <li> Return the primary keys for equal index values, or for a range of values if sorted
+ * </ul>
+ * Primary keys are held, not cache keys, so an object removed from the cache is not held by the index,
+ * and the caller must lookup each primary key in the cache.
+ * The primary keys returned may include objects that are no longer in the cache or no longer conform,
+ * so the caller must still conform each object.
+ * If a value cannot be sorted, or the values of a field are of different classes,
+ * the index is marked as invalid and is no longer used for lookups.
+ * Values are compared by equality, so a lookup with a value of another class than the indexed values cannot use the index.
+ * @see CacheIndex#setIsUnique(boolean)
+ * @see CacheIndex#setIsSorted(boolean)
+ */
+public class NonUniqueCacheIndex {
+    /** The value of a primary key with a null index value, null values are held so every indexed object is counted. */
+    protected static final Object NULL_VALUE = new Object();
+
+    /** The index definition. */
+    protected CacheIndex index;
+
+    /** The primary keys by index value, sorted by value if the index is sorted. */
+    protected ConcurrentMap<Object, Set<Object>> primaryKeysByValue;
+
+    /** The index value of each primary key, used to move the primary key when its value changes. */
+    protected Map<Object, Object> valuesByPrimaryKey;
+
+    /** Set to false if a value could not be indexed. */
+    protected volatile boolean isValid;
+
+    /** The class of the indexed values of each field, null until a value of the field is indexed. */
+    protected volatile Class[] valueClasses;
+
+    public NonUniqueCacheIndex(CacheIndex index) {
+        this.index = index;
+        if (index.isSorted()) {
+            this.primaryKeysByValue = new ConcurrentSkipListMap<Object, Set<Object>>();
+        } else {
+            this.primaryKeysByValue = new ConcurrentHashMap<Object, Set<Object>>();
+        }
+        this.valuesByPrimaryKey = new ConcurrentHashMap<Object, Object>();
+        this.isValid = true;
+    }
+
+    /**
+     * Return the index value used as the map key.
+     * A sorted index is on a single field, so its value is used directly to be compared.
+     */
+    protected Object buildValue(CacheId indexValues) {
+        if (this.index.isSorted()) {
+            return indexValues.getPrimaryKey()[0];
+        }
+        return indexValues;
+    }
+
+    /**
+     * Index the primary key by the index values, removing it from its previous values.
+     * Writes are synchronized so the two maps are consistent, lookups are not.
+     */
+    public synchronized void put(CacheId indexValues, Object primaryKey) {
+        Object value = buildValue(indexValues);
+        if (value == null) {
+            // Null values are not looked up, as null comparisons are not looked up.
+            value = NULL_VALUE;
+        }
+        Object oldValue = this.valuesByPrimaryKey.get(primaryKey);
+        if ((oldValue != null) && oldValue.equals(value)) {
+            return;
+        }
+        if (value == NULL_VALUE) {
+            this.valuesByPrimaryKey.put(primaryKey, value);
+            removePrimaryKey(oldValue, primaryKey);
+            return;
+        }
+        addValueClasses(indexValues);
+        try {
+            Set<Object> primaryKeys = this.primaryKeysByValue.get(value);
+            if (primaryKeys == null) {
+                primaryKeys = Collections.newSetFromMap(new ConcurrentHashMap<Object, Boolean>());
+                this.primaryKeysByValue.put(value, primaryKeys);
+            }
+            primaryKeys.add(primaryKey);
+            this.valuesByPrimaryKey.put(primaryKey, value);
+        } catch (ClassCastException notComparable) {
+            this.isValid = false;
+        }
+        // Removed after being added, so a concurrent lookup finds the primary key under one of the values.
+        removePrimaryKey(oldValue, primaryKey);
+    }
+
+    /**
+     * Remove the primary key from the index.
+     */
+    public synchronized void remove(Object primaryKey) {
+        Object oldValue = this.valuesByPrimaryKey.remove(primaryKey);
+        removePrimaryKey(oldValue, primaryKey);
+    }
+
+    /**
+     * Remove the primary key from the value's primary keys.
+     * Must be called while synchronized.
+     */
+    protected void removePrimaryKey(Object value, Object primaryKey) {
+        if ((value == null) || (value == NULL_VALUE)) {
+            return;
+        }
+        Set<Object> primaryKeys = this.primaryKeysByValue.get(value);
+        if (primaryKeys != null) {
+            primaryKeys.remove(primaryKey);
+            if (primaryKeys.isEmpty()) {
+                this.primaryKeysByValue.remove(value);
+            }
+        }
+    }
+
+    /**
+     * Record the class of each of the index values, marking the index as invalid if a field has values of different classes.
+     * Must be called while synchronized.
+     */
+    protected void addValueClasses(CacheId indexValues) {
+        Object[] values = indexValues.getPrimaryKey();
+        Class[] classes = this.valueClasses;
+        Class[] newClasses = null;
+        for (int index = 0; index < values.length; index++) {
+            if (values[index] == null) {
+                continue;
+            }
+            Class valueClass = values[index].getClass();
+            if ((classes == null) || (classes[index] == null)) {
+                if (newClasses == null) {
+                    newClasses = (classes == null) ? new Class[values.length] : classes.clone();
+                }
+                newClasses[index] = valueClass;
+            } else if (classes[index] != valueClass) {
+                this.isValid = false;
+            }
+        }
+        if (newClasses != null) {
+            this.valueClasses = newClasses;
+        }
+    }
+
+    /**
+     * Return if the values are of the classes of the indexed values, so are equal to the values of the same objects.
+     */
+    protected boolean hasValueClasses(Object[] values) {
+        Class[] classes = this.valueClasses;
+        if (classes == null) {
+            return true;
+        }
+        for (int index = 0; index < values.length; index++) {
+            if ((values[index] != null) && (classes[index] != null) && (values[index].getClass() != classes[index])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the primary keys of the objects with the index values,
+     * or null if the values are of other classes than the indexed values.
+     */
+    public Collection<Object> getPrimaryKeys(CacheId indexValues) {
+        Object value = buildValue(indexValues);
+        if ((value == null) || !hasValueClasses(indexValues.getPrimaryKey())) {
+            return null;
+        }
+        Set<Object> primaryKeys = null;
+        try {
+            primaryKeys = this.primaryKeysByValue.get(value);
+        } catch (ClassCastException notComparable) {
+            return null;
+        }
+        if (primaryKeys == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<Object>(primaryKeys);
+    }
+
+    /**
+     * Return the primary keys of the objects with values in the range, the index must be sorted.
+     * A null bound is not bounded.
+     * Return null if the bounds are of other classes than the indexed values.
+     */
+    public Collection<Object> getPrimaryKeys(Object lowerValue, boolean lowerInclusive, Object upperValue, boolean upperInclusive) {
+        if (!hasValueClasses(new Object[] {lowerValue}) || !hasValueClasses(new Object[] {upperValue})) {
+            return null;
+        }
+        NavigableMap<Object, Set<Object>> range = (NavigableMap<Object, Set<Object>>)this.primaryKeysByValue;
+        try {
+            if ((lowerValue != null) && (upperValue != null)) {
+                if (((Comparable)lowerValue).compareTo(upperValue) > 0) {
+                    return Collections.emptyList();
+                }
+                range = range.subMap(lowerValue, lowerInclusive, upperValue, upperInclusive);
+            } else if (lowerValue != null) {
+                range = range.tailMap(lowerValue, lowerInclusive);
+            } else if (upperValue != null) {
+                range = range.headMap(upperValue, upperInclusive);
+            }
+            List<Object> primaryKeys = new ArrayList<Object>();
+            for (Set<Object> valuePrimaryKeys : range.values()) {
+                primaryKeys.addAll(valuePrimaryKeys);
+            }
+            return primaryKeys;
+        } catch (ClassCastException notComparable) {
+            return null;
+        }
+    }
+
+    /**
+     * Return the index definition.
+     */
+    public CacheIndex getIndex() {
+        return index;
+    }
+
+    /**
+     * Return if all of the values could be indexed, if not the index cannot be used for lookups.
+     */
+    public boolean isValid() {
+        return isValid;
+    }
+
+    /**
+     * Return the number of primary keys indexed, including those with null values.
+     */
+    public int getSize() {
+        return this.valuesByPrimaryKey.size();
+    }
+}
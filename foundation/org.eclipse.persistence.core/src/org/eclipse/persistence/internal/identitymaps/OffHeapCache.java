@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2011, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     James Sutherland - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.internal.identitymaps;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ChangeSetInputStream;
+import org.eclipse.persistence.internal.sessions.ChangeSetOutputStream;
+import org.eclipse.persistence.sessions.DatabaseRecord;
+
+/**
+ * <p><b>Purpose</b>: Off-heap tier of a descriptor's shared cache.
+ * <p><b>Responsibilities</b>:<ul>
+ *    <li> Store the database row each object was built from, by primary key, in direct buffers outside of the Java heap
+ *    <li> Return the row for a primary key, so an object evicted from the identity map can be rebuilt without accessing the database
+ *    <li> Evict the oldest rows when the configured size is exceeded
+ * </ul>
+ * The buffers are split into segments that are written in turn.
+ * When all segments are full, the oldest segment is reused and the rows written to it are evicted.
+ * Only the primary key index is held on the heap.
+ * The rows are encoded with the same typed values as cache coordination change sets.
+ * @see org.eclipse.persistence.descriptors.CachePolicy#setOffHeapCacheSize(long)
+ */
+public class OffHeapCache {
+    /** The maximum size of each segment. */
+    public static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+    /** The minimum number of segments, so only part of the rows are evicted when full. */
+    public static final int MIN_SEGMENTS = 8;
+
+    /** Flags stored with each row. */
+    public static final int IS_SERIALIZED_OBJECT = 1;
+
+    /** The root descriptor whose objects are cached. */
+    protected ClassDescriptor descriptor;
+
+    /** The direct buffers, allocated lazily when first written to. */
+    protected ByteBuffer[] segments;
+    protected int segmentSize;
+    /** The primary keys of the rows written to each segment, used to evict them when the segment is reused. */
+    protected List<Object>[] segmentKeys;
+    /** The segment being written to, and the position in it. */
+    protected int currentSegment;
+    protected int position;
+
+    /** The location of each row by primary key, the segment in the high and the offset in the low int. */
+    protected Map<Object, Long> index;
+
+    /** The fields of the stored rows, referenced by index in each row, read without locking when decoding. */
+    protected List<DatabaseField> fields;
+    protected Map<DatabaseField, Integer> fieldIndexes;
+
+    /** Reads copy a row under the read lock, writes that may overwrite a segment use the write lock. */
+    protected ReentrantReadWriteLock lock;
+
+    protected AtomicLong hits;
+    protected AtomicLong misses;
+    protected AtomicLong evictions;
+
+    public OffHeapCache(ClassDescriptor descriptor, long size) {
+        this.descriptor = descriptor;
+        long segmentSize = Math.min(Math.max(size / MIN_SEGMENTS, 1024), MAX_SEGMENT_SIZE);
+        int segmentCount = (int)Math.max((size + segmentSize - 1) / segmentSize, 2);
+        this.segmentSize = (int)segmentSize;
+        this.segments = new ByteBuffer[segmentCount];
+        this.segmentKeys = new List[segmentCount];
+        for (int index = 0; index < segmentCount; index++) {
+            this.segmentKeys[index] = new ArrayList<Object>();
+        }
+        this.index = new ConcurrentHashMap<Object, Long>();
+        this.fields = new CopyOnWriteArrayList<DatabaseField>();
+        this.fieldIndexes = new HashMap<DatabaseField, Integer>();
+        this.lock = new ReentrantReadWriteLock();
+        this.hits = new AtomicLong();
+        this.misses = new AtomicLong();
+        this.evictions = new AtomicLong();
+    }
+
+    /**
+     * Return the row stored for the primary key, or null if none is stored.
+     * The row is decoded into a new record, that can be used to build the object.
+     */
+    public AbstractRecord get(Object primaryKey, boolean isSerializedObject, AbstractSession session) {
+        byte[] bytes = null;
+        this.lock.readLock().lock();
+        try {
+            Long address = this.index.get(primaryKey);
+            if (address != null) {
+                ByteBuffer buffer = this.segments[(int)(address >>> 32)].duplicate();
+                int offset = (int)address.longValue();
+                bytes = new byte[buffer.getInt(offset)];
+                buffer.position(offset + 4);
+                buffer.get(bytes);
+            }
+        } finally {
+            this.lock.readLock().unlock();
+        }
+        if ((bytes == null) || (((bytes[0] & IS_SERIALIZED_OBJECT) != 0) != isSerializedObject)) {
+            this.misses.incrementAndGet();
+            return null;
+        }
+        try {
+            ChangeSetInputStream stream = new ChangeSetInputStream(new ByteArrayInputStream(bytes, 1, bytes.length - 1), null, session);
+            int size = stream.readVarInt();
+            DatabaseRecord row = new DatabaseRecord(size);
+            for (int count = 0; count < size; count++) {
+                DatabaseField field = this.fields.get(stream.readVarInt());
+                row.add(field, stream.readValue());
+            }
+            this.hits.incrementAndGet();
+            return row;
+        } catch (IOException exception) {
+            remove(primaryKey);
+        } catch (ClassNotFoundException exception) {
+            remove(primaryKey);
+        }
+        this.misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store the row for the primary key, replacing any row already stored.
+     * Rows larger than a segment are not stored.
+     */
+    public void put(Object primaryKey, AbstractRecord row, boolean isSerializedObject) {
+        List<DatabaseField> rowFields = row.getFields();
+        List rowValues = row.getValues();
+        int size = rowFields.size();
+        byte[] bytes;
+        try {
+            ByteArrayOutputStream byteOut = new ByteArrayOutputStream(size * 8 + 8);
+            ChangeSetOutputStream stream = new ChangeSetOutputStream(byteOut, null, null);
+            stream.write(isSerializedObject ? IS_SERIALIZED_OBJECT : 0);
+            stream.writeVarInt(size);
+            for (int count = 0; count < size; count++) {
+                stream.writeVarInt(getFieldIndex(rowFields.get(count)));
+                stream.writeValue(rowValues.get(count));
+            }
+            stream.flush();
+            bytes = byteOut.toByteArray();
+        } catch (IOException exception) {
+            // A value could not be encoded, so the row is not stored.
+            remove(primaryKey);
+            return;
+        }
+        int length = bytes.length + 4;
+        if (length > this.segmentSize) {
+            remove(primaryKey);
+            return;
+        }
+        this.lock.writeLock().lock();
+        try {
+            if ((this.position + length) > this.segmentSize) {
+                nextSegment();
+            }
+            ByteBuffer buffer = this.segments[this.currentSegment];
+            if (buffer == null) {
+                buffer = ByteBuffer.allocateDirect(this.segmentSize);
+                this.segments[this.currentSegment] = buffer;
+            }
+            buffer.putInt(this.position, bytes.length);
+            ByteBuffer target = buffer.duplicate();
+            target.position(this.position + 4);
+            target.put(bytes);
+            this.index.put(primaryKey, (((long)this.currentSegment) << 32) | this.position);
+            this.segmentKeys[this.currentSegment].add(primaryKey);
+            this.position = this.position + length;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move to the next segment, evicting the rows written to it.
+     * Must be called holding the write lock.
+     */
+    protected void nextSegment() {
+        this.currentSegment = (this.currentSegment + 1) % this.segments.length;
+        this.position = 0;
+        List<Object> keys = this.segmentKeys[this.currentSegment];
+        for (Object key : keys) {
+            Long address = this.index.get(key);
+            // The row may have been replaced in another segment.
+            if ((address != null) && ((int)(address >>> 32) == this.currentSegment)) {
+                this.index.remove(key);
+                this.evictions.incrementAndGet();
+            }
+        }
+        keys.clear();
+    }
+
+    /**
+     * Return the index of the field, adding it if new.
+     */
+    protected int getFieldIndex(DatabaseField field) {
+        synchronized (this.fieldIndexes) {
+            Integer fieldIndex = this.fieldIndexes.get(field);
+            if (fieldIndex == null) {
+                fieldIndex = this.fields.size();
+                this.fields.add(field);
+                this.fieldIndexes.put(field, fieldIndex);
+            }
+            return fieldIndex;
+        }
+    }
+
+    /**
+     * Remove the row stored for the primary key.
+     * This must be called when the object is changed, removed or invalidated.
+     * The space is reclaimed when its segment is reused.
+     */
+    public void remove(Object primaryKey) {
+        this.index.remove(primaryKey);
+    }
+
+    /**
+     * Return if a row is stored for the primary key.
+     */
+    public boolean containsKey(Object primaryKey) {
+        return this.index.containsKey(primaryKey);
+    }
+
+    /**
+     * Remove all of the rows.
+     * The buffers are kept to be reused.
+     */
+    public void clear() {
+        this.lock.writeLock().lock();
+        try {
+            this.index.clear();
+            for (List<Object> keys : this.segmentKeys) {
+                keys.clear();
+            }
+            this.currentSegment = 0;
+            this.position = 0;
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all of the rows and release the buffers.
+     * The buffers are allocated again if rows are stored after.
+     */
+    public void free() {
+        this.lock.writeLock().lock();
+        try {
+            clear();
+            for (int index = 0; index < this.segments.length; index++) {
+                this.segments[index] = null;
+            }
+        } finally {
+            this.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Return the root descriptor whose objects are cached.
+     */
+    public ClassDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Return the number of rows stored.
+     */
+    public int getSize() {
+        return this.index.size();
+    }
+
+    /**
+     * Return the total size of the buffers in bytes.
+     */
+    public long getMaxSize() {
+        return ((long)this.segmentSize) * this.segments.length;
+    }
+
+    /**
+     * Return the size of the buffers allocated in bytes.
+     */
+    public long getAllocatedSize() {
+        long size = 0;
+        for (ByteBuffer segment : this.segments) {
+            if (segment != null) {
+                size = size + this.segmentSize;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Return the number of rows found.
+     */
+    public long getHits() {
+        return this.hits.get();
+    }
+
+    /**
+     * Return the number of rows not found.
+     */
+    public long getMisses() {
+        return this.misses.get();
+    }
+
+    /**
+     * Return the number of rows evicted to make space for new rows.
+     */
+    public long getEvictions() {
+        return this.evictions.get();
+    }
+}
@@ -167,6 +167,7 @@ public class TraceLocalizationResource extends ListResourceBundle {
                                            { "processing_remote_command", "Executing command {0} from {1}" },
                                            { "sync_propagation", "Propagating command synchronously" },
                                            { "async_propagation", "Propagating command asynchronously" },
+                                           { "propagate_command_batch", "Propagating batch of {0} commands" },
                                            { "propagate_command_to", "Propagating command {0} to {1}" },
                                            { "discovery_manager_active", "RCM Discovery Manager active" },
                                            { "discovery_manager_stopped", "RCM Discovery Manager stopped" },
@@ -15,6 +15,7 @@
 import java.lang.reflect.Array;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -58,6 +59,11 @@
         protected Map<XPathFragment, DESCRIPTOR> descriptorsByGlobalType;
         protected SESSION session;
         private Collection<SESSION_EVENT_LISTENER> sessionEventListeners;
+        /**
+         * The local names of the class indicators of the descriptors using inheritance,
+         * replaced when a name is added so it can be read without locking.
+         */
+        private volatile Set<String> typeIndicatorNames = Collections.emptySet();
 
         protected ContextState() {
             descriptorsByQName = new HashMap<XPathQName, DESCRIPTOR>();
@@ -170,6 +176,40 @@ protected ABSTRACT_SESSION getSession(Object object) {
         protected void setupSession(SESSION session) {
         }
 
+        /**
+         * INTERNAL: Return the local names of the class indicators of the descriptors using inheritance.
+         * The name is empty for a descriptor using a class extractor, as it may use any attribute.
+         */
+        protected Set<String> getTypeIndicatorNames() {
+            return typeIndicatorNames;
+        }
+
+        private void storeTypeIndicatorName(DESCRIPTOR descriptor) {
+            if (!descriptor.hasInheritance()) {
+                return;
+            }
+            String name;
+            if (descriptor.getInheritancePolicy().hasClassExtractor()) {
+                name = Constants.EMPTY_STRING;
+            } else {
+                name = descriptor.getInheritancePolicy().getClassIndicatorFieldName();
+                if (name == null) {
+                    return;
+                }
+                // The local name of the last step of the XPath, i.e. type for @xsi:type.
+                name = name.substring(name.lastIndexOf(Constants.XPATH_SEPARATOR) + 1);
+                if ((name.length() > 0) && (name.charAt(0) == Constants.ATTRIBUTE)) {
+                    name = name.substring(1);
+                }
+                name = name.substring(name.indexOf(Constants.COLON) + 1);
+            }
+            if (!typeIndicatorNames.contains(name)) {
+                Set<String> names = new HashSet<String>(typeIndicatorNames);
+                names.add(name);
+                typeIndicatorNames = names;
+            }
+        }
+
         /**
          * INTERNAL:
          */
@@ -185,6 +225,7 @@ public void storeDescriptorByQName(DESCRIPTOR descriptor, CorePlatform platform,
                 return;
             } else {
                 processedDescriptors.add(descriptor);
+                storeTypeIndicatorName(descriptor);
                 if (descriptor.hasInheritance() && !descriptor.getInheritancePolicy().isRootParentDescriptor()) {
                     //this means we have a descriptor that is a child in an inheritance hierarchy
                     storeDescriptorByQName((DESCRIPTOR) descriptor.getInheritancePolicy().getParentDescriptor(), platform, processedDescriptors);
@@ -465,6 +506,15 @@ public SESSION getSession() {
         return contextState.getSession();
     }
 
+    /**
+     * INTERNAL:
+     * Return the local names of the class indicators of the descriptors using inheritance.
+     * The name is empty for a descriptor using a class extractor, as it may use any attribute.
+     */
+    public Set<String> getTypeIndicatorNames() {
+        return contextState.getTypeIndicatorNames();
+    }
+
     public ABSTRACT_SESSION getSession(DESCRIPTOR descriptor) {
         return contextState.getSession(descriptor);
     }
@@ -56,6 +56,7 @@ public class XPathFragment <
     private byte[] prefixBytes;
     private String localName;
     private byte[] localNameBytes;
+    private byte[] jsonKeyBytes;
     private String namespaceURI;
     protected boolean nameIsText = false;
     protected boolean isSelfFragment = false;
@@ -225,6 +226,23 @@ public byte[] getLocalNameBytes() {
         return localNameBytes;
     }
 
+    /**
+     * INTERNAL:
+     * Return the UTF-8 bytes of the escaped local name followed by the closing quote of a JSON key,
+     * cached by the JSON output stream record.
+     */
+    public byte[] getJsonKeyBytes() {
+        return jsonKeyBytes;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the UTF-8 bytes of the escaped local name followed by the closing quote of a JSON key.
+     */
+    public void setJsonKeyBytes(byte[] jsonKeyBytes) {
+        this.jsonKeyBytes = jsonKeyBytes;
+    }
+
     public void setLocalName(String localName) {
         this.localName = localName;
         resetShortName();
@@ -419,6 +437,7 @@ private void resetShortName(){
         shortName = null;
     prefixBytes = null;
     localNameBytes = null;
+    jsonKeyBytes = null;
     }
 
     /**
@@ -48,7 +48,7 @@
 import org.eclipse.persistence.internal.oxm.UnmarshallerHandler;
 import org.eclipse.persistence.internal.oxm.mappings.Descriptor;
 import org.eclipse.persistence.internal.oxm.mappings.UnmarshalKeepAsElementPolicy;
-import org.eclipse.persistence.internal.oxm.record.json.JsonStructureReader;
+import org.eclipse.persistence.internal.oxm.record.json.JsonParserReader;
 import org.eclipse.persistence.platform.xml.DefaultErrorHandler;
 import org.eclipse.persistence.platform.xml.SAXDocumentBuilder;
 import org.eclipse.persistence.platform.xml.XMLParser;
@@ -197,7 +197,11 @@ private XMLReader getNewXMLReader(MediaType mediaType) {
     private XMLReader getNewXMLReader(Class clazz, MediaType mediaType) {
 
         if(null != mediaType && mediaType.isApplicationJSON()){
-            return new JsonStructureReader(xmlUnmarshaller, clazz);
+            // PERF: Stream the JSON events instead of reading the document into a JsonStructure.
+            return new JsonParserReader.JsonParserReaderBuilder()
+                    .setUnmarshaller(xmlUnmarshaller)
+                    .setResultClass(clazz)
+                    .build();
         }
             try {
         XMLReader xmlReader = new XMLReader(getSAXParser().getXMLReader());
@@ -28,38 +28,31 @@
 import org.xml.sax.SAXException;
 
 import javax.json.Json;
-import javax.json.JsonArrayBuilder;
 import javax.json.JsonException;
-import javax.json.JsonObjectBuilder;
-import javax.json.JsonStructure;
-import javax.json.JsonValue;
 import javax.json.stream.JsonParser;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.math.BigDecimal;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.util.ArrayDeque;
-import java.util.Deque;
 
 /**
  * Reader for JSR-353 stream (StAX) parser.
  * <p/>
+ * The SAX events are reported as the parser reads the document, without reading it into a JsonStructure first.
+ * This is the reader used to unmarshal JSON from a stream, reader or system id, the parser is created for
+ * each InputSource parsed. A reader built with a parser parses it when no InputSource is given.
+ * <p/>
  * Could be instantiated with {@link JsonParserReader.JsonParserReaderBuilder#build()};
+ * @see JsonStructureReader#parseRoot(JsonParser)
  */
 public final class JsonParserReader extends XMLReaderAdapter {
 
     private final JsonParser parser;
     private final JsonStructureReader structureReader;
 
-    /**
-     * Parsing stack
-     */
-    private final Deque<JsonStructureBuilder> stack = new ArrayDeque<>();
-
     /**
      * Private constructor
      * Use {@link JsonParserReader.JsonParserReaderBuilder} to instantiate the class;
@@ -74,18 +67,20 @@ private JsonParserReader(JsonParserReaderBuilder b) {
 
     @Override
     public void parse(InputSource input) throws IOException, SAXException {
-        if (null == input) {
-            doParsing(parser);
-            return;
-        }
-
-        if (null != input.getCharacterStream()) {
-            doParsing(Json.createParser(input.getCharacterStream()));
-            return;
-        }
-
         InputStream inputStream = null;
         try {
+            if (null == input) {
+                if (null != parser) {
+                    doParsing(parser);
+                }
+                return;
+            }
+
+            if (null != input.getCharacterStream()) {
+                doParsing(Json.createParser(input.getCharacterStream()));
+                return;
+            }
+
             if (null != (inputStream = input.getByteStream())) {
                 doParsing(Json.createParser(new InputStreamReader(inputStream)));
                 return;
@@ -120,67 +115,8 @@ public void parse(String systemId) {
         }
     }
 
-    private void doParsing(JsonParser parser) throws SAXException, IOException {
-        JsonStructureBuilder builder = null;
-        while (parser.hasNext()) {
-            builder = parseEvent(parser);
-        }
-        assert builder != null;
-        JsonStructure jsonStructure = builder.build();
-        structureReader.parseRoot(jsonStructure);
-    }
-
-    private JsonStructureBuilder parseEvent(JsonParser jp) throws SAXException {
-        JsonParser.Event e = jp.next();
-
-        JsonStructureBuilder top = stack.peek();
-        switch (e) {
-            case START_ARRAY: {
-                JsonStructureBuilder b = new ArrayBuilder(Json.createArrayBuilder());
-                stack.push(b);
-                break;
-            }
-            case START_OBJECT: {
-                JsonStructureBuilder b = new ObjectBuilder(Json.createObjectBuilder());
-                stack.push(b);
-                break;
-            }
-            case KEY_NAME: {
-                top.setKey(jp.getString());
-                break;
-            }
-            case VALUE_STRING: {
-                top.add(jp.getString());
-                break;
-            }
-            case VALUE_NUMBER: {
-                top.add(jp.getBigDecimal());
-                break;
-            }
-            case VALUE_TRUE: {
-                top.add(Boolean.TRUE);
-                break;
-            }
-            case VALUE_FALSE: {
-                top.add(Boolean.FALSE);
-                break;
-            }
-            case VALUE_NULL: {
-                top.addNull();
-                break;
-            }
-            case END_ARRAY:
-            case END_OBJECT: { // adding build element to the upper one
-                JsonStructureBuilder b = stack.pop();
-                top = stack.peek();
-                if (top != null)
-                    top.add(b.build());
-                return b;
-            }
-            default:
-                throw new IllegalStateException("Unhandled event: " + e);
-        }
-        return null;
+    private void doParsing(JsonParser parser) throws SAXException {
+        structureReader.parseRoot(parser);
     }
 
     // ******************************** Redirecting requests to JsonStructureReader *******************************
@@ -229,25 +165,6 @@ public boolean isNamespaceAware() {
     }
     // ************************************************************************************************************
 
-    /**
-     * JsonStructure builder
-     */
-    private static interface JsonStructureBuilder {
-        JsonStructure build();
-
-        void add(JsonValue value);
-
-        void add(String value);
-
-        void add(BigDecimal value);
-
-        void add(boolean value);
-
-        void addNull();
-
-        void setKey(String key);
-    }
-
     /**
      * Builder for JsonParserReader
      */
@@ -256,7 +173,16 @@ public static final class JsonParserReaderBuilder {
         private Unmarshaller um;
         private Class resultClass;
 
+        /**
+         * Build a reader that creates a parser for each InputSource parsed.
+         */
+        public JsonParserReaderBuilder() {
+            this.parser = null;
+        }
+
         public JsonParserReaderBuilder(JsonParser parser) {
+            if (parser == null)
+                throw new NullPointerException("JsonParser can't be null");
             this.parser = parser;
         }
 
@@ -271,96 +197,7 @@ public JsonParserReaderBuilder setResultClass(Class resultClass) {
         }
 
         public JsonParserReader build() {
-            if (parser == null)
-                throw new NullPointerException("JsonParser can't be null");
             return new JsonParserReader(this);
         }
     }
-
-    private static final class ObjectBuilder implements JsonStructureBuilder {
-        private final JsonObjectBuilder b;
-        private String key;
-
-        public ObjectBuilder(JsonObjectBuilder b) {
-            this.b = b;
-        }
-
-        @Override
-        public JsonStructure build() {
-            return b.build();
-        }
-
-        @Override
-        public void add(JsonValue value) {
-            b.add(key, value);
-        }
-
-        @Override
-        public void add(String value) {
-            b.add(key, value);
-        }
-
-        @Override
-        public void add(BigDecimal value) {
-            b.add(key, value);
-        }
-
-        @Override
-        public void add(boolean value) {
-            b.add(key, value);
-        }
-
-        @Override
-        public void addNull() {
-            b.addNull(key);
-        }
-
-        @Override
-        public void setKey(String key) {
-            this.key = key;
-        }
-    }
-
-    private static final class ArrayBuilder implements JsonStructureBuilder {
-        private final JsonArrayBuilder b;
-
-        public ArrayBuilder(JsonArrayBuilder b) {
-            this.b = b;
-        }
-
-        @Override
-        public JsonStructure build() {
-            return b.build();
-        }
-
-        @Override
-        public void add(JsonValue value) {
-            b.add(value);
-        }
-
-        @Override
-        public void add(String value) {
-            b.add(value);
-        }
-
-        @Override
-        public void add(BigDecimal value) {
-            b.add(value);
-        }
-
-        @Override
-        public void add(boolean value) {
-            b.add(value);
-        }
-
-        @Override
-        public void addNull() {
-            b.addNull();
-        }
-
-        @Override
-        public void setKey(String key) {
-            // noop
-        }
-    }
 }
@@ -20,6 +20,7 @@
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -28,21 +29,30 @@
 
 import javax.json.Json;
 import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonBuilderFactory;
 import javax.json.JsonNumber;
 import javax.json.JsonException;
 import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
 import javax.json.JsonReader;
 import javax.json.JsonString;
 import javax.json.JsonStructure;
 import javax.json.JsonValue;
 import javax.json.JsonValue.ValueType;
+import javax.json.stream.JsonParser;
+import javax.json.stream.JsonParser.Event;
 import javax.xml.namespace.QName;
 
+import org.eclipse.persistence.core.descriptors.CoreDescriptor;
+import org.eclipse.persistence.core.sessions.CoreSession;
 import org.eclipse.persistence.exceptions.XMLMarshalException;
 import org.eclipse.persistence.internal.oxm.CollectionGroupingElementNodeValue;
 import org.eclipse.persistence.internal.oxm.ConversionManager;
 import org.eclipse.persistence.internal.oxm.Constants;
 import org.eclipse.persistence.internal.oxm.ContainerValue;
+import org.eclipse.persistence.internal.oxm.Context;
+import org.eclipse.persistence.internal.oxm.MappingNodeValue;
 import org.eclipse.persistence.internal.oxm.MediaType;
 import org.eclipse.persistence.internal.oxm.NamespaceResolver;
 import org.eclipse.persistence.internal.oxm.NodeValue;
@@ -50,7 +60,9 @@
 import org.eclipse.persistence.internal.oxm.Root;
 import org.eclipse.persistence.internal.oxm.Unmarshaller;
 import org.eclipse.persistence.internal.oxm.XPathFragment;
+import org.eclipse.persistence.internal.oxm.XPathQName;
 import org.eclipse.persistence.internal.oxm.mappings.Field;
+import org.eclipse.persistence.internal.oxm.mappings.Mapping;
 import org.eclipse.persistence.internal.oxm.record.AbstractUnmarshalRecord;
 import org.eclipse.persistence.internal.oxm.record.SAXUnmarshallerHandler;
 import org.eclipse.persistence.internal.oxm.record.UnmarshalRecord;
@@ -67,6 +79,14 @@ public class JsonStructureReader extends XMLReaderAdapter {
 
     private static final String TRUE = "true";
     private static final String FALSE = "false";
+    private static final JsonObject EMPTY_OBJECT = Json.createObjectBuilder().build();
+
+    /** How a pair that is not an array is reported, returned by resolvePair. */
+    private static final int SKIPPED_PAIR = 0;
+    private static final int VALUE_PAIR = 1;
+    private static final int ELEMENT_PAIR = 2;
+    private static final int ATTRIBUTE_PAIR = 3;
+
     private String attributePrefix = null;
     private NamespaceResolver namespaces = null;
     private boolean includeRoot;
@@ -76,11 +96,34 @@ public class JsonStructureReader extends XMLReaderAdapter {
     private JsonStructure jsonStructure;
     private JsonAttributes attributes = new JsonAttributes();
 
+    /** The namespace, local name and attribute node value of the last pair resolved. */
+    private String pairUri;
+    private String pairLocalName;
+    private NodeValue pairAttributeNodeValue;
+
+    /** The event read ahead of an array's first value when streaming. */
+    private Event pushedBackEvent;
+
+    /**
+     * PERF: The factory for the builders of the values read ahead when streaming,
+     * Json.createObjectBuilder() looks up the provider each time.
+     */
+    private JsonBuilderFactory builderFactory;
+
     /**
      * If we should treat unqualified type property in JSON as MOXy type discriminator.
      */
     private boolean jsonTypeCompatibility;
 
+    /** The context of the unmarshaller, to find the type indicators to read ahead when streaming. */
+    private Context context;
+
+    /**
+     * The local names of the class indicators of the context's descriptors using inheritance,
+     * the members of an object are read ahead of its nested content until one of them when streaming.
+     */
+    private Set<String> typeIndicatorNames;
+
     public JsonStructureReader(Unmarshaller u) {
         this(u, null);
     }
@@ -99,6 +142,7 @@ public JsonStructureReader(Unmarshaller u, Class clazz) {
         this.textWrapper = u.getValueWrapper();
         this.unmarshalClass = clazz;
         this.jsonTypeCompatibility = u.getJsonTypeConfiguration().useJsonTypeCompatibility();
+        this.context = u.getContext();
     }
 
     public void setJsonStructure(JsonStructure jsonStructure) {
@@ -158,12 +202,7 @@ public void parse(String systemId) {
     }
 
     public void parseRoot(JsonValue jsonValue) throws SAXException {
-        if (namespaces != null) {
-            Map<String, String> namespacePairs = namespaces.getPrefixesToNamespaces();
-            for (Entry<String, String> namespacePair : namespacePairs.entrySet()) {
-                contentHandler.startPrefixMapping(namespacePair.getKey(), namespacePair.getValue());
-            }
-        }
+        startPrefixMappings();
 
         if (jsonValue.getValueType() == ValueType.OBJECT) {
             contentHandler.startDocument();
@@ -204,42 +243,145 @@ public void parseRoot(JsonValue jsonValue) throws SAXException {
             List<Object> list = new ArrayList<>(jsonArray.size());
             for (JsonValue aJsonArray : jsonArray) {
                 parseRoot(aJsonArray);
-                if (getContentHandler() instanceof SAXUnmarshallerHandler) {
-                    SAXUnmarshallerHandler saxUnmarshallerHandler = (SAXUnmarshallerHandler) contentHandler;
-                    list.add(saxUnmarshallerHandler.getObject());
-                    saxUnmarshallerHandler.setObject(null);
-                } else if (getContentHandler() instanceof UnmarshalRecord) {
-                    UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
-                    Object unmarshalledObject = unmarshalRecord.getCurrentObject();
-                    if (includeRoot && unmarshalClass != null) {
-                        if (!(unmarshalledObject instanceof Root)) {
-                            Root xmlRoot = unmarshalRecord.createRoot();
-                            xmlRoot.setNamespaceURI(unmarshalRecord.getRootElementNamespaceUri());
-                            xmlRoot.setLocalName(unmarshalRecord.getLocalName());
-                            xmlRoot.setObject(unmarshalledObject);
-                            unmarshalledObject = xmlRoot;
-                        }
+                addRootObject(list);
+            }
+            setRootObjects(list, rootContentHandler);
+
+        } else {
+            getContentHandler().startDocument();
+            parseValue(jsonValue);
+        }
+    }
+
+    /**
+     * Parse the document from the parser, reporting the SAX events as the values are read
+     * instead of reading the whole document into a JsonStructure first.
+     * <p>
+     * The attributes of an element are reported when it is started, so only the leading simple members
+     * of an object, up to its first object or array member, are read ahead and reported as attributes.
+     * The members after are reported as they are read, an attribute mapping's value that only follows
+     * nested content is still set through the mapping.
+     * The class of an object using inheritance is found from its attributes, so the members of an object mapped to
+     * a descriptor using inheritance are read ahead of the nested content until a class indicator, or the end of the object.
+     */
+    public void parseRoot(JsonParser parser) throws SAXException {
+        this.pushedBackEvent = null;
+        if (this.builderFactory == null) {
+            this.builderFactory = Json.createBuilderFactory(null);
+        }
+        if (this.typeIndicatorNames == null) {
+            if (this.context == null) {
+                this.typeIndicatorNames = Collections.emptySet();
+            } else {
+                this.typeIndicatorNames = this.context.getTypeIndicatorNames();
+            }
+        }
+        if (parser.hasNext()) {
+            parseRoot(parser, parser.next());
+        }
+    }
+
+    private void parseRoot(JsonParser parser, Event event) throws SAXException {
+        startPrefixMappings();
+
+        if (event == Event.START_OBJECT) {
+            contentHandler.startDocument();
+            if (includeRoot) {
+                Event next = nextEvent(parser);
+                if (next == Event.END_OBJECT) {
+                    if (unmarshalClass != null) {
+                        contentHandler.endDocument();
                     }
-                    list.add(unmarshalledObject);
-                    unmarshalRecord.setCurrentObject(null);
-                    unmarshalRecord.setRootElementName(null);
-                    unmarshalRecord.setLocalName(null);
+                    return;
+                }
+                parseStreamedPair(parser, parser.getString(), nextEvent(parser), false);
+                // Only the first member is the root, the others are ignored.
+                next = nextEvent(parser);
+                while (next != Event.END_OBJECT) {
+                    skipValue(parser, nextEvent(parser));
+                    next = nextEvent(parser);
+                }
+            } else {
+                LeadingMembers leadingMembers = readLeadingMembers(parser, shouldReadRootToTypeIndicator());
+                if (leadingMembers.isEmpty() && unmarshalClass == null) {
+                    return;
                 }
+                contentHandler.startElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null, attributes.setValue(leadingMembers.object, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
+                parseMembers(parser, leadingMembers, true);
+                contentHandler.endElement(Constants.EMPTY_STRING, Constants.EMPTY_STRING, null);
             }
+            contentHandler.endDocument();
+        } else if (event == Event.START_ARRAY) {
+
+            SAXUnmarshallerHandler rootContentHandler = null;
             if (getContentHandler() instanceof SAXUnmarshallerHandler) {
-                ((SAXUnmarshallerHandler) getContentHandler()).setObject(list);
-            } else if (getContentHandler() instanceof UnmarshalRecord) {
-                ((UnmarshalRecord) getContentHandler()).setCurrentObject(list);
-                ((UnmarshalRecord) getContentHandler()).setRootElementName(Constants.EMPTY_STRING);
-                ((UnmarshalRecord) getContentHandler()).setLocalName(Constants.EMPTY_STRING);
-                if (rootContentHandler != null) {
-                    rootContentHandler.setObject(list);
-                }
+                rootContentHandler = (SAXUnmarshallerHandler) getContentHandler();
             }
 
+            List<Object> list = new ArrayList<>();
+            Event next = nextEvent(parser);
+            while (next != Event.END_ARRAY) {
+                parseRoot(parser, next);
+                addRootObject(list);
+                next = nextEvent(parser);
+            }
+            setRootObjects(list, rootContentHandler);
+
         } else {
             getContentHandler().startDocument();
-            parseValue(jsonValue);
+            parseValue(event, parser);
+        }
+    }
+
+    private void startPrefixMappings() throws SAXException {
+        if (namespaces != null) {
+            Map<String, String> namespacePairs = namespaces.getPrefixesToNamespaces();
+            for (Entry<String, String> namespacePair : namespacePairs.entrySet()) {
+                contentHandler.startPrefixMapping(namespacePair.getKey(), namespacePair.getValue());
+            }
+        }
+    }
+
+    /**
+     * Add the object unmarshalled from an element of a root array to the list.
+     */
+    private void addRootObject(List<Object> list) {
+        if (getContentHandler() instanceof SAXUnmarshallerHandler) {
+            SAXUnmarshallerHandler saxUnmarshallerHandler = (SAXUnmarshallerHandler) contentHandler;
+            list.add(saxUnmarshallerHandler.getObject());
+            saxUnmarshallerHandler.setObject(null);
+        } else if (getContentHandler() instanceof UnmarshalRecord) {
+            UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
+            Object unmarshalledObject = unmarshalRecord.getCurrentObject();
+            if (includeRoot && unmarshalClass != null) {
+                if (!(unmarshalledObject instanceof Root)) {
+                    Root xmlRoot = unmarshalRecord.createRoot();
+                    xmlRoot.setNamespaceURI(unmarshalRecord.getRootElementNamespaceUri());
+                    xmlRoot.setLocalName(unmarshalRecord.getLocalName());
+                    xmlRoot.setObject(unmarshalledObject);
+                    unmarshalledObject = xmlRoot;
+                }
+            }
+            list.add(unmarshalledObject);
+            unmarshalRecord.setCurrentObject(null);
+            unmarshalRecord.setRootElementName(null);
+            unmarshalRecord.setLocalName(null);
+        }
+    }
+
+    /**
+     * Set the objects unmarshalled from a root array as the result.
+     */
+    private void setRootObjects(List<Object> list, SAXUnmarshallerHandler rootContentHandler) {
+        if (getContentHandler() instanceof SAXUnmarshallerHandler) {
+            ((SAXUnmarshallerHandler) getContentHandler()).setObject(list);
+        } else if (getContentHandler() instanceof UnmarshalRecord) {
+            ((UnmarshalRecord) getContentHandler()).setCurrentObject(list);
+            ((UnmarshalRecord) getContentHandler()).setRootElementName(Constants.EMPTY_STRING);
+            ((UnmarshalRecord) getContentHandler()).setLocalName(Constants.EMPTY_STRING);
+            if (rootContentHandler != null) {
+                rootContentHandler.setObject(list);
+            }
         }
     }
 
@@ -283,6 +425,44 @@ private void parseValue(JsonValue jsonValue) throws SAXException {
         }
     }
 
+    /**
+     * Report the value of the current event of the parser, reading the object or array.
+     */
+    private void parseValue(Event event, JsonParser parser) throws SAXException {
+        switch (event) {
+            case VALUE_STRING:
+            case VALUE_NUMBER: {
+                contentHandler.characters(parser.getString());
+                break;
+            }
+            case VALUE_FALSE: {
+                contentHandler.characters(FALSE);
+                break;
+            }
+            case VALUE_TRUE: {
+                contentHandler.characters(TRUE);
+                break;
+            }
+            case START_OBJECT: {
+                parseMembers(parser, readLeadingMembers(parser, shouldReadToTypeIndicator()), false);
+                break;
+            }
+            case START_ARRAY: {
+                Event next = nextEvent(parser);
+                while (next != Event.END_ARRAY) {
+                    parseValue(next, parser);
+                    next = nextEvent(parser);
+                }
+                break;
+            }
+            case VALUE_NULL: {
+                break; // noop
+            }
+            default:
+                throw new IllegalStateException("Unhandled event: " + event);
+        }
+    }
+
     private void parsePair(String name, JsonValue jsonValue) throws SAXException {
         if (jsonValue == null) {
             return;
@@ -291,174 +471,584 @@ private void parsePair(String name, JsonValue jsonValue) throws SAXException {
 
         if (valueType == ValueType.ARRAY) {
             JsonArray jsonArray = (JsonArray) jsonValue;
-            String parentLocalName = name;
-
-            if (attributePrefix != null && parentLocalName.startsWith(attributePrefix)) {
-                // do nothing;
+            ArrayPair arrayPair = startArrayPair(name, jsonArray.isEmpty());
+            if (arrayPair == null) {
                 return;
             }
-            String uri = Constants.EMPTY_STRING;
-            if (isNamespaceAware() && namespaces != null) {
-                if (parentLocalName.length() > 2) {
-                    int nsIndex = parentLocalName.indexOf(getNamespaceSeparator(), 1);
-                    if (nsIndex > -1) {
-                        String prefix = parentLocalName.substring(0, nsIndex);
-                        uri = namespaces.resolveNamespacePrefix(prefix);
-                    }
-                    if (uri == null) {
-                        uri = namespaces.getDefaultNamespaceURI();
-                    } else {
-                        parentLocalName = parentLocalName.substring(nsIndex + 1);
-                    }
-                } else {
-                    uri = namespaces.getDefaultNamespaceURI();
+            if (arrayPair.hasItems) {
+                for (JsonValue nextArrayValue : jsonArray) {
+                    startArrayItem(arrayPair, nextArrayValue.getValueType() == ValueType.NULL, nextArrayValue);
+                    parseValue(nextArrayValue);
+                    endArrayItem(arrayPair);
                 }
             }
-
-            boolean isTextValue;
-            int arraySize = jsonArray.size();
-            if (arraySize == 0) {
-                if (contentHandler instanceof UnmarshalRecord) {
-                    UnmarshalRecord ur = (UnmarshalRecord) contentHandler;
-                    XPathNode node = ur.getNonAttributeXPathNode(uri, parentLocalName, parentLocalName, null);
-                    if (node != null) {
-                        NodeValue nv = node.getNodeValue();
-                        if (nv == null && node.getTextNode() != null) {
-                            nv = node.getTextNode().getUnmarshalNodeValue();
-                        }
-                        if (nv != null && nv.isContainerValue()) {
-                            ur.getContainerInstance(((ContainerValue) nv));
-                        }
+            endArrayPair(arrayPair);
+        } else {
+            switch (resolvePair(name)) {
+                case VALUE_PAIR: {
+                    parseValue(jsonValue);
+                    return;
+                }
+                case ELEMENT_PAIR: {
+                    if (jsonValue.getValueType() == ValueType.NULL) {
+                        contentHandler.setNil(true);
                     }
+                    String uri = this.pairUri;
+                    String localName = this.pairLocalName;
+                    contentHandler.startElement(uri, localName, localName, attributes.setValue(jsonValue, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
+                    parseValue(jsonValue);
+                    contentHandler.endElement(uri, localName, localName);
+                    return;
                 }
+                default:
+                    return;
             }
-            startCollection();
+        }
+    }
 
-            XPathFragment groupingXPathFragment = null;
-            XPathFragment itemXPathFragment = null;
-            if (contentHandler instanceof UnmarshalRecord) {
-                isTextValue = isTextValue(parentLocalName);
-                UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
-                if (unmarshalRecord.getUnmarshaller().isWrapperAsCollectionName()) {
-                    XPathNode unmarshalRecordXPathNode = unmarshalRecord.getXPathNode();
-                    if (null != unmarshalRecordXPathNode) {
-                        XPathFragment currentFragment = new XPathFragment();
-                        currentFragment.setLocalName(parentLocalName);
-                        currentFragment.setNamespaceURI(uri);
-                        currentFragment.setNamespaceAware(isNamespaceAware());
-                        XPathNode groupingXPathNode = unmarshalRecordXPathNode.getNonAttributeChildrenMap().get(currentFragment);
-                        if (groupingXPathNode != null) {
-                            if (groupingXPathNode.getUnmarshalNodeValue() instanceof CollectionGroupingElementNodeValue) {
-                                groupingXPathFragment = groupingXPathNode.getXPathFragment();
-                                contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
-                                XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
-                                itemXPathFragment = itemXPathNode.getXPathFragment();
-                            } else if (groupingXPathNode.getUnmarshalNodeValue() == null) {
-                                XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
-                                if (itemXPathNode != null) {
-                                    if ((itemXPathNode.getUnmarshalNodeValue()).isContainerValue()) {
-                                        groupingXPathFragment = groupingXPathNode.getXPathFragment();
-                                        contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
-                                        itemXPathFragment = itemXPathNode.getXPathFragment();
-                                    }
-                                }
-                            }
-                        }
+    /**
+     * Report the pair for the current event of the parser, reading its object or array.
+     * If the object's element was already started the attribute mappings of simple values are set directly.
+     */
+    private void parseStreamedPair(JsonParser parser, String name, Event event, boolean isElementStarted) throws SAXException {
+        if (event == Event.START_ARRAY) {
+            Event next = nextEvent(parser);
+            ArrayPair arrayPair = startArrayPair(name, next == Event.END_ARRAY);
+            if ((arrayPair == null) || !arrayPair.hasItems) {
+                while (next != Event.END_ARRAY) {
+                    skipValue(parser, next);
+                    next = nextEvent(parser);
+                }
+                if (arrayPair != null) {
+                    endArrayPair(arrayPair);
+                }
+                return;
+            }
+            Boolean readItemsToTypeIndicator = null;
+            while (next != Event.END_ARRAY) {
+                if (next == Event.START_OBJECT) {
+                    if (readItemsToTypeIndicator == null) {
+                        readItemsToTypeIndicator = shouldReadToTypeIndicator(arrayPair);
                     }
+                    LeadingMembers leadingMembers = readLeadingMembers(parser, readItemsToTypeIndicator);
+                    startArrayItem(arrayPair, false, leadingMembers.object);
+                    parseMembers(parser, leadingMembers, true);
+                } else if (next == Event.START_ARRAY) {
+                    JsonValue nextArrayValue = readValue(parser, next);
+                    startArrayItem(arrayPair, false, nextArrayValue);
+                    parseValue(nextArrayValue);
+                } else {
+                    startArrayItem(arrayPair, next == Event.VALUE_NULL, JsonValue.NULL);
+                    parseValue(next, parser);
                 }
-
-                for (JsonValue nextArrayValue : jsonArray) {
-                    if (nextArrayValue.getValueType() == ValueType.NULL) {
+                endArrayItem(arrayPair);
+                next = nextEvent(parser);
+            }
+            endArrayPair(arrayPair);
+            return;
+        }
+        switch (resolvePair(name)) {
+            case VALUE_PAIR: {
+                parseValue(event, parser);
+                return;
+            }
+            case ELEMENT_PAIR: {
+                String uri = this.pairUri;
+                String localName = this.pairLocalName;
+                if (event == Event.START_OBJECT) {
+                    LeadingMembers leadingMembers = readLeadingMembers(parser, shouldReadToTypeIndicator(uri, localName));
+                    contentHandler.startElement(uri, localName, localName, attributes.setValue(leadingMembers.object, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
+                    parseMembers(parser, leadingMembers, true);
+                } else {
+                    if (event == Event.VALUE_NULL) {
                         contentHandler.setNil(true);
                     }
+                    contentHandler.startElement(uri, localName, localName, attributes.setValue(JsonValue.NULL, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
+                    parseValue(event, parser);
+                }
+                contentHandler.endElement(uri, localName, localName);
+                return;
+            }
+            case ATTRIBUTE_PAIR: {
+                if (isElementStarted && (event != Event.START_OBJECT) && (event != Event.VALUE_NULL)) {
+                    // Not reported with the element's attributes as it follows nested content.
+                    String value = (event == Event.VALUE_TRUE) ? TRUE : (event == Event.VALUE_FALSE) ? FALSE : parser.getString();
+                    this.pairAttributeNodeValue.attribute((UnmarshalRecord) contentHandler, this.pairUri, this.pairLocalName, value);
+                    return;
+                }
+                skipValue(parser, event);
+                return;
+            }
+            default:
+                skipValue(parser, event);
+        }
+    }
 
-                    if (!isTextValue) {
-                        if (null != itemXPathFragment) {
-                            contentHandler.startElement(itemXPathFragment.getNamespaceURI(), itemXPathFragment.getLocalName(), itemXPathFragment.getLocalName(), attributes.setValue(nextArrayValue, attributePrefix,namespaces, getNamespaceSeparator(), isNamespaceAware()));
-                        } else {
-                            contentHandler.startElement(uri, parentLocalName,parentLocalName, attributes.setValue(nextArrayValue, attributePrefix,namespaces, getNamespaceSeparator(), isNamespaceAware()));
-                        }
+    /**
+     * Report the members of an object, the leading members first and then the members as they are read.
+     */
+    private void parseMembers(JsonParser parser, LeadingMembers leadingMembers, boolean isElementStarted) throws SAXException {
+        for (Entry<String, JsonValue> nextEntry : leadingMembers.object.entrySet()) {
+            parsePair(nextEntry.getKey(), nextEntry.getValue());
+        }
+        if (leadingMembers.event == Event.END_OBJECT) {
+            return;
+        }
+        parseStreamedPair(parser, leadingMembers.key, leadingMembers.event, isElementStarted);
+        Event next = nextEvent(parser);
+        while (next != Event.END_OBJECT) {
+            String name = parser.getString();
+            parseStreamedPair(parser, name, nextEvent(parser), isElementStarted);
+            next = nextEvent(parser);
+        }
+    }
 
-                    }
-                    parseValue(nextArrayValue);
-                    if (!isTextValue) {
-                        if (null != itemXPathFragment) {
-                            contentHandler.endElement(itemXPathFragment.getNamespaceURI(),itemXPathFragment.getLocalName(),itemXPathFragment.getLocalName());
-                        } else {
-                            contentHandler.endElement(uri, parentLocalName,parentLocalName);
-                        }
-                    }
+    /**
+     * Read the members of the object up to its first object member, or array member of objects or arrays,
+     * so they can be reported as the attributes of the object's element.
+     * If the object's class may be found from a class indicator, the members are read up to the first
+     * object or array member after the indicator, so the indicator is reported with the attributes.
+     */
+    private LeadingMembers readLeadingMembers(JsonParser parser, boolean readToTypeIndicator) {
+        JsonObjectBuilder builder = null;
+        boolean isReadingAhead = readToTypeIndicator;
+        Event next = nextEvent(parser);
+        while (next == Event.KEY_NAME) {
+            String key = parser.getString();
+            Event event = nextEvent(parser);
+            if (event == Event.START_OBJECT) {
+                if (!isReadingAhead) {
+                    return new LeadingMembers(build(builder), key, event);
+                }
+                if (builder == null) {
+                    builder = this.builderFactory.createObjectBuilder();
+                }
+                builder.add(key, readValue(parser, event));
+            } else if (event == Event.START_ARRAY) {
+                Event first = nextEvent(parser);
+                if (((first == Event.START_OBJECT) || (first == Event.START_ARRAY)) && !isReadingAhead) {
+                    this.pushedBackEvent = first;
+                    return new LeadingMembers(build(builder), key, event);
+                }
+                if (builder == null) {
+                    builder = this.builderFactory.createObjectBuilder();
+                }
+                builder.add(key, readArray(parser, first));
+            } else {
+                if (builder == null) {
+                    builder = this.builderFactory.createObjectBuilder();
+                }
+                switch (event) {
+                    case VALUE_STRING:
+                        builder.add(key, parser.getString());
+                        break;
+                    case VALUE_NUMBER:
+                        builder.add(key, parser.getBigDecimal());
+                        break;
+                    case VALUE_TRUE:
+                        builder.add(key, true);
+                        break;
+                    case VALUE_FALSE:
+                        builder.add(key, false);
+                        break;
+                    default:
+                        builder.addNull(key);
+                }
+                if (isReadingAhead && isTypeIndicator(key)) {
+                    isReadingAhead = false;
                 }
             }
-            if (null != groupingXPathFragment) {
-                contentHandler.endElement(uri,groupingXPathFragment.getLocalName(),groupingXPathFragment.getLocalName());
+            next = nextEvent(parser);
+        }
+        return new LeadingMembers(build(builder), null, Event.END_OBJECT);
+    }
+
+    /**
+     * Return if the members of an object should be read ahead of its nested content until a class indicator,
+     * as the context has descriptors using inheritance.
+     */
+    private boolean shouldReadToTypeIndicator() {
+        return !this.typeIndicatorNames.isEmpty();
+    }
+
+    /**
+     * Return if the members of the items of the array should be read ahead of their nested content until a class indicator.
+     */
+    private boolean shouldReadToTypeIndicator(ArrayPair arrayPair) {
+        if (arrayPair.itemXPathFragment != null) {
+            return shouldReadToTypeIndicator(arrayPair.itemXPathFragment.getNamespaceURI(), arrayPair.itemXPathFragment.getLocalName());
+        }
+        return shouldReadToTypeIndicator(arrayPair.uri, arrayPair.localName);
+    }
+
+    /**
+     * Return if the members of the object of the element about to be started should be read ahead of its nested content
+     * until a class indicator, as the element maps to a descriptor using inheritance, or to an object of an unknown class.
+     * The objects of descriptors not using inheritance, and the grouping elements of the current object, are streamed.
+     */
+    private boolean shouldReadToTypeIndicator(String uri, String localName) {
+        if (!shouldReadToTypeIndicator()) {
+            return false;
+        }
+        if (!(contentHandler instanceof UnmarshalRecord)) {
+            if ((this.unmarshalClass == null) && (this.context != null)) {
+                CoreDescriptor descriptor = (CoreDescriptor) this.context.getDescriptor(new XPathQName(uri, localName, isNamespaceAware()));
+                if (descriptor != null) {
+                    return descriptor.hasInheritance();
+                }
             }
-            endCollection();
-        } else {
-            if (attributePrefix != null && name.startsWith(attributePrefix)) {
-                return;
+            return shouldReadRootToTypeIndicator();
+        }
+        UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
+        XPathNode xPathNode = unmarshalRecord.getXPathNode();
+        if ((xPathNode == null) || (unmarshalRecord.getLevelIndex() == 0)) {
+            // The element is the record's root element.
+            return shouldReadRootToTypeIndicator();
+        }
+        XPathFragment xPathFragment = new XPathFragment();
+        xPathFragment.setLocalName(localName);
+        xPathFragment.setNamespaceURI(uri);
+        xPathFragment.setNamespaceAware(isNamespaceAware());
+        Map<XPathFragment, XPathNode> nonAttributeChildrenMap = xPathNode.getNonAttributeChildrenMap();
+        XPathNode node = null;
+        if (nonAttributeChildrenMap != null) {
+            node = nonAttributeChildrenMap.get(xPathFragment);
+        }
+        if ((node == null) || node.hasPredicateSiblings()) {
+            // An unmapped element is skipped, an element of an any mapping, or matched otherwise, may be of any class.
+            return (node != null) || (xPathNode.getAnyNode() != null) || unmarshalRecord.getUnmarshaller().isCaseInsensitive();
+        }
+        NodeValue nodeValue = node.getUnmarshalNodeValue();
+        if (!(nodeValue instanceof MappingNodeValue)) {
+            return false;
+        }
+        Mapping mapping = ((MappingNodeValue) nodeValue).getMapping();
+        if (mapping.isAbstractDirectMapping() || mapping.isAbstractCompositeDirectCollectionMapping()) {
+            return false;
+        }
+        if (mapping.isAbstractCompositeObjectMapping() || mapping.isAbstractCompositeCollectionMapping()) {
+            CoreDescriptor descriptor = (CoreDescriptor) mapping.getReferenceDescriptor();
+            return (descriptor == null) || descriptor.hasInheritance();
+        }
+        return true;
+    }
+
+    /**
+     * Return if the members of the root object should be read ahead of its nested content until a class indicator.
+     * The root object of a class not using inheritance is streamed.
+     */
+    private boolean shouldReadRootToTypeIndicator() {
+        if (!shouldReadToTypeIndicator()) {
+            return false;
+        }
+        if ((this.unmarshalClass != null) && (this.context != null)) {
+            CoreSession session = this.context.getSession();
+            if (session != null) {
+                CoreDescriptor descriptor = (CoreDescriptor) session.getDescriptor(this.unmarshalClass);
+                if (descriptor != null) {
+                    return descriptor.hasInheritance();
+                }
             }
-            String localName = name;
-            String uri = Constants.EMPTY_STRING;
-            if (isNamespaceAware() && namespaces != null) {
-                if (localName.length() > 2) {
-                    int nsIndex = localName.indexOf(getNamespaceSeparator(), 1);
-                    String prefix = Constants.EMPTY_STRING;
-                    if (nsIndex > -1) {
-                        prefix = localName.substring(0, nsIndex);
-                    }
-                    uri = namespaces.resolveNamespacePrefix(prefix);
-                    if (uri == null) {
-                        uri = namespaces.getDefaultNamespaceURI();
-                    } else {
-                        localName = localName.substring(nsIndex + 1);
-                    }
+        }
+        return true;
+    }
 
-                    if (localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && uri != null && uri.equals(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI)) {
-                        return;
-                    }
+    /**
+     * Return if the key is the local name of a class indicator, with or without the attribute prefix and namespace prefix.
+     */
+    private boolean isTypeIndicator(String key) {
+        String localName = key;
+        if ((attributePrefix != null) && localName.startsWith(attributePrefix)) {
+            localName = localName.substring(attributePrefix.length());
+        }
+        int nsIndex = localName.indexOf(getNamespaceSeparator());
+        if (nsIndex > -1) {
+            localName = localName.substring(nsIndex + 1);
+        }
+        return this.typeIndicatorNames.contains(localName);
+    }
+
+    private static JsonObject build(JsonObjectBuilder builder) {
+        if (builder == null) {
+            return EMPTY_OBJECT;
+        }
+        return builder.build();
+    }
+
+    /**
+     * Read the value of the current event of the parser.
+     */
+    private JsonValue readValue(JsonParser parser, Event event) {
+        switch (event) {
+            case START_OBJECT: {
+                JsonObjectBuilder builder = this.builderFactory.createObjectBuilder();
+                Event next = nextEvent(parser);
+                while (next != Event.END_OBJECT) {
+                    String key = parser.getString();
+                    builder.add(key, readValue(parser, nextEvent(parser)));
+                    next = nextEvent(parser);
+                }
+                return builder.build();
+            }
+            case START_ARRAY:
+                return readArray(parser, nextEvent(parser));
+            case VALUE_TRUE:
+                return JsonValue.TRUE;
+            case VALUE_FALSE:
+                return JsonValue.FALSE;
+            case VALUE_NULL:
+                return JsonValue.NULL;
+            default:
+                // JSON-P 1.0 has no factory for a single value, so it is read through an array.
+                JsonArrayBuilder builder = this.builderFactory.createArrayBuilder();
+                if (event == Event.VALUE_STRING) {
+                    builder.add(parser.getString());
                 } else {
-                    uri = namespaces.getDefaultNamespaceURI();
+                    builder.add(parser.getBigDecimal());
                 }
+                return builder.build().get(0);
+        }
+    }
+
+    /**
+     * Read the array from its first event.
+     */
+    private JsonArray readArray(JsonParser parser, Event first) {
+        JsonArrayBuilder builder = this.builderFactory.createArrayBuilder();
+        Event next = first;
+        while (next != Event.END_ARRAY) {
+            switch (next) {
+                case VALUE_STRING:
+                    builder.add(parser.getString());
+                    break;
+                case VALUE_NUMBER:
+                    builder.add(parser.getBigDecimal());
+                    break;
+                case VALUE_TRUE:
+                    builder.add(true);
+                    break;
+                case VALUE_FALSE:
+                    builder.add(false);
+                    break;
+                case VALUE_NULL:
+                    builder.addNull();
+                    break;
+                default:
+                    builder.add(readValue(parser, next));
             }
-            if (contentHandler instanceof XMLRootRecord || contentHandler instanceof DeferredContentHandler) {
-                if (jsonTypeCompatibility) {
-                    // if its not namespaceAware don't report the "type" child as it
-                    // is will be read by the xsi:type lookup
-                    if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE)) {
-                        return;
-                    }
+            next = nextEvent(parser);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Skip the value of the current event of the parser.
+     */
+    private void skipValue(JsonParser parser, Event event) {
+        if ((event != Event.START_OBJECT) && (event != Event.START_ARRAY)) {
+            return;
+        }
+        int depth = 1;
+        while (depth > 0) {
+            Event next = nextEvent(parser);
+            if ((next == Event.START_OBJECT) || (next == Event.START_ARRAY)) {
+                depth++;
+            } else if ((next == Event.END_OBJECT) || (next == Event.END_ARRAY)) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Return the next event of the parser, or the event pushed back when reading ahead.
+     */
+    private Event nextEvent(JsonParser parser) {
+        Event event = this.pushedBackEvent;
+        if (event != null) {
+            this.pushedBackEvent = null;
+            return event;
+        }
+        return parser.next();
+    }
+
+    /**
+     * Resolve the namespace and local name of an array pair and start it.
+     * Return null if the pair is skipped.
+     */
+    private ArrayPair startArrayPair(String name, boolean isEmpty) throws SAXException {
+        String parentLocalName = name;
+
+        if (attributePrefix != null && parentLocalName.startsWith(attributePrefix)) {
+            // do nothing;
+            return null;
+        }
+        String uri = Constants.EMPTY_STRING;
+        if (isNamespaceAware() && namespaces != null) {
+            if (parentLocalName.length() > 2) {
+                int nsIndex = parentLocalName.indexOf(getNamespaceSeparator(), 1);
+                if (nsIndex > -1) {
+                    String prefix = parentLocalName.substring(0, nsIndex);
+                    uri = namespaces.resolveNamespacePrefix(prefix);
                 }
-                if (textWrapper != null && textWrapper.equals(localName)) {
-                    parseValue(jsonValue);
-                    return;
+                if (uri == null) {
+                    uri = namespaces.getDefaultNamespaceURI();
+                } else {
+                    parentLocalName = parentLocalName.substring(nsIndex + 1);
                 }
-            } else if (contentHandler instanceof UnmarshalRecord && ((UnmarshalRecord) contentHandler).getXPathNode() != null) {
-                if (jsonTypeCompatibility) {
-                    if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && !((UnmarshalRecord) contentHandler).getXPathNode().hasTypeChild()) {
-                        return;
+            } else {
+                uri = namespaces.getDefaultNamespaceURI();
+            }
+        }
+
+        if (isEmpty) {
+            if (contentHandler instanceof UnmarshalRecord) {
+                UnmarshalRecord ur = (UnmarshalRecord) contentHandler;
+                XPathNode node = ur.getNonAttributeXPathNode(uri, parentLocalName, parentLocalName, null);
+                if (node != null) {
+                    NodeValue nv = node.getNodeValue();
+                    if (nv == null && node.getTextNode() != null) {
+                        nv = node.getTextNode().getUnmarshalNodeValue();
+                    }
+                    if (nv != null && nv.isContainerValue()) {
+                        ur.getContainerInstance(((ContainerValue) nv));
                     }
                 }
-                boolean isTextValue = isTextValue(localName);
-                if (isTextValue) {
-                    parseValue(jsonValue);
-                    return;
-                }
-                NodeValue nv = ((UnmarshalRecord)contentHandler).getAttributeChildNodeValue(uri, localName);
-                if(attributePrefix == null && nv !=null ){
-                  return;
+            }
+        }
+        startCollection();
+
+        ArrayPair arrayPair = new ArrayPair(uri, parentLocalName);
+        if (contentHandler instanceof UnmarshalRecord) {
+            arrayPair.hasItems = true;
+            arrayPair.isTextValue = isTextValue(parentLocalName);
+            UnmarshalRecord unmarshalRecord = (UnmarshalRecord) contentHandler;
+            if (unmarshalRecord.getUnmarshaller().isWrapperAsCollectionName()) {
+                XPathNode unmarshalRecordXPathNode = unmarshalRecord.getXPathNode();
+                if (null != unmarshalRecordXPathNode) {
+                    XPathFragment currentFragment = new XPathFragment();
+                    currentFragment.setLocalName(parentLocalName);
+                    currentFragment.setNamespaceURI(uri);
+                    currentFragment.setNamespaceAware(isNamespaceAware());
+                    XPathNode groupingXPathNode = unmarshalRecordXPathNode.getNonAttributeChildrenMap().get(currentFragment);
+                    if (groupingXPathNode != null) {
+                        if (groupingXPathNode.getUnmarshalNodeValue() instanceof CollectionGroupingElementNodeValue) {
+                            arrayPair.groupingXPathFragment = groupingXPathNode.getXPathFragment();
+                            contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
+                            XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
+                            arrayPair.itemXPathFragment = itemXPathNode.getXPathFragment();
+                        } else if (groupingXPathNode.getUnmarshalNodeValue() == null) {
+                            XPathNode itemXPathNode = groupingXPathNode.getNonAttributeChildren().get(0);
+                            if (itemXPathNode != null) {
+                                if ((itemXPathNode.getUnmarshalNodeValue()).isContainerValue()) {
+                                    arrayPair.groupingXPathFragment = groupingXPathNode.getXPathFragment();
+                                    contentHandler.startElement(uri, parentLocalName, parentLocalName, new AttributesImpl());
+                                    arrayPair.itemXPathFragment = itemXPathNode.getXPathFragment();
+                                }
+                            }
+                        }
+                    }
                 }
             }
-            if (jsonValue.getValueType() == ValueType.NULL) {
-                contentHandler.setNil(true);
+        }
+        return arrayPair;
+    }
+
+    /**
+     * Start the element of an item of the array, the attributes are built from the item's value.
+     */
+    private void startArrayItem(ArrayPair arrayPair, boolean isNull, JsonValue attributesValue) throws SAXException {
+        if (isNull) {
+            contentHandler.setNil(true);
+        }
+
+        if (!arrayPair.isTextValue) {
+            if (null != arrayPair.itemXPathFragment) {
+                contentHandler.startElement(arrayPair.itemXPathFragment.getNamespaceURI(), arrayPair.itemXPathFragment.getLocalName(), arrayPair.itemXPathFragment.getLocalName(), attributes.setValue(attributesValue, attributePrefix,namespaces, getNamespaceSeparator(), isNamespaceAware()));
+            } else {
+                contentHandler.startElement(arrayPair.uri, arrayPair.localName, arrayPair.localName, attributes.setValue(attributesValue, attributePrefix,namespaces, getNamespaceSeparator(), isNamespaceAware()));
+            }
+        }
+    }
+
+    private void endArrayItem(ArrayPair arrayPair) throws SAXException {
+        if (!arrayPair.isTextValue) {
+            if (null != arrayPair.itemXPathFragment) {
+                contentHandler.endElement(arrayPair.itemXPathFragment.getNamespaceURI(), arrayPair.itemXPathFragment.getLocalName(), arrayPair.itemXPathFragment.getLocalName());
+            } else {
+                contentHandler.endElement(arrayPair.uri, arrayPair.localName, arrayPair.localName);
             }
+        }
+    }
 
-            contentHandler.startElement(uri, localName, localName, attributes.setValue(jsonValue, attributePrefix, namespaces, getNamespaceSeparator(), isNamespaceAware()));
-            parseValue(jsonValue);
-            contentHandler.endElement(uri, localName, localName);
+    private void endArrayPair(ArrayPair arrayPair) throws SAXException {
+        if (null != arrayPair.groupingXPathFragment) {
+            contentHandler.endElement(arrayPair.uri, arrayPair.groupingXPathFragment.getLocalName(), arrayPair.groupingXPathFragment.getLocalName());
+        }
+        endCollection();
+    }
 
+    /**
+     * Resolve the namespace and local name of a pair that is not an array into pairUri and pairLocalName,
+     * and return how the pair is reported.
+     */
+    private int resolvePair(String name) {
+        if (attributePrefix != null && name.startsWith(attributePrefix)) {
+            return SKIPPED_PAIR;
         }
+        String localName = name;
+        String uri = Constants.EMPTY_STRING;
+        if (isNamespaceAware() && namespaces != null) {
+            if (localName.length() > 2) {
+                int nsIndex = localName.indexOf(getNamespaceSeparator(), 1);
+                String prefix = Constants.EMPTY_STRING;
+                if (nsIndex > -1) {
+                    prefix = localName.substring(0, nsIndex);
+                }
+                uri = namespaces.resolveNamespacePrefix(prefix);
+                if (uri == null) {
+                    uri = namespaces.getDefaultNamespaceURI();
+                } else {
+                    localName = localName.substring(nsIndex + 1);
+                }
 
+                if (localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && uri != null && uri.equals(javax.xml.XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI)) {
+                    return SKIPPED_PAIR;
+                }
+            } else {
+                uri = namespaces.getDefaultNamespaceURI();
+            }
+        }
+        this.pairUri = uri;
+        this.pairLocalName = localName;
+        if (contentHandler instanceof XMLRootRecord || contentHandler instanceof DeferredContentHandler) {
+            if (jsonTypeCompatibility) {
+                // if its not namespaceAware don't report the "type" child as it
+                // is will be read by the xsi:type lookup
+                if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE)) {
+                    return SKIPPED_PAIR;
+                }
+            }
+            if (textWrapper != null && textWrapper.equals(localName)) {
+                return VALUE_PAIR;
+            }
+        } else if (contentHandler instanceof UnmarshalRecord && ((UnmarshalRecord) contentHandler).getXPathNode() != null) {
+            if (jsonTypeCompatibility) {
+                if (!isNamespaceAware() && localName.equals(Constants.SCHEMA_TYPE_ATTRIBUTE) && !((UnmarshalRecord) contentHandler).getXPathNode().hasTypeChild()) {
+                    return SKIPPED_PAIR;
+                }
+            }
+            boolean isTextValue = isTextValue(localName);
+            if (isTextValue) {
+                return VALUE_PAIR;
+            }
+            NodeValue nv = ((UnmarshalRecord)contentHandler).getAttributeChildNodeValue(uri, localName);
+            if(attributePrefix == null && nv !=null ){
+                // Already reported as an attribute of the element.
+                this.pairAttributeNodeValue = nv;
+                return ATTRIBUTE_PAIR;
+            }
+        }
+        return ELEMENT_PAIR;
     }
 
     public boolean isNullRepresentedByXsiNil(AbstractNullPolicy nullPolicy) {
@@ -532,6 +1122,43 @@ public MediaType getMediaType() {
         return Constants.APPLICATION_JSON;
     }
 
+    /**
+     * The members of an object read before its element is started, and the event of the first member
+     * that was not read, or END_OBJECT.
+     */
+    private static final class LeadingMembers {
+        private final JsonObject object;
+        private final String key;
+        private final Event event;
+
+        LeadingMembers(JsonObject object, String key, Event event) {
+            this.object = object;
+            this.key = key;
+            this.event = event;
+        }
+
+        boolean isEmpty() {
+            return (event == Event.END_OBJECT) && object.isEmpty();
+        }
+    }
+
+    /**
+     * The names and elements of an array pair being reported.
+     */
+    private static final class ArrayPair {
+        private final String uri;
+        private final String localName;
+        private boolean hasItems;
+        private boolean isTextValue;
+        private XPathFragment groupingXPathFragment;
+        private XPathFragment itemXPathFragment;
+
+        ArrayPair(String uri, String localName) {
+            this.uri = uri;
+            this.localName = localName;
+        }
+    }
+
     private static class JsonAttributes extends IndexedAttributeList {
 
         private JsonValue value;
@@ -12,6 +12,9 @@
  ******************************************************************************/
 package org.eclipse.persistence.internal.sequencing;
 
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.eclipse.persistence.sessions.Login;
 import org.eclipse.persistence.internal.databaseaccess.Accessor;
 import org.eclipse.persistence.internal.sessions.DatabaseSessionImpl;
@@ -28,6 +31,8 @@ class DatabaseSessionConnectionHandler implements SequencingConnectionHandler {
     Login login;
     Accessor accessor;
     boolean isBusy;
+    final ReentrantLock lock = new ReentrantLock();
+    final Condition released = lock.newCondition();
 
     public void onConnect() {
         if (!isConnected()) {
@@ -39,21 +44,31 @@ public boolean isConnected() {
         return accessor.isConnected();
     }
 
-    public synchronized Accessor acquireAccessor() {
-        if (isBusy) {
-            try {
-                wait();// Notify is called when connection is released.
-            } catch (InterruptedException exception) {
-                throw ConcurrencyException.waitFailureOnSequencingForDatabaseSession(exception);
+    public Accessor acquireAccessor() {
+        lock.lock();
+        try {
+            while (isBusy) {
+                try {
+                    released.await();// Signaled when connection is released.
+                } catch (InterruptedException exception) {
+                    throw ConcurrencyException.waitFailureOnSequencingForDatabaseSession(exception);
+                }
             }
+            isBusy = true;
+            return accessor;
+        } finally {
+            lock.unlock();
         }
-        isBusy = true;
-        return accessor;
     }
 
-    public synchronized void releaseAccessor(Accessor accessor) {
-        isBusy = false;
-        notify();
+    public void releaseAccessor(Accessor accessor) {
+        lock.lock();
+        try {
+            isBusy = false;
+            released.signal();
+        } finally {
+            lock.unlock();
+        }
     }
 
     public void onDisconnect() {
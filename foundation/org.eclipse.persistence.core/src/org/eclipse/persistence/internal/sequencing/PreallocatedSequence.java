@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sequencing;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the preallocated values of a sequence.
+ * Consecutive values are held as ranges, a value is allocated from the range by atomically incrementing its next value,
+ * so no lock is required and the values are not created until used.
+ * Other values (from sequences that do not generate a range) are held in a queue.
+ * @see PreallocationHandler
+ */
+class PreallocatedSequence {
+    /**
+     * A range of consecutive preallocated values.
+     * Concurrent threads may increment next past last, the range is then used up.
+     */
+    static final class Range {
+        final AtomicLong next;
+        final long last;
+
+        Range(long first, long last) {
+            this.next = new AtomicLong(first);
+            this.last = last;
+        }
+
+        long remaining() {
+            return Math.max(0, this.last - this.next.get() + 1);
+        }
+    }
+
+    protected final Queue<Range> ranges;
+    protected final Queue values;
+    /** Set while the next range is being allocated in the background. */
+    protected final AtomicBoolean isPrefetching;
+
+    public PreallocatedSequence() {
+        this.ranges = new ConcurrentLinkedQueue<Range>();
+        this.values = new ConcurrentLinkedQueue();
+        this.isPrefetching = new AtomicBoolean();
+    }
+
+    /**
+     * Remove and return the next preallocated value, or null if there are none.
+     * This is thread-safe and does not lock.
+     */
+    public Object poll() {
+        Range range = this.ranges.peek();
+        while (range != null) {
+            long value = range.next.getAndIncrement();
+            if (value <= range.last) {
+                return Long.valueOf(value);
+            }
+            this.ranges.remove(range);
+            range = this.ranges.peek();
+        }
+        return this.values.poll();
+    }
+
+    /**
+     * Add the range of consecutive values, first to last inclusive.
+     */
+    public void addRange(long first, long last) {
+        if (first <= last) {
+            this.ranges.add(new Range(first, last));
+        }
+    }
+
+    /**
+     * Add the values.
+     */
+    public void addAll(Collection values) {
+        this.values.addAll(values);
+    }
+
+    /**
+     * Return the number of values remaining in the ranges.
+     * The other values are not counted, as they are not allocated in the background.
+     */
+    public long getRangeRemaining() {
+        long remaining = 0;
+        for (Range range : this.ranges) {
+            remaining = remaining + range.remaining();
+        }
+        return remaining;
+    }
+
+    /**
+     * Return if the next range should be allocated in the background,
+     * if the remaining values are below the threshold and it is not already being allocated.
+     */
+    public boolean shouldPrefetch(long threshold) {
+        return !this.isPrefetching.get() && isBelow(threshold);
+    }
+
+    /**
+     * Return if the remaining values are below the threshold.
+     */
+    public boolean isBelow(long threshold) {
+        return (threshold > 0) && this.values.isEmpty() && (getRangeRemaining() < threshold);
+    }
+
+    /**
+     * Mark that the next range is being allocated in the background, return false if it already is.
+     */
+    public boolean startPrefetch() {
+        return this.isPrefetching.compareAndSet(false, true);
+    }
+
+    /**
+     * Mark that the background allocation is done.
+     */
+    public void endPrefetch() {
+        this.isPrefetching.set(false);
+    }
+
+    public String toString() {
+        return "PreallocatedSequence(ranges=" + this.ranges.size() + ", remaining=" + getRangeRemaining() + ")";
+    }
+}
@@ -21,24 +21,24 @@
  * @see SequencingManager
  */
 class PreallocationHandler implements SequencingLogInOut {
-    protected Map<String, Queue> preallocatedSequences;
+    protected Map<String, PreallocatedSequence> preallocatedSequences;
 
     public PreallocationHandler() {
         super();
     }
 
     /**
-     * Returns the Queue of sequences from the global sequences for the seqName.
-     * If there is not one, a new empty Queue is registered.
-     * This queue is thread-safe, and threads can concurrent poll the queue to remove the first element.
+     * Returns the preallocated sequences from the global sequences for the seqName.
+     * If there is not one, a new empty one is registered.
+     * This is thread-safe, and threads can concurrent poll it to remove the next value.
      */
-    public Queue getPreallocated(String sequenceName) {
-        Queue sequences = preallocatedSequences.get(sequenceName);
+    public PreallocatedSequence getPreallocated(String sequenceName) {
+        PreallocatedSequence sequences = preallocatedSequences.get(sequenceName);
         if (sequences == null) {
             synchronized (preallocatedSequences) {
                 sequences = preallocatedSequences.get(sequenceName);
                 if (sequences == null) {
-                    sequences = new ConcurrentLinkedQueue();
+                    sequences = new PreallocatedSequence();
                     preallocatedSequences.put(sequenceName, sequences);
                 }
             }
@@ -85,4 +85,12 @@ public void initializePreallocated(String seqName) {
     public void setPreallocated(String seqName, Vector sequences) {
         getPreallocated(seqName).addAll(sequences);
     }
+
+    /**
+     * Add the preallocated range of consecutive sequences, first to last inclusive, to the global sequence pool for the sequence name.
+     * As with the Vector of sequences, a lock should typically be obtained from the sequence manager before calling this method.
+     */
+    public void setPreallocated(String seqName, long first, long last) {
+        getPreallocated(seqName).addRange(first, last);
+    }
 }
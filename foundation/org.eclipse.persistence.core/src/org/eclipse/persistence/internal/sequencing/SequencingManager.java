@@ -16,9 +16,9 @@
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Vector;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.descriptors.MultitenantPolicy;
@@ -125,6 +125,7 @@ class SequencingManager implements SequencingHome, SequencingServer, SequencingC
     private int maxPoolSize = -1;
     private int initialPoolSize = -1;
     private ConnectionPool connectionPool;
+    private int prefetchThreshold;
 
     public SequencingManager(DatabaseSessionImpl ownerSession) {
         this.ownerSession = ownerSession;
@@ -253,6 +254,14 @@ public void setInitialPoolSize(int size) {
         this.initialPoolSize = size;
     }
 
+    public int getPrefetchThreshold() {
+        return this.prefetchThreshold;
+    }
+
+    public void setPrefetchThreshold(int prefetchThreshold) {
+        this.prefetchThreshold = prefetchThreshold;
+    }
+
     public boolean isConnected() {
         return states != null;
     }
@@ -308,12 +317,11 @@ protected Map<String, ConcurrencyManager> getLocks() {
     protected ConcurrencyManager acquireLock(String sequenceName) {
         ConcurrencyManager manager = getLocks().get(sequenceName);
         if (manager == null) {
-            synchronized (getLocks()) {
-                manager = getLocks().get(sequenceName);
-                if (manager == null) {
-                    manager = new ConcurrencyManager();
-                    getLocks().put(sequenceName, manager);
-                }
+            // The lock is held while the sequences are selected, so a queued lock is used to not pin virtual threads.
+            manager = new ConcurrencyManager(true);
+            ConcurrencyManager existing = ((ConcurrentMap<String, ConcurrencyManager>)getLocks()).putIfAbsent(sequenceName, manager);
+            if (existing != null) {
+                manager = existing;
             }
         }
         manager.acquire();
@@ -334,6 +342,79 @@ protected void logDebugPreallocation(String seqName, Object firstSequenceValue,
         }
     }
 
+    protected void logDebugPreallocation(String seqName, long size, Object firstSequenceValue, Object lastSequenceValue) {
+        if (getOwnerSession().shouldLog(SessionLog.FINEST, SessionLog.SEQUENCING)) {
+            Object[] args = { seqName, Long.valueOf(size), firstSequenceValue, lastSequenceValue };
+            getOwnerSession().log(SessionLog.FINEST, SessionLog.SEQUENCING, "sequencing_preallocation", args);
+        }
+    }
+
+    /**
+     * Add the newly allocated sequences to the global sequence pool.
+     * The sequences are either a range given by its last value, or a Vector if the sequence does not generate a range.
+     * If shouldReturnFirst the first value is removed and returned, to ensure this thread gets one.
+     */
+    protected Object setPreallocated(PreallocationHandler handler, Sequence sequence, Number last, Vector sequences, boolean shouldReturnFirst) {
+        String seqName = sequence.getName();
+        Object sequenceValue = null;
+        if (last != null) {
+            // PERF: Hold the values as a range, to avoid creating every value.
+            long lastValue = last.longValue();
+            long firstValue = lastValue - sequence.getPreallocationSize() + 1;
+            if (shouldReturnFirst) {
+                sequenceValue = Long.valueOf(firstValue);
+                handler.setPreallocated(seqName, firstValue + 1, lastValue);
+            } else {
+                handler.setPreallocated(seqName, firstValue, lastValue);
+            }
+            logDebugPreallocation(seqName, lastValue - firstValue + 1, firstValue, lastValue);
+        } else if (shouldReturnFirst) {
+            // Remove the first value before adding to the global cache to ensure this thread gets one.
+            sequenceValue = sequences.remove(0);
+            handler.setPreallocated(seqName, sequences);
+            logDebugPreallocation(seqName, sequenceValue, sequences);
+        } else {
+            handler.setPreallocated(seqName, sequences);
+            logDebugPreallocation(seqName, sequences.size(), sequences.firstElement(), sequences.lastElement());
+        }
+        return sequenceValue;
+    }
+
+    /**
+     * PERF: Allocate the next sequences in the background if the preallocated sequences are below the prefetch threshold,
+     * so threads do not wait on the sequence lock while the sequences are allocated.
+     */
+    protected void prefetchIfRequired(final GlobalPreallocationState state, final Sequence sequence, final PreallocationHandler handler, final PreallocatedSequence preallocated) {
+        if ((this.prefetchThreshold <= 0) || !state.canPrefetch()) {
+            return;
+        }
+        final long threshold = ((long)sequence.getPreallocationSize() * this.prefetchThreshold) / 100;
+        if (!preallocated.shouldPrefetch(threshold) || !preallocated.startPrefetch()) {
+            return;
+        }
+        Runnable prefetch = new Runnable() {
+            public void run() {
+                try {
+                    ConcurrencyManager lock = acquireLock(sequence.getName());
+                    try {
+                        // Another thread may have allocated the sequences while waiting for the lock.
+                        if (preallocated.isBelow(threshold)) {
+                            state.preallocate(sequence, handler, getOwnerSession(), false);
+                        }
+                    } finally {
+                        lock.release();
+                    }
+                } catch (RuntimeException exception) {
+                    // The sequences will be allocated when required.
+                    getOwnerSession().logThrowable(SessionLog.WARNING, SessionLog.SEQUENCING, exception);
+                } finally {
+                    preallocated.endPrefetch();
+                }
+            }
+        };
+        getOwnerSession().getServerPlatform().launchContainerRunnable(prefetch);
+    }
+
     protected void logDebugLocalPreallocation(AbstractSession writeSession, String seqName, Vector sequences, Accessor accessor) {
         if (writeSession.shouldLog(SessionLog.FINEST, SessionLog.SEQUENCING)) {
             Object[] args = { seqName, Integer.valueOf(sequences.size()), sequences.firstElement(), sequences.lastElement() };
@@ -354,6 +435,26 @@ public String toString() {
         }
     }
 
+    /**
+     * A state allocating the sequences into the global sequence pool outside of the write session's transaction,
+     * so the next sequences can also be allocated in the background.
+     */
+    static abstract class GlobalPreallocationState extends State {
+        /**
+         * Return if the state can allocate sequences in the background, independent of the write session.
+         */
+        boolean canPrefetch() {
+            return true;
+        }
+
+        /**
+         * Allocate the next sequences and add them to the global sequence pool,
+         * return the first value if shouldReturnFirst.
+         * The sequence lock must be held.
+         */
+        abstract Object preallocate(Sequence sequence, PreallocationHandler handler, AbstractSession writeSession, boolean shouldReturnFirst);
+    }
+
     /**
      * Uses preallocation, uses transaction, no separate connection.
      * This is used for a DatabaseSession, or a ServerSession not using native sequencing,
@@ -439,7 +540,7 @@ SequencingCallbackImpl getCallbackImpl(AbstractSession writeSession, Accessor ac
         public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
             String seqName = sequence.getName();
             if(sequence.getPreallocationSize() > 1) {
-                Queue sequencesForName = getPreallocationHandler(getContext(writeSession)).getPreallocated(seqName);
+                PreallocatedSequence sequencesForName = getPreallocationHandler(getContext(writeSession)).getPreallocated(seqName);
                 // First grab the first sequence value without locking, a lock is only required if empty.
                 Object sequenceValue = sequencesForName.poll();
                 if (sequenceValue != null) {
@@ -569,15 +670,46 @@ public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
      * This is used in a ServerSession with a sequence connection pool.
      * This is typically the default behavior.
      */
-    class Preallocation_Transaction_Accessor_State extends State {
+    class Preallocation_Transaction_Accessor_State extends GlobalPreallocationState {
+        Object preallocate(Sequence sequence, PreallocationHandler handler, AbstractSession writeSession, boolean shouldReturnFirst) {
+            // note that accessor.getLogin().shouldUseExternalTransactionController()
+            // should be set to false
+            Accessor accessor = getConnectionHandler().acquireAccessor();
+            try {
+                accessor.beginTransaction(writeSession);
+                try {
+                    Number last = sequence.getGeneratedRange(accessor, writeSession);
+                    Vector sequences = null;
+                    if (last == null) {
+                        sequences = sequence.getGeneratedVector(accessor, writeSession);
+                    }
+                    accessor.commitTransaction(writeSession);
+                    // copy the values to global cache.
+                    return setPreallocated(handler, sequence, last, sequences, shouldReturnFirst);
+                } catch (RuntimeException ex) {
+                    try {
+                        // make sure to rollback the transaction we've begun
+                        accessor.rollbackTransaction(writeSession);
+                    } catch (Exception rollbackException) {
+                        // ignore rollback exception
+                    }
+                    // don't eat the original exception
+                    throw ex;
+                }
+            } finally {
+                getConnectionHandler().releaseAccessor(accessor);
+            }
+        }
+
         public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
             String seqName = sequence.getName();
             if(sequence.getPreallocationSize() > 1) {
                 PreallocationHandler handler = getPreallocationHandler(getContext(writeSession));
-                Queue sequencesForName = handler.getPreallocated(seqName);
+                PreallocatedSequence sequencesForName = handler.getPreallocated(seqName);
                 // First try to get the next sequence value without locking.
                 Object sequenceValue = sequencesForName.poll();
                 if (sequenceValue != null) {
+                    prefetchIfRequired(this, sequence, handler, sequencesForName);
                     return sequenceValue;
                 }
                 // Sequences are empty, so must lock and allocate next batch of sequences.
@@ -587,32 +719,7 @@ public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
                     if (sequenceValue != null) {
                         return sequenceValue;
                     }
-                    // note that accessor.getLogin().shouldUseExternalTransactionController()
-                    // should be set to false
-                    Accessor accessor = getConnectionHandler().acquireAccessor();
-                    try {
-                        accessor.beginTransaction(writeSession);
-                        try {
-                            Vector sequences = sequence.getGeneratedVector(accessor, writeSession);
-                            accessor.commitTransaction(writeSession);
-                            // Remove the first value before adding to the global cache to ensure this thread gets one.
-                            sequenceValue = sequences.remove(0);
-                            // copy remaining values to global cache.
-                            handler.setPreallocated(seqName, sequences);
-                            logDebugPreallocation(seqName, sequenceValue, sequences);
-                        } catch (RuntimeException ex) {
-                            try {
-                                // make sure to rollback the transaction we've begun
-                                accessor.rollbackTransaction(writeSession);
-                            } catch (Exception rollbackException) {
-                                // ignore rollback exception
-                            }
-                            // don't eat the original exception
-                            throw ex;
-                        }
-                    } finally {
-                        getConnectionHandler().releaseAccessor(accessor);
-                    }
+                    sequenceValue = preallocate(sequence, handler, writeSession, true);
                 } finally {
                     lock.release();
                 }
@@ -650,15 +757,31 @@ public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
      * This is used by native sequence objects.
      * No transaction is required as sequence objects are non-transactional.
      */
-    class Preallocation_NoTransaction_State extends State {
+    class Preallocation_NoTransaction_State extends GlobalPreallocationState {
+        boolean canPrefetch() {
+            // A DatabaseSession has a single connection, so cannot be used concurrently.
+            return getOwnerSession().isServerSession();
+        }
+
+        Object preallocate(Sequence sequence, PreallocationHandler handler, AbstractSession writeSession, boolean shouldReturnFirst) {
+            Number last = sequence.getGeneratedRange(null, writeSession);
+            Vector sequences = null;
+            if (last == null) {
+                sequences = sequence.getGeneratedVector(null, writeSession);
+            }
+            // copy the values to global cache.
+            return setPreallocated(handler, sequence, last, sequences, shouldReturnFirst);
+        }
+
         public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
             String seqName = sequence.getName();
             if(sequence.getPreallocationSize() > 1) {
                 PreallocationHandler handler = getPreallocationHandler(getContext(writeSession));
-                Queue sequencesForName = handler.getPreallocated(seqName);
+                PreallocatedSequence sequencesForName = handler.getPreallocated(seqName);
                 // First try to get the next sequence value without locking.
                 Object sequenceValue = sequencesForName.poll();
                 if (sequenceValue != null) {
+                    prefetchIfRequired(this, sequence, handler, sequencesForName);
                     return sequenceValue;
                 }
                 // Sequences are empty, so must lock and allocate next batch of sequences.
@@ -668,12 +791,7 @@ public Object getNextValue(Sequence sequence, AbstractSession writeSession) {
                     if (sequenceValue != null) {
                         return sequenceValue;
                     }
-                    Vector sequences = sequence.getGeneratedVector(null, writeSession);
-                    // Remove the first value before adding to the global cache to ensure this thread gets one.
-                    sequenceValue = sequences.remove(0);
-                    // copy remaining values to global cache.
-                    handler.setPreallocated(seqName, sequences);
-                    logDebugPreallocation(seqName, sequenceValue, sequences);
+                    sequenceValue = preallocate(sequence, handler, writeSession, true);
                 } finally {
                     lock.release();
                 }
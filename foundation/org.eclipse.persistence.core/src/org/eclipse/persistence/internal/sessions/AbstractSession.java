@@ -2838,16 +2838,12 @@ protected CacheKey getCacheKeyFromTargetSessionForMerge(Object implementation, O
                cacheKey.acquireDeferredLock();
                original = cacheKey.getObject();
                if (original == null) {
-                   synchronized (cacheKey) {
-                       if (cacheKey.isAcquired()) {
-                           try {
-                               cacheKey.wait();
-                           } catch (InterruptedException e) {
-                               //ignore and return
-                           }
-                       }
-                       original = cacheKey.getObject();
+                   try {
+                       cacheKey.waitUntilReleased(0);
+                   } catch (InterruptedException e) {
+                       //ignore and return
                    }
+                   original = cacheKey.getObject();
                }
                cacheKey.releaseDeferredLock();
            }
@@ -3202,13 +3198,15 @@ public List<DatabaseQuery> getTablePerTenantQueries() {
     /**
      * INTERNAL:
      * The transaction mutex ensure mutual exclusion on transaction across multiple threads.
+     * It is held for the duration of the database transaction, so it is a queued lock,
+     * which does not pin waiting virtual threads.
      */
     public ConcurrencyManager getTransactionMutex() {
         // PERF: not always required, defer.
         if (transactionMutex == null) {
             synchronized (this) {
                 if (transactionMutex == null) {
-                    transactionMutex = new ConcurrencyManager();
+                    transactionMutex = new ConcurrencyManager(true);
                 }
             }
         }
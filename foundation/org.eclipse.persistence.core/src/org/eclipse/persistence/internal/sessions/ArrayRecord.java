@@ -21,10 +21,14 @@
 /**
  * PERF: Optimized record implementation using arrays instead of Vector.
  * Currently only used when fetch rows from the database.
+ * The fields, fields array and fields index are shared by all the rows of a result set,
+ * only the values array is allocated per row.
  */
 public class ArrayRecord extends DatabaseRecord {
     protected DatabaseField[] fieldsArray;
     protected Object[] valuesArray;
+    /** The index of each field in the fields array by identity, shared by all the rows of a result set, can be null. */
+    protected Map<DatabaseField, Integer> fieldsIndex;
 
     protected ArrayRecord() {
         super();
@@ -36,6 +40,44 @@ public ArrayRecord(Vector fields, DatabaseField[] fieldsArray, Object[] valuesAr
         this.valuesArray = valuesArray;
     }
 
+    public ArrayRecord(Vector fields, DatabaseField[] fieldsArray, Map<DatabaseField, Integer> fieldsIndex, Object[] valuesArray) {
+        super(fields, null, fieldsArray.length);
+        this.fieldsArray = fieldsArray;
+        this.fieldsIndex = fieldsIndex;
+        this.valuesArray = valuesArray;
+    }
+
+    /**
+     * Return the index of the field in the fields array, or -1 if the row does not contain the field.
+     * PERF: First check the field's index, then the shared fields index, before searching the fields.
+     */
+    protected int indexOf(DatabaseField key) {
+        int index = key.index;
+        if ((index >= 0) && (index < this.size)) {
+            DatabaseField field = this.fieldsArray[index];
+            if ((field == key) || field.equals(key)) {
+                return index;
+            }
+        }
+        if (this.fieldsIndex != null) {
+            Integer fieldIndex = this.fieldsIndex.get(key);
+            if (fieldIndex != null) {
+                return fieldIndex.intValue();
+            }
+        }
+        for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
+            DatabaseField field = this.fieldsArray[fieldIndex];
+            if ((field == key) || field.equals(key)) {
+                // PERF: If the fields index was not set, then set it.
+                if (index == -1) {
+                    key.setIndex(fieldIndex);
+                }
+                return fieldIndex;
+            }
+        }
+        return -1;
+    }
+
     /**
      * Reset the fields and values from the arrays.
      * This removes the optimization if a non-optimized method is called.
@@ -57,6 +99,7 @@ protected void checkValues() {
     public void add(DatabaseField key, Object value) {
         checkValues();
         this.fieldsArray = null;
+        this.fieldsIndex = null;
         this.valuesArray = null;
         super.add(key, value);
     }
@@ -67,6 +110,7 @@ public void add(DatabaseField key, Object value) {
      */
     public void clear() {
         this.fieldsArray = null;
+        this.fieldsIndex = null;
         this.valuesArray = null;
         super.clear();
     }
@@ -86,20 +130,7 @@ public AbstractRecord clone() {
      */
     public boolean containsKey(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return true;
-                }
-            }
-            for (DatabaseField field : this.fieldsArray) {
-                if ((field == key) || field.equals(key)) {
-                    return true;
-                }
-            }
-            return false;
+            return indexOf(key) >= 0;
         } else {
             return super.containsKey(key);
         }
@@ -128,23 +159,9 @@ public boolean containsValue(Object value) {
      */
     public Object get(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return this.valuesArray[index];
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    // PERF: If the fields index was not set, then set it.
-                    if (index == -1) {
-                        key.setIndex(fieldIndex);
-                    }
-                    return this.valuesArray[fieldIndex];
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return this.valuesArray[index];
             }
             return null;
         } else {
@@ -158,23 +175,9 @@ public Object get(DatabaseField key) {
      */
     public Object getIndicatingNoEntry(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return this.valuesArray[index];
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    // PERF: If the fields index was not set, then set it.
-                    if (index == -1) {
-                        key.setIndex(fieldIndex);
-                    }
-                    return this.valuesArray[fieldIndex];
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return this.valuesArray[index];
             }
             return AbstractRecord.noEntry;
         } else {
@@ -188,19 +191,9 @@ public Object getIndicatingNoEntry(DatabaseField key) {
      */
     public DatabaseField getField(DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    return field;
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    return field;
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                return this.fieldsArray[index];
             }
             return null;
         } else {
@@ -231,6 +224,7 @@ public Vector getValues() {
     public Object put(DatabaseField key, Object value) {
         checkValues();
         this.fieldsArray = null;
+        this.fieldsIndex = null;
         this.valuesArray = null;
         return super.put(key, value);
     }
@@ -242,6 +236,7 @@ public Object put(DatabaseField key, Object value) {
     public Object remove(DatabaseField key) {
         checkValues();
         this.fieldsArray = null;
+        this.fieldsIndex = null;
         this.valuesArray = null;
         return super.remove(key);
     }
@@ -264,25 +259,9 @@ public void replaceAt(Object value, int index) {
      */
     public void replaceAt(Object value, DatabaseField key) {
         if (this.fieldsArray != null) {
-            // Optimize check.
-            int index = key.index;
-            if ((index >= 0) && (index < this.size)) {
-                DatabaseField field = this.fieldsArray[index];
-                if ((field == key) || field.equals(key)) {
-                    this.valuesArray[index] = value;
-                    return;
-                }
-            }
-            for (int fieldIndex = 0; fieldIndex < this.size; fieldIndex++) {
-                DatabaseField field = this.fieldsArray[fieldIndex];
-                if ((field == key) || field.equals(key)) {
-                    // PERF: If the fields index was not set, then set it.
-                    if (index == -1) {
-                        key.setIndex(fieldIndex);
-                    }
-                    this.valuesArray[fieldIndex] = value;
-                    return;
-                }
+            int index = indexOf(key);
+            if (index >= 0) {
+                this.valuesArray[index] = value;
             }
         } else {
             super.replaceAt(value, key);
@@ -292,6 +271,7 @@ public void replaceAt(Object value, DatabaseField key) {
     protected void setFields(Vector fields) {
         checkValues();
         this.fieldsArray = null;
+        this.fieldsIndex = null;
         this.valuesArray = null;
         super.setFields(fields);
     }
@@ -299,6 +279,7 @@ protected void setFields(Vector fields) {
     protected void setValues(Vector values) {
         checkValues();
         this.fieldsArray = null;
+        this.fieldsIndex = null;
         this.valuesArray = null;
         super.setValues(values);
     }
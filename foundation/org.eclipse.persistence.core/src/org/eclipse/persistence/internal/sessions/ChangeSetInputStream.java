@@ -0,0 +1,275 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.helper.CustomObjectInputStream;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+
+import static org.eclipse.persistence.internal.sessions.ChangeSetOutputStream.*;
+
+/**
+ * INTERNAL:
+ * Reads a cache coordination UnitOfWorkChangeSet written by a ChangeSetOutputStream.
+ * The change sets are read the same as Java serialization would read them,
+ * with only the data required for the remote merge.
+ *
+ * @see ChangeSetOutputStream
+ */
+public class ChangeSetInputStream extends DataInputStream {
+    /** The descriptors indexed by class id, shared with the writer. */
+    protected List<ClassDescriptor> descriptors;
+    /** The ObjectChangeSets read, indexed by handle. */
+    protected List<ObjectChangeSet> handles;
+    /** Used to deserialize values of unknown types. */
+    protected AbstractSession session;
+
+    public ChangeSetInputStream(InputStream stream, List<ClassDescriptor> descriptors, AbstractSession session) {
+        super(stream);
+        this.descriptors = descriptors;
+        this.session = session;
+        this.handles = new ArrayList<ObjectChangeSet>();
+    }
+
+    /**
+     * Read the change sets and deleted objects of a cache coordination change set.
+     */
+    public UnitOfWorkChangeSet readChangeSet() throws IOException, ClassNotFoundException {
+        UnitOfWorkChangeSet changeSet = new UnitOfWorkChangeSet();
+        changeSet.allChangeSets = readObjectChangeSets();
+        changeSet.deletedObjects = readObjectChangeSets();
+        return changeSet;
+    }
+
+    protected Map<ObjectChangeSet, ObjectChangeSet> readObjectChangeSets() throws IOException, ClassNotFoundException {
+        int size = readVarInt();
+        if (size == 0) {
+            return null;
+        }
+        Map<ObjectChangeSet, ObjectChangeSet> changeSets = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>(size);
+        for (int index = 0; index < size; index++) {
+            ObjectChangeSet changeSet = readObjectChangeSet();
+            changeSets.put(changeSet, changeSet);
+        }
+        return changeSets;
+    }
+
+    /**
+     * Read a reference to a change set, either a new change set or the handle of a change set already read.
+     */
+    public ObjectChangeSet readObjectChangeSet() throws IOException, ClassNotFoundException {
+        int reference = readVarInt();
+        if (reference == 0) {
+            return null;
+        } else if (reference > 1) {
+            return this.handles.get(reference - 2);
+        }
+        ObjectChangeSet changeSet = new ObjectChangeSet();
+        this.handles.add(changeSet);
+        ClassDescriptor descriptor = this.descriptors.get(readVarInt());
+        changeSet.classType = descriptor.getJavaClass();
+        changeSet.className = descriptor.getJavaClassName();
+        int flags = readUnsignedByte();
+        changeSet.shouldBeDeleted = (flags & SHOULD_BE_DELETED) != 0;
+        changeSet.isInvalid = (flags & IS_INVALID) != 0;
+        changeSet.isNew = (flags & IS_NEW) != 0;
+        changeSet.isAggregate = (flags & IS_AGGREGATE) != 0;
+        changeSet.hasVersionChange = (flags & HAS_VERSION_CHANGE) != 0;
+        if ((flags & SHOULD_MODIFY_VERSION_FIELD) != 0) {
+            changeSet.shouldModifyVersionField = Boolean.TRUE;
+        } else if ((flags & SHOULD_NOT_MODIFY_VERSION_FIELD) != 0) {
+            changeSet.shouldModifyVersionField = Boolean.FALSE;
+        }
+        int syncType = (int)readVarLong();
+        changeSet.cacheSynchronizationType = syncType;
+        changeSet.id = readValue();
+        changeSet.writeLockValue = readValue();
+        changeSet.initialWriteLockValue = readValue();
+        if (!(changeSet.shouldBeDeleted || (syncType == ClassDescriptor.DO_NOT_SEND_CHANGES) || (syncType == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS))) {
+            int size = readVarInt();
+            List changes = new ArrayList(size);
+            List<DatabaseMapping> mappings = descriptor.getMappings();
+            for (int index = 0; index < size; index++) {
+                changes.add(readChangeRecord(changeSet, mappings));
+            }
+            changeSet.changes = changes;
+            changeSet.oldKey = readValue();
+            changeSet.newKey = readValue();
+        }
+        return changeSet;
+    }
+
+    /**
+     * Read the change record for the mapping index.
+     */
+    protected ChangeRecord readChangeRecord(ObjectChangeSet owner, List<DatabaseMapping> mappings) throws IOException, ClassNotFoundException {
+        int mappingIndex = readVarInt();
+        if (mappingIndex >= mappings.size()) {
+            throw new StreamCorruptedException("mapping index: " + mappingIndex);
+        }
+        String attribute = mappings.get(mappingIndex).getAttributeName();
+        ChangeRecord record;
+        int type = readUnsignedByte();
+        if (type == DIRECT_TO_FIELD) {
+            DirectToFieldChangeRecord directRecord = new DirectToFieldChangeRecord(owner);
+            directRecord.newValue = readValue();
+            record = directRecord;
+        } else if (type == OBJECT_REFERENCE) {
+            ObjectReferenceChangeRecord referenceRecord = new ObjectReferenceChangeRecord(owner);
+            referenceRecord.newValue = readObjectChangeSet();
+            record = referenceRecord;
+        } else if (type == COLLECTION) {
+            CollectionChangeRecord collectionRecord = new CollectionChangeRecord(owner);
+            collectionRecord.addObjectList = readObjectChangeSets();
+            collectionRecord.removeObjectList = readObjectChangeSets();
+            record = collectionRecord;
+        } else if (type == AGGREGATE) {
+            AggregateChangeRecord aggregateRecord = new AggregateChangeRecord(owner);
+            aggregateRecord.changedObject = readObjectChangeSet();
+            record = aggregateRecord;
+        } else {
+            throw new StreamCorruptedException("change record type: " + type);
+        }
+        record.attribute = attribute;
+        return record;
+    }
+
+    /**
+     * Read a value written by writeValue.
+     */
+    public Object readValue() throws IOException, ClassNotFoundException {
+        int type = readUnsignedByte();
+        switch (type) {
+        case NULL:
+            return null;
+        case STRING:
+            return readString();
+        case INTEGER:
+            return Integer.valueOf((int)readVarLong());
+        case LONG:
+            return Long.valueOf(readVarLong());
+        case CACHE_ID:
+            Object[] primaryKey = new Object[readVarInt()];
+            for (int index = 0; index < primaryKey.length; index++) {
+                primaryKey[index] = readValue();
+            }
+            return new CacheId(primaryKey);
+        case TIMESTAMP:
+            java.sql.Timestamp timestamp = new java.sql.Timestamp(readVarLong());
+            timestamp.setNanos(readVarInt());
+            return timestamp;
+        case SHORT:
+            return Short.valueOf((short)readVarLong());
+        case BYTE:
+            return Byte.valueOf(readByte());
+        case TRUE:
+            return Boolean.TRUE;
+        case FALSE:
+            return Boolean.FALSE;
+        case CHARACTER:
+            return Character.valueOf(readChar());
+        case DOUBLE:
+            return Double.valueOf(readDouble());
+        case FLOAT:
+            return Float.valueOf(readFloat());
+        case BIG_DECIMAL:
+            return new BigDecimal(new BigInteger(readByteArray()), (int)readVarLong());
+        case BIG_INTEGER:
+            return new BigInteger(readByteArray());
+        case SQL_DATE:
+            return new java.sql.Date(readVarLong());
+        case TIME:
+            return new java.sql.Time(readVarLong());
+        case DATE:
+            return new java.util.Date(readVarLong());
+        case BYTES:
+            return readByteArray();
+        case SERIALIZED:
+            ByteArrayInputStream byteIn = new ByteArrayInputStream(readByteArray());
+            try (ObjectInputStream objectIn = (this.session == null)
+                    ? new ObjectInputStream(byteIn)
+                    : new CustomObjectInputStream(byteIn, this.session)) {
+                return objectIn.readObject();
+            }
+        default:
+            throw new StreamCorruptedException("value type: " + type);
+        }
+    }
+
+    /**
+     * Read a string written by writeString.
+     */
+    public String readString() throws IOException {
+        int length = (int)readVarLong();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Read the length and bytes.
+     */
+    public byte[] readByteArray() throws IOException {
+        byte[] bytes = new byte[(int)readVarLong()];
+        readFully(bytes);
+        return bytes;
+    }
+
+    /**
+     * Read a positive int written in 7 bit groups.
+     */
+    public int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int next;
+        do {
+            next = readUnsignedByte();
+            value = value | ((next & 0x7F) << shift);
+            shift = shift + 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * Read a zig-zag encoded long written in 7 bit groups.
+     */
+    public long readVarLong() throws IOException {
+        long value = 0;
+        int shift = 0;
+        int next;
+        do {
+            next = readUnsignedByte();
+            value = value | ((long)(next & 0x7F) << shift);
+            shift = shift + 7;
+        } while ((next & 0x80) != 0);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
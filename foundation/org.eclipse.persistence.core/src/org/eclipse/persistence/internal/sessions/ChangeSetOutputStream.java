@@ -0,0 +1,352 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.identitymaps.CacheId;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+
+/**
+ * INTERNAL:
+ * Writes a cache coordination UnitOfWorkChangeSet in a compact binary format.
+ * <p>
+ * Instead of class and attribute names the change sets are written with the index of their descriptor
+ * and the index of the mapping of each change record, primary keys and versions are written as typed values
+ * with variable length integers, and each ObjectChangeSet is written once and referenced by a handle.
+ * <p>
+ * Only DirectToField, ObjectReference, unordered Collection and Aggregate change records are supported,
+ * a NotSerializableException is thrown for other change records so that Java serialization can be used.
+ *
+ * @see ChangeSetInputStream
+ * @see org.eclipse.persistence.sessions.serializers.ChangeSetSerializer
+ */
+public class ChangeSetOutputStream extends DataOutputStream {
+    /** Change record types. */
+    public static final int DIRECT_TO_FIELD = 1;
+    public static final int OBJECT_REFERENCE = 2;
+    public static final int COLLECTION = 3;
+    public static final int AGGREGATE = 4;
+
+    /** Value types. */
+    public static final int NULL = 0;
+    public static final int STRING = 1;
+    public static final int INTEGER = 2;
+    public static final int LONG = 3;
+    public static final int SHORT = 4;
+    public static final int BYTE = 5;
+    public static final int TRUE = 6;
+    public static final int FALSE = 7;
+    public static final int CHARACTER = 8;
+    public static final int DOUBLE = 9;
+    public static final int FLOAT = 10;
+    public static final int BIG_DECIMAL = 11;
+    public static final int BIG_INTEGER = 12;
+    public static final int TIMESTAMP = 13;
+    public static final int SQL_DATE = 14;
+    public static final int TIME = 15;
+    public static final int DATE = 16;
+    public static final int BYTES = 17;
+    public static final int CACHE_ID = 18;
+    public static final int SERIALIZED = 19;
+
+    /** ObjectChangeSet flags. */
+    public static final int SHOULD_BE_DELETED = 1;
+    public static final int IS_INVALID = 2;
+    public static final int IS_NEW = 4;
+    public static final int IS_AGGREGATE = 8;
+    public static final int HAS_VERSION_CHANGE = 16;
+    public static final int SHOULD_MODIFY_VERSION_FIELD = 32;
+    public static final int SHOULD_NOT_MODIFY_VERSION_FIELD = 64;
+
+    /** The descriptors and the index of each descriptor class, shared with the reader. */
+    protected List<ClassDescriptor> descriptors;
+    protected Map<Class, Integer> classIds;
+    /** The handle of each ObjectChangeSet written. */
+    protected Map<ObjectChangeSet, Integer> handles;
+
+    public ChangeSetOutputStream(OutputStream stream, List<ClassDescriptor> descriptors, Map<Class, Integer> classIds) {
+        super(stream);
+        this.descriptors = descriptors;
+        this.classIds = classIds;
+        this.handles = new IdentityHashMap<ObjectChangeSet, Integer>();
+    }
+
+    /**
+     * Write the change sets and deleted objects of the cache coordination change set.
+     */
+    public void writeChangeSet(UnitOfWorkChangeSet changeSet) throws IOException {
+        writeObjectChangeSets(changeSet.allChangeSets);
+        writeObjectChangeSets(changeSet.deletedObjects);
+    }
+
+    protected void writeObjectChangeSets(Map<ObjectChangeSet, ObjectChangeSet> changeSets) throws IOException {
+        if (changeSets == null) {
+            writeVarInt(0);
+            return;
+        }
+        writeVarInt(changeSets.size());
+        for (ObjectChangeSet changeSet : changeSets.keySet()) {
+            writeObjectChangeSet(changeSet);
+        }
+    }
+
+    /**
+     * Write a reference to the change set, the change set is written the first time it is referenced,
+     * then only its handle.
+     * 0 is null, 1 is a new change set, otherwise the handle + 2.
+     */
+    public void writeObjectChangeSet(ObjectChangeSet changeSet) throws IOException {
+        if (changeSet == null) {
+            writeVarInt(0);
+            return;
+        }
+        Integer handle = this.handles.get(changeSet);
+        if (handle != null) {
+            writeVarInt(handle.intValue() + 2);
+            return;
+        }
+        writeVarInt(1);
+        this.handles.put(changeSet, this.handles.size());
+        Class classType = changeSet.getClassType();
+        Integer classId = (classType == null) ? null : this.classIds.get(classType);
+        if (classId == null) {
+            throw new NotSerializableException(changeSet.getClassName());
+        }
+        writeVarInt(classId.intValue());
+        int flags = 0;
+        if (changeSet.shouldBeDeleted) {
+            flags = flags | SHOULD_BE_DELETED;
+        }
+        if (changeSet.isInvalid) {
+            flags = flags | IS_INVALID;
+        }
+        if (changeSet.isNew) {
+            flags = flags | IS_NEW;
+        }
+        if (changeSet.isAggregate) {
+            flags = flags | IS_AGGREGATE;
+        }
+        if (changeSet.hasVersionChange) {
+            flags = flags | HAS_VERSION_CHANGE;
+        }
+        if (changeSet.shouldModifyVersionField != null) {
+            flags = flags | (changeSet.shouldModifyVersionField.booleanValue() ? SHOULD_MODIFY_VERSION_FIELD : SHOULD_NOT_MODIFY_VERSION_FIELD);
+        }
+        write(flags);
+        writeVarLong(changeSet.cacheSynchronizationType);
+        int syncType = changeSet.cacheSynchronizationType;
+        boolean isComplete = !(changeSet.shouldBeDeleted || (syncType == ClassDescriptor.DO_NOT_SEND_CHANGES) || (syncType == ClassDescriptor.INVALIDATE_CHANGED_OBJECTS));
+        if (isComplete) {
+            changeSet.ensureChanges();
+        }
+        writeValue(changeSet.id);
+        writeValue(changeSet.writeLockValue);
+        writeValue(changeSet.initialWriteLockValue);
+        if (isComplete) {
+            List changes = changeSet.changes;
+            if (changes == null) {
+                writeVarInt(0);
+            } else {
+                int size = changes.size();
+                writeVarInt(size);
+                List<DatabaseMapping> mappings = this.descriptors.get(classId.intValue()).getMappings();
+                for (int index = 0; index < size; index++) {
+                    writeChangeRecord((ChangeRecord)changes.get(index), mappings);
+                }
+            }
+            writeValue(changeSet.oldKey);
+            writeValue(changeSet.newKey);
+        }
+    }
+
+    /**
+     * Write the index of the record's mapping, the type of record, and its changes.
+     * The mapping is found by attribute name, as aggregate change sets may use a copy of the descriptor.
+     */
+    protected void writeChangeRecord(ChangeRecord record, List<DatabaseMapping> mappings) throws IOException {
+        String attribute = record.getAttribute();
+        int mappingIndex = -1;
+        int size = mappings.size();
+        for (int index = 0; index < size; index++) {
+            if (mappings.get(index).getAttributeName().equals(attribute)) {
+                mappingIndex = index;
+                break;
+            }
+        }
+        if (mappingIndex < 0) {
+            throw new NotSerializableException(attribute);
+        }
+        Class recordClass = record.getClass();
+        if (recordClass == DirectToFieldChangeRecord.class) {
+            writeVarInt(mappingIndex);
+            write(DIRECT_TO_FIELD);
+            writeValue(((DirectToFieldChangeRecord)record).getNewValue());
+        } else if (recordClass == ObjectReferenceChangeRecord.class) {
+            writeVarInt(mappingIndex);
+            write(OBJECT_REFERENCE);
+            writeObjectChangeSet((ObjectChangeSet)((ObjectReferenceChangeRecord)record).getNewValue());
+        } else if ((recordClass == CollectionChangeRecord.class) && isUnordered((CollectionChangeRecord)record)) {
+            writeVarInt(mappingIndex);
+            write(COLLECTION);
+            writeObjectChangeSets(((CollectionChangeRecord)record).addObjectList);
+            writeObjectChangeSets(((CollectionChangeRecord)record).removeObjectList);
+        } else if (recordClass == AggregateChangeRecord.class) {
+            writeVarInt(mappingIndex);
+            write(AGGREGATE);
+            writeObjectChangeSet((ObjectChangeSet)((AggregateChangeRecord)record).getChangedObject());
+        } else {
+            throw new NotSerializableException(recordClass.getName());
+        }
+    }
+
+    /**
+     * Return if the collection changes are only additions and removals.
+     */
+    protected boolean isUnordered(CollectionChangeRecord record) {
+        return !record.isDeferred()
+                && ((record.orderedAddObjects == null) || record.orderedAddObjects.isEmpty())
+                && ((record.orderedAddObjectIndices == null) || record.orderedAddObjectIndices.isEmpty())
+                && ((record.orderedChangeObjectList == null) || record.orderedChangeObjectList.isEmpty())
+                && ((record.orderedRemoveObjects == null) || record.orderedRemoveObjects.isEmpty());
+    }
+
+    /**
+     * Write the type of the value and the value, using Java serialization for unknown types.
+     */
+    public void writeValue(Object value) throws IOException {
+        if (value == null) {
+            write(NULL);
+            return;
+        }
+        Class type = value.getClass();
+        if (type == String.class) {
+            write(STRING);
+            writeString((String)value);
+        } else if (type == Integer.class) {
+            write(INTEGER);
+            writeVarLong(((Integer)value).intValue());
+        } else if (type == Long.class) {
+            write(LONG);
+            writeVarLong(((Long)value).longValue());
+        } else if (type == CacheId.class) {
+            write(CACHE_ID);
+            Object[] primaryKey = ((CacheId)value).getPrimaryKey();
+            writeVarInt(primaryKey.length);
+            for (Object element : primaryKey) {
+                writeValue(element);
+            }
+        } else if (type == java.sql.Timestamp.class) {
+            write(TIMESTAMP);
+            writeVarLong(((java.sql.Timestamp)value).getTime());
+            writeVarInt(((java.sql.Timestamp)value).getNanos());
+        } else if (type == Short.class) {
+            write(SHORT);
+            writeVarLong(((Short)value).shortValue());
+        } else if (type == Byte.class) {
+            write(BYTE);
+            write(((Byte)value).byteValue());
+        } else if (type == Boolean.class) {
+            write(((Boolean)value).booleanValue() ? TRUE : FALSE);
+        } else if (type == Character.class) {
+            write(CHARACTER);
+            writeChar(((Character)value).charValue());
+        } else if (type == Double.class) {
+            write(DOUBLE);
+            writeDouble(((Double)value).doubleValue());
+        } else if (type == Float.class) {
+            write(FLOAT);
+            writeFloat(((Float)value).floatValue());
+        } else if (type == BigDecimal.class) {
+            write(BIG_DECIMAL);
+            writeByteArray(((BigDecimal)value).unscaledValue().toByteArray());
+            writeVarLong(((BigDecimal)value).scale());
+        } else if (type == BigInteger.class) {
+            write(BIG_INTEGER);
+            writeByteArray(((BigInteger)value).toByteArray());
+        } else if (type == java.sql.Date.class) {
+            write(SQL_DATE);
+            writeVarLong(((java.util.Date)value).getTime());
+        } else if (type == java.sql.Time.class) {
+            write(TIME);
+            writeVarLong(((java.util.Date)value).getTime());
+        } else if (type == java.util.Date.class) {
+            write(DATE);
+            writeVarLong(((java.util.Date)value).getTime());
+        } else if (type == byte[].class) {
+            write(BYTES);
+            writeByteArray((byte[])value);
+        } else {
+            write(SERIALIZED);
+            ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+            ObjectOutputStream objectOut = new ObjectOutputStream(byteOut);
+            objectOut.writeObject(value);
+            objectOut.flush();
+            writeByteArray(byteOut.toByteArray());
+        }
+    }
+
+    /**
+     * Write the string as its UTF-8 length and bytes, null is written as -1.
+     */
+    public void writeString(String value) throws IOException {
+        if (value == null) {
+            writeVarLong(-1);
+            return;
+        }
+        writeByteArray(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Write the length and bytes.
+     */
+    public void writeByteArray(byte[] bytes) throws IOException {
+        writeVarLong(bytes.length);
+        write(bytes);
+    }
+
+    /**
+     * Write the positive int in 7 bit groups, so small values are a single byte.
+     */
+    public void writeVarInt(int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            write((value & 0x7F) | 0x80);
+            value = value >>> 7;
+        }
+        write(value);
+    }
+
+    /**
+     * Write the long zig-zag encoded in 7 bit groups, so small positive and negative values are a single byte.
+     */
+    public void writeVarLong(long value) throws IOException {
+        value = (value << 1) ^ (value >> 63);
+        while ((value & ~0x7FL) != 0) {
+            write((int)((value & 0x7F) | 0x80));
+            value = value >>> 7;
+        }
+        write((int)value);
+    }
+}
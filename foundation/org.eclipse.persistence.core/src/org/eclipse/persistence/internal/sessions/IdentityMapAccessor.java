@@ -777,6 +777,9 @@ public void invalidateObject(Object primaryKey, Class theClass, boolean invalida
         if (key != null) {
             key.setInvalidationState(CacheKey.CACHE_KEY_INVALID);
         }
+        if (descriptor != null) {
+            removeFromOffHeapCache(primaryKey, descriptor);
+        }
         if (invalidateCluster) {
             CommandManager rcm = getSession().getCommandManager();
             if (rcm != null) {
@@ -887,6 +890,10 @@ public void invalidateClass(Class myClass, boolean recurseAndInvalidateToParentR
                 key.setInvalidationState(CacheKey.CACHE_KEY_INVALID);
             }
         }
+        ClassDescriptor descriptor = getSession().getDescriptor(myClass);
+        if (descriptor != null) {
+            clearOffHeapCache(descriptor);
+        }
         invalidateQueryCache(myClass);
     }
 
@@ -898,6 +905,41 @@ public void invalidateQueryCache(Class classThatChanged) {
         getIdentityMapManager().invalidateQueryCache(classThatChanged);
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove any results for the class from the query cache.
+     * This is used to invalidate the query cache on a commit or merge,
+     * the change set allows queries to only invalidate the results the changes affect.
+     */
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        getIdentityMapManager().invalidateQueryCache(classThatChanged, changeSet);
+    }
+
+    /**
+     * INTERNAL:
+     * Return the row stored in the off-heap tier of the shared cache for the primary key, or null.
+     * @see org.eclipse.persistence.descriptors.CachePolicy#setOffHeapCacheSize(long)
+     */
+    public AbstractRecord getFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor, boolean isSerializedObject) {
+        return getIdentityMapManager().getFromOffHeapCache(primaryKey, descriptor, isSerializedObject);
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the row stored in the off-heap tier of the shared cache for the primary key.
+     */
+    public void removeFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor) {
+        getIdentityMapManager().removeFromOffHeapCache(primaryKey, descriptor);
+    }
+
+    /**
+     * INTERNAL:
+     * Remove all of the rows stored in the off-heap tier of the shared cache for the descriptor's inheritance hierarchy.
+     */
+    public void clearOffHeapCache(ClassDescriptor descriptor) {
+        getIdentityMapManager().clearOffHeapCache(descriptor);
+    }
+
     /**
      * ADVANCED:
      * Set all of the objects from all identity maps to be invalid in the cache.
@@ -1089,6 +1131,20 @@ public CacheKey getCacheKeyByIndex(CacheIndex index, CacheId indexValues, boolea
         return getIdentityMapManager().getCacheKeyByIndex(index, indexValues, shouldCheckExpiry, descriptor);
     }
 
+    /**
+     * Return the primary keys for the values of the non-unique cache index, or null if the index cannot be used.
+     */
+    public Collection<Object> getPrimaryKeysByIndex(CacheIndex index, CacheId indexValues, ClassDescriptor descriptor) {
+        return getIdentityMapManager().getPrimaryKeysByIndex(index, indexValues, descriptor);
+    }
+
+    /**
+     * Return the primary keys for the range of values of the sorted cache index, or null if the index cannot be used.
+     */
+    public Collection<Object> getPrimaryKeysByIndex(CacheIndex index, Object lowerValue, boolean lowerInclusive, Object upperValue, boolean upperInclusive, ClassDescriptor descriptor) {
+        return getIdentityMapManager().getPrimaryKeysByIndex(index, lowerValue, lowerInclusive, upperValue, upperInclusive, descriptor);
+    }
+
     /**
      * INTERNAL:
      * Register the object with the cache.
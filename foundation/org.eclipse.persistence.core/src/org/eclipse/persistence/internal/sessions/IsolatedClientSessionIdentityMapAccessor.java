@@ -262,22 +262,20 @@ protected Object getAndCloneCacheKeyFromParent(Object primaryKey, Object objectT
         // in which GC could remove the object and we would end up with a null pointer
         // as well we must inspect the cacheKey without locking on it.
         if ((cacheKey != null) && (shouldReturnInvalidatedObjects || !descriptor.getCacheInvalidationPolicy().isInvalidated(cacheKey))) {
-            synchronized (cacheKey) {
-                //if the object in the cachekey is null but the key is acquired then
-                //someone must be rebuilding it or creating a new one.  Sleep until
-                // it's finished. A plain wait here would be more efficient but we may not
-                // get notified for quite some time (ie deadlock) if the other thread
-                //is building the object.  Must wait and not sleep in order for the monitor to be released
-                objectFromCache = cacheKey.getObject();
-                try {
-                    while (cacheKey.isAcquired() && (objectFromCache == null)) {
-                        cacheKey.wait(5);
-                    }
-                } catch (InterruptedException ex) {
-                }
-                if (objectFromCache == null) {
-                    return null;
+            //if the object in the cachekey is null but the key is acquired then
+            //someone must be rebuilding it or creating a new one.  Sleep until
+            // it's finished. A plain wait here would be more efficient but we may not
+            // get notified for quite some time (ie deadlock) if the other thread
+            //is building the object.  Must wait and not sleep in order for the lock to be released
+            objectFromCache = cacheKey.getObject();
+            try {
+                while (cacheKey.isAcquired() && (objectFromCache == null)) {
+                    cacheKey.waitUntilReleased(5);
                 }
+            } catch (InterruptedException ex) {
+            }
+            if (objectFromCache == null) {
+                return null;
             }
         } else {
             return null;
@@ -536,6 +534,20 @@ public void invalidateQueryCache(Class classThatChanged) {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Invalidate/remove any results for the class from the query cache.
+     * This is used to invalidate the query cache on a commit or merge.
+     */
+    @Override
+    public void invalidateQueryCache(Class classThatChanged, UnitOfWorkChangeSet changeSet) {
+        if (!session.getDescriptor(classThatChanged).getCachePolicy().isSharedIsolation()) {
+            getIdentityMapManager().invalidateQueryCache(classThatChanged, changeSet);
+        } else {
+            ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().invalidateQueryCache(classThatChanged, changeSet);
+        }
+    }
+
     /**
      * PUBLIC:
      * Reset the entire local object cache.
@@ -590,6 +602,30 @@ public CacheKey getCacheKeyByIndex(CacheIndex index, CacheId indexValues, boolea
         }
     }
 
+    /**
+     * Return the primary keys for the values of the non-unique cache index, or null if the index cannot be used.
+     */
+    @Override
+    public Collection<Object> getPrimaryKeysByIndex(CacheIndex index, CacheId indexValues, ClassDescriptor descriptor) {
+        if (!descriptor.getCachePolicy().isSharedIsolation()) {
+            return getIdentityMapManager().getPrimaryKeysByIndex(index, indexValues, descriptor);
+        } else {
+            return ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().getPrimaryKeysByIndex(index, indexValues, descriptor);
+        }
+    }
+
+    /**
+     * Return the primary keys for the range of values of the sorted cache index, or null if the index cannot be used.
+     */
+    @Override
+    public Collection<Object> getPrimaryKeysByIndex(CacheIndex index, Object lowerValue, boolean lowerInclusive, Object upperValue, boolean upperInclusive, ClassDescriptor descriptor) {
+        if (!descriptor.getCachePolicy().isSharedIsolation()) {
+            return getIdentityMapManager().getPrimaryKeysByIndex(index, lowerValue, lowerInclusive, upperValue, upperInclusive, descriptor);
+        } else {
+            return ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().getPrimaryKeysByIndex(index, lowerValue, lowerInclusive, upperValue, upperInclusive, descriptor);
+        }
+    }
+
     /**
      * PUBLIC:
      * Used to print all the objects in the identity map of the passed in class.
@@ -694,6 +730,40 @@ public Object removeFromIdentityMap(Object key, Class theClass, ClassDescriptor
         return removedObject;
     }
 
+    /**
+     * INTERNAL:
+     * The off-heap tier is only used by the shared cache.
+     */
+    @Override
+    public AbstractRecord getFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor, boolean isSerializedObject) {
+        if (descriptor.isIsolated()) {
+            return null;
+        }
+        return ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().getFromOffHeapCache(primaryKey, descriptor, isSerializedObject);
+    }
+
+    /**
+     * INTERNAL:
+     * The off-heap tier is only used by the shared cache.
+     */
+    @Override
+    public void removeFromOffHeapCache(Object primaryKey, ClassDescriptor descriptor) {
+        if (!descriptor.isIsolated()) {
+            ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().removeFromOffHeapCache(primaryKey, descriptor);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * The off-heap tier is only used by the shared cache.
+     */
+    @Override
+    public void clearOffHeapCache(ClassDescriptor descriptor) {
+        if (!descriptor.isIsolated()) {
+            ((IsolatedClientSession)session).getParent().getIdentityMapAccessorInstance().clearOffHeapCache(descriptor);
+        }
+    }
+
     /**
      * INTERNAL:
      * Set the IdentityMapManager for this IdentityMapAccessor
@@ -19,12 +19,16 @@
 package org.eclipse.persistence.internal.sessions;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.descriptors.VersionLockingPolicy;
@@ -34,6 +38,7 @@
 import org.eclipse.persistence.internal.descriptors.ObjectBuilder;
 import org.eclipse.persistence.internal.descriptors.OptimisticLockingPolicy;
 import org.eclipse.persistence.internal.descriptors.PersistenceEntity;
+import org.eclipse.persistence.internal.helper.WriteLockManager;
 import org.eclipse.persistence.internal.helper.linkedlist.LinkedNode;
 import org.eclipse.persistence.internal.identitymaps.CacheKey;
 import org.eclipse.persistence.internal.localization.ExceptionLocalization;
@@ -41,6 +46,7 @@
 import org.eclipse.persistence.internal.sessions.remote.RemoteUnitOfWork;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.platform.server.ServerPlatform;
 import org.eclipse.persistence.queries.DoesExistQuery;
 import org.eclipse.persistence.sessions.SessionProfiler;
 import org.eclipse.persistence.sessions.remote.DistributedSession;
@@ -111,6 +117,15 @@ public class MergeManager {
     /** records that this merge process is for a refresh */
     protected boolean isForRefresh;
 
+    /** PERF: The number of object changes a distributed merge must have to be merged in parallel, 0 to never merge in parallel. */
+    protected int parallelMergeThreshold;
+
+    /** PERF: The maximum number of threads that merge the partitions of a distributed merge in parallel. */
+    protected int parallelMergeThreads;
+
+    /** PERF: The server platform whose container threads merge the partitions of a distributed merge in parallel. */
+    protected ServerPlatform parallelMergePlatform;
+
     public MergeManager(AbstractSession session) {
         this.session = session;
         this.mergedNewObjects = new IdentityHashMap();
@@ -431,25 +446,15 @@ public void mergeChangesFromChangeSet(UnitOfWorkChangeSet uowChangeSet) {
             if (this.session.hasEventManager()) {
                 this.session.getEventManager().preDistributedMergeUnitOfWorkChangeSet(uowChangeSet);
             }
-            // Iterate over each clone and let the object build merge to clones into the originals.
-            this.session.getIdentityMapAccessorInstance().getWriteLockManager().acquireRequiredLocks(this, uowChangeSet);
-            Iterator objectChangeEnum = uowChangeSet.getAllChangeSets().keySet().iterator();
-            Set<Class> classesChanged = new HashSet<Class>();
-            while (objectChangeEnum.hasNext()) {
-                ObjectChangeSet objectChangeSet = (ObjectChangeSet)objectChangeEnum.next();
-                // Don't read the object here.  If it is null then we won't merge it at this stage, unless it
-                // is being referenced which will force the load later.
-                Object object = objectChangeSet.getTargetVersionOfSourceObject(this, this.session, false);
-                if (object != null) {
-                    mergeChanges(object, objectChangeSet, this.session);
-                    this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
-                } else if (objectChangeSet.isNew()) {
-                    mergeNewObjectIntoCache(objectChangeSet);
-                    this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
-                } else {
-                    this.session.incrementProfile(SessionProfiler.ChangeSetsNotProcessed);
-                }
-                classesChanged.add(objectChangeSet.getClassType(this.session));
+            Set<Class> classesChanged = null;
+            if (shouldMergeInParallel(uowChangeSet)) {
+                classesChanged = Collections.newSetFromMap(new ConcurrentHashMap<Class, Boolean>());
+                mergeChangeSetsInParallel(uowChangeSet, classesChanged);
+            } else {
+                classesChanged = new HashSet<Class>();
+                // Iterate over each clone and let the object build merge to clones into the originals.
+                this.session.getIdentityMapAccessorInstance().getWriteLockManager().acquireRequiredLocks(this, uowChangeSet);
+                mergeChangeSets(uowChangeSet.getAllChangeSets().keySet(), classesChanged);
             }
             if (uowChangeSet.hasDeletedObjects()) {
                 Iterator deletedObjects = uowChangeSet.getDeletedObjects().values().iterator();
@@ -461,7 +466,7 @@ public void mergeChangesFromChangeSet(UnitOfWorkChangeSet uowChangeSet) {
             }
             // Clear the query cache as well.
             for (Class changedClass : classesChanged) {
-                this.session.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass);
+                this.session.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass, uowChangeSet);
             }
         } catch (RuntimeException exception) {
             this.session.handleException(exception);
@@ -475,6 +480,324 @@ public void mergeChangesFromChangeSet(UnitOfWorkChangeSet uowChangeSet) {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Merge the object change sets into the session's cache, the locks must have been acquired.
+     */
+    protected void mergeChangeSets(Collection<ObjectChangeSet> changeSets, Set<Class> classesChanged) {
+        for (ObjectChangeSet objectChangeSet : changeSets) {
+            ClassDescriptor descriptor = objectChangeSet.getDescriptor();
+            if (descriptor == null) {
+                descriptor = this.session.getDescriptor(objectChangeSet.getClassType(this.session));
+            }
+            // Don't read the object here.  If it is null then we won't merge it at this stage, unless it
+            // is being referenced which will force the load later.
+            Object object = objectChangeSet.getTargetVersionOfSourceObject(this, this.session, false);
+            if (object != null) {
+                mergeChanges(object, objectChangeSet, this.session);
+                this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
+            } else if (objectChangeSet.isNew()) {
+                mergeNewObjectIntoCache(objectChangeSet);
+                this.session.incrementProfile(SessionProfiler.ChangeSetsProcessed);
+            } else {
+                this.session.incrementProfile(SessionProfiler.ChangeSetsNotProcessed);
+            }
+            if (descriptor != null) {
+                // Removed after the merge, as a row is stored while its cache key is locked,
+                // so any row stored before the merge locked the cache key is removed.
+                this.session.getIdentityMapAccessorInstance().removeFromOffHeapCache(objectChangeSet.getId(), descriptor);
+            }
+            classesChanged.add(objectChangeSet.getClassType(this.session));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the distributed merge of the change set should be done in parallel.
+     * Only large change sets are merged in parallel, and not if the cache isolation requires the merge to lock the entire cache.
+     */
+    public boolean shouldMergeInParallel(UnitOfWorkChangeSet uowChangeSet) {
+        return (this.parallelMergePlatform != null) && (this.parallelMergeThreads > 1) && (this.parallelMergeThreshold > 0) && LOCK_ON_MERGE
+                && (uowChangeSet.getAllChangeSets().size() >= this.parallelMergeThreshold)
+                && !this.session.getDatasourceLogin().shouldSynchronizedReadOnWrite()
+                && !this.session.getDatasourceLogin().shouldSynchronizeWrites();
+    }
+
+    /**
+     * INTERNAL:
+     * Merge the change set into the session's cache in parallel.
+     * The object change sets are partitioned so that change sets that reference each other are in the same partition,
+     * as the merge of a change set cascades to the change sets it references.
+     * The partitions are then merged by the server platform's container threads and the merging thread, each with its own merge manager,
+     * which acquires the locks for its partition all or nothing the same as a serial merge, so cannot deadlock.
+     */
+    protected void mergeChangeSetsInParallel(UnitOfWorkChangeSet uowChangeSet, Set<Class> classesChanged) {
+        Map<ObjectChangeSet, ObjectChangeSet> allChangeSets = uowChangeSet.getAllChangeSets();
+        // Union the change sets that reference each other, the root of each set is its representative.
+        Map<ObjectChangeSet, ObjectChangeSet> roots = new IdentityHashMap<ObjectChangeSet, ObjectChangeSet>(allChangeSets.size());
+        ObjectChangeSet sharedRoot = null;
+        for (ObjectChangeSet changeSet : allChangeSets.keySet()) {
+            List<ObjectChangeSet> references = new ArrayList<ObjectChangeSet>();
+            if (!collectReferencedChangeSets(changeSet, references)) {
+                // Unknown references, merge with all other such change sets.
+                if (sharedRoot == null) {
+                    sharedRoot = changeSet;
+                } else {
+                    unionChangeSets(roots, sharedRoot, changeSet);
+                }
+            }
+            for (ObjectChangeSet reference : references) {
+                ObjectChangeSet referencedChangeSet = allChangeSets.get(reference);
+                if (referencedChangeSet != null) {
+                    unionChangeSets(roots, changeSet, referencedChangeSet);
+                }
+            }
+        }
+        // Partition by descriptor and cache key of each set's representative.
+        int size = this.parallelMergeThreads * 2;
+        List<ObjectChangeSet>[] partitions = new List[size];
+        for (ObjectChangeSet changeSet : allChangeSets.keySet()) {
+            ObjectChangeSet root = findRootChangeSet(roots, changeSet);
+            Object id = root.getId();
+            int hash = (root.getClassName().hashCode() * 31) + ((id == null) ? 0 : id.hashCode());
+            int index = (hash & Integer.MAX_VALUE) % size;
+            List<ObjectChangeSet> partition = partitions[index];
+            if (partition == null) {
+                partition = new ArrayList<ObjectChangeSet>();
+                partitions[index] = partition;
+            }
+            partition.add(changeSet);
+        }
+        List<List<ObjectChangeSet>> nonEmptyPartitions = new ArrayList<List<ObjectChangeSet>>(size);
+        for (List<ObjectChangeSet> partition : partitions) {
+            if (partition != null) {
+                nonEmptyPartitions.add(partition);
+            }
+        }
+        // Ensure all partitions use the same read time.
+        getSystemTime();
+        MergePartitionsRunnable merge = new MergePartitionsRunnable(this, nonEmptyPartitions, classesChanged);
+        int threads = Math.min(this.parallelMergeThreads, nonEmptyPartitions.size());
+        for (int index = 1; index < threads; index++) {
+            this.parallelMergePlatform.launchContainerRunnable(merge);
+        }
+        // The merging thread also merges partitions, so the merge completes even if no container thread is available.
+        merge.run();
+        merge.waitForCompletion();
+    }
+
+    /**
+     * INTERNAL:
+     * Add the object change sets the change set references through its changes.
+     * Return false if the change set has changes that may reference other change sets but are not known.
+     */
+    protected boolean collectReferencedChangeSets(ObjectChangeSet changeSet, List<ObjectChangeSet> references) {
+        boolean isKnown = true;
+        for (org.eclipse.persistence.sessions.changesets.ChangeRecord record : changeSet.getChanges()) {
+            if (record instanceof DirectToFieldChangeRecord || record instanceof DirectCollectionChangeRecord
+                    || record instanceof DirectMapChangeRecord || record instanceof TransformationMappingChangeRecord) {
+                continue;
+            } else if (record instanceof ObjectReferenceChangeRecord) {
+                ObjectChangeSet newValue = (ObjectChangeSet)((ObjectReferenceChangeRecord)record).getNewValue();
+                if (newValue != null) {
+                    references.add(newValue);
+                }
+            } else if (record instanceof CollectionChangeRecord) {
+                CollectionChangeRecord collectionRecord = (CollectionChangeRecord)record;
+                references.addAll(collectionRecord.getAddObjectList().keySet());
+                references.addAll(collectionRecord.getRemoveObjectList().keySet());
+                if (collectionRecord.getOrderedAddObjects() != null) {
+                    references.addAll(collectionRecord.getOrderedAddObjects());
+                }
+                if (collectionRecord.getOrderedRemoveObjects() != null) {
+                    references.addAll(collectionRecord.getOrderedRemoveObjects().values());
+                }
+            } else if (record instanceof AggregateChangeRecord) {
+                ObjectChangeSet aggregate = (ObjectChangeSet)((AggregateChangeRecord)record).getChangedObject();
+                if (aggregate != null) {
+                    isKnown = collectReferencedChangeSets(aggregate, references) && isKnown;
+                }
+            } else if (record instanceof AggregateCollectionChangeRecord) {
+                for (ObjectChangeSet aggregate : ((AggregateCollectionChangeRecord)record).getChangedValues()) {
+                    isKnown = collectReferencedChangeSets(aggregate, references) && isKnown;
+                }
+            } else {
+                isKnown = false;
+            }
+        }
+        return isKnown;
+    }
+
+    /**
+     * Return the representative change set of the set of change sets that reference each other.
+     */
+    protected static ObjectChangeSet findRootChangeSet(Map<ObjectChangeSet, ObjectChangeSet> roots, ObjectChangeSet changeSet) {
+        ObjectChangeSet root = changeSet;
+        ObjectChangeSet parent = roots.get(root);
+        while (parent != null) {
+            root = parent;
+            parent = roots.get(root);
+        }
+        // Compress the path.
+        while (changeSet != root) {
+            ObjectChangeSet next = roots.get(changeSet);
+            roots.put(changeSet, root);
+            changeSet = next;
+        }
+        return root;
+    }
+
+    /**
+     * Union the sets of change sets of the two change sets.
+     */
+    protected static void unionChangeSets(Map<ObjectChangeSet, ObjectChangeSet> roots, ObjectChangeSet changeSet, ObjectChangeSet otherChangeSet) {
+        ObjectChangeSet root = findRootChangeSet(roots, changeSet);
+        ObjectChangeSet otherRoot = findRootChangeSet(roots, otherChangeSet);
+        if (root != otherRoot) {
+            roots.put(otherRoot, root);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return a new merge manager to merge a partition of a parallel merge.
+     */
+    protected MergeManager buildPartitionMergeManager() {
+        MergeManager manager = new MergeManager(this.session);
+        manager.mergePolicy = this.mergePolicy;
+        manager.cascadePolicy = this.cascadePolicy;
+        manager.forceCascade = this.forceCascade;
+        manager.systemTime = getSystemTime();
+        return manager;
+    }
+
+    /**
+     * INTERNAL:
+     * Merges the partitions of a parallel merge.
+     * Each thread running it merges the next partition not yet merged until there are none left,
+     * so a thread that starts after all partitions were taken does nothing.
+     */
+    protected static class MergePartitionsRunnable implements Runnable {
+        protected MergeManager parent;
+        protected List<List<ObjectChangeSet>> partitions;
+        protected Set<Class> classesChanged;
+        protected AtomicInteger nextPartition = new AtomicInteger();
+        protected int runningThreads;
+        protected volatile Throwable error;
+
+        public MergePartitionsRunnable(MergeManager parent, List<List<ObjectChangeSet>> partitions, Set<Class> classesChanged) {
+            this.parent = parent;
+            this.partitions = partitions;
+            this.classesChanged = classesChanged;
+        }
+
+        public void run() {
+            synchronized (this) {
+                this.runningThreads++;
+            }
+            try {
+                int size = this.partitions.size();
+                int index;
+                while ((this.error == null) && ((index = this.nextPartition.getAndIncrement()) < size)) {
+                    List<ObjectChangeSet> partition = this.partitions.get(index);
+                    MergeManager manager = this.parent.buildPartitionMergeManager();
+                    WriteLockManager lockManager = manager.getSession().getIdentityMapAccessorInstance().getWriteLockManager();
+                    try {
+                        lockManager.acquireRequiredLocks(manager, partition);
+                        manager.mergeChangeSets(partition, this.classesChanged);
+                    } finally {
+                        lockManager.releaseAllAcquiredLocks(manager);
+                    }
+                }
+            } catch (RuntimeException exception) {
+                this.error = exception;
+            } catch (Error exception) {
+                this.error = exception;
+            } finally {
+                synchronized (this) {
+                    this.runningThreads--;
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Wait for the partitions taken by other threads to be merged,
+         * and throw the error of any partition that failed.
+         */
+        public void waitForCompletion() {
+            boolean interrupted = false;
+            synchronized (this) {
+                while (this.runningThreads > 0) {
+                    try {
+                        wait();
+                    } catch (InterruptedException exception) {
+                        // The merge must complete before the change set is done.
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            Throwable error = this.error;
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException)error;
+            } else if (error instanceof Error) {
+                throw (Error)error;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the number of object changes a distributed merge must have to be merged in parallel.
+     */
+    public int getParallelMergeThreshold() {
+        return parallelMergeThreshold;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the number of object changes a distributed merge must have to be merged in parallel, 0 to never merge in parallel.
+     */
+    public void setParallelMergeThreshold(int parallelMergeThreshold) {
+        this.parallelMergeThreshold = parallelMergeThreshold;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the maximum number of threads that merge the partitions of a distributed merge in parallel.
+     */
+    public int getParallelMergeThreads() {
+        return parallelMergeThreads;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the maximum number of threads that merge the partitions of a distributed merge in parallel,
+     * including the merging thread.
+     */
+    public void setParallelMergeThreads(int parallelMergeThreads) {
+        this.parallelMergeThreads = parallelMergeThreads;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the server platform whose container threads merge the partitions of a distributed merge in parallel.
+     */
+    public ServerPlatform getParallelMergePlatform() {
+        return parallelMergePlatform;
+    }
+
+    /**
+     * INTERNAL:
+     * Set the server platform whose container threads merge the partitions of a distributed merge in parallel.
+     */
+    public void setParallelMergePlatform(ServerPlatform parallelMergePlatform) {
+        this.parallelMergePlatform = parallelMergePlatform;
+    }
+
     /**
      * Merge the changes specified within the changeSet into the cache.
      * The object passed in is the original object from the cache.
@@ -792,6 +1115,8 @@ protected CacheKey mergeChangesOfWorkingCopyIntoOriginal(Object clone, ObjectCha
                         cacheKey.setObject(original);
                     }
                 }
+                // Referenced objects are not merged, so must be indexed when put in the cache.
+                indexObjectInNonUniqueCacheIndexes(cacheKey, original, descriptor, targetSession);
             } else {
                 // #1 No original, there is only an original if registerObject is used, registerNewObject or JPA never have an original.
             }
@@ -814,6 +1139,7 @@ protected CacheKey mergeChangesOfWorkingCopyIntoOriginal(Object clone, ObjectCha
                         cacheKey.setObject(original);
                     }
                     objectBuilder.mergeIntoObject(original, null, true, clone, this, targetSession, false, !descriptor.getCopyPolicy().buildsNewInstance(), true);
+                    indexObjectInNonUniqueCacheIndexes(cacheKey, original, descriptor, targetSession);
 
                     if (!unitOfWork.isObjectRegistered(clone)){
                         // mark the instance in the cache as invalid as we may have just merged a stub if
@@ -836,6 +1162,7 @@ protected CacheKey mergeChangesOfWorkingCopyIntoOriginal(Object clone, ObjectCha
                         // #5 read in uow, #9 grid
                         //Bug#465051 : fetchGroupManager needs to be set with fetchGroup so that subsequent access can determine if lazy basics were fetched
                         objectBuilder.mergeIntoObject(original, objectChangeSet, true, clone, this, targetSession, false, !descriptor.getCopyPolicy().buildsNewInstance(), true);
+                        indexObjectInNonUniqueCacheIndexes(cacheKey, original, descriptor, targetSession);
                         if (!unitOfWork.isObjectRegistered(clone)){
                             // mark the instance in the cache as invalid as we may have just merged a stub if
                             // a detached stub was referenced by a managed entity
@@ -856,6 +1183,7 @@ protected CacheKey mergeChangesOfWorkingCopyIntoOriginal(Object clone, ObjectCha
                 // PERF: If we have no change set and it has an original, then no merging is required, just use the original object.
             } else if (descriptor.getFullyMergeEntity() && objectChangeSet.hasChanges()){
                 objectBuilder.mergeIntoObject(original, objectChangeSet, false, clone, this, targetSession, false, false, true);
+                indexObjectInNonUniqueCacheIndexes(cacheKey, original, descriptor, targetSession);
             } else {
                 // #1, 2, 3 existing objects, new objects with originals
                 // Regardless if the object is new, old, valid or invalid, merging will ensure there is a stub of an object in the
@@ -958,6 +1286,7 @@ public Object mergeChangesOfWorkingCopyIntoRemote(Object clone) throws Validatio
                 // Always put in the parent im for root because it must now be persistent.
                 cacheKey.setObject(original);
             }
+            indexObjectInNonUniqueCacheIndexes(cacheKey, original, descriptor, unitOfWork.getParent());
         } finally {
             cacheKey.updateAccess();
             cacheKey.release();
@@ -1293,6 +1622,18 @@ public void transitionToDeferredLocks(){
         this.isTransitionedToDeferredLocks = true;
     }
 
+    /**
+     * INTERNAL:
+     * Index the original put into the cache in the descriptor's non-unique cache indexes.
+     * This is required when the original was merged from the clone, instead of being built or merged from its changes,
+     * otherwise it would not be found by in-memory queries using the indexes.
+     */
+    protected void indexObjectInNonUniqueCacheIndexes(CacheKey cacheKey, Object original, ClassDescriptor descriptor, AbstractSession targetSession) {
+        if (descriptor.getCachePolicy().hasNonUniqueCacheIndexes()) {
+            descriptor.getCachePolicy().indexObjectInNonUniqueCacheIndexes(cacheKey, original, descriptor, targetSession);
+        }
+    }
+
     /**
      * INTERNAL:
      * Update CacheKey properties with new information.  This method is called if this code
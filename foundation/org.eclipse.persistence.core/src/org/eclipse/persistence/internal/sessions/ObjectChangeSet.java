@@ -542,16 +542,12 @@ protected Object getObjectForMerge(MergeManager mergeManager, AbstractSession se
                         session.getParent().log(SessionLog.SEVERE, SessionLog.CACHE, "entity_not_available_during_merge", new Object[]{descriptor.getJavaClassName(), cacheKey.getKey(), Thread.currentThread().getName(), cacheKey.getActiveThread()});
                         break;
                     }
-                    synchronized (cacheKey) {
-                        if (cacheKey.isAcquired()) {
-                            try {
-                                cacheKey.wait(10);
-                            } catch (InterruptedException e) {
-                                //ignore and return
-                            }
-                        }
-                        domainObject = cacheKey.getObject();
+                    try {
+                        cacheKey.waitUntilReleased(10);
+                    } catch (InterruptedException e) {
+                        //ignore and return
                     }
+                    domainObject = cacheKey.getObject();
                 }
                 cacheKey.releaseDeferredLock();
             }
@@ -813,6 +809,199 @@ public void mergeObjectChanges(ObjectChangeSet changeSetToMergeFrom, UnitOfWorkC
         this.deferredSet = changeSetToMergeFrom.deferredSet;
     }
 
+    /**
+     * INTERNAL:
+     * Return if the later change set for the same object can be coalesced with this change set,
+     * this is used to batch cache coordination change sets.
+     * Only direct, reference, unordered collection and aggregate changes can be coalesced.
+     */
+    public boolean canCoalesce(ObjectChangeSet changeSet) {
+        if ((this.classType != changeSet.classType) || (this.isAggregate != changeSet.isAggregate)
+                || (this.cacheSynchronizationType != changeSet.cacheSynchronizationType)
+                || this.shouldBeDeleted || changeSet.shouldBeDeleted) {
+            return false;
+        }
+        if (!canCoalesceChanges() || !changeSet.canCoalesceChanges()) {
+            return false;
+        }
+        if ((this.changes == null) || (changeSet.changes == null)) {
+            return true;
+        }
+        for (org.eclipse.persistence.sessions.changesets.ChangeRecord change : changeSet.changes) {
+            ChangeRecord record = (ChangeRecord)change;
+            ChangeRecord thisRecord = findChangeRecord(record.getAttribute());
+            if (thisRecord != null) {
+                if (thisRecord.getClass() != record.getClass()) {
+                    return false;
+                }
+                if (record.getClass() == AggregateChangeRecord.class) {
+                    ObjectChangeSet thisAggregate = (ObjectChangeSet)((AggregateChangeRecord)thisRecord).getChangedObject();
+                    ObjectChangeSet aggregate = (ObjectChangeSet)((AggregateChangeRecord)record).getChangedObject();
+                    if ((thisAggregate != null) && (aggregate != null) && !thisAggregate.canCoalesce(aggregate)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the change record for the attribute.
+     * The changes are searched as the attribute index is not always maintained.
+     */
+    protected ChangeRecord findChangeRecord(String attribute) {
+        if (this.changes == null) {
+            return null;
+        }
+        for (org.eclipse.persistence.sessions.changesets.ChangeRecord change : this.changes) {
+            if (change.getAttribute().equals(attribute)) {
+                return (ChangeRecord)change;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if all of the change records can be coalesced.
+     */
+    protected boolean canCoalesceChanges() {
+        if (this.changes == null) {
+            return true;
+        }
+        for (org.eclipse.persistence.sessions.changesets.ChangeRecord change : this.changes) {
+            Class recordClass = change.getClass();
+            if (recordClass == CollectionChangeRecord.class) {
+                CollectionChangeRecord record = (CollectionChangeRecord)change;
+                if (record.isDeferred()
+                        || ((record.orderedAddObjects != null) && !record.orderedAddObjects.isEmpty())
+                        || ((record.orderedAddObjectIndices != null) && !record.orderedAddObjectIndices.isEmpty())
+                        || ((record.orderedChangeObjectList != null) && !record.orderedChangeObjectList.isEmpty())
+                        || ((record.orderedRemoveObjects != null) && !record.orderedRemoveObjects.isEmpty())) {
+                    return false;
+                }
+            } else if ((recordClass != DirectToFieldChangeRecord.class) && (recordClass != ObjectReferenceChangeRecord.class)
+                    && (recordClass != AggregateChangeRecord.class)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Return a new change set with the changes of this change set followed by the changes of the later change set
+     * for the same object, so only the latest state of each attribute is sent.
+     * Neither change set is changed, canCoalesce must be checked first.
+     */
+    public ObjectChangeSet coalesce(ObjectChangeSet changeSet, UnitOfWorkChangeSet parent) {
+        ObjectChangeSet coalesced = new ObjectChangeSet();
+        coalesced.id = changeSet.id;
+        coalesced.classType = changeSet.classType;
+        coalesced.className = changeSet.className;
+        coalesced.descriptor = changeSet.descriptor;
+        coalesced.cloneObject = changeSet.cloneObject;
+        coalesced.unitOfWorkChangeSet = parent;
+        coalesced.cacheSynchronizationType = changeSet.cacheSynchronizationType;
+        coalesced.isAggregate = changeSet.isAggregate;
+        coalesced.isNew = this.isNew || changeSet.isNew;
+        coalesced.isInvalid = this.isInvalid || changeSet.isInvalid;
+        coalesced.hasVersionChange = this.hasVersionChange || changeSet.hasVersionChange;
+        coalesced.optimisticLockingPolicy = changeSet.optimisticLockingPolicy;
+        // The merged change set goes from the initial version of the earlier changes to the version of the later changes.
+        coalesced.initialWriteLockValue = (this.initialWriteLockValue != null) ? this.initialWriteLockValue : changeSet.initialWriteLockValue;
+        coalesced.writeLockValue = (changeSet.writeLockValue != null) ? changeSet.writeLockValue : this.writeLockValue;
+        coalesced.shouldModifyVersionField = (changeSet.shouldModifyVersionField != null) ? changeSet.shouldModifyVersionField : this.shouldModifyVersionField;
+        coalesced.oldKey = (this.oldKey != null) ? this.oldKey : changeSet.oldKey;
+        coalesced.newKey = (changeSet.newKey != null) ? changeSet.newKey : this.newKey;
+        if (this.changes != null) {
+            for (org.eclipse.persistence.sessions.changesets.ChangeRecord change : this.changes) {
+                coalesced.addCoalescedChange(null, (ChangeRecord)change, parent);
+            }
+        }
+        if (changeSet.changes != null) {
+            for (org.eclipse.persistence.sessions.changesets.ChangeRecord change : changeSet.changes) {
+                ChangeRecord record = (ChangeRecord)change;
+                coalesced.addCoalescedChange(findChangeRecord(record.getAttribute()), record, parent);
+            }
+        }
+        return coalesced;
+    }
+
+    /**
+     * INTERNAL:
+     * Add a new change record for the attribute combining the earlier record (if any) with the later record.
+     * Direct and reference changes keep the latest value, collection changes combine the additions and removals,
+     * and aggregate changes are coalesced.
+     */
+    protected void addCoalescedChange(ChangeRecord earlierRecord, ChangeRecord record, UnitOfWorkChangeSet parent) {
+        ChangeRecord coalescedRecord;
+        if (record.getClass() == DirectToFieldChangeRecord.class) {
+            DirectToFieldChangeRecord directRecord = new DirectToFieldChangeRecord(this);
+            directRecord.setNewValue(((DirectToFieldChangeRecord)record).getNewValue());
+            coalescedRecord = directRecord;
+        } else if (record.getClass() == ObjectReferenceChangeRecord.class) {
+            ObjectReferenceChangeRecord referenceRecord = new ObjectReferenceChangeRecord(this);
+            referenceRecord.setNewValue((ObjectChangeSet)((ObjectReferenceChangeRecord)record).getNewValue());
+            coalescedRecord = referenceRecord;
+        } else if (record.getClass() == AggregateChangeRecord.class) {
+            AggregateChangeRecord aggregateRecord = new AggregateChangeRecord(this);
+            ObjectChangeSet aggregate = (ObjectChangeSet)((AggregateChangeRecord)record).getChangedObject();
+            if ((earlierRecord != null) && (aggregate != null)) {
+                ObjectChangeSet earlierAggregate = (ObjectChangeSet)((AggregateChangeRecord)earlierRecord).getChangedObject();
+                if (earlierAggregate != null) {
+                    aggregate = earlierAggregate.coalesce(aggregate, parent);
+                }
+            }
+            aggregateRecord.setChangedObject(aggregate);
+            coalescedRecord = aggregateRecord;
+        } else {
+            CollectionChangeRecord collectionRecord = (CollectionChangeRecord)record;
+            Map<ObjectChangeSet, ObjectChangeSet> added = new HashMap();
+            Map<ObjectChangeSet, ObjectChangeSet> removed = new HashMap();
+            if (earlierRecord != null) {
+                // Objects added then removed (or removed then added) cancel out.
+                CollectionChangeRecord earlierCollectionRecord = (CollectionChangeRecord)earlierRecord;
+                if (earlierCollectionRecord.addObjectList != null) {
+                    added.putAll(earlierCollectionRecord.addObjectList);
+                }
+                if (earlierCollectionRecord.removeObjectList != null) {
+                    removed.putAll(earlierCollectionRecord.removeObjectList);
+                }
+                if (collectionRecord.removeObjectList != null) {
+                    for (ObjectChangeSet removedChangeSet : collectionRecord.removeObjectList.keySet()) {
+                        added.remove(removedChangeSet);
+                    }
+                }
+                if (collectionRecord.addObjectList != null) {
+                    for (ObjectChangeSet addedChangeSet : collectionRecord.addObjectList.keySet()) {
+                        removed.remove(addedChangeSet);
+                    }
+                }
+            }
+            if (collectionRecord.addObjectList != null) {
+                added.putAll(collectionRecord.addObjectList);
+            }
+            if (collectionRecord.removeObjectList != null) {
+                removed.putAll(collectionRecord.removeObjectList);
+            }
+            CollectionChangeRecord coalescedCollectionRecord = new CollectionChangeRecord(this);
+            coalescedCollectionRecord.getAddObjectList().putAll(added);
+            coalescedCollectionRecord.getRemoveObjectList().putAll(removed);
+            coalescedRecord = coalescedCollectionRecord;
+        }
+        coalescedRecord.setAttribute(record.getAttribute());
+        coalescedRecord.setMapping(record.getMapping());
+        ChangeRecord existingRecord = (ChangeRecord)getAttributesToChanges().get(record.getAttribute());
+        if (existingRecord != null) {
+            getChanges().remove(existingRecord);
+        }
+        getChanges().add(coalescedRecord);
+        getAttributesToChanges().put(record.getAttribute(), coalescedRecord);
+    }
+
     /**
      * INTERNAL:
      * Helper method used by readObject to read a completely serialized change set from
@@ -638,7 +638,8 @@ protected static class BatchWritingProp extends Prop {
                 BatchWriting.None,
                 BatchWriting.JDBC,
                 BatchWriting.Buffered,
-                BatchWriting.OracleJDBC
+                BatchWriting.OracleJDBC,
+                BatchWriting.MultiRowInsert
             };
         }
     }
@@ -59,6 +59,9 @@ public class UnitOfWorkChangeSet implements Serializable, org.eclipse.persistenc
     /** Stores unit of work before it is serialized. */
     protected transient AbstractSession session;
 
+    /** Index of the change sets by class and id, used when coalescing cache coordination change sets. */
+    protected transient Map<Class, Map<Object, ObjectChangeSet>> coalescedChangeSets;
+
     /**
      * INTERNAL:
      * Create a ChangeSet
@@ -355,6 +358,86 @@ public UnitOfWorkChangeSet buildCacheCoordinationMergeChangeSet(AbstractSession
         return remoteChangeSet;
     }
 
+    /**
+     * INTERNAL:
+     * Coalesce the cache coordination change set into this change set, used to batch cache coordination.
+     * The changes of an object already in this change set are combined with its later changes,
+     * so only the latest state of the object is sent.
+     * Return false without changing this change set if the changes cannot be coalesced,
+     * in which case this change set must be sent first.
+     */
+    public boolean coalesceCacheCoordinationChangeSet(UnitOfWorkChangeSet changeSet) {
+        if (this.coalescedChangeSets == null) {
+            this.coalescedChangeSets = new HashMap();
+        }
+        // Check that all of the changes can be coalesced before changing anything.
+        if (changeSet.allChangeSets != null) {
+            for (ObjectChangeSet objectChangeSet : changeSet.allChangeSets.keySet()) {
+                ObjectChangeSet existingChangeSet = getCoalescedChangeSet(objectChangeSet);
+                if ((existingChangeSet != null) && (((this.deletedObjects != null) && this.deletedObjects.containsKey(existingChangeSet))
+                        || !existingChangeSet.canCoalesce(objectChangeSet))) {
+                    return false;
+                }
+            }
+        }
+        if (changeSet.allChangeSets != null) {
+            for (ObjectChangeSet objectChangeSet : changeSet.allChangeSets.keySet()) {
+                ObjectChangeSet existingChangeSet = getCoalescedChangeSet(objectChangeSet);
+                if (existingChangeSet != null) {
+                    getAllChangeSets().remove(existingChangeSet);
+                    objectChangeSet = existingChangeSet.coalesce(objectChangeSet, this);
+                }
+                getAllChangeSets().put(objectChangeSet, objectChangeSet);
+                putCoalescedChangeSet(objectChangeSet);
+            }
+        }
+        if (changeSet.deletedObjects != null) {
+            // A delete replaces any earlier changes to the object.
+            for (ObjectChangeSet objectChangeSet : changeSet.deletedObjects.keySet()) {
+                ObjectChangeSet existingChangeSet = getCoalescedChangeSet(objectChangeSet);
+                if (existingChangeSet != null) {
+                    getAllChangeSets().remove(existingChangeSet);
+                    getDeletedObjects().remove(existingChangeSet);
+                }
+                getDeletedObjects().put(objectChangeSet, objectChangeSet);
+                putCoalescedChangeSet(objectChangeSet);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the change set coalesced for the same object, or null.
+     * New objects without an id are never coalesced.
+     */
+    protected ObjectChangeSet getCoalescedChangeSet(ObjectChangeSet changeSet) {
+        if (changeSet.getId() == null) {
+            return null;
+        }
+        Map<Object, ObjectChangeSet> changeSets = this.coalescedChangeSets.get(changeSet.getClassType());
+        if (changeSets == null) {
+            return null;
+        }
+        return changeSets.get(changeSet.getId());
+    }
+
+    /**
+     * INTERNAL:
+     * Index the coalesced change set by its class and id.
+     */
+    protected void putCoalescedChangeSet(ObjectChangeSet changeSet) {
+        if (changeSet.getId() == null) {
+            return;
+        }
+        Map<Object, ObjectChangeSet> changeSets = this.coalescedChangeSets.get(changeSet.getClassType());
+        if (changeSets == null) {
+            changeSets = new HashMap();
+            this.coalescedChangeSets.put(changeSet.getClassType(), changeSets);
+        }
+        changeSets.put(changeSet.getId(), changeSet);
+    }
+
     /**
      * INTERNAL:
      * Get the clone to object change hash table.  Lazy initializes the map if required.
@@ -3366,7 +3366,13 @@ protected void mergeChangesIntoParent() {
                             if ((!isNestedUnitOfWork) && descriptor.getCachePolicy().shouldIsolateObjectsInUnitOfWork() ) {
                                 break;
                             }
-                            manager.mergeChanges(objectToWrite, changeSetToWrite, this.getParentIdentityMapSession(descriptor, false, false));
+                            AbstractSession parentSession = this.getParentIdentityMapSession(descriptor, false, false);
+                            manager.mergeChanges(objectToWrite, changeSetToWrite, parentSession);
+                            if (!isNestedUnitOfWork) {
+                                // Removed after the merge, as a row is stored while its cache key is locked,
+                                // so any row stored before the merge locked the cache key is removed.
+                                parentSession.getIdentityMapAccessorInstance().removeFromOffHeapCache(changeSetToWrite.getId(), descriptor);
+                            }
                             classesChanged.add(objectToWrite.getClass());
                         }
                     }
@@ -3402,7 +3408,7 @@ protected void mergeChangesIntoParent() {
                 postMergeChanges(classesChanged);
 
                 for (Class changedClass : classesChanged) {
-                    this.parent.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass);
+                    this.parent.getIdentityMapAccessorInstance().invalidateQueryCache(changedClass, uowChangeSet);
                 }
                 // If change propagation enabled through RemoteCommandManager then go for it
                 if (this.parent.shouldPropagateChanges() && (this.parent.getCommandManager() != null)) {
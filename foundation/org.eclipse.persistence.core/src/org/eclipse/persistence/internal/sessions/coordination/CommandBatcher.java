@@ -0,0 +1,304 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.internal.sessions.coordination;
+
+import org.eclipse.persistence.internal.sessions.ObjectChangeSet;
+import org.eclipse.persistence.internal.sessions.UnitOfWorkChangeSet;
+import org.eclipse.persistence.sessions.SessionProfiler;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.RemoteCommandManager;
+import org.eclipse.persistence.tools.profiler.Histogram;
+
+/**
+ * <p>
+ * <b>Purpose</b>: Batch the outbound merge change set commands of a RemoteCommandManager.
+ * <p>
+ * <b>Description</b>: The change sets of the commands propagated within the batch window are
+ * coalesced into a single change set, so the changes of the same object only send its latest state,
+ * and sent as one command. The batch is sent when the window expires, or when the batch size is reached.
+ * The window of a batch waits on the batcher, and is ended early when its batch is sent or the batcher is shut down,
+ * so no thread is left waiting after the batch is sent.
+ * If a change set cannot be coalesced into the batch the batch is sent first, so changes are sent in order.
+ * The size of the batches and the propagation lag (the time from the first command to the batch being sent)
+ * are recorded.
+ *
+ * @see RemoteCommandManager#setCommandBatchWindow(long)
+ */
+public class CommandBatcher {
+
+    /** Reference to manager to send the batches. */
+    protected RemoteCommandManager rcm;
+
+    /** The time in milliseconds commands are buffered before the batch is sent. */
+    protected long window;
+
+    /** The maximum number of commands in a batch. */
+    protected int maxSize;
+
+    /** The change set coalescing the changes of the batched commands. */
+    protected UnitOfWorkChangeSet batch;
+
+    /** The number of commands in the current batch. */
+    protected int batchSize;
+
+    /** The time (nano) the first command of the current batch was added. */
+    protected long batchStartTime;
+
+    /** Incremented for each batch, so the window only sends the batch it was started for. */
+    protected long batchNumber;
+
+    /** Set on shutdown, ends any waiting window. */
+    protected boolean isShutdown;
+
+    /** Ensures batches are sent in order. */
+    protected final Object sendLock = new Object();
+
+    /** Statistics. */
+    protected long commandCount;
+    protected long coalescedCount;
+    protected Histogram batchSizes;
+    protected Histogram lags;
+
+    public CommandBatcher(RemoteCommandManager rcm, long window, int maxSize) {
+        this.rcm = rcm;
+        this.window = window;
+        this.maxSize = maxSize;
+        this.batchSizes = new Histogram();
+        this.lags = new Histogram();
+    }
+
+    /**
+     * INTERNAL:
+     * Add the command's change set to the batch.
+     * The batch is sent if it is full, or first if the change set cannot be coalesced into it.
+     */
+    public void addCommand(MergeChangeSetCommand command) {
+        UnitOfWorkChangeSet changeSet = command.getChangeSet(null);
+        if (changeSet == null) {
+            return;
+        }
+        // New objects must build their full changes while the clone is still consistent with the commit.
+        if (changeSet.getAllChangeSets() != null) {
+            for (ObjectChangeSet objectChangeSet : changeSet.getAllChangeSets().keySet()) {
+                objectChangeSet.ensureChanges();
+            }
+        }
+        int changeSetCount = changeSet.getAllChangeSets().size() + changeSet.getDeletedObjects().size();
+        boolean isAdded = false;
+        while (!isAdded) {
+            boolean isFull = false;
+            synchronized (this) {
+                if (this.batch == null) {
+                    startBatch();
+                }
+                int batchCount = this.batch.getAllChangeSets().size() + this.batch.getDeletedObjects().size();
+                isAdded = this.batch.coalesceCacheCoordinationChangeSet(changeSet);
+                if (isAdded) {
+                    int coalesced = changeSetCount - (this.batch.getAllChangeSets().size() + this.batch.getDeletedObjects().size() - batchCount);
+                    this.batchSize++;
+                    this.commandCount++;
+                    this.coalescedCount = this.coalescedCount + coalesced;
+                    this.rcm.getCommandProcessor().incrementProfile(SessionProfiler.RcmBatched);
+                    for (int index = 0; index < coalesced; index++) {
+                        this.rcm.getCommandProcessor().incrementProfile(SessionProfiler.RcmCoalesced);
+                    }
+                    // Once shut down there is no window, so the batch is sent directly.
+                    isFull = (this.batchSize >= this.maxSize) || this.isShutdown;
+                }
+            }
+            if (!isAdded || isFull) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Start a new batch and launch the thread that sends it at the end of the window.
+     * Must be called while synchronized.
+     */
+    protected void startBatch() {
+        this.batch = new UnitOfWorkChangeSet();
+        this.batchSize = 0;
+        this.batchStartTime = System.nanoTime();
+        this.batchNumber++;
+        if (!this.isShutdown) {
+            this.rcm.getServerPlatform().launchContainerRunnable(new BatchWindow(this.batchNumber));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Send the current batch, and end any waiting window.
+     * Commands added after the shutdown are sent without being batched.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            this.isShutdown = true;
+            notifyAll();
+        }
+        flush();
+    }
+
+    /**
+     * PUBLIC:
+     * Return true if the batcher was shut down.
+     */
+    public synchronized boolean isShutdown() {
+        return isShutdown;
+    }
+
+    /**
+     * INTERNAL:
+     * Send the current batch, if any.
+     */
+    public void flush() {
+        flush(-1);
+    }
+
+    /**
+     * Send the current batch if it is the batch number, or any batch if -1.
+     */
+    protected void flush(long batchNumber) {
+        synchronized (this.sendLock) {
+            UnitOfWorkChangeSet changeSet;
+            int size;
+            long lag;
+            synchronized (this) {
+                if ((this.batch == null) || ((batchNumber != -1) && (batchNumber != this.batchNumber))) {
+                    return;
+                }
+                changeSet = this.batch;
+                size = this.batchSize;
+                lag = System.nanoTime() - this.batchStartTime;
+                this.batch = null;
+                this.batchSize = 0;
+                // End the window of the batch sent.
+                notifyAll();
+            }
+            this.batchSizes.record(size);
+            this.lags.record(lag);
+            MergeChangeSetCommand command = new MergeChangeSetCommand();
+            command.setChangeSet(changeSet);
+            this.rcm.logDebug("propagate_command_batch", new Object[] { Integer.valueOf(size) });
+            command.setServiceId(this.rcm.getServiceId());
+            try {
+                this.rcm.propagateCommand(command, command);
+            } catch (RuntimeException exception) {
+                // The batch may be sent from the window's thread, so let the handler decide.
+                this.rcm.handleException(exception);
+            }
+        }
+    }
+
+    /**
+     * PUBLIC:
+     * Return the time in milliseconds commands are buffered before the batch is sent.
+     */
+    public long getWindow() {
+        return window;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum number of commands in a batch.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of batches sent.
+     */
+    public long getBatchCount() {
+        return this.batchSizes.getCount();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of commands batched.
+     */
+    public synchronized long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of object change sets coalesced with an earlier change set for the same object.
+     */
+    public synchronized long getCoalescedCount() {
+        return coalescedCount;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the distribution of the number of commands in each batch sent.
+     */
+    public Histogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the distribution of the propagation lag in nanoseconds,
+     * the time from the first command of a batch being added to the batch being sent.
+     */
+    public Histogram getLags() {
+        return lags;
+    }
+
+    public String toString() {
+        return "CommandBatcher(window=" + this.window + ", maxSize=" + this.maxSize + ", batches=" + this.batchSizes + ", lags=" + this.lags + ")";
+    }
+
+    /**
+     * Sends the batch it was started for at the end of the window.
+     * The window ends early, without sending, if its batch was already sent or the batcher is shut down.
+     */
+    protected class BatchWindow implements Runnable {
+        protected long batchNumber;
+
+        protected BatchWindow(long batchNumber) {
+            this.batchNumber = batchNumber;
+        }
+
+        public void run() {
+            synchronized (CommandBatcher.this) {
+                long end = System.nanoTime() + (window * 1000000L);
+                while (isWaiting()) {
+                    long remaining = (end - System.nanoTime()) / 1000000L;
+                    if (remaining <= 0) {
+                        break;
+                    }
+                    try {
+                        CommandBatcher.this.wait(remaining);
+                    } catch (InterruptedException exception) {
+                        // Send early.
+                        break;
+                    }
+                }
+                if (!isWaiting()) {
+                    return;
+                }
+            }
+            flush(this.batchNumber);
+        }
+
+        /**
+         * Return true if the batch of the window was not sent, must be called while synchronized.
+         */
+        protected boolean isWaiting() {
+            return (batch != null) && (batchNumber == this.batchNumber) && !isShutdown;
+        }
+    }
+}
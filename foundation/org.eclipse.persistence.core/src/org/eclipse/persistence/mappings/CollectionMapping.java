@@ -961,6 +961,18 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the size of the batched collection, used by adaptive IN batch fetching.
+     */
+    @Override
+    protected int sizeOfBatchedValue(Object value) {
+        if ((value == null) || (value == Helper.NULL_VALUE)) {
+            return 0;
+        }
+        return this.containerPolicy.sizeFor(value);
+    }
+
     /**
      * INTERNAL:
      * Prepare and execute the batch query and store the
@@ -122,6 +122,12 @@ public abstract class ForeignReferenceMapping extends DatabaseMapping {
      */
     protected BatchFetchType batchFetchType;
 
+    /** Indicates whether IN batch fetching of the relationship should adapt its size to the rows read. */
+    protected boolean isBatchFetchAdaptive;
+
+    /** PERF: Approximate average number of target rows read per source key by adaptive IN batch fetching. */
+    protected transient volatile float batchFetchRowsPerKey;
+
     /** Implements indirection behavior */
     protected IndirectionPolicy indirectionPolicy;
 
@@ -561,12 +567,16 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
                     translationRow = new DatabaseRecord();
                 }
                 // Execute query and index resulting object sets by key.
+                Set foreignKeys = null;
                 if (originalPolicy.isIN()) {
                     // Need to extract all foreign key values from all parent rows for IN parameter.
                     List<AbstractRecord> parentRows = originalPolicy.getDataResults(this);
                     // Execute queries by batch if too many rows.
                     int rowsSize = parentRows.size();
-                    int size = Math.min(rowsSize, originalPolicy.getSize());
+                    // Composite keys use a value per key field, so limit the keys to what the platform allows.
+                    int platformMaxKeys = session.getPlatform().getMaxBatchFetchInSize() / ((CacheId)sourceKey).getPrimaryKey().length;
+                    int maxKeys = originalPolicy.computeMaxKeys(this, platformMaxKeys, this.batchFetchRowsPerKey);
+                    int size = Math.min(rowsSize, maxKeys);
                     if (size == 0) {
                         return null;
                     }
@@ -576,7 +586,7 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
                         startIndex = parentRows.indexOf(sourceRow);
                     }
                     List foreignKeyValues = new ArrayList(size);
-                    Set foreignKeys = new HashSet(size);
+                    foreignKeys = new HashSet(size);
                     int index = 0;
                     int offset = startIndex;
                     for (int count = 0; count < size; count++) {
@@ -638,6 +648,14 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
                         }
                     }
                     originalPolicy.setDataResults(this, remainingParentRows);
+                    if (originalPolicy.isAdaptive(this) && !foreignKeyValues.isEmpty()) {
+                        // PERF: Pad the IN list by repeating the last key, so the statement is reused for other batches.
+                        int paddedSize = originalPolicy.computePaddedSize(foreignKeyValues.size(), maxKeys);
+                        Object lastValue = foreignKeyValues.get(foreignKeyValues.size() - 1);
+                        for (int count = foreignKeyValues.size(); count < paddedSize; count++) {
+                            foreignKeyValues.add(lastValue);
+                        }
+                    }
                     translationRow = translationRow.clone();
                     translationRow.put(QUERY_BATCH_PARAMETER, foreignKeyValues);
                     // Register each id as null, in case it has no relationship.
@@ -649,6 +667,13 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
                 }
                 executeBatchQuery(batchQuery, parentCacheKey, batchedObjects, session, translationRow);
                 batchQuery.setSession(null);
+                if ((foreignKeys != null) && originalPolicy.isAdaptive(this) && !foreignKeys.isEmpty()) {
+                    int rows = 0;
+                    for (Object foreignKey : foreignKeys) {
+                        rows += sizeOfBatchedValue(batchedObjects.get(foreignKey));
+                    }
+                    updateBatchFetchRowsPerKey(foreignKeys.size(), rows);
+                }
             }
         }
         result = batchedObjects.get(sourceKey);
@@ -659,6 +684,42 @@ public Object extractResultFromBatchQuery(ReadQuery batchQuery, CacheKey parentC
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the number of target rows of the batched value of a source key,
+     * used by adaptive IN batch fetching.
+     * Collection mappings override to return the size of the collection.
+     */
+    protected int sizeOfBatchedValue(Object value) {
+        if ((value == null) || (value == Helper.NULL_VALUE)) {
+            return 0;
+        }
+        return 1;
+    }
+
+    /**
+     * INTERNAL:
+     * Record the number of target rows read for the number of source keys by an adaptive IN batch query.
+     * A moving average is kept, to size the next batch to read about the policy's row target.
+     */
+    protected void updateBatchFetchRowsPerKey(int keys, int rows) {
+        float rowsPerKey = (float)rows / keys;
+        float average = this.batchFetchRowsPerKey;
+        if (average > 0) {
+            rowsPerKey = ((average * 3) + rowsPerKey) / 4;
+        }
+        this.batchFetchRowsPerKey = rowsPerKey;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the approximate average number of target rows read per source key by adaptive IN batch fetching,
+     * or 0 if unknown.
+     */
+    public float getBatchFetchRowsPerKey() {
+        return batchFetchRowsPerKey;
+    }
+
     /**
      * INTERNAL:
      * Extract the batch key value from the source row.
@@ -2497,6 +2558,25 @@ public void setBatchFetchType(BatchFetchType batchFetchType) {
         this.batchFetchType = batchFetchType;
     }
 
+    /**
+     * PUBLIC:
+     * Return if IN batch fetching of this relationship adapts its size to the rows read.
+     */
+    public boolean isBatchFetchAdaptive() {
+        return isBatchFetchAdaptive;
+    }
+
+    /**
+     * PUBLIC:
+     * Set if IN batch fetching of this relationship adapts its size to the rows read,
+     * and pads the IN list to reuse statements.
+     * This is only used when the relationship is batch fetched by default (not by the query).
+     * @see BatchFetchPolicy#setIsAdaptive(boolean)
+     */
+    public void setBatchFetchAdaptive(boolean isBatchFetchAdaptive) {
+        this.isBatchFetchAdaptive = isBatchFetchAdaptive;
+    }
+
     /**
      * INTERNAL:
      * Allow subclass to define a foreign key in the target's table.
@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.oxm.record;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+import javax.xml.namespace.QName;
+
+import org.eclipse.persistence.exceptions.XMLMarshalException;
+import org.eclipse.persistence.internal.core.helper.CoreClassConstants;
+import org.eclipse.persistence.internal.oxm.Constants;
+import org.eclipse.persistence.internal.oxm.XMLMarshaller;
+import org.eclipse.persistence.internal.oxm.XPathFragment;
+
+/**
+ * <p>Use this type of MarshalRecord when the marshal target is an OutputStream and the
+ * JSON should not be formatted with carriage returns or indenting.  This type is only
+ * used if the encoding of the OutputStream is UTF-8</p>
+ * <p>The JSON is encoded and escaped directly into a byte buffer: the keys are written
+ * from the UTF-8 bytes cached on each XPathFragment, and integral numbers and booleans
+ * are written without being converted to a String.</p>
+ * <p><code>
+ * XMLContext xmlContext = new XMLContext("session-name");<br>
+ * XMLMarshaller xmlMarshaller = xmlContext.createMarshaller();<br>
+ * xmlMarshaller.setMediaType(MediaType.APPLICATION_JSON);<br>
+ * JSONOutputStreamRecord record = new JSONOutputStreamRecord(myOutputStream);<br>
+ * xmlMarshaller.marshal(myObject, record);<br>
+ * </code></p>
+ * <p>If the marshal(OutputStream) and setMediaType(MediaType.APPLICATION_JSON) and
+ * setFormattedOutput(false) method is called on XMLMarshaller and the encoding is UTF-8,
+ * then the OutputStream is automatically wrapped in a JSONOutputStreamRecord.</p>
+ * @see org.eclipse.persistence.oxm.XMLMarshaller
+ * @see OutputStreamRecord
+ */
+public class JSONOutputStreamRecord extends JSONWriterRecord {
+
+    protected static final byte[] TRUE = "true".getBytes(Constants.DEFAULT_CHARSET);
+    protected static final byte[] FALSE = "false".getBytes(Constants.DEFAULT_CHARSET);
+    protected static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(Constants.DEFAULT_CHARSET);
+
+    /**
+     * The character escaped after a backslash for each ASCII character,
+     * 'u' if it is escaped as a unicode sequence, or 0 if it is not escaped.
+     */
+    protected static final byte[] ESCAPES = new byte[128];
+
+    static {
+        for (int character = 0; character < 0x20; character++) {
+            ESCAPES[character] = 'u';
+        }
+        ESCAPES[0x7F] = 'u';
+        ESCAPES['"'] = '"';
+        ESCAPES['\\'] = '\\';
+        ESCAPES['\b'] = 'b';
+        ESCAPES['\f'] = 'f';
+        ESCAPES['\n'] = 'n';
+        ESCAPES['\r'] = 'r';
+        ESCAPES['\t'] = 't';
+    }
+
+    /** The largest number of bytes written for a single character, as a unicode escape sequence. */
+    private static final int MAX_CHARACTER_BYTES = 6;
+    /** The largest number of bytes written for a long, Long.MIN_VALUE is written as a String. */
+    private static final int MAX_LONG_BYTES = 20;
+    private static final int BUFFER_SIZE = 512;
+
+    protected OutputStream outputStream;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferIndex = 0;
+    private byte[] attributePrefixBytes;
+    private byte[] cr = Constants.cr().getBytes(Constants.DEFAULT_CHARSET);
+
+    public JSONOutputStreamRecord() {
+        super();
+        this.writer = new JSONOutputStreamOutput();
+    }
+
+    public JSONOutputStreamRecord(OutputStream outputStream) {
+        this();
+        this.outputStream = outputStream;
+    }
+
+    public JSONOutputStreamRecord(OutputStream outputStream, String callbackName) {
+        this(outputStream);
+        setCallbackName(callbackName);
+    }
+
+    /**
+     * Return the OutputStream that the object will be marshalled to.
+     * @return The marshal target.
+     */
+    public OutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    /**
+     * Set the OutputStream that the object will be marshalled to.
+     * @param outputStream The marshal target.
+     */
+    public void setOutputStream(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    /**
+     * INTERNAL:
+     */
+    public void setMarshaller(XMLMarshaller marshaller) {
+        super.setMarshaller(marshaller);
+        if (null != attributePrefix) {
+            attributePrefixBytes = attributePrefix.getBytes(Constants.DEFAULT_CHARSET);
+        } else {
+            attributePrefixBytes = null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Write the numbers and booleans that are not converted by the conversion manager
+     * directly into the buffer.
+     */
+    public void characters(QName schemaType, Object value, String mimeType, boolean isCDATA, boolean isAttribute) {
+        if (mimeType == null && value != null && (schemaType == null || (!isCDATA && isNumericOrBooleanType(schemaType)))) {
+            Class valueClass = value.getClass();
+            if (valueClass == CoreClassConstants.INTEGER || valueClass == CoreClassConstants.LONG
+                    || valueClass == CoreClassConstants.SHORT || valueClass == CoreClassConstants.BYTE) {
+                boolean textWrapperOpened = startCharacters();
+                writeLong(((Number) value).longValue());
+                endCharacters(textWrapperOpened);
+                charactersAllowed = false;
+                return;
+            } else if (valueClass == CoreClassConstants.BOOLEAN) {
+                boolean textWrapperOpened = startCharacters();
+                write(((Boolean) value).booleanValue() ? TRUE : FALSE);
+                endCharacters(textWrapperOpened);
+                charactersAllowed = false;
+                return;
+            }
+        }
+        super.characters(schemaType, value, mimeType, isCDATA, isAttribute);
+    }
+
+    /**
+     * INTERNAL:
+     * The escaped local name is cached on the fragment, so only the prefixes are written for each key.
+     */
+    protected void writeKey(XPathFragment xPathFragment) throws IOException {
+        addPositionalNodes(xPathFragment, namespaceResolver);
+        write((byte) '"');
+        if (xPathFragment.isAttribute() && attributePrefixBytes != null) {
+            write(attributePrefixBytes);
+        }
+
+        if (isNamespaceAware()) {
+            if (xPathFragment.getNamespaceURI() != null) {
+                String prefix = null;
+                if (getNamespaceResolver() != null) {
+                    prefix = getNamespaceResolver().resolveNamespaceURI(xPathFragment.getNamespaceURI());
+                } else if (namespaceResolver != null) {
+                    prefix = namespaceResolver.resolveNamespaceURI(xPathFragment.getNamespaceURI());
+                }
+                if (prefix != null && !prefix.equals(Constants.EMPTY_STRING)) {
+                    writeUnescaped(prefix);
+                    writer.writeNamespaceSeparator();
+                }
+            }
+        }
+
+        byte[] keyBytes = xPathFragment.getJsonKeyBytes();
+        if (keyBytes == null) {
+            keyBytes = buildKeyBytes(xPathFragment.getLocalName());
+            xPathFragment.setJsonKeyBytes(keyBytes);
+        }
+        write(keyBytes);
+
+        writeSeparator();
+    }
+
+    /**
+     * Return the UTF-8 bytes of the escaped local name followed by the closing quote.
+     */
+    protected byte[] buildKeyBytes(String localName) {
+        // Escaped into a buffer large enough for the whole key, so it is not flushed.
+        int startIndex = bufferIndex;
+        byte[] keyBuffer = buffer;
+        buffer = new byte[(localName.length() + 1) * MAX_CHARACTER_BYTES];
+        bufferIndex = 0;
+        try {
+            writeEscaped(localName);
+            write((byte) '"');
+            byte[] keyBytes = new byte[bufferIndex];
+            System.arraycopy(buffer, 0, keyBytes, 0, bufferIndex);
+            return keyBytes;
+        } finally {
+            buffer = keyBuffer;
+            bufferIndex = startIndex;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     */
+    protected void writeValue(String value, boolean isAttribute) {
+        if (characterEscapeHandler != null) {
+            writer.writeResultFromCharEscapeHandler(value, isAttribute);
+            return;
+        }
+        writeEscaped(value);
+    }
+
+    /**
+     * Write the UTF-8 bytes of the value escaped for a JSON string.
+     * As for the Writer, control characters and surrogates are escaped as unicode sequences.
+     */
+    @Override
+    protected void writeEscaped(String value) {
+        for (int x = 0, length = value.length(); x < length; x++) {
+            if (bufferIndex + MAX_CHARACTER_BYTES > buffer.length) {
+                flushBuffer();
+            }
+            char character = value.charAt(x);
+            if (character < 0x80) {
+                byte escape = ESCAPES[character];
+                if (escape == 0) {
+                    buffer[bufferIndex++] = (byte) character;
+                } else if (escape == 'u') {
+                    writeUnicodeEscape(character);
+                } else {
+                    buffer[bufferIndex++] = '\\';
+                    buffer[bufferIndex++] = escape;
+                }
+            } else if (character < 0xA0 || Character.isSurrogate(character)) {
+                writeUnicodeEscape(character);
+            } else {
+                writeCharacter(character);
+            }
+        }
+    }
+
+    /**
+     * Write the UTF-8 bytes of the text, which is not escaped.
+     */
+    protected void writeUnescaped(String text) {
+        for (int x = 0, length = text.length(); x < length; x++) {
+            if (bufferIndex + MAX_CHARACTER_BYTES > buffer.length) {
+                flushBuffer();
+            }
+            char character = text.charAt(x);
+            if (character < 0x80) {
+                buffer[bufferIndex++] = (byte) character;
+            } else if (Character.isHighSurrogate(character) && x + 1 < length && Character.isLowSurrogate(text.charAt(x + 1))) {
+                int codePoint = Character.toCodePoint(character, text.charAt(++x));
+                buffer[bufferIndex++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[bufferIndex++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[bufferIndex++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[bufferIndex++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                writeCharacter(character);
+            }
+        }
+    }
+
+    /**
+     * Write the UTF-8 bytes of a character that is not a surrogate, the buffer must have room for it.
+     */
+    private void writeCharacter(char character) {
+        if (character < 0x80) {
+            buffer[bufferIndex++] = (byte) character;
+        } else if (character < 0x800) {
+            buffer[bufferIndex++] = (byte) (0xC0 | (character >> 6));
+            buffer[bufferIndex++] = (byte) (0x80 | (character & 0x3F));
+        } else {
+            buffer[bufferIndex++] = (byte) (0xE0 | (character >> 12));
+            buffer[bufferIndex++] = (byte) (0x80 | ((character >> 6) & 0x3F));
+            buffer[bufferIndex++] = (byte) (0x80 | (character & 0x3F));
+        }
+    }
+
+    /**
+     * Write the character as a \\uXXXX sequence, the buffer must have room for it.
+     */
+    private void writeUnicodeEscape(char character) {
+        buffer[bufferIndex++] = '\\';
+        buffer[bufferIndex++] = 'u';
+        buffer[bufferIndex++] = HEX_DIGITS[(character >> 12) & 0xF];
+        buffer[bufferIndex++] = HEX_DIGITS[(character >> 8) & 0xF];
+        buffer[bufferIndex++] = HEX_DIGITS[(character >> 4) & 0xF];
+        buffer[bufferIndex++] = HEX_DIGITS[character & 0xF];
+    }
+
+    /**
+     * Write the decimal digits of the value.
+     */
+    protected void writeLong(long value) {
+        if (value == Long.MIN_VALUE) {
+            write(String.valueOf(value).getBytes(Constants.DEFAULT_CHARSET));
+            return;
+        }
+        if (bufferIndex + MAX_LONG_BYTES > buffer.length) {
+            flushBuffer();
+        }
+        if (value < 0) {
+            buffer[bufferIndex++] = '-';
+            value = -value;
+        }
+        int digits = 1;
+        for (long remainder = value / 10; remainder != 0; remainder = remainder / 10) {
+            digits++;
+        }
+        int index = bufferIndex + digits;
+        bufferIndex = index;
+        do {
+            buffer[--index] = (byte) ('0' + (value % 10));
+            value = value / 10;
+        } while (value != 0);
+    }
+
+    protected void write(byte b) {
+        if (bufferIndex == buffer.length) {
+            flushBuffer();
+        }
+        buffer[bufferIndex++] = b;
+    }
+
+    protected void write(byte[] bytes) {
+        int bytesLength = bytes.length;
+        if (bufferIndex + bytesLength > buffer.length) {
+            flushBuffer();
+            if (bytesLength > buffer.length) {
+                try {
+                    outputStream.write(bytes);
+                } catch (IOException e) {
+                    throw XMLMarshalException.marshalException(e);
+                }
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, bufferIndex, bytesLength);
+        bufferIndex += bytesLength;
+    }
+
+    /**
+     * Write the buffered bytes to the OutputStream, so the buffer can be reused.
+     */
+    private void flushBuffer() {
+        try {
+            outputStream.write(buffer, 0, bufferIndex);
+            bufferIndex = 0;
+        } catch (IOException e) {
+            throw XMLMarshalException.marshalException(e);
+        }
+    }
+
+    /**
+     * The Output used by JSONWriterRecord, that writes into the buffer of this record.
+     */
+    protected class JSONOutputStreamOutput implements Output {
+
+        private XMLMarshaller marshaller;
+        private char namespaceSeparator;
+
+        protected JSONOutputStreamOutput() {
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            outputStream.flush();
+        }
+
+        @Override
+        public XMLMarshaller getMarshaller() {
+            return marshaller;
+        }
+
+        @Override
+        public OutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public Writer getWriter() {
+            return null;
+        }
+
+        @Override
+        public void setMarshaller(XMLMarshaller marshaller) {
+            this.marshaller = marshaller;
+            this.namespaceSeparator = marshaller.getNamespaceSeparator();
+        }
+
+        @Override
+        public void write(char character) throws IOException {
+            if (character < 0x80) {
+                JSONOutputStreamRecord.this.write((byte) character);
+            } else {
+                writeUnescaped(String.valueOf(character));
+            }
+        }
+
+        @Override
+        public void write(String text) throws IOException {
+            writeUnescaped(text);
+        }
+
+        @Override
+        public void writeAttributePrefix() throws IOException {
+            JSONOutputStreamRecord.this.write(attributePrefixBytes);
+        }
+
+        @Override
+        public void writeCR() throws IOException {
+            JSONOutputStreamRecord.this.write(cr);
+        }
+
+        @Override
+        public void writeLocalName(XPathFragment xPathFragment) throws IOException {
+            JSONOutputStreamRecord.this.write(xPathFragment.getLocalNameBytes());
+        }
+
+        @Override
+        public void writeNamespaceSeparator() throws IOException {
+            write(namespaceSeparator);
+        }
+
+        @Override
+        public void writeResultFromCharEscapeHandler(String value, boolean isAttribute) {
+            try {
+                CharArrayWriter out = new CharArrayWriter();
+                characterEscapeHandler.escape(value.toCharArray(), 0, value.length(), isAttribute, out);
+                writeUnescaped(out.toString());
+                out.close();
+            } catch (IOException e) {
+                throw XMLMarshalException.marshalException(e);
+            }
+        }
+
+    }
+
+}
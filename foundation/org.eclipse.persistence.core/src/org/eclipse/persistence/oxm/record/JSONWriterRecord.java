@@ -402,15 +402,7 @@ public void characters(String value) {
      * INTERNAL:
      */
      public void characters(String value, boolean isString, boolean isAttribute) {
-          boolean textWrapperOpened = false;
-          if(!charactersAllowed){
-               if(textWrapperFragment != null){
-                   openStartElement(textWrapperFragment, namespaceResolver);
-                   textWrapperOpened = true;
-               }
-           }
-
-           level.setNeedToOpenComplex(false);
+           boolean textWrapperOpened = startCharacters();
            try {
                if(isString){
                       writer.write('"');
@@ -423,6 +415,31 @@ public void characters(String value, boolean isString, boolean isAttribute) {
            } catch (IOException e) {
                throw XMLMarshalException.marshalException(e);
            }
+           endCharacters(textWrapperOpened);
+     }
+
+    /**
+     * INTERNAL:
+     * Open the text wrapper if characters are not allowed, before a value is written.
+     * @return if the text wrapper was opened
+     */
+     protected boolean startCharacters() {
+          boolean textWrapperOpened = false;
+          if(!charactersAllowed){
+               if(textWrapperFragment != null){
+                   openStartElement(textWrapperFragment, namespaceResolver);
+                   textWrapperOpened = true;
+               }
+           }
+           level.setNeedToOpenComplex(false);
+           return textWrapperOpened;
+     }
+
+    /**
+     * INTERNAL:
+     * Close the text wrapper after a value is written, if it was opened.
+     */
+     protected void endCharacters(boolean textWrapperOpened) {
            if(textWrapperOpened){
                  if(textWrapperFragment != null){
                       endElement(textWrapperFragment, namespaceResolver);
@@ -494,7 +511,7 @@ public void characters(QName schemaType, Object value, String mimeType, boolean
      }
 
 
-     private boolean isNumericOrBooleanType(QName schemaType){
+     protected boolean isNumericOrBooleanType(QName schemaType){
          if(schemaType == null){
              return false;
          }else if(schemaType.equals(Constants.BOOLEAN_QNAME)
@@ -631,12 +648,31 @@ protected void writeKey(XPathFragment xPathFragment) throws IOException {
             }
         }
 
-        writer.writeLocalName(xPathFragment);
+        String localName = xPathFragment.getLocalName();
+        if (isEscapedInKey(localName)) {
+            writeEscaped(localName);
+        } else {
+            writer.writeLocalName(xPathFragment);
+        }
         writer.write('"');
 
         writeSeparator();
     }
 
+    /**
+     * Return true if the name contains a character that may need to be escaped in a key,
+     * names are usually written as they are.
+     */
+    protected boolean isEscapedInKey(String name) {
+        for (int x = 0, length = name.length(); x < length; x++) {
+            char character = name.charAt(x);
+            if (character < 0x20 || character >= 0x7F || character == '"' || character == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * INTERNAL:
      */
@@ -646,7 +682,17 @@ protected void writeValue(String value, boolean isAttribute) {
                    writer.writeResultFromCharEscapeHandler(value, isAttribute);
                    return;
                }
+               writeEscaped(value);
+        } catch (IOException e) {
+            throw XMLMarshalException.marshalException(e);
+        }
+    }
 
+    /**
+     * INTERNAL:
+     * Write the value escaped for a JSON string, keys are escaped the same way as values.
+     */
+    protected void writeEscaped(String value) throws IOException {
               char[] chars = value.toCharArray();
               for (int x = 0, charsSize = chars.length; x < charsSize; x++) {
                   char character = chars[x];
@@ -693,9 +739,6 @@ protected void writeValue(String value, boolean isAttribute) {
                       }
                   }
               }
-        } catch (IOException e) {
-            throw XMLMarshalException.marshalException(e);
-        }
     }
 
     protected String getStringForQName(QName qName){
@@ -427,6 +427,14 @@ public boolean supportsSequenceObjects() {
         return this.isSequenceSupported;
     }
 
+    /**
+     * INTERNAL: Derby supports inserting multiple rows with a single INSERT statement.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
     @Override
     public boolean isAlterSequenceObjectSupported() {
         return false;
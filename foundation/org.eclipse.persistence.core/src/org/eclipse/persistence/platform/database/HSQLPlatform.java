@@ -198,6 +198,11 @@ public boolean supportsIdentity() {
         return true;
     }
 
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
     @Override
     public ValueReadQuery buildSelectQueryForIdentity() {
         return new ValueReadQuery("CALL IDENTITY()");
@@ -512,6 +512,24 @@ public boolean supportsIdentity() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * MySQL supports inserting multiple rows with a single INSERT statement.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * MySQL limits the number of parameters of a prepared statement to 65535.
+     */
+    @Override
+    public int getMaxMultiRowInsertParameters() {
+        return 65535;
+    }
+
     /**
      * INTERNAL:
      * Indicates whether the platform supports the count distinct function with multiple fields.
@@ -387,6 +387,15 @@ public int getMaxFieldNameSize() {
         return 30;
     }
 
+    /**
+     * INTERNAL:
+     * Oracle limits an IN list to 1000 values (ORA-01795).
+     */
+    @Override
+    public int getMaxBatchFetchInSize() {
+        return 1000;
+    }
+
     /**
      * Return the catalog information through using the native SQL catalog selects.
      * This is required because many JDBC driver do not support meta-data.
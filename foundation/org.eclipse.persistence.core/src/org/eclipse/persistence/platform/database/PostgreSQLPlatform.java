@@ -252,6 +252,22 @@ public boolean supportsIdentity() {
         return true;
     }
 
+    /**
+     * INTERNAL: PostgreSQL supports inserting multiple rows with a single INSERT statement.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * INTERNAL: The PostgreSQL JDBC driver limits the number of parameters of a statement to 32767.
+     */
+    @Override
+    public int getMaxMultiRowInsertParameters() {
+        return 32767;
+    }
+
     /**
      * INTERNAL: Returns query used to read back the value generated by
      * Identity. This method is called when identity NativeSequence is
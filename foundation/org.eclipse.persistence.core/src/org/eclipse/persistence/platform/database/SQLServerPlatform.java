@@ -682,6 +682,25 @@ public boolean supportsIdentity() {
         return true;
     }
 
+    /**
+     * INTERNAL:
+     * SQL Server supports inserting up to 1000 rows with a single INSERT statement,
+     * and limits the number of parameters of a statement to 2100.
+     */
+    @Override
+    public boolean supportsMultiRowInsert() {
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * SQL Server limits the number of parameters of a statement to 2100.
+     */
+    @Override
+    public int getMaxBatchFetchInSize() {
+        return 2000;
+    }
+
     /**
      * INTERNAL:
      */
@@ -358,6 +358,15 @@ public int getMaxFieldNameSize() {
         return 22;
     }
 
+    /**
+     * INTERNAL:
+     * Sybase limits the number of parameters of a statement to 2048.
+     */
+    @Override
+    public int getMaxBatchFetchInSize() {
+        return 2000;
+    }
+
     /**
      * Return the catalog information through using the native SQL catalog selects.
      * This is required because many JDBC driver do not support meta-data.
@@ -32,14 +32,23 @@
  * @author James Sutherland
  */
 public class BatchFetchPolicy implements Serializable, Cloneable {
+    /** PERF: The IN list sizes adaptive batch fetching pads to, so a small set of statements are prepared and reused. */
+    protected static final int[] ADAPTIVE_SIZES = {1, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
     /** Define the type of batch fetching to use. */
     protected BatchFetchType type;
     /** Define the batch size for IN style batch fetching. */
     protected int size = 500;
+    /** Define if IN style batch fetching adapts its size to the rows read, and pads the IN list to reuse statements. */
+    protected boolean isAdaptive;
+    /** Define the number of rows an adaptive IN batch query should read. */
+    protected int adaptiveRowTarget = 5000;
     /** Define the attributes to be batch fetched. */
     protected List<Expression> attributeExpressions;
     /** Define the mapping to be batch fetched (from mapping settings). */
     protected List<DatabaseMapping> batchedMappings;
+    /** Define the batched mappings that are adaptive (from mapping settings), when the policy is not adaptive. */
+    protected List<DatabaseMapping> adaptiveMappings;
     /** PERF: Used internally to store the prepared mapping queries. */
     protected transient Map<DatabaseMapping, ReadQuery> mappingQueries;
     /** PERF: Cache the local batch read attribute names. */
@@ -119,6 +128,105 @@ public void setSize(int size) {
         this.size = size;
     }
 
+    /**
+     * Return if IN batch fetching is adaptive.
+     * @see #setIsAdaptive(boolean)
+     */
+    public boolean isAdaptive() {
+        return isAdaptive;
+    }
+
+    /**
+     * Set if IN batch fetching is adaptive.
+     * An adaptive IN batch fetch pads the IN list to one of a small set of sizes,
+     * so that the same prepared statements are reused instead of one per number of keys,
+     * and reduces the number of keys per query for relationships that read many rows per key.
+     * The batch size is still the maximum number of keys, and is also limited by the database platform.
+     */
+    public void setIsAdaptive(boolean isAdaptive) {
+        this.isAdaptive = isAdaptive;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if IN batch fetching of the mapping is adaptive,
+     * either because the policy is adaptive, or the mapping is batched adaptively by default.
+     */
+    public boolean isAdaptive(DatabaseMapping mapping) {
+        return this.isAdaptive || ((this.adaptiveMappings != null) && this.adaptiveMappings.contains(mapping));
+    }
+
+    /**
+     * INTERNAL:
+     * Return the batched mappings that are adaptive from their mapping settings.
+     */
+    public List<DatabaseMapping> getAdaptiveMappings() {
+        return adaptiveMappings;
+    }
+
+    /**
+     * INTERNAL:
+     * Add a batched mapping that is adaptive from its mapping settings,
+     * only its batch fetching is adaptive, not the other mappings of the query.
+     */
+    public void addAdaptiveMapping(DatabaseMapping mapping) {
+        if (this.adaptiveMappings == null) {
+            this.adaptiveMappings = new ArrayList<DatabaseMapping>();
+        }
+        this.adaptiveMappings.add(mapping);
+    }
+
+    /**
+     * Return the number of rows an adaptive IN batch query should read.
+     */
+    public int getAdaptiveRowTarget() {
+        return adaptiveRowTarget;
+    }
+
+    /**
+     * Set the number of rows an adaptive IN batch query should read.
+     * The number of keys per query is reduced to read about this many rows,
+     * based on the average number of rows read per key by previous batches.
+     */
+    public void setAdaptiveRowTarget(int adaptiveRowTarget) {
+        this.adaptiveRowTarget = adaptiveRowTarget;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the maximum number of keys to use in the next IN batch query.
+     * This is the batch size, limited by the maximum number of keys the platform allows,
+     * and if adaptive by the average number of rows read per key (0 if unknown),
+     * rounded down to an adaptive size so the limit does not change with every batch.
+     */
+    public int computeMaxKeys(DatabaseMapping mapping, int platformMaxKeys, float rowsPerKey) {
+        int maxKeys = Math.max(1, Math.min(this.size, platformMaxKeys));
+        if (isAdaptive(mapping) && (rowsPerKey > 1)) {
+            int rowLimit = (int)(this.adaptiveRowTarget / rowsPerKey);
+            int adaptiveSize = ADAPTIVE_SIZES[0];
+            for (int index = 1; (index < ADAPTIVE_SIZES.length) && (ADAPTIVE_SIZES[index] <= rowLimit); index++) {
+                adaptiveSize = ADAPTIVE_SIZES[index];
+            }
+            maxKeys = Math.min(maxKeys, adaptiveSize);
+        }
+        return maxKeys;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the size to pad an adaptive IN list of the number of keys to,
+     * the smallest adaptive size not less than the keys, or the max keys.
+     */
+    public int computePaddedSize(int keys, int maxKeys) {
+        for (int index = 0; index < ADAPTIVE_SIZES.length; index++) {
+            int adaptiveSize = ADAPTIVE_SIZES[index];
+            if (adaptiveSize >= keys) {
+                return Math.min(adaptiveSize, maxKeys);
+            }
+        }
+        return maxKeys;
+    }
+
     /**
      * INTERNAL:
      * PERF: Return the internally stored prepared mapping queries.
@@ -13,6 +13,9 @@
 package org.eclipse.persistence.queries;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.exceptions.*;
@@ -385,6 +388,36 @@ public void releasePrevious() {
         clear();
     }
 
+    /**
+     * PUBLIC:
+     * Return a sequential Stream on the objects of the cursored stream.
+     * The objects are built lazily from the result set a page at a time as the Stream is consumed,
+     * and the objects already consumed are released after every page, so the memory used is bounded
+     * by the page size instead of the size of the result.
+     * The cursored stream is closed when the Stream is closed, it is also closed once its end is reached.
+     * Objects read in a unit of work are still registered in it,
+     * the query should not maintain the cache, or be read-only, to avoid this.
+     * @see #releasePrevious()
+     * @see ObjectLevelReadQuery#dontMaintainCache()
+     */
+    public Stream<Object> stream() {
+        Spliterator<Object> spliterator = new Spliterators.AbstractSpliterator<Object>(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+            public boolean tryAdvance(Consumer<? super Object> action) {
+                if (atEnd()) {
+                    return false;
+                }
+                Object next = read();
+                // Release the page once consumed, the next read will build the next page.
+                if (position >= objectCollection.size()) {
+                    releasePrevious();
+                }
+                action.accept(next);
+                return true;
+            }
+        };
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+
     /**
      * PUBLIC:
      * Repositions this stream to the position at the time the
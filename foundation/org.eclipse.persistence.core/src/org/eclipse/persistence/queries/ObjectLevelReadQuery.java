@@ -2011,7 +2011,9 @@ protected void prepare() throws QueryException {
     protected boolean prepareFromCachedQuery() {
         // PERF: Check if the equivalent expression query has already been prepared.
         // Only allow queries with default properties to be cached.
-        boolean isCacheable = isExpressionQuery() && (!getQueryMechanism().isJPQLCallQueryMechanism()) && isDefaultPropertiesQuery() && (!getSession().isHistoricalSession());
+        // Queries that cache their results must be normalized to record the classes and attributes that invalidate them.
+        boolean isCacheable = isExpressionQuery() && (!getQueryMechanism().isJPQLCallQueryMechanism()) && isDefaultPropertiesQuery()
+                && (!getSession().isHistoricalSession()) && (!shouldCacheQueryResults());
         DatabaseQuery cachedQuery = null;
         if (isCacheable) {
             cachedQuery = this.descriptor.getQueryManager().getCachedExpressionQuery(this);
@@ -3249,6 +3251,9 @@ public void computeBatchReadMappingQueries() {
                 for (int index = 0; index < size; index++) {
                     DatabaseMapping mapping = batchedMappings.get(index);
                     if ((mapping != null) && mapping.isForeignReferenceMapping()) {
+                        if (((ForeignReferenceMapping)mapping).isBatchFetchAdaptive()) {
+                            this.batchFetchPolicy.addAdaptiveMapping(mapping);
+                        }
                         // A nested query must be built to pass to the descriptor that looks like the real query execution would.
                         ReadQuery nestedQuery = ((ForeignReferenceMapping)mapping).prepareNestedBatchQuery(this);
                         // Register the nested query to be used by the mapping for all the objects.
@@ -3412,6 +3417,21 @@ public void setBatchFetchSize(int size) {
         setIsPrepared(false);
     }
 
+    /**
+     * PUBLIC:
+     * Set if IN batch fetching should be adaptive for the query.
+     * This is only relevant for the IN batch fetch type.
+     * Adaptive batch fetching pads the IN list to a small set of sizes to reuse statements,
+     * and reduces the number of keys per query based on the rows previously read per key.
+     *
+     * @see BatchFetchPolicy#setIsAdaptive(boolean)
+     * @see #setBatchFetchSize(int)
+     */
+    public void setBatchFetchAdaptive(boolean isAdaptive) {
+        getBatchFetchPolicy().setIsAdaptive(isAdaptive);
+        setIsPrepared(false);
+    }
+
     /**
      * INTERNAL:
      * Return temporary map of batched objects.
@@ -44,6 +44,10 @@ public class QueryResultsCachePolicy implements Serializable, Cloneable {
     protected boolean invalidateOnChange;
     /** Stores the set of classes that should trigger the query cached results to be invalidated. */
     protected Set<Class> invalidationClasses;
+    /** Allows only the cached results that contain a changed object to be invalidated, instead of all of the query's results. */
+    protected boolean invalidateByPrimaryKey;
+    /** Stores the set of attribute names used in the query's selection criteria and ordering. */
+    protected Set<String> invalidationAttributes;
 
     /**
      * PUBLIC:
@@ -69,12 +73,15 @@ public QueryResultsCachePolicy(CacheInvalidationPolicy policy, int maximumResult
         this.isNullIgnored = false;
         this.invalidateOnChange = true;
         this.invalidationClasses = new HashSet<Class>();
+        this.invalidateByPrimaryKey = false;
+        this.invalidationAttributes = new HashSet<String>();
     }
 
     public QueryResultsCachePolicy clone() {
         try {
             QueryResultsCachePolicy clone = (QueryResultsCachePolicy)super.clone();
             clone.invalidationClasses = new HashSet<Class>();
+            clone.invalidationAttributes = new HashSet<String>();
             return clone;
         } catch (CloneNotSupportedException exception) {
             throw new InternalError(exception.toString());
@@ -136,6 +143,50 @@ public void setInvalidateOnChange(boolean invalidateOnChange) {
         this.invalidateOnChange = invalidateOnChange;
     }
 
+    /**
+     * PUBLIC:
+     * Return if a change should only invalidate the cached results that it affects.
+     * @see #setInvalidateByPrimaryKey(boolean)
+     */
+    public boolean getInvalidateByPrimaryKey() {
+        return invalidateByPrimaryKey;
+    }
+
+    /**
+     * PUBLIC:
+     * Configure if a change should only invalidate the cached results that it affects,
+     * instead of all of the query's cached results.
+     * The primary keys of the objects in each cached result are recorded,
+     * and an update or delete of one of those objects only removes the results that contain it.
+     * An insert, a delete of an object of a joined class, or an update of any attribute used in the
+     * query's selection criteria or ordering can change which objects the query selects,
+     * so still invalidates all of the query's results.
+     * This only applies to expression based object queries that invalidate on change,
+     * other queries invalidate all of their results.
+     * By default this is false.
+     */
+    public void setInvalidateByPrimaryKey(boolean invalidateByPrimaryKey) {
+        this.invalidateByPrimaryKey = invalidateByPrimaryKey;
+    }
+
+    /**
+     * ADVANCED:
+     * Return the set of attribute names used in the query's selection criteria and ordering.
+     * A change to any of these attributes invalidates all of the query's results.
+     */
+    public Set<String> getInvalidationAttributes() {
+        return invalidationAttributes;
+    }
+
+    /**
+     * ADVANCED:
+     * Set the set of attribute names used in the query's selection criteria and ordering.
+     * This is normally computed by the query.
+     */
+    public void setInvalidationAttributes(Set<String> invalidationAttributes) {
+        this.invalidationAttributes = invalidationAttributes;
+    }
+
     /**
      * PUBLIC:
      * Return the type of the cache used for the query results.
@@ -475,7 +475,19 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
             useOptimization = usesResultSetAccessOptimization();
         }
 
-        if (useOptimization) {
+        // PERF: An object evicted from the identity map may be rebuilt from its row in the off-heap tier of the cache.
+        if ((sopObject == null) && !shouldSetRowsForJoins) {
+            row = getRowFromOffHeapCache(session);
+        }
+
+        if (row != null) {
+            this.executionTime = System.currentTimeMillis();
+            if (session.isUnitOfWork()) {
+                result = registerResultInUnitOfWork(row, (UnitOfWorkImpl)session, this.translationRow, true);
+            } else {
+                result = buildObject(row);
+            }
+        } else if (useOptimization) {
             DatabaseCall call = ((DatasourceCallQueryMechanism)this.queryMechanism).selectResultSet();
             this.executionTime = System.currentTimeMillis();
             boolean exceptionOccured = false;
@@ -595,6 +607,57 @@ protected Object executeObjectLevelReadQuery() throws DatabaseException {
         return result;
     }
 
+    /**
+     * INTERNAL:
+     * Return the row of the object from the off-heap tier of the shared cache, or null.
+     * This is only used for a read by primary key that would otherwise access the database
+     * because the object is not in the identity map, and is not used for refreshing, locking,
+     * joining, historical queries, or if the unit of work must read from the database.
+     * @see org.eclipse.persistence.descriptors.CachePolicy#setOffHeapCacheSize(long)
+     */
+    protected AbstractRecord getRowFromOffHeapCache(AbstractSession session) {
+        ClassDescriptor rootDescriptor = this.descriptor;
+        if (rootDescriptor.hasInheritance()) {
+            rootDescriptor = rootDescriptor.getInheritancePolicy().getRootParentDescriptor();
+        }
+        if (rootDescriptor.getCachePolicy().getOffHeapCacheSize() <= 0) {
+            return null;
+        }
+        if (this.shouldRefreshIdentityMapResult || !shouldMaintainCache() || shouldRetrieveBypassCache()
+                || isLockQuery() || hasJoining() || hasAsOfClause() || session.isHistoricalSession()
+                || shouldLoadResultIntoSelectionObject() || this.descriptor.isDescriptorTypeAggregate()) {
+            return null;
+        }
+        Object primaryKey = this.selectionId;
+        if (primaryKey == null) {
+            if (!isExpressionQuery() || (this.selectionObject != null)) {
+                return null;
+            }
+            primaryKey = this.descriptor.getObjectBuilder().extractPrimaryKeyFromExpression(true, getSelectionCriteria(), this.translationRow, session);
+            if (primaryKey == null) {
+                return null;
+            }
+        }
+        if (session.isUnitOfWork()) {
+            UnitOfWorkImpl unitOfWork = (UnitOfWorkImpl)session;
+            if (this.descriptor.shouldIsolateObjectsInUnitOfWork() || unitOfWork.shouldForceReadFromDB(this, primaryKey)
+                    || (unitOfWork.wasTransactionBegunPrematurely() && this.descriptor.shouldIsolateObjectsInUnitOfWorkEarlyTransaction())) {
+                return null;
+            }
+        }
+        AbstractSession parentSession = session.getParentIdentityMapSession(this.descriptor, true, true);
+        boolean isSerializedObject = this.descriptor.hasSerializedObjectPolicy() && shouldUseSerializedObjectPolicy();
+        AbstractRecord row = parentSession.getIdentityMapAccessorInstance().getFromOffHeapCache(primaryKey, this.descriptor, isSerializedObject);
+        if ((row != null) && this.descriptor.hasInheritance()) {
+            // The tier is shared by the inheritance hierarchy, so the row may be of another subclass.
+            Class rowClass = this.descriptor.getInheritancePolicy().classFromRow(row, session);
+            if (!this.descriptor.getJavaClass().isAssignableFrom(rowClass)) {
+                return null;
+            }
+        }
+        return row;
+    }
+
     /**
      * INTERNAL:
      * Execute the query building the objects directly from the database result-set.
@@ -166,6 +166,15 @@ public Vector getGeneratedVector(Accessor accessor, AbstractSession writeSession
         return getDefaultSequence().getGeneratedVector(accessor, writeSession, seqName, size);
     }
 
+    /**
+     * INTERNAL:
+     * Return the last value of a newly-generated range of sequencing values, or null if a range is not supported.
+     * @see Sequence#getGeneratedRange(Accessor, AbstractSession, String, int)
+     */
+    public Number getGeneratedRange(Accessor accessor, AbstractSession writeSession, String seqName, int size) {
+        return getDefaultSequence().getGeneratedRange(accessor, writeSession, seqName, size);
+    }
+
     /**
      * INTERNAL:
      * This method is called when Sequencing object is created.
@@ -120,6 +120,11 @@ public int hashCode() {
         return result;
     }
 
+    @Override
+    protected boolean isRangeSupported() {
+        return getClass() == NativeSequence.class;
+    }
+
     /**
      * INTERNAL:
      */
@@ -111,6 +111,11 @@ public int hashCode() {
         return result;
     }
 
+    @Override
+    protected boolean isRangeSupported() {
+        return getClass() == QuerySequence.class;
+    }
+
     /**
     * PUBLIC:
     */
@@ -265,6 +265,31 @@ public Vector getGeneratedVector(Accessor accessor, AbstractSession writeSession
         return getGeneratedVector(accessor, writeSession, getName(), getPreallocationSize());
     }
 
+    /**
+     * INTERNAL:
+     * Return the last value of a newly-generated range of sequencing values,
+     * the range is the size consecutive values ending with the returned value.
+     * This allows the preallocated values to be held as a range, instead of a Vector of every value.
+     * Return null if the sequence does not generate a consecutive range, in which case getGeneratedVector is used.
+     * Used only in case preallocation is used (shouldUsePreallocation()==true).
+     * @param accessor Accessor is a separate sequencing accessor (may be null);
+     * @param writeSession Session is a Session used for writing (either ClientSession or DatabaseSession);
+     * @param seqName String is sequencing number field name
+     * @param size int number of values to preallocate (range size).
+     */
+    public Number getGeneratedRange(Accessor accessor, AbstractSession writeSession, String seqName, int size) {
+        return null;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the last value of a newly-generated range of sequencing values, or null if a range is not supported.
+     * @see #getGeneratedRange(Accessor, AbstractSession, String, int)
+     */
+    public Number getGeneratedRange(Accessor accessor, AbstractSession writeSession) {
+        return getGeneratedRange(accessor, writeSession, getName(), getPreallocationSize());
+    }
+
     /**
      * INTERNAL:
      * This method is called when Sequencing object is created.
@@ -182,6 +182,23 @@ public interface SequencingControl {
      */
     void setInitialPoolSize(int size);
 
+    /**
+     * ADVANCED:
+     * Return the prefetch threshold, as a percentage of the sequence preallocation size.
+     * @see #setPrefetchThreshold(int)
+     */
+    int getPrefetchThreshold();
+
+    /**
+     * ADVANCED:
+     * Set the prefetch threshold, as a percentage of the sequence preallocation size.
+     * When fewer preallocated values remain than the threshold, the next values are allocated in the background,
+     * so threads do not wait while the values are allocated.
+     * This is only used by a ServerSession, for sequences using a separate connection, or native sequences.
+     * By default this is 0, values are allocated when they run out.
+     */
+    void setPrefetchThreshold(int prefetchThreshold);
+
     /**
      * ADVANCED:
      * Removes all preallocated sequencing objects.
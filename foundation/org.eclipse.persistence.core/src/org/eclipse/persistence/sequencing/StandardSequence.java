@@ -78,6 +78,39 @@ public Vector getGeneratedVector(Accessor accessor, AbstractSession writeSession
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return the last value of a newly-generated range of sequencing values,
+     * given sequence = 10, size = 5 the range is (6,7,8,9,10).
+     * Return null if a subclass overrides how the values are generated.
+     */
+    public Number getGeneratedRange(Accessor accessor, AbstractSession writeSession, String seqName, int size) {
+        if (!shouldUsePreallocation() || !isRangeSupported()) {
+            return null;
+        }
+        Number value = updateAndSelectSequence(accessor, writeSession, seqName, size);
+        if (value == null) {
+            throw DatabaseException.errorPreallocatingSequenceNumbers();
+        }
+        // Check for incorrect values return to validate that the sequence is setup correctly.
+        if ((value.longValue() - size) < -1L) {
+            throw ValidationException.sequenceSetupIncorrectly(seqName);
+        }
+        return value;
+    }
+
+    /**
+     * INTERNAL:
+     * Return if the generated values are consecutive, as created by createVector,
+     * so the preallocated values can be held as a range.
+     * By default false, the sequences generating consecutive values return true for their own class only,
+     * so a subclass overriding getGeneratedVector or createVector still has its values generated as a Vector.
+     * A subclass generating consecutive values can override this method to return true.
+     */
+    protected boolean isRangeSupported() {
+        return false;
+    }
+
     /**
      * INTERNAL:
      * given sequence = 10, size = 5 will create Vector (6,7,8,9,10)
@@ -135,6 +135,11 @@ public int hashCode() {
         return result;
     }
 
+    @Override
+    protected boolean isRangeSupported() {
+        return getClass() == TableSequence.class;
+    }
+
     public String getCounterFieldName() {
         return counterFieldName;
     }
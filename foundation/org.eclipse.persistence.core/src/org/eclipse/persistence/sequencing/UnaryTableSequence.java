@@ -87,6 +87,11 @@ public int hashCode() {
         return result;
     }
 
+    @Override
+    protected boolean isRangeSupported() {
+        return getClass() == UnaryTableSequence.class;
+    }
+
     public void setCounterFieldName(String name) {
         this.counterFieldName = name;
     }
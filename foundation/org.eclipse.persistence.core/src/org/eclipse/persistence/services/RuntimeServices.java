@@ -42,6 +42,7 @@
 import org.eclipse.persistence.internal.helper.ClassConstants;
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.identitymaps.CacheIdentityMap;
+import org.eclipse.persistence.internal.identitymaps.ClockCacheIdentityMap;
 import org.eclipse.persistence.internal.identitymaps.CacheKey;
 import org.eclipse.persistence.internal.identitymaps.FullIdentityMap;
 import org.eclipse.persistence.internal.identitymaps.HardCacheWeakIdentityMap;
@@ -848,6 +849,8 @@ public Vector getMappedClassNamesUsingFilter(String filter) {
      protected String getCacheTypeFor(Class identityMapClass) {
          if (identityMapClass == CacheIdentityMap.class) {
              return "Cache";
+         } else if (identityMapClass == ClockCacheIdentityMap.class) {
+             return "Clock";
          } else if (identityMapClass == FullIdentityMap.class) {
              return "Full";
          } else if (identityMapClass == HardCacheWeakIdentityMap.class) {
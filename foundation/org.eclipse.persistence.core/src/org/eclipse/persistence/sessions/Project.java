@@ -127,6 +127,9 @@ public class Project extends CoreProject<ClassDescriptor, Login, DatabaseSession
     /** Default value for query caching options for all named queries. */
     protected QueryResultsCachePolicy defaultQueryResultsCachePolicy;
 
+    /** Maximum number of result objects held across all query results caches, 0 means no limit. */
+    protected int queryResultsCacheMaxSize;
+
     /** Default value for ClassDescriptor.idValidation. */
     protected IdValidation defaultIdValidation;
 
@@ -236,6 +239,27 @@ public void setDefaultQueryResultsCachePolicy(QueryResultsCachePolicy defaultQue
         this.defaultQueryResultsCachePolicy = defaultQueryResultsCachePolicy;
     }
 
+    /**
+     * PUBLIC:
+     * Return the maximum number of result objects held across all query results caches.
+     * @see #setQueryResultsCacheMaxSize(int)
+     */
+    public int getQueryResultsCacheMaxSize() {
+        return queryResultsCacheMaxSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the maximum number of result objects held across all query results caches.
+     * Each cached result counts as the number of objects or rows it contains.
+     * When the size is exceeded the least recently used results of any query are evicted,
+     * instead of relying only on each query's maximum number of cached results.
+     * By default this is 0, which means no limit.
+     */
+    public void setQueryResultsCacheMaxSize(int queryResultsCacheMaxSize) {
+        this.queryResultsCacheMaxSize = queryResultsCacheMaxSize;
+    }
+
     /**
      * PUBLIC:
      * Return the default setting for configuring if dates and calendars are mutable.
@@ -1118,6 +1142,19 @@ public void useCacheIdentityMap() {
         }
     }
 
+    /**
+     * PUBLIC:
+     * Switch all descriptors to use the clock cache identity map with the cache size.
+     */
+    public void useClockCacheIdentityMap(int cacheSize) {
+        Iterator descriptors = getDescriptors().values().iterator();
+        while (descriptors.hasNext()) {
+            ClassDescriptor descriptor = (ClassDescriptor)descriptors.next();
+            descriptor.useClockCacheIdentityMap();
+            descriptor.setIdentityMapSize(cacheSize);
+        }
+    }
+
     /**
      * PUBLIC:
      * Switch all descriptors to use the cache identity map the size.
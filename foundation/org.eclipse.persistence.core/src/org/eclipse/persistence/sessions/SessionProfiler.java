@@ -43,9 +43,15 @@ public interface SessionProfiler {
     public static final String OptimisticLockException = "Counter:OptimisticLocks";
     public static final String RcmReceived = "Counter:MessagesReceived";
     public static final String RcmSent = "Counter:MessagesSent";
+    public static final String RcmBatched = "Counter:MessagesBatched";
+    public static final String RcmCoalesced = "Counter:ChangeSetsCoalesced";
     public static final String RemoteChangeSet = "Counter:RemoteChangeSets";
     public static final String Connects = "Counter:ConnectCalls";
     public static final String Disconnects = "Counter:DisconnectCalls";
+    public static final String ConnectionPoolWaits = "Counter:ConnectionPoolWaits";
+    public static final String StatementCacheHits = "Counter:StatementCacheHits";
+    public static final String StatementCacheMisses = "Counter:StatementCacheMisses";
+    public static final String StatementCacheEvictions = "Counter:StatementCacheEvictions";
     public static final String CacheHits = "Counter:CacheHits";
     public static final String CacheMisses = "Counter:CacheMisses";
     public static final String ChangeSetsProcessed = "Counter:ChangesProcessed";
@@ -56,6 +56,13 @@ public void executeWithSession(AbstractSession session) {
         MergeManager manager = new MergeManager(session);
         manager.mergeIntoDistributedCache();
         manager.setCascadePolicy(MergeManager.CASCADE_ALL_PARTS);
+        CommandManager commandManager = session.getCommandManager();
+        if ((commandManager instanceof RemoteCommandManager) && (((RemoteCommandManager)commandManager).getParallelMergeThreshold() > 0)) {
+            RemoteCommandManager remoteCommandManager = (RemoteCommandManager)commandManager;
+            manager.setParallelMergeThreshold(remoteCommandManager.getParallelMergeThreshold());
+            manager.setParallelMergeThreads(remoteCommandManager.getParallelMergeThreads());
+            manager.setParallelMergePlatform(remoteCommandManager.getServerPlatform());
+        }
 
         // Do the main merge
         manager.mergeChangesFromChangeSet(getChangeSet(session));
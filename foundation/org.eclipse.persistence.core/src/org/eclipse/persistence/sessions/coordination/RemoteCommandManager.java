@@ -15,6 +15,7 @@
 import org.eclipse.persistence.exceptions.RemoteCommandManagerException;
 import org.eclipse.persistence.internal.sessions.coordination.RemoteConnection;
 import org.eclipse.persistence.internal.sessions.coordination.RCMCommand;
+import org.eclipse.persistence.internal.sessions.coordination.CommandBatcher;
 import org.eclipse.persistence.internal.sessions.coordination.CommandPropagator;
 import org.eclipse.persistence.sessions.coordination.rmi.RMITransportManager;
 import org.eclipse.persistence.sessions.serializers.JavaSerializer;
@@ -71,6 +72,7 @@
 public class RemoteCommandManager implements org.eclipse.persistence.sessions.coordination.CommandManager {
     public static final String DEFAULT_CHANNEL = "EclipseLinkCommandChannel";
     public static final boolean DEFAULT_ASYNCHRONOUS_MODE = true;
+    public static final int DEFAULT_COMMAND_BATCH_SIZE = 100;
 
     /** Uniquely identifies this service in the cluster */
     protected ServiceId serviceId;
@@ -99,6 +101,21 @@ public class RemoteCommandManager implements org.eclipse.persistence.sessions.co
     /** Set the Serializer to use for serialization of commands. */
     protected Serializer serializer;
 
+    /** The time in milliseconds merge commands are buffered to be sent as one batch, 0 (default) sends each command. */
+    protected long commandBatchWindow;
+
+    /** The maximum number of merge commands in a batch. */
+    protected int commandBatchSize = DEFAULT_COMMAND_BATCH_SIZE;
+
+    /** Batches the merge commands if a batch window is set. */
+    protected CommandBatcher commandBatcher;
+
+    /** The number of object changes a received change set must have to be merged in parallel, 0 (default) never merges in parallel. */
+    protected int parallelMergeThreshold;
+
+    /** The maximum number of threads that merge a large received change set in parallel, the number of processors by default. */
+    protected int parallelMergeThreads = Runtime.getRuntime().availableProcessors();
+
     //** Indicates whether RCM is active. In case there's discoveryManager it mirrors discoveryManager.isDiscoveryStopped()
     protected boolean isStopped = true;
 
@@ -158,6 +175,9 @@ public void initialize() {
         if (serializer != null) {
             serializer.initialize(UnitOfWorkChangeSet.class, null, (AbstractSession)getCommandProcessor());
         }
+        if (this.commandBatchWindow > 0) {
+            this.commandBatcher = new CommandBatcher(this, this.commandBatchWindow, this.commandBatchSize);
+        }
     }
 
     /**
@@ -188,6 +208,10 @@ public void shutdown() {
             newDmgr.shallowCopy(discoveryManager);
             discoveryManager = newDmgr;
         }
+        // Send any batched commands before disconnecting, and end the batch window.
+        if (this.commandBatcher != null) {
+            this.commandBatcher.shutdown();
+        }
         isStopped = true;
         transportManager.discardConnections();
     }
@@ -201,7 +225,6 @@ public void shutdown() {
      */
     public void propagateCommand(Object command) {
         Command newCommand;
-        CommandPropagator propagator;
 
         this.commandProcessor.startOperationProfile(SessionProfiler.CacheCoordination);
         try {
@@ -224,31 +247,48 @@ public void propagateCommand(Object command) {
             // Set our service id on the command to indicate that it came from us
             newCommand.setServiceId(getServiceId());
 
-            // PERF: Support plugable serialization.
-            Serializer serializer = getSerializer();
-            byte[] commandBytes = null;
-            if (serializer != null) {
-                this.commandProcessor.startOperationProfile(SessionProfiler.CacheCoordinationSerialize);
-                try {
-                    commandBytes = (byte[])serializer.serialize(command, (AbstractSession)getCommandProcessor());
-                } finally {
-                    this.commandProcessor.endOperationProfile(SessionProfiler.CacheCoordinationSerialize);
+            // PERF: Batch merge commands, any batch is sent first to keep the commands in order.
+            if (this.commandBatcher != null) {
+                if ((newCommand == command) && (command instanceof MergeChangeSetCommand)) {
+                    this.commandBatcher.addCommand((MergeChangeSetCommand)command);
+                    return;
                 }
+                this.commandBatcher.flush();
             }
-
-            // Propagate the command (synchronously or asynchronously)
-            propagator = new CommandPropagator(this, newCommand, commandBytes);
-
-            if (shouldPropagateAsynchronously()) {
-                propagator.asynchronousPropagateCommand();
-            } else {
-                propagator.synchronousPropagateCommand();
-            }
+            propagateCommand(command, newCommand);
         } finally {
             this.commandProcessor.endOperationProfile(SessionProfiler.CacheCoordination);
         }
     }
 
+    /**
+     * INTERNAL:
+     * Serialize the command and propagate it (synchronously or asynchronously).
+     * The command is the object being propagated and the new command its EclipseLink command.
+     */
+    public void propagateCommand(Object command, Command newCommand) {
+        // PERF: Support plugable serialization.
+        Serializer serializer = getSerializer();
+        byte[] commandBytes = null;
+        if (serializer != null) {
+            this.commandProcessor.startOperationProfile(SessionProfiler.CacheCoordinationSerialize);
+            try {
+                commandBytes = (byte[])serializer.serialize(command, (AbstractSession)getCommandProcessor());
+            } finally {
+                this.commandProcessor.endOperationProfile(SessionProfiler.CacheCoordinationSerialize);
+            }
+        }
+
+        // Propagate the command (synchronously or asynchronously)
+        CommandPropagator propagator = new CommandPropagator(this, newCommand, commandBytes);
+
+        if (shouldPropagateAsynchronously()) {
+            propagator.asynchronousPropagateCommand();
+        } else {
+            propagator.synchronousPropagateCommand();
+        }
+    }
+
     /**
      * INTERNAL:
      * Deserialize the command and execute it.
@@ -582,4 +622,96 @@ public Serializer getSerializer() {
     public void setSerializer(Serializer serializer) {
         this.serializer = serializer;
     }
+
+    /**
+     * PUBLIC:
+     * Return the time in milliseconds merge commands are buffered to be sent as one batch.
+     * @see #setCommandBatchWindow(long)
+     */
+    public long getCommandBatchWindow() {
+        return commandBatchWindow;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the time in milliseconds merge commands are buffered to be sent as one batch.
+     * The change sets of the commands in the window are coalesced into one change set,
+     * so the changes to the same object only send its latest state, and sent as one command.
+     * This reduces the number of messages when there are many small commits, but delays the propagation
+     * of the changes by up to the window.
+     * By default this is 0, each command is sent when propagated.
+     * This must be set before the command manager is initialized.
+     */
+    public void setCommandBatchWindow(long commandBatchWindow) {
+        this.commandBatchWindow = commandBatchWindow;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum number of merge commands in a batch.
+     * @see #setCommandBatchSize(int)
+     */
+    public int getCommandBatchSize() {
+        return commandBatchSize;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the maximum number of merge commands in a batch, the batch is sent when full even if the window has not expired.
+     * By default this is 100, it is only used if a batch window is set.
+     */
+    public void setCommandBatchSize(int commandBatchSize) {
+        this.commandBatchSize = commandBatchSize;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the batcher of merge commands, this provides the batch size and propagation lag statistics.
+     * This is null unless a batch window is set.
+     */
+    public CommandBatcher getCommandBatcher() {
+        return commandBatcher;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of object changes a received change set must have to be merged in parallel.
+     * @see #setParallelMergeThreshold(int)
+     */
+    public int getParallelMergeThreshold() {
+        return parallelMergeThreshold;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the number of object changes a received change set must have to be merged into the cache in parallel.
+     * The change sets of independent objects are partitioned and merged by the server platform's container threads,
+     * this reduces the time a large commit from another server takes to merge, and holds its cache locks.
+     * Smaller change sets are merged on the receiving thread.
+     * By default this is 0, change sets are never merged in parallel.
+     * @see #setParallelMergeThreads(int)
+     */
+    public void setParallelMergeThreshold(int parallelMergeThreshold) {
+        this.parallelMergeThreshold = parallelMergeThreshold;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the maximum number of threads that merge a large received change set in parallel.
+     * @see #setParallelMergeThreads(int)
+     */
+    public int getParallelMergeThreads() {
+        return parallelMergeThreads;
+    }
+
+    /**
+     * PUBLIC:
+     * Set the maximum number of threads that merge a large received change set in parallel,
+     * including the receiving thread, by default the number of processors.
+     * The other threads are launched through the server platform, so use the container's threads or its thread pool.
+     * @see #setParallelMergeThreshold(int)
+     */
+    public void setParallelMergeThreads(int parallelMergeThreads) {
+        this.parallelMergeThreads = parallelMergeThreads;
+    }
 }
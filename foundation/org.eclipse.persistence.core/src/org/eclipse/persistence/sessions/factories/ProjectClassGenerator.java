@@ -256,6 +256,8 @@ protected void addDescriptorPropertyLines(NonreflectiveMethodDefinition method,
                 method.addLine("descriptor.useFullIdentityMap();");
             } else if (descriptor.shouldUseCacheIdentityMap()) {
                 method.addLine("descriptor.useCacheIdentityMap();");
+            } else if (descriptor.shouldUseClockCacheIdentityMap()) {
+                method.addLine("descriptor.useClockCacheIdentityMap();");
             } else if (descriptor.shouldUseSoftCacheWeakIdentityMap()) {
                 method.addLine("descriptor.useSoftCacheWeakIdentityMap();");
             } else if (descriptor.shouldUseHardCacheWeakIdentityMap()) {
@@ -199,6 +199,13 @@ public void releaseReadLock() {
             wrappedKey.releaseReadLock();
         }
 
+        /**
+         * Wait until the lock on the cache key object is released.
+         */
+        public void waitUntilReleased(long timeout) throws InterruptedException {
+            wrappedKey.waitUntilReleased(timeout);
+        }
+
         /**
          * Removes this cacheKey from the owning map
          */
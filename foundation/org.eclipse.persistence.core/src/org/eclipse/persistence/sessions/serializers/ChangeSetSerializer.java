@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.serializers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.internal.sessions.ChangeSetInputStream;
+import org.eclipse.persistence.internal.sessions.ChangeSetOutputStream;
+import org.eclipse.persistence.mappings.DatabaseMapping;
+import org.eclipse.persistence.sessions.Session;
+import org.eclipse.persistence.sessions.coordination.MergeChangeSetCommand;
+import org.eclipse.persistence.sessions.coordination.ServiceId;
+
+/**
+ * Compact binary serialization of cache coordination change sets.
+ * <p>
+ * MergeChangeSetCommands are written using the index of each descriptor and mapping instead of
+ * class and attribute names, with compact primary keys and versions, see ChangeSetOutputStream.
+ * Other commands, and change sets with change records that are not supported
+ * (i.e. ordered or map collections) use Java serialization.
+ * <p>
+ * All nodes must use the same project, the descriptor and mapping indexes are validated
+ * by a signature of the project's classes and attributes.
+ * The serializer is bound to the descriptors of the session it is initialized with.
+ *
+ * @see JavaSerializer
+ * @see org.eclipse.persistence.sessions.coordination.RemoteCommandManager#setSerializer(Serializer)
+ */
+public class ChangeSetSerializer extends AbstractSerializer {
+    /** Formats. */
+    protected static final int JAVA = 0;
+    protected static final int CHANGE_SET = 1;
+
+    /** The descriptors ordered by class name, the index is the class id. */
+    protected transient List<ClassDescriptor> descriptors;
+    protected transient Map<Class, Integer> classIds;
+    /** Hash of the descriptor classes and attributes, to ensure the nodes have the same indexes. */
+    protected transient int signature;
+
+    /**
+     * Build the class ids for the session's descriptors.
+     */
+    @Override
+    public void initialize(Class serializeClass, String serializePackage, Session session) {
+        List<ClassDescriptor> descriptors = new ArrayList<ClassDescriptor>(session.getDescriptors().values());
+        Collections.sort(descriptors, new Comparator<ClassDescriptor>() {
+            public int compare(ClassDescriptor left, ClassDescriptor right) {
+                return left.getJavaClassName().compareTo(right.getJavaClassName());
+            }
+        });
+        Map<Class, Integer> classIds = new HashMap<Class, Integer>(descriptors.size());
+        int signature = 1;
+        for (int index = 0; index < descriptors.size(); index++) {
+            ClassDescriptor descriptor = descriptors.get(index);
+            classIds.put(descriptor.getJavaClass(), index);
+            signature = (31 * signature) + descriptor.getJavaClassName().hashCode();
+            for (DatabaseMapping mapping : descriptor.getMappings()) {
+                signature = (31 * signature) + mapping.getAttributeName().hashCode();
+            }
+        }
+        this.classIds = classIds;
+        this.signature = signature;
+        this.descriptors = descriptors;
+    }
+
+    @Override
+    public Object serialize(Object object, Session session) {
+        if (object instanceof MergeChangeSetCommand) {
+            if (this.descriptors == null) {
+                initialize(null, null, session);
+            }
+            MergeChangeSetCommand command = (MergeChangeSetCommand)object;
+            ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+            try {
+                ChangeSetOutputStream out = new ChangeSetOutputStream(byteOut, this.descriptors, this.classIds);
+                out.write(CHANGE_SET);
+                out.writeInt(this.signature);
+                ServiceId serviceId = command.getServiceId();
+                out.writeBoolean(serviceId != null);
+                if (serviceId != null) {
+                    out.writeString(serviceId.getChannel());
+                    out.writeString(serviceId.getId());
+                    out.writeString(serviceId.getURL());
+                }
+                out.writeChangeSet(command.getChangeSet((AbstractSession)session));
+                out.flush();
+                return byteOut.toByteArray();
+            } catch (NotSerializableException unsupported) {
+                // Fall through to Java serialization.
+            } catch (IOException exception) {
+                throw new RuntimeException(exception);
+            }
+        }
+        byte[] bytes = (byte[])JavaSerializer.instance.serialize(object, session);
+        byte[] formatBytes = new byte[bytes.length + 1];
+        formatBytes[0] = JAVA;
+        System.arraycopy(bytes, 0, formatBytes, 1, bytes.length);
+        return formatBytes;
+    }
+
+    @Override
+    public Object deserialize(Object bytes, Session session) {
+        byte[] formatBytes = (byte[])bytes;
+        if (formatBytes[0] == JAVA) {
+            byte[] javaBytes = new byte[formatBytes.length - 1];
+            System.arraycopy(formatBytes, 1, javaBytes, 0, javaBytes.length);
+            return JavaSerializer.instance.deserialize(javaBytes, session);
+        }
+        if (this.descriptors == null) {
+            initialize(null, null, session);
+        }
+        ChangeSetInputStream in = new ChangeSetInputStream(new ByteArrayInputStream(formatBytes, 1, formatBytes.length - 1), this.descriptors, (AbstractSession)session);
+        try {
+            if (in.readInt() != this.signature) {
+                throw new StreamCorruptedException("The change set was serialized with a different project.");
+            }
+            MergeChangeSetCommand command = new MergeChangeSetCommand();
+            if (in.readBoolean()) {
+                command.setServiceId(new ServiceId(in.readString(), in.readString(), in.readString()));
+            }
+            command.setChangeSet(in.readChangeSet());
+            return command;
+        } catch (IOException | ClassNotFoundException exception) {
+            throw new RuntimeException(exception);
+        }
+    }
+}
@@ -0,0 +1,593 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.sessions.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.eclipse.persistence.exceptions.ConcurrencyException;
+import org.eclipse.persistence.exceptions.DatabaseException;
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Login;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * <p>
+ * <b>Purpose</b>: A connection pool for high concurrency, that does not synchronize on the pool.
+ * <p>
+ * Idle connections are kept in a lock-free stack, so the most recently released ("hot") connection is reused first.
+ * New connections are built while the number of connections is below the maximum, reserved through a compare and set.
+ * Once the pool is exhausted, clients queue in FIFO order, and a released connection is handed off directly
+ * to the longest waiting client, instead of waking all waiters to compete for it.
+ * <p>
+ * Unlike the ConnectionPool, a client that waits longer than the wait timeout gets a ConcurrencyException.
+ * <p>
+ * <b>Responsibilities</b>:
+ * <ul>
+ * <li> Acquire and release connections without a monitor.
+ * <li> Serve waiting clients in the order they started waiting.
+ * <li> Record the acquire latency, the number of waits and timeouts, and the saturation of the pool.
+ * </ul>
+ * The pool can be used for the read or write connection pools of a ServerSession,
+ * or configured through the "eclipselink.connection-pool.[pool].concurrent" persistence unit property.
+ * @see ServerSession#addConnectionPool(ConnectionPool)
+ * @see ServerSession#setReadConnectionPool(ConnectionPool)
+ */
+public class ConcurrentConnectionPool extends ConnectionPool {
+
+    /** Set by a waiter that gave up waiting, so no connection is handed off to it. */
+    protected static final Object CANCELLED = new Object();
+
+    /** Handed off to a waiter when a connection was disconnected, so the waiter can build a new one. */
+    protected static final Object RETRY = new Object();
+
+    /** Idle connections, the head is the most recently released. */
+    protected ConcurrentLinkedDeque<Accessor> idleConnections;
+
+    /** Connections allocated to clients. */
+    protected Set<Accessor> usedConnections;
+
+    /** Clients waiting for a connection, in the order they started waiting. */
+    protected Queue<Waiter> waiters;
+
+    /** The number of connections connected or being connected, never more than the maximum. */
+    protected AtomicInteger numberOfConnections;
+
+    protected LongAdder acquireCount;
+    protected LongAdder acquireTime;
+    protected AtomicLong maxAcquireTime;
+    protected LongAdder waitCount;
+    protected LongAdder timeoutCount;
+
+    /**
+     * PUBLIC:
+     * A connection pool is used to specify how connection should be pooled in a server session.
+     */
+    public ConcurrentConnectionPool() {
+        super();
+    }
+
+    /**
+     * PUBLIC:
+     * A connection pool is used to specify how connection should be pooled in a server session.
+     */
+    public ConcurrentConnectionPool(String name, Login login, ServerSession owner) {
+        super(name, login, owner);
+    }
+
+    /**
+     * PUBLIC:
+     * A connection pool is used to specify how connection should be pooled in a server session.
+     */
+    public ConcurrentConnectionPool(String name, Login login, int minNumberOfConnections, int maxNumberOfConnections, ServerSession owner) {
+        super(name, login, minNumberOfConnections, maxNumberOfConnections, owner);
+    }
+
+    /**
+     * PUBLIC:
+     * A connection pool is used to specify how connection should be pooled in a server session.
+     */
+    public ConcurrentConnectionPool(String name, Login login, int initialNumberOfConnections, int minNumberOfConnections, int maxNumberOfConnections, ServerSession owner) {
+        super(name, login, initialNumberOfConnections, minNumberOfConnections, maxNumberOfConnections, owner);
+    }
+
+    /**
+     * INTERNAL:
+     * Wait until a connection is available and allocate the connection for the client.
+     * Throw a ConcurrencyException if the wait timeout is exceeded.
+     */
+    @Override
+    public Accessor acquireConnection() throws ConcurrencyException {
+        // Check for dead database and fail-over.
+        if (this.isDead) {
+            return failover();
+        }
+        long start = System.nanoTime();
+        boolean hasWaited = false;
+        Accessor connection = null;
+        while (connection == null) {
+            connection = pollIdleConnection();
+            if (connection != null) {
+                break;
+            }
+            if (reserveConnection()) {
+                try {
+                    connection = buildConnection();
+                } catch (RuntimeException failed) {
+                    releaseReservedConnection();
+                    if (!this.failoverConnectionPools.isEmpty()) {
+                        this.isDead = true;
+                        this.timeOfDeath = System.currentTimeMillis();
+                        this.owner.logThrowable(SessionLog.WARNING, SessionLog.SQL, failed);
+                        return acquireConnection();
+                    } else {
+                        throw failed;
+                    }
+                }
+            } else {
+                if (!hasWaited) {
+                    hasWaited = true;
+                    this.waitCount.increment();
+                    if (this.owner.isInProfile()) {
+                        this.owner.incrementProfile(SessionProfiler.ConnectionPoolWaits);
+                    }
+                }
+                // Null if a connection was disconnected, so try again to build one.
+                connection = waitForConnection(start);
+            }
+        }
+        this.usedConnections.add(connection);
+        long time = System.nanoTime() - start;
+        this.acquireCount.increment();
+        this.acquireTime.add(time);
+        long maxTime = this.maxAcquireTime.get();
+        while ((time > maxTime) && !this.maxAcquireTime.compareAndSet(maxTime, time)) {
+            maxTime = this.maxAcquireTime.get();
+        }
+        if (this.owner.isInProfile()) {
+            this.owner.updateProfile(MONITOR_HEADER + this.name, Integer.valueOf(this.usedConnections.size()));
+        }
+        if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
+            Object[] args = new Object[1];
+            args[0] = this.name;
+            this.owner.log(SessionLog.FINEST, SessionLog.CONNECTION, "acquire_connection", args, connection);
+        }
+        return connection;
+    }
+
+    /**
+     * INTERNAL:
+     * Remove the most recently released idle connection, or return null if there is none.
+     * If a connection failed, check the idle connections and disconnect the ones that also failed.
+     */
+    protected Accessor pollIdleConnection() {
+        Accessor connection = this.idleConnections.pollFirst();
+        while ((connection != null) && this.checkConnections) {
+            // EclipseLink has encountered a problem with a connection where the database no longer responded
+            // We need to now ensure that the failure was specific to that connection or we need to empty
+            // the pool of dead connections in the case of a database failover.
+            if (!(this.owner.getLogin().isConnectionHealthValidatedOnError() && this.owner.getServerPlatform().wasFailureCommunicationBased(null, connection, this.owner))) {
+                //connection was good use it.  And make sure we stop testing connections
+                this.checkConnections = false;
+                break;
+            }
+            try {
+                //connection failed connect test
+                connection.closeConnection();
+            } catch (Exception ex){
+                //ignore
+            } finally {
+                connection.releaseCustomizer();
+            }
+            this.numberOfConnections.decrementAndGet();
+            connection = this.idleConnections.pollFirst();
+            if (connection == null) {
+                //we have emptied out all connections so let's have the connection pool build more
+                this.checkConnections = false;
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * INTERNAL:
+     * Reserve a new connection if the pool is below its maximum size.
+     */
+    protected boolean reserveConnection() {
+        int size;
+        do {
+            size = this.numberOfConnections.get();
+            if (size >= this.maxNumberOfConnections) {
+                return false;
+            }
+        } while (!this.numberOfConnections.compareAndSet(size, size + 1));
+        return true;
+    }
+
+    /**
+     * INTERNAL:
+     * A connection was disconnected or failed to connect, let the next waiting client build a new one.
+     */
+    protected void releaseReservedConnection() {
+        this.numberOfConnections.decrementAndGet();
+        handOff(RETRY);
+    }
+
+    /**
+     * INTERNAL:
+     * Queue the current thread until a connection is handed off to it.
+     * Return null if it should try to build a new connection instead.
+     */
+    protected Accessor waitForConnection(long start) throws ConcurrencyException {
+        Waiter waiter = new Waiter(Thread.currentThread());
+        this.waiters.add(waiter);
+        long deadline = start + (this.waitTimeout * 1000000L);
+        boolean isInterrupted = false;
+        try {
+            while (true) {
+                Object handOff = waiter.get();
+                if (handOff == RETRY) {
+                    return null;
+                } else if (handOff != null) {
+                    return (Accessor)handOff;
+                }
+                // A connection may have been released before this thread was queued.
+                Accessor connection = pollIdleConnection();
+                if (connection != null) {
+                    if (cancel(waiter)) {
+                        return connection;
+                    }
+                    // A connection was also handed off.
+                    offerConnection(connection);
+                    continue;
+                }
+                if (this.numberOfConnections.get() < this.maxNumberOfConnections) {
+                    if (cancel(waiter)) {
+                        return null;
+                    }
+                    continue;
+                }
+                if (isInterrupted) {
+                    if (cancel(waiter)) {
+                        throw ConcurrencyException.waitFailureOnClientSession(new InterruptedException());
+                    }
+                    continue;
+                }
+                if (this.waitTimeout > 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        if (cancel(waiter)) {
+                            this.timeoutCount.increment();
+                            throw ConcurrencyException.waitTimeoutOnConnectionPool(this.name, this.waitTimeout);
+                        }
+                        continue;
+                    }
+                    LockSupport.parkNanos(this, remaining);
+                } else {
+                    LockSupport.park(this);
+                }
+                isInterrupted = Thread.interrupted() || isInterrupted;
+            }
+        } finally {
+            if (isInterrupted) {
+                // Keep the interrupt for the client.
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Stop waiting, return false if a connection was already handed off to the waiter.
+     */
+    protected boolean cancel(Waiter waiter) {
+        if (waiter.compareAndSet(null, CANCELLED)) {
+            this.waiters.remove(waiter);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Hand off the connection (or RETRY) to the longest waiting client.
+     * Return false if no client is waiting.
+     */
+    protected boolean handOff(Object connection) {
+        Waiter waiter = this.waiters.poll();
+        while (waiter != null) {
+            if (waiter.compareAndSet(null, connection)) {
+                LockSupport.unpark(waiter.thread);
+                return true;
+            }
+            waiter = this.waiters.poll();
+        }
+        return false;
+    }
+
+    /**
+     * INTERNAL:
+     * Hand off the connection to a waiting client, or make it idle.
+     */
+    protected void offerConnection(Accessor connection) {
+        if (handOff(connection)) {
+            return;
+        }
+        this.idleConnections.offerFirst(connection);
+        // A client may have queued after the hand off was attempted, and before the connection was made idle.
+        while (!this.waiters.isEmpty()) {
+            Accessor idleConnection = this.idleConnections.pollFirst();
+            if (idleConnection == null) {
+                return;
+            }
+            if (!handOff(idleConnection)) {
+                this.idleConnections.offerFirst(idleConnection);
+                return;
+            }
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the connection to the pool, and hand it off to the longest waiting client.
+     */
+    @Override
+    public void releaseConnection(Accessor connection) throws DatabaseException {
+        if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
+            Object[] args = new Object[1];
+            args[0] = this.name;
+            this.owner.log(SessionLog.FINEST, SessionLog.CONNECTION, "release_connection", args, connection);
+        }
+        connection.reset();
+
+        this.usedConnections.remove(connection);
+
+        if (!connection.isValid()) {
+            this.checkConnections = true;
+            try {
+                connection.disconnect(this.owner);
+            } catch (DatabaseException ex) {
+                //this is an invalid connection so expect an exception.
+            } finally {
+                releaseReservedConnection();
+            }
+        } else if (!handOff(connection)) {
+            int size = this.numberOfConnections.get();
+            if ((size > this.minNumberOfConnections) && this.numberOfConnections.compareAndSet(size, size - 1)) {
+                try {
+                    connection.disconnect(this.owner);
+                } finally {
+                    handOff(RETRY);
+                }
+            } else {
+                offerConnection(connection);
+            }
+        }
+        if (this.owner.isInProfile()) {
+            this.owner.updateProfile(MONITOR_HEADER + this.name, Integer.valueOf(this.usedConnections.size()));
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Reset the connections on shutDown and when the pool is started.
+     */
+    @Override
+    public void resetConnections() {
+        this.idleConnections = new ConcurrentLinkedDeque<Accessor>();
+        this.usedConnections = Collections.newSetFromMap(new ConcurrentHashMap<Accessor, Boolean>());
+        this.numberOfConnections = new AtomicInteger();
+        if (this.waiters == null) {
+            this.waiters = new ConcurrentLinkedQueue<Waiter>();
+            resetStatistics();
+        }
+        this.checkConnections = false;
+        this.isDead = false;
+        this.timeOfDeath = 0;
+    }
+
+    /**
+     * PUBLIC:
+     * Reset the acquire and wait statistics.
+     */
+    public void resetStatistics() {
+        this.acquireCount = new LongAdder();
+        this.acquireTime = new LongAdder();
+        this.maxAcquireTime = new AtomicLong();
+        this.waitCount = new LongAdder();
+        this.timeoutCount = new LongAdder();
+    }
+
+    /**
+     * INTERNAL:
+     * Return a copy of the idle connections.
+     */
+    @Override
+    public List<Accessor> getConnectionsAvailable() {
+        return new ArrayList<Accessor>(this.idleConnections);
+    }
+
+    /**
+     * Return a copy of the connections that are being used.
+     */
+    @Override
+    protected List<Accessor> getConnectionsUsed() {
+        return new ArrayList<Accessor>(this.usedConnections);
+    }
+
+    /**
+     * INTERNAL:
+     * Return the total number of connections currently in use.
+     */
+    @Override
+    public int getTotalNumberOfConnections() {
+        return this.numberOfConnections.get();
+    }
+
+    /**
+     * INTERNAL:
+     * Return if an idle connection is available.
+     */
+    @Override
+    public boolean hasConnectionAvailable() {
+        return !this.idleConnections.isEmpty();
+    }
+
+    /**
+     * INTERNAL:
+     * Disconnect all connections.
+     */
+    @Override
+    public void shutDown() {
+        this.lock.lock();
+        try {
+            setIsConnected(false);
+            for (Accessor connection : this.idleConnections) {
+                try {
+                    connection.disconnect(getOwner());
+                } catch (DatabaseException exception) {
+                    // Ignore.
+                }
+            }
+            for (Accessor connection : this.usedConnections) {
+                try {
+                    connection.disconnect(getOwner());
+                } catch (DatabaseException exception) {
+                    // Ignore.
+                }
+            }
+            resetConnections();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Allocate the initial connections.
+     */
+    @Override
+    public void startUp() {
+        this.lock.lock();
+        try {
+            if (isConnected()) {
+                return;
+            }
+            for (int index = getInitialNumberOfConnections(); index > 0; index--) {
+                this.idleConnections.offerLast(buildConnection());
+                this.numberOfConnections.incrementAndGet();
+            }
+            setIsConnected(true);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of connections acquired from the pool.
+     */
+    public long getAcquireCount() {
+        return this.acquireCount.sum();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the average time in milliseconds to acquire a connection,
+     * including the time to build new connections and to wait for released connections.
+     */
+    public double getAverageAcquireTime() {
+        long count = this.acquireCount.sum();
+        if (count == 0) {
+            return 0;
+        }
+        return (this.acquireTime.sum() / (double)count) / 1000000;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the longest time in milliseconds to acquire a connection.
+     */
+    public double getMaxAcquireTime() {
+        return this.maxAcquireTime.get() / (double)1000000;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of acquires that had to wait for a connection to be released,
+     * as the pool had reached its maximum number of connections.
+     */
+    public long getWaitCount() {
+        return this.waitCount.sum();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of acquires that failed as the wait timeout was exceeded.
+     */
+    public long getTimeoutCount() {
+        return this.timeoutCount.sum();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of clients currently waiting for a connection.
+     */
+    public int getNumberOfWaitingClients() {
+        return this.waiters.size();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the number of connections in use by clients.
+     */
+    public int getNumberOfConnectionsUsed() {
+        return this.usedConnections.size();
+    }
+
+    /**
+     * PUBLIC:
+     * Return the saturation of the pool, the percentage of the maximum number of connections in use by clients.
+     * At 100 clients must wait for a connection to be released.
+     */
+    public double getSaturation() {
+        if (this.maxNumberOfConnections <= 0) {
+            return 0;
+        }
+        return (this.usedConnections.size() * 100.0) / this.maxNumberOfConnections;
+    }
+
+    /**
+     * INTERNAL:
+     * A client waiting for a connection, the value is the connection handed off to it.
+     */
+    protected static class Waiter extends AtomicReference<Object> {
+        protected final Thread thread;
+
+        protected Waiter(Thread thread) {
+            this.thread = thread;
+        }
+    }
+}
@@ -13,6 +13,9 @@
 package org.eclipse.persistence.sessions.server;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.persistence.internal.databaseaccess.*;
 import org.eclipse.persistence.sessions.Login;
@@ -24,6 +27,9 @@
 /**
  * <p>
  * <b>Purpose</b>: Used to specify how connection should be pooled in a server session.
+ * <p>
+ * The pool's state is guarded by a ReentrantLock instead of the pool's monitor,
+ * so a client waiting for a connection, or building one, does not pin a virtual thread's carrier.
  * @see ServerSession
  */
 public class ConnectionPool {
@@ -45,6 +51,12 @@ public class ConnectionPool {
     protected volatile boolean isDead;
     protected List<String> failoverConnectionPools;
 
+    /** Guards the connections of the pool. */
+    protected final ReentrantLock lock = new ReentrantLock();
+
+    /** Signaled when a connection is released to the pool. */
+    protected final Condition connectionReleased = this.lock.newCondition();
+
     public static final long DEAD_CHECK_TIME = 1000 * 60 * 10; // 10 minutes.
     public static final int MAX_CONNECTIONS = 32;
     public static final int MIN_CONNECTIONS = 32;
@@ -123,7 +135,21 @@ public Accessor failover() {
      * INTERNAL:
      * Wait until a connection is available and allocate the connection for the client.
      */
-    public synchronized Accessor acquireConnection() throws ConcurrencyException {
+    public Accessor acquireConnection() throws ConcurrencyException {
+        this.lock.lock();
+        try {
+            return basicAcquireConnection();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Wait until a connection is available and allocate the connection for the client.
+     * The caller must hold the pool's lock.
+     */
+    protected Accessor basicAcquireConnection() throws ConcurrencyException {
         // Check for dead database and fail-over.
         if (this.isDead) {
             return failover();
@@ -156,7 +182,12 @@ public synchronized Accessor acquireConnection() throws ConcurrencyException {
                 return connection;
             }
             try {
-                wait(this.waitTimeout);// Notify is called when connections are released.
+                // Signaled when connections are released.
+                if (this.waitTimeout > 0) {
+                    this.connectionReleased.await(this.waitTimeout, TimeUnit.MILLISECONDS);
+                } else {
+                    this.connectionReleased.await();
+                }
             } catch (InterruptedException exception) {
                 throw ConcurrencyException.waitFailureOnClientSession(exception);
             }
@@ -321,7 +352,21 @@ public boolean isThereConflictBetweenLoginAndType() {
      * INTERNAL:
      * Add the connection as single that a new connection is available.
      */
-    public synchronized void releaseConnection(Accessor connection) throws DatabaseException {
+    public void releaseConnection(Accessor connection) throws DatabaseException {
+        this.lock.lock();
+        try {
+            basicReleaseConnection(connection);
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Add the connection as single that a new connection is available.
+     * The caller must hold the pool's lock.
+     */
+    protected void basicReleaseConnection(Accessor connection) throws DatabaseException {
         if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
             Object[] args = new Object[1];
             args[0] = this.name;
@@ -348,7 +393,7 @@ public synchronized void releaseConnection(Accessor connection) throws DatabaseE
         if (this.owner.isInProfile()) {
             this.owner.updateProfile(MONITOR_HEADER + this.name, Integer.valueOf(this.connectionsUsed.size()));
         }
-        notify();
+        this.connectionReleased.signal();
     }
 
     /**
@@ -472,40 +517,50 @@ protected void setOwner(ServerSession owner) {
      * INTERNAL:
      * Disconnect all connections.
      */
-    public synchronized void shutDown() {
-        setIsConnected(false);
+    public void shutDown() {
+        this.lock.lock();
+        try {
+            setIsConnected(false);
 
-        for (Iterator iterator = getConnectionsAvailable().iterator(); iterator.hasNext();) {
-            try {
-                ((Accessor)iterator.next()).disconnect(getOwner());
-            } catch (DatabaseException exception) {
-                // Ignore.
+            for (Iterator iterator = getConnectionsAvailable().iterator(); iterator.hasNext();) {
+                try {
+                    ((Accessor)iterator.next()).disconnect(getOwner());
+                } catch (DatabaseException exception) {
+                    // Ignore.
+                }
             }
-        }
 
-        for (Iterator iterator = getConnectionsUsed().iterator(); iterator.hasNext();) {
-            try {
-                ((Accessor)iterator.next()).disconnect(getOwner());
-            } catch (DatabaseException exception) {
-                // Ignore.
+            for (Iterator iterator = getConnectionsUsed().iterator(); iterator.hasNext();) {
+                try {
+                    ((Accessor)iterator.next()).disconnect(getOwner());
+                } catch (DatabaseException exception) {
+                    // Ignore.
+                }
             }
+            resetConnections();
+        } finally {
+            this.lock.unlock();
         }
-        resetConnections();
     }
 
     /**
      * INTERNAL:
      * Allocate the minimum connections.
      */
-    public synchronized void startUp() {
-        if (isConnected()) {
-            return;
-        }
-        for (int index = getInitialNumberOfConnections(); index > 0; index--) {
-            getConnectionsAvailable().add(buildConnection());
-        }
+    public void startUp() {
+        this.lock.lock();
+        try {
+            if (isConnected()) {
+                return;
+            }
+            for (int index = getInitialNumberOfConnections(); index > 0; index--) {
+                getConnectionsAvailable().add(buildConnection());
+            }
 
-        setIsConnected(true);
+            setIsConnected(true);
+        } finally {
+            this.lock.unlock();
+        }
     }
 
     /**
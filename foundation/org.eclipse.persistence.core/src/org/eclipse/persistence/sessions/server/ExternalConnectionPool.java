@@ -132,7 +132,7 @@ public void setCheckConnections() {
      * INTERNAL:
      * This mehtod is a no-op for external pools.
      */
-    public synchronized void shutDown() {
+    public void shutDown() {
         //do nothing
         setIsConnected(false);
     }
@@ -142,8 +142,13 @@ public synchronized void shutDown() {
      * Build the default connection.
      * This validates that connect will work and sets up the parent accessor to clone.
      */
-    public synchronized void startUp() {
-        setCachedConnection(buildConnection());
-        setIsConnected(true);
+    public void startUp() {
+        this.lock.lock();
+        try {
+            setCachedConnection(buildConnection());
+            setIsConnected(true);
+        } finally {
+            this.lock.unlock();
+        }
     }
 }
@@ -62,7 +62,8 @@ public ReadConnectionPool(String name, Login login, int initialNumberOfConnectio
      * INTERNAL:
      * Wait until a connection is available and allocate the connection for the client.
      */
-    public synchronized Accessor acquireConnection() throws ConcurrencyException {
+    @Override
+    protected Accessor basicAcquireConnection() throws ConcurrencyException {
         // Check for dead database and fail-over.
         if (this.isDead) {
             return failover();
@@ -145,7 +146,8 @@ public boolean hasConnectionAvailable() {
      * INTERNAL:
      * Because connections are not exclusive nothing is required.
      */
-    public synchronized void releaseConnection(Accessor connection) throws DatabaseException {
+    @Override
+    protected void basicReleaseConnection(Accessor connection) throws DatabaseException {
         if (this.owner.shouldLog(SessionLog.FINEST, SessionLog.CONNECTION)) {
             Object[] args = new Object[1];
             args[0] = this.name;
@@ -21,6 +21,8 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.eclipse.persistence.descriptors.ClassDescriptor;
 import org.eclipse.persistence.exceptions.ConcurrencyException;
@@ -76,6 +78,12 @@ public class ServerSession extends DatabaseSessionImpl implements Server {
     protected int numberOfNonPooledConnectionsUsed;
     protected int maxNumberOfNonPooledConnections;
 
+    /** Guards the number of non-pooled connections used, without pinning a waiting virtual thread. */
+    protected final ReentrantLock nonPooledConnectionsLock = new ReentrantLock();
+
+    /** Signaled when a non-pooled connection is released. */
+    protected final Condition nonPooledConnectionReleased = this.nonPooledConnectionsLock.newCondition();
+
     public static final int NO_MAX = -1;
     public static final String DEFAULT_POOL = "default";
     public static final String NOT_POOLED = "not-pooled";
@@ -266,15 +274,18 @@ public void acquireClientConnection(ClientSession clientSession) throws Database
             clientSession.addWriteConnection(pool.getName(), accessor);
         } else {
             if (this.maxNumberOfNonPooledConnections != NO_MAX) {
-                synchronized (this) {
+                this.nonPooledConnectionsLock.lock();
+                try {
                     while (this.numberOfNonPooledConnectionsUsed >= this.maxNumberOfNonPooledConnections) {
                         try {
-                            wait();// Notify is called when connections are released.
+                            this.nonPooledConnectionReleased.await();// Signaled when connections are released.
                         } catch (InterruptedException exception) {
                             throw ConcurrencyException.waitFailureOnServerSession(exception);
                         }
                     }
                     this.numberOfNonPooledConnectionsUsed++;
+                } finally {
+                    this.nonPooledConnectionsLock.unlock();
                 }
             }
             Accessor accessor = clientSession.getLogin().buildAccessor();
@@ -816,10 +827,7 @@ public void releaseInvalidClientSession(ClientSession clientSession) throws Data
                         accessor.closeConnection();
                     }
                     if (this.maxNumberOfNonPooledConnections != NO_MAX) {
-                        synchronized (this) {
-                            this.numberOfNonPooledConnectionsUsed--;
-                            notify();
-                        }
+                        releaseNonPooledConnection();
                     }
                 }
                 accessors.remove();
@@ -858,14 +866,25 @@ public void releaseClientSession(ClientSession clientSession) throws DatabaseExc
             }
             clientSession.setWriteConnections(null);
             if (this.maxNumberOfNonPooledConnections != NO_MAX) {
-                synchronized (this) {
-                    this.numberOfNonPooledConnectionsUsed--;
-                    notify();
-                }
+                releaseNonPooledConnection();
             }
         }
     }
 
+    /**
+     * INTERNAL:
+     * Decrement the number of non-pooled connections used, and signal a waiting client.
+     */
+    protected void releaseNonPooledConnection() {
+        this.nonPooledConnectionsLock.lock();
+        try {
+            this.numberOfNonPooledConnectionsUsed--;
+            this.nonPooledConnectionReleased.signal();
+        } finally {
+            this.nonPooledConnectionsLock.unlock();
+        }
+    }
+
     /**
      * INTERNAL:
      * Release the read connection back into the read pool.
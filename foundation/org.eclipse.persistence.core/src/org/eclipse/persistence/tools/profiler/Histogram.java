@@ -0,0 +1,165 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.tools.profiler;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p><b>Purpose</b>: A lock-free histogram of positive long values (such as nanosecond times)
+ * used to provide the distribution (percentiles) of operation times.
+ * <p>
+ * Values are recorded in log-linear buckets, each power of two is divided into 16 sub-buckets,
+ * so recording is a single atomic increment and the percentiles are accurate within 1/16 (6.25%).
+ * The maximum value is recorded exactly.
+ *
+ * @see HistogramMonitor
+ */
+public class Histogram implements Serializable {
+    /** The number of sub-buckets per power of two is 2^SUB_BUCKET_BITS. */
+    protected static final int SUB_BUCKET_BITS = 4;
+    protected static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    /** Values less than 2 * SUB_BUCKET_COUNT are recorded exactly. */
+    protected static final int LINEAR_BUCKET_COUNT = SUB_BUCKET_COUNT * 2;
+    protected static final int BUCKET_COUNT = LINEAR_BUCKET_COUNT + ((64 - SUB_BUCKET_BITS - 2) * SUB_BUCKET_COUNT);
+
+    protected AtomicLongArray counts;
+    protected LongAdder count;
+    protected LongAdder total;
+    protected AtomicLong max;
+
+    public Histogram() {
+        this.counts = new AtomicLongArray(BUCKET_COUNT);
+        this.count = new LongAdder();
+        this.total = new LongAdder();
+        this.max = new AtomicLong();
+    }
+
+    /**
+     * Record the value, negative values are recorded as 0.
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        this.counts.incrementAndGet(bucketIndex(value));
+        this.count.increment();
+        this.total.add(value);
+        long currentMax = this.max.get();
+        while ((value > currentMax) && !this.max.compareAndSet(currentMax, value)) {
+            currentMax = this.max.get();
+        }
+    }
+
+    /**
+     * Return the index of the bucket the value is recorded in.
+     */
+    protected static int bucketIndex(long value) {
+        if (value < LINEAR_BUCKET_COUNT) {
+            return (int)value;
+        }
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return LINEAR_BUCKET_COUNT + ((shift - 1) * SUB_BUCKET_COUNT) + (int)((value >>> shift) - SUB_BUCKET_COUNT);
+    }
+
+    /**
+     * Return the highest value recorded in the bucket.
+     */
+    protected static long bucketHighestValue(int index) {
+        if (index < LINEAR_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = ((index - LINEAR_BUCKET_COUNT) / SUB_BUCKET_COUNT) + 1;
+        long subBucket = ((index - LINEAR_BUCKET_COUNT) % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Return the number of values recorded.
+     */
+    public long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Return the sum of the values recorded.
+     */
+    public long getTotal() {
+        return this.total.sum();
+    }
+
+    /**
+     * Return the maximum value recorded.
+     */
+    public long getMax() {
+        return this.max.get();
+    }
+
+    /**
+     * Return the mean of the values recorded.
+     */
+    public double getMean() {
+        long count = getCount();
+        if (count == 0) {
+            return 0;
+        }
+        return (double)getTotal() / count;
+    }
+
+    /**
+     * Return the value that the percentage (0 to 100) of values recorded are less than or equal to.
+     * i.e. getPercentile(99) returns the 99th percentile.
+     */
+    public long getPercentile(double percentile) {
+        long[] snapshot = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            snapshot[index] = this.counts.get(index);
+            count = count + snapshot[index];
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long)Math.ceil((Math.min(Math.max(percentile, 0), 100) / 100) * count);
+        if (rank < 1) {
+            rank = 1;
+        }
+        long max = getMax();
+        long cumulative = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            cumulative = cumulative + snapshot[index];
+            if (cumulative >= rank) {
+                return Math.min(bucketHighestValue(index), max);
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Clear the values recorded.
+     */
+    public void reset() {
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            this.counts.set(index, 0);
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.set(0);
+    }
+
+    public String toString() {
+        return "Histogram(count=" + getCount() + ", p50=" + getPercentile(50) + ", p99=" + getPercentile(99) + ", max=" + getMax() + ")";
+    }
+}
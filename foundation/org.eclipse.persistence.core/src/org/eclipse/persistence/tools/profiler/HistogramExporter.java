@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.tools.profiler;
+
+/**
+ * <p><b>Purpose</b>: Allows the operation time histograms of a {@link HistogramMonitor}
+ * to be exported to a monitoring system.
+ * <p>
+ * The exporter is initialized when the session logs in,
+ * export is called after each monitor dump time has passed,
+ * and the exporter is released when the session logs out.
+ *
+ * @see JMXHistogramExporter
+ */
+public interface HistogramExporter {
+
+    /**
+     * Initialize the exporter for the monitor, this is called on login of the monitor's session.
+     */
+    void initialize(HistogramMonitor monitor);
+
+    /**
+     * Export the monitor's current histograms.
+     */
+    void export(HistogramMonitor monitor);
+
+    /**
+     * Release any resource registered for the monitor, this is called on logout of the monitor's session.
+     */
+    void release(HistogramMonitor monitor);
+}
@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.tools.profiler;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.sessions.Record;
+import org.eclipse.persistence.sessions.SessionEvent;
+import org.eclipse.persistence.sessions.SessionEventAdapter;
+import org.eclipse.persistence.sessions.SessionEventListener;
+import org.eclipse.persistence.sessions.SessionProfiler;
+
+/**
+ * <p><b>Purpose</b>: A tool used to provide the distribution of operation times in a server environment.
+ * <p>
+ * Instead of the total time of each operation, the times are recorded in lock-free {@link Histogram}s,
+ * so the percentiles (p50, p99) and maximum time of each operation can be monitored.
+ * Each operation (i.e. SessionProfiler.SqlPrepare, ObjectBuilding, Merge, Commit) is timed in total,
+ * per query ("Timer:&lt;query monitor name&gt;:&lt;operation&gt;")
+ * and per descriptor ("Timer:Descriptor:&lt;class name&gt;:&lt;operation&gt;").
+ * Counters are recorded the same as the PerformanceMonitor.
+ * <p>
+ * The histograms are exported through the registered {@link HistogramExporter}s after the dump time,
+ * or logged if no exporters are registered. The {@link JMXHistogramExporter} registers the monitor
+ * as an MBean.
+ *
+ * @see HistogramMonitorMBean
+ */
+public class HistogramMonitor extends PerformanceMonitor implements HistogramMonitorMBean {
+    protected static final String DESCRIPTOR = "Descriptor:";
+
+    protected Map<String, Histogram> histograms;
+    protected List<HistogramExporter> exporters;
+    transient protected ThreadLocal<Map<String, Long>> operationStartTimes;
+    /** Releases the exporters when the session logs out, added to the session on the first login. */
+    transient protected SessionEventListener logoutListener;
+
+    /**
+     * PUBLIC:
+     * Create a new monitor.
+     * The monitor can be registered with a session to record the distribution of operation times.
+     */
+    public HistogramMonitor() {
+        super();
+        this.histograms = new ConcurrentHashMap<String, Histogram>();
+        this.exporters = new CopyOnWriteArrayList<HistogramExporter>();
+    }
+
+    /**
+     * PUBLIC:
+     * Add the exporter, the histograms will be exported to it after each dump time.
+     */
+    public void addExporter(HistogramExporter exporter) {
+        this.exporters.add(exporter);
+    }
+
+    /**
+     * PUBLIC:
+     * Return the exporters the histograms are exported to.
+     */
+    public List<HistogramExporter> getExporters() {
+        return exporters;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the histograms of the operation times, keyed by operation name.
+     */
+    public Map<String, Histogram> getHistograms() {
+        return histograms;
+    }
+
+    /**
+     * PUBLIC:
+     * Return the histogram of the operation times, or null if the operation was not timed.
+     */
+    public Histogram getHistogram(String operation) {
+        return this.histograms.get(operation);
+    }
+
+    /**
+     * Return the histogram of the operation, creating it if missing.
+     */
+    protected Histogram buildHistogram(String operation) {
+        Histogram histogram = this.histograms.get(operation);
+        if (histogram == null) {
+            histogram = new Histogram();
+            Histogram existing = this.histograms.putIfAbsent(operation, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    /**
+     * INTERNAL:
+     * Record the time of the operation.
+     */
+    public void record(String operation, long time) {
+        buildHistogram(operation).record(time);
+    }
+
+    /**
+     * INTERNAL:
+     * Record the time of the operation, for the query and its descriptor.
+     */
+    protected void record(String operationName, DatabaseQuery query, long time) {
+        record(operationName, time);
+        if (query != null) {
+            String operation = operationName.substring(TIMER.length(), operationName.length());
+            record(TIMER + query.getMonitorName() + ":" + operation, time);
+            String className = query.getReferenceClassName();
+            if (className != null) {
+                record(TIMER + DESCRIPTOR + className + ":" + operation, time);
+            }
+        }
+    }
+
+    /**
+     * The start times are thread local, so do not need to be looked up by thread.
+     */
+    protected Map<String, Long> getOperationStartTimes() {
+        if (this.operationStartTimes == null) {
+            synchronized (this) {
+                if (this.operationStartTimes == null) {
+                    this.operationStartTimes = new ThreadLocal<Map<String, Long>>() {
+                        protected Map<String, Long> initialValue() {
+                            return new HashMap<String, Long>();
+                        }
+                    };
+                }
+            }
+        }
+        return this.operationStartTimes.get();
+    }
+
+    /**
+     * INTERNAL:
+     * Start the operation timing.
+     * The query and descriptor times are recorded from the same start time on end.
+     */
+    public void startOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        if (this.profileWeight < weight) {
+            return;
+        }
+        startOperationProfile(operationName);
+    }
+
+    /**
+     * INTERNAL:
+     * End the operation timing, and record it.
+     */
+    public void endOperationProfile(String operationName) {
+        endOperationProfile(operationName, null, SessionProfiler.HEAVY);
+    }
+
+    /**
+     * INTERNAL:
+     * End the operation timing, and record it for the operation, query and descriptor.
+     */
+    public void endOperationProfile(String operationName, DatabaseQuery query, int weight) {
+        if (this.profileWeight < weight) {
+            return;
+        }
+        long endTime = System.nanoTime();
+        Long startTime = getOperationStartTimes().get(operationName);
+        if (startTime == null) {
+            return;
+        }
+        record(operationName, query, endTime - startTime.longValue());
+    }
+
+    /**
+     * INTERNAL:
+     * Time the query execution, for the query, the query type and its descriptor.
+     */
+    public Object profileExecutionOfQuery(DatabaseQuery query, Record row, AbstractSession session) {
+        if (this.profileWeight < SessionProfiler.HEAVY) {
+            return session.internalExecuteQuery(query, (AbstractRecord)row);
+        }
+        occurred(COUNTER + query.getClass().getSimpleName(), session);
+        occurred(COUNTER + query.getMonitorName(), session);
+        long startTime = System.nanoTime();
+        try {
+            return session.internalExecuteQuery(query, (AbstractRecord)row);
+        } finally {
+            long time = System.nanoTime() - startTime;
+            record(TIMER + query.getMonitorName(), time);
+            record(TIMER + query.getClass().getSimpleName(), time);
+            String className = query.getReferenceClassName();
+            if (className != null) {
+                record(TIMER + DESCRIPTOR + className, time);
+            }
+            checkDumpTime();
+        }
+    }
+
+    /**
+     * Export the histograms to the exporters, or log them if there are no exporters.
+     */
+    public void dumpResults() {
+        this.lastDumpTime = System.currentTimeMillis();
+        if (!this.exporters.isEmpty()) {
+            for (HistogramExporter exporter : this.exporters) {
+                exporter.export(this);
+            }
+            return;
+        }
+        StringWriter writer = new StringWriter();
+        writer.write("\nHistogram Monitor:");
+        writer.write(String.valueOf(this.lastDumpTime));
+        writer.write("\nOperation\tCount\tp50 (ns)\tp99 (ns)\tMax (ns)\n");
+        for (String operation : new TreeSet<String>(this.histograms.keySet())) {
+            Histogram histogram = this.histograms.get(operation);
+            writer.write(operation);
+            writer.write("\t");
+            writer.write(String.valueOf(histogram.getCount()));
+            writer.write("\t");
+            writer.write(String.valueOf(histogram.getPercentile(50)));
+            writer.write("\t");
+            writer.write(String.valueOf(histogram.getPercentile(99)));
+            writer.write("\t");
+            writer.write(String.valueOf(histogram.getMax()));
+            writer.write("\n");
+        }
+        for (String operation : new TreeSet<String>(this.operationTimings.keySet())) {
+            writer.write(operation);
+            writer.write("\t");
+            writer.write(String.valueOf(this.operationTimings.get(operation)));
+            writer.write("\n");
+        }
+        try {
+            this.session.getLog().write(writer.toString());
+            this.session.getLog().flush();
+        } catch (IOException error) {
+            // ignore
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Initialize the exporters on login.
+     */
+    public void initialize() {
+        if ((this.logoutListener == null) && (this.session != null)) {
+            this.logoutListener = new SessionEventAdapter() {
+                @Override
+                public void postLogout(SessionEvent event) {
+                    release();
+                }
+            };
+            this.session.getEventManager().addListener(this.logoutListener);
+        }
+        for (HistogramExporter exporter : this.exporters) {
+            exporter.initialize(this);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Release the exporters on logout.
+     */
+    public void release() {
+        for (HistogramExporter exporter : this.exporters) {
+            exporter.release(this);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Return the listener releasing the exporters on logout of the session.
+     */
+    public SessionEventListener getLogoutListener() {
+        return logoutListener;
+    }
+
+    public String[] getOperations() {
+        Set<String> operations = new TreeSet<String>(this.histograms.keySet());
+        return operations.toArray(new String[operations.size()]);
+    }
+
+    public long getCount(String operation) {
+        Histogram histogram = getHistogram(operation);
+        if (histogram == null) {
+            return 0;
+        }
+        return histogram.getCount();
+    }
+
+    public long getP50(String operation) {
+        return getPercentile(operation, 50);
+    }
+
+    public long getP99(String operation) {
+        return getPercentile(operation, 99);
+    }
+
+    public long getPercentile(String operation, double percentile) {
+        Histogram histogram = getHistogram(operation);
+        if (histogram == null) {
+            return 0;
+        }
+        return histogram.getPercentile(percentile);
+    }
+
+    public long getMax(String operation) {
+        Histogram histogram = getHistogram(operation);
+        if (histogram == null) {
+            return 0;
+        }
+        return histogram.getMax();
+    }
+
+    /**
+     * PUBLIC:
+     * Clear the histograms and counters.
+     */
+    public void reset() {
+        this.histograms.clear();
+        this.operationTimings.clear();
+    }
+}
@@ -0,0 +1,57 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.tools.profiler;
+
+/**
+ * <p><b>Purpose</b>: The JMX interface of a {@link HistogramMonitor}.
+ * Times are in nanoseconds.
+ *
+ * @see JMXHistogramExporter
+ */
+public interface HistogramMonitorMBean {
+
+    /**
+     * Return the names of the operations timed.
+     */
+    String[] getOperations();
+
+    /**
+     * Return the number of times the operation was timed.
+     */
+    long getCount(String operation);
+
+    /**
+     * Return the median time of the operation.
+     */
+    long getP50(String operation);
+
+    /**
+     * Return the 99th percentile time of the operation.
+     */
+    long getP99(String operation);
+
+    /**
+     * Return the percentile (0 to 100) time of the operation.
+     */
+    long getPercentile(String operation, double percentile);
+
+    /**
+     * Return the maximum time of the operation.
+     */
+    long getMax(String operation);
+
+    /**
+     * Clear the times and counters.
+     */
+    void reset();
+}
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.tools.profiler;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+
+import org.eclipse.persistence.logging.SessionLog;
+
+/**
+ * <p><b>Purpose</b>: Registers a {@link HistogramMonitor} as an MBean with the platform MBean server,
+ * so its operation time percentiles can be read by a JMX client.
+ * <p>
+ * The MBean is registered as "org.eclipse.persistence:type=HistogramMonitor,name=&lt;session name&gt;",
+ * an MBean previously registered under the name (i.e. on a re-login) is replaced.
+ * The MBean is unregistered when the session logs out, so the session is not held by the MBean server.
+ *
+ * @see HistogramMonitorMBean
+ */
+public class JMXHistogramExporter implements HistogramExporter {
+    public static final String DOMAIN = "org.eclipse.persistence";
+
+    protected ObjectName objectName;
+
+    /**
+     * Register the monitor's MBean.
+     */
+    public void initialize(HistogramMonitor monitor) {
+        try {
+            MBeanServer server = getMBeanServer();
+            this.objectName = new ObjectName(DOMAIN + ":type=HistogramMonitor,name=" + ObjectName.quote(String.valueOf(monitor.getSession().getName())));
+            StandardMBean mbean = new StandardMBean(monitor, HistogramMonitorMBean.class);
+            try {
+                server.registerMBean(mbean, this.objectName);
+            } catch (InstanceAlreadyExistsException exception) {
+                server.unregisterMBean(this.objectName);
+                server.registerMBean(mbean, this.objectName);
+            }
+        } catch (Exception exception) {
+            // JMX may not be available or permitted, the monitor is still usable.
+            monitor.getSession().logThrowable(SessionLog.WARNING, SessionLog.SERVER, exception);
+        }
+    }
+
+    /**
+     * The MBean is read by the JMX client, so nothing is pushed.
+     */
+    public void export(HistogramMonitor monitor) {
+    }
+
+    /**
+     * Unregister the monitor's MBean.
+     */
+    public void release(HistogramMonitor monitor) {
+        if (this.objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = getMBeanServer();
+            if (server.isRegistered(this.objectName)) {
+                server.unregisterMBean(this.objectName);
+            }
+        } catch (Exception exception) {
+            monitor.getSession().logThrowable(SessionLog.WARNING, SessionLog.SERVER, exception);
+        }
+        this.objectName = null;
+    }
+
+    /**
+     * Return the MBean server to register with, by default the platform MBean server.
+     */
+    protected MBeanServer getMBeanServer() {
+        return ManagementFactory.getPlatformMBeanServer();
+    }
+
+    /**
+     * Return the name the MBean is registered under.
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+}
@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 1998, 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation from Oracle TopLink
+ ******************************************************************************/
+package org.eclipse.persistence.testing.models.weaving;
+
+import org.eclipse.persistence.sessions.*;
+import org.eclipse.persistence.descriptors.*;
+import org.eclipse.persistence.mappings.*;
+
+/**
+ * The descriptors of the indexed weaving model, an inheritance hierarchy using attribute access.
+ */
+public class IndexedProject extends org.eclipse.persistence.sessions.Project {
+
+public IndexedProject() {
+    setName("IndexedProject");
+    setDatasourceLogin(new DatabaseLogin());
+
+    addDescriptor(buildIndexedObjectDescriptor());
+    addDescriptor(buildIndexedSubObjectDescriptor());
+}
+
+public ClassDescriptor buildIndexedObjectDescriptor() {
+    RelationalDescriptor descriptor = new RelationalDescriptor();
+    descriptor.setJavaClass(org.eclipse.persistence.testing.models.weaving.IndexedObject.class);
+    descriptor.addTableName("INDEXED");
+    descriptor.addPrimaryKeyFieldName("INDEXED.ID");
+
+    // Inheritance Properties.
+    descriptor.getInheritancePolicy().setClassIndicatorFieldName("INDEXED.TYPE");
+    descriptor.getInheritancePolicy().addClassIndicator(org.eclipse.persistence.testing.models.weaving.IndexedObject.class, "O");
+    descriptor.getInheritancePolicy().addClassIndicator(org.eclipse.persistence.testing.models.weaving.IndexedSubObject.class, "S");
+
+    // Mappings.
+    DirectToFieldMapping idMapping = new DirectToFieldMapping();
+    idMapping.setAttributeName("id");
+    idMapping.setFieldName("INDEXED.ID");
+    descriptor.addMapping(idMapping);
+
+    DirectToFieldMapping nameMapping = new DirectToFieldMapping();
+    nameMapping.setAttributeName("name");
+    nameMapping.setFieldName("INDEXED.NAME");
+    descriptor.addMapping(nameMapping);
+
+    DirectToFieldMapping quantityMapping = new DirectToFieldMapping();
+    quantityMapping.setAttributeName("quantity");
+    quantityMapping.setFieldName("INDEXED.QUANTITY");
+    descriptor.addMapping(quantityMapping);
+
+    return descriptor;
+}
+
+public ClassDescriptor buildIndexedSubObjectDescriptor() {
+    RelationalDescriptor descriptor = new RelationalDescriptor();
+    descriptor.setJavaClass(org.eclipse.persistence.testing.models.weaving.IndexedSubObject.class);
+    descriptor.addTableName("INDEXED");
+
+    // Inheritance Properties.
+    descriptor.getInheritancePolicy().setParentClass(org.eclipse.persistence.testing.models.weaving.IndexedObject.class);
+
+    // Mappings.
+    DirectToFieldMapping priceMapping = new DirectToFieldMapping();
+    priceMapping.setAttributeName("price");
+    priceMapping.setFieldName("INDEXED.PRICE");
+    descriptor.addMapping(priceMapping);
+
+    DirectToFieldMapping descriptionMapping = new DirectToFieldMapping();
+    descriptionMapping.setAttributeName("description");
+    descriptionMapping.setFieldName("INDEXED.DESCRIPTION");
+    descriptor.addMapping(descriptionMapping);
+
+    return descriptor;
+}
+}
@@ -19,6 +19,9 @@
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
@@ -35,6 +38,7 @@
 
 import org.eclipse.persistence.annotations.BatchFetchType;
 import org.eclipse.persistence.config.CacheUsage;
+import org.eclipse.persistence.config.HintValues;
 import org.eclipse.persistence.config.PessimisticLock;
 import org.eclipse.persistence.config.QueryHints;
 import org.eclipse.persistence.config.QueryType;
@@ -45,8 +49,10 @@
 import org.eclipse.persistence.descriptors.invalidation.TimeToLiveCacheInvalidationPolicy;
 import org.eclipse.persistence.exceptions.QueryException;
 import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.jpa.JpaEntityManager;
 import org.eclipse.persistence.jpa.JpaQuery;
 import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.ReadAllQuery;
 import org.eclipse.persistence.queries.ReadQuery;
 import org.eclipse.persistence.queries.ScrollableCursor;
 import org.eclipse.persistence.sessions.DatabaseSession;
@@ -124,6 +130,8 @@ public static Test suite() {
         suite.addTest(new AdvancedQueryTestSuite("testObjectResultType"));
         suite.addTest(new AdvancedQueryTestSuite("testNativeResultType"));
         suite.addTest(new AdvancedQueryTestSuite("testCursors"));
+        suite.addTest(new AdvancedQueryTestSuite("testResultStream"));
+        suite.addTest(new AdvancedQueryTestSuite("testAsyncQueries"));
         suite.addTest(new AdvancedQueryTestSuite("testFetchGroups"));
         suite.addTest(new AdvancedQueryTestSuite("testMultipleNamedJoinFetchs"));
         suite.addTest(new AdvancedQueryTestSuite("testNativeQueryTransactions"));
@@ -425,6 +433,144 @@ public void testCursors() {
         }
     }
 
+    /**
+     * Test streaming query results, and the cursor detached hint.
+     */
+    public void testResultStream() {
+        EntityManager em = createEntityManager();
+        beginTransaction(em);
+        try {
+            List<Employee> expected = em.createQuery("Select employee from Employee employee", Employee.class).getResultList();
+
+            // The streamed objects are registered in the persistence context.
+            JpaQuery<Employee> jpaQuery = (JpaQuery<Employee>)((EntityManager)em.getDelegate()).createQuery("Select employee from Employee employee", Employee.class);
+            jpaQuery.setHint(QueryHints.JDBC_FETCH_SIZE, 2);
+            Stream<Employee> stream = jpaQuery.getResultStream();
+            int count = 0;
+            try {
+                for (Iterator<Employee> iterator = stream.iterator(); iterator.hasNext(); count++) {
+                    Employee employee = iterator.next();
+                    if (!em.contains(employee)) {
+                        fail("Streamed employee should be managed: " + employee);
+                    }
+                }
+            } finally {
+                stream.close();
+            }
+            if (count != expected.size()) {
+                fail("Stream returned " + count + " employees, expected " + expected.size());
+            }
+            // Streaming does not change the query's results.
+            if (jpaQuery.getResultList().size() != expected.size()) {
+                fail("Result list after the stream returned " + jpaQuery.getResultList().size() + " employees, expected " + expected.size());
+            }
+
+            // The detached cursor reads outside of the persistence context.
+            jpaQuery = (JpaQuery<Employee>)((EntityManager)em.getDelegate()).createQuery("Select employee from Employee employee", Employee.class);
+            jpaQuery.setHint(QueryHints.CURSOR_DETACHED, HintValues.TRUE);
+            if (jpaQuery.getDatabaseQuery().shouldMaintainCache()) {
+                fail("The cursor detached hint should not maintain the cache.");
+            }
+            stream = jpaQuery.getResultStream();
+            count = 0;
+            try {
+                for (Iterator<Employee> iterator = stream.iterator(); iterator.hasNext(); count++) {
+                    Employee employee = iterator.next();
+                    if (em.contains(employee)) {
+                        fail("Detached streamed employee should not be managed: " + employee);
+                    }
+                }
+            } finally {
+                stream.close();
+            }
+            if (count != expected.size()) {
+                fail("Detached stream returned " + count + " employees, expected " + expected.size());
+            }
+
+            // The hint set to false leaves the maintain cache hint alone.
+            jpaQuery = (JpaQuery<Employee>)((EntityManager)em.getDelegate()).createQuery("Select employee from Employee employee", Employee.class);
+            jpaQuery.setHint(QueryHints.MAINTAIN_CACHE, HintValues.FALSE);
+            jpaQuery.setHint(QueryHints.CURSOR_DETACHED, HintValues.FALSE);
+            if (jpaQuery.getDatabaseQuery().shouldMaintainCache()) {
+                fail("The cursor detached hint set to false should not override the maintain cache hint.");
+            }
+            if (jpaQuery.getDatabaseQuery().isReadAllQuery() && ((ReadAllQuery)jpaQuery.getDatabaseQuery()).getContainerPolicy().isCursorPolicy()) {
+                fail("The cursor detached hint set to false should not use a cursor.");
+            }
+        } finally {
+            rollbackTransaction(em);
+            closeEntityManager(em);
+        }
+    }
+
+    /**
+     * Test asynchronous queries, read-only queries are executed on their own session,
+     * other queries through the persistence context.
+     */
+    public void testAsyncQueries() throws Exception {
+        EntityManager em = createEntityManager();
+        try {
+            List expected = em.createQuery("Select employee from Employee employee").getResultList();
+            em.clear();
+            EntityManager delegate = (EntityManager)em.getDelegate();
+
+            JpaQuery<Employee> readOnlyQuery = (JpaQuery<Employee>)delegate.createQuery("Select employee from Employee employee", Employee.class);
+            readOnlyQuery.setHint(QueryHints.READ_ONLY, HintValues.TRUE);
+            CompletionStage<List<Employee>> readOnlyResult = readOnlyQuery.getResultListAsync();
+            JpaQuery<Long> countQuery = (JpaQuery<Long>)delegate.createQuery("Select count(employee) from Employee employee", Long.class);
+            countQuery.setHint(QueryHints.READ_ONLY, HintValues.TRUE);
+            CompletionStage<Long> countResult = countQuery.getSingleResultAsync();
+            List<Employee> employees = readOnlyResult.toCompletableFuture().get();
+            if (employees.size() != expected.size()) {
+                fail("Read-only async query returned " + employees.size() + " employees, expected " + expected.size());
+            }
+            if (countResult.toCompletableFuture().get().intValue() != expected.size()) {
+                fail("Read-only async count returned " + countResult.toCompletableFuture().get() + ", expected " + expected.size());
+            }
+            if (em.contains(employees.get(0))) {
+                fail("Read-only async query results should not be managed.");
+            }
+
+            JpaQuery<Employee> managedQuery = (JpaQuery<Employee>)delegate.createQuery("Select employee from Employee employee where employee.id = :id", Employee.class);
+            managedQuery.setParameter("id", employees.get(0).getId());
+            CompletionStage<Employee> managedResult = managedQuery.getSingleResultAsync();
+            // Queries using the persistence context are executed on the calling thread.
+            if (!managedResult.toCompletableFuture().isDone()) {
+                fail("Async query using the persistence context should be executed on the calling thread.");
+            }
+            Employee employee = managedResult.toCompletableFuture().get();
+            if (!em.contains(employee)) {
+                fail("Async query results should be managed.");
+            }
+            if (((JpaEntityManager)delegate).findAsync(Employee.class, employee.getId()).toCompletableFuture().get() != employee) {
+                fail("Async find should return the managed employee.");
+            }
+
+            // In a transaction, even a read-only query must see the transaction's changes, so is executed on the calling thread.
+            beginTransaction(em);
+            try {
+                CompletionStage<Long> transactionCount = countQuery.getSingleResultAsync();
+                if (!transactionCount.toCompletableFuture().isDone()) {
+                    fail("Async query in a transaction should be executed on the calling thread.");
+                }
+            } finally {
+                rollbackTransaction(em);
+            }
+
+            JpaQuery<Employee> noResultQuery = (JpaQuery<Employee>)delegate.createQuery("Select employee from Employee employee where employee.id = -1", Employee.class);
+            try {
+                noResultQuery.getSingleResultAsync().toCompletableFuture().get();
+                fail("NoResultException expected.");
+            } catch (ExecutionException exception) {
+                if (!(exception.getCause() instanceof NoResultException)) {
+                    throw exception;
+                }
+            }
+        } finally {
+            closeEntityManager(em);
+        }
+    }
+
     /**
      * Test the result type of various queries.
      */
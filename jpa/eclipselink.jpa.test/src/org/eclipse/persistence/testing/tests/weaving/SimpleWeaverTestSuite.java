@@ -15,17 +15,30 @@
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 
+import org.eclipse.persistence.internal.descriptors.PersistenceObject;
+import org.eclipse.persistence.internal.descriptors.PersistenceObjectAttributeAccessor;
+import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.jpa.metadata.MetadataLogger;
 import org.eclipse.persistence.internal.jpa.metadata.accessors.objects.MetadataAsmFactory;
 import org.eclipse.persistence.internal.jpa.weaving.PersistenceWeaver;
 import org.eclipse.persistence.internal.jpa.weaving.TransformerFactory;
+import org.eclipse.persistence.internal.libraries.asm.ClassReader;
+import org.eclipse.persistence.internal.libraries.asm.ClassVisitor;
+import org.eclipse.persistence.internal.libraries.asm.ClassWriter;
+import org.eclipse.persistence.internal.libraries.asm.MethodVisitor;
+import org.eclipse.persistence.internal.libraries.asm.Opcodes;
 import org.eclipse.persistence.internal.weaving.PersistenceWeavedLazy;
 import org.eclipse.persistence.logging.SessionLog;
 import org.eclipse.persistence.sessions.Session;
 import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.testing.models.weaving.IndexedObject;
+import org.eclipse.persistence.testing.models.weaving.IndexedProject;
+import org.eclipse.persistence.testing.models.weaving.IndexedSubObject;
 import org.eclipse.persistence.testing.models.weaving.SimpleObject;
 import org.eclipse.persistence.testing.models.weaving.SimpleProject;
 
@@ -134,6 +147,42 @@ public void runTest() {
                 buildWeaver(session, entities);
             }
         });
+        suite.addTest(new SimpleWeaverTestSuite("test weaved indexed get and set") {
+            @Override
+            public void setUp() {
+            }
+            @Override
+            public void tearDown() {
+            }
+            @Override
+            public void runTest() {
+                indexedGetSetTest();
+            }
+        });
+        suite.addTest(new SimpleWeaverTestSuite("test attribute accessor index") {
+            @Override
+            public void setUp() {
+            }
+            @Override
+            public void tearDown() {
+            }
+            @Override
+            public void runTest() {
+                attributeAccessorIndexTest(false);
+            }
+        });
+        suite.addTest(new SimpleWeaverTestSuite("test attribute accessor index with superclass weaved without indexes") {
+            @Override
+            public void setUp() {
+            }
+            @Override
+            public void tearDown() {
+            }
+            @Override
+            public void runTest() {
+                attributeAccessorIndexTest(true);
+            }
+        });
         return suite;
     }
 
@@ -194,6 +243,147 @@ public PersistenceWeaver buildWeaver(Session session, Collection entities) {
         return tw;
     }
 
+    /**
+     * Weave the indexed model and define its classes in a new class loader, superclass first.
+     * If the superclass should be weaved as by an earlier version, its indexed methods are removed.
+     */
+    public Class[] buildIndexedWeavedClasses(boolean removeSuperclassIndexedMethods) {
+        SimpleClassLoader classLoader = new SimpleClassLoader();
+        Session session = new ServerSession(new IndexedProject());
+        session.setLogLevel(SessionLog.OFF);
+        MetadataAsmFactory factory = new MetadataAsmFactory(new MetadataLogger(null), SimpleWeaverTestSuite.class.getClassLoader());
+        Collection indexedEntities = new ArrayList();
+        indexedEntities.add(factory.getMetadataClass(IndexedObject.class.getName()));
+        indexedEntities.add(factory.getMetadataClass(IndexedSubObject.class.getName()));
+        PersistenceWeaver weaver = buildWeaver(session, indexedEntities);
+        Class[] weavedClasses = new Class[2];
+        try {
+            byte[] superclassBytes = weaveClass(weaver, classLoader, IndexedObject.class);
+            if (removeSuperclassIndexedMethods) {
+                superclassBytes = removeIndexedMethods(superclassBytes);
+            }
+            weavedClasses[0] = classLoader.define_class(IndexedObject.class.getName(), superclassBytes, 0, superclassBytes.length);
+            byte[] subclassBytes = weaveClass(weaver, classLoader, IndexedSubObject.class);
+            weavedClasses[1] = classLoader.define_class(IndexedSubObject.class.getName(), subclassBytes, 0, subclassBytes.length);
+        } catch (Exception e) {
+            fail(getName() + " failed: " + e.toString());
+        }
+        return weavedClasses;
+    }
+
+    public static byte[] weaveClass(PersistenceWeaver weaver, ClassLoader classLoader, Class javaClass) throws Exception {
+        String className = javaClass.getName().replace('.', '/');
+        byte[] bytes = readStreamContentsIntoByteArray(classLoader.getResourceAsStream(className + ".class"));
+        return weaver.transform(classLoader, className, null, null, bytes);
+    }
+
+    /**
+     * Remove the indexed get and set and the attribute names, as if the class was weaved by an earlier version.
+     */
+    public static byte[] removeIndexedMethods(byte[] weavedBytes) {
+        ClassWriter classWriter = new ClassWriter(0);
+        ClassVisitor visitor = new ClassVisitor(Opcodes.ASM5, classWriter) {
+            @Override
+            public MethodVisitor visitMethod(int access, String name, String desc, String signature, String[] exceptions) {
+                if (name.equals(Helper.PERSISTENCE_ATTRIBUTE_NAMES) || desc.equals("(I)Ljava/lang/Object;") || desc.equals("(ILjava/lang/Object;)V")) {
+                    return null;
+                }
+                return super.visitMethod(access, name, desc, signature, exceptions);
+            }
+        };
+        new ClassReader(weavedBytes).accept(visitor, 0);
+        return classWriter.toByteArray();
+    }
+
+    public static String[] getAttributeNames(Class weavedClass) throws Exception {
+        Method method = weavedClass.getDeclaredMethod(Helper.PERSISTENCE_ATTRIBUTE_NAMES);
+        return (String[])method.invoke(null);
+    }
+
+    public void indexedGetSetTest() {
+        Class[] weavedClasses = buildIndexedWeavedClasses(false);
+        try {
+            // Superclass attributes first, then the class's own attributes sorted by name.
+            // The transient and unmapped attributes are not indexed.
+            String[] superclassNames = getAttributeNames(weavedClasses[0]);
+            assertEquals("Wrong superclass attribute names", Arrays.asList("id", "name", "quantity"), Arrays.asList(superclassNames));
+            String[] names = getAttributeNames(weavedClasses[1]);
+            assertEquals("Wrong subclass attribute names", Arrays.asList("id", "name", "quantity", "description", "price"), Arrays.asList(names));
+
+            PersistenceObject object = (PersistenceObject)weavedClasses[1].newInstance();
+            Object[] values = new Object[] {Integer.valueOf(1), "name", Integer.valueOf(5), "description", Double.valueOf(2.5)};
+            for (int index = 0; index < names.length; index++) {
+                object._persistence_set(index, values[index]);
+            }
+            for (int index = 0; index < names.length; index++) {
+                assertEquals("Wrong value by index for " + names[index], values[index], object._persistence_get(index));
+                assertEquals("Wrong value by name for " + names[index], values[index], object._persistence_get(names[index]));
+            }
+            // Set by name, get by index, through the superclass delegation.
+            object._persistence_set("name", "other name");
+            assertEquals("Superclass attribute not delegated", "other name", object._persistence_get(1));
+
+            // Out of range indexes return null and are not set.
+            assertNull("Negative index returned a value", object._persistence_get(-1));
+            assertNull("Index after the attributes returned a value", object._persistence_get(names.length));
+            assertNull("Large index returned a value", object._persistence_get(Integer.MAX_VALUE));
+            object._persistence_set(-1, "value");
+            object._persistence_set(names.length, "value");
+            PersistenceObject superclassObject = (PersistenceObject)weavedClasses[0].newInstance();
+            assertNull("Subclass attribute index returned a value from the superclass", superclassObject._persistence_get(3));
+            superclassObject._persistence_set(3, "value");
+            assertNull("Unset superclass attribute returned a value", superclassObject._persistence_get(1));
+            assertEquals("Out of range set changed an attribute", "other name", object._persistence_get(1));
+            assertEquals("Out of range set changed an attribute", "description", object._persistence_get(3));
+        } catch (Exception e) {
+            fail(getName() + " failed: " + e.toString());
+        }
+    }
+
+    public void attributeAccessorIndexTest(boolean removeSuperclassIndexedMethods) {
+        Class[] weavedClasses = buildIndexedWeavedClasses(removeSuperclassIndexedMethods);
+        IndexedAttributeAccessor nameAccessor = new IndexedAttributeAccessor("name");
+        nameAccessor.initializeAttributes(weavedClasses[1]);
+        IndexedAttributeAccessor priceAccessor = new IndexedAttributeAccessor("price");
+        priceAccessor.initializeAttributes(weavedClasses[1]);
+        // The transient attribute is not indexed, so is accessed by name.
+        IndexedAttributeAccessor notesAccessor = new IndexedAttributeAccessor("notes");
+        notesAccessor.initializeAttributes(weavedClasses[1]);
+        // A class not weaved is accessed by name.
+        IndexedAttributeAccessor unweavedAccessor = new IndexedAttributeAccessor("name");
+        unweavedAccessor.initializeAttributes(IndexedSubObject.class);
+
+        // A superclass weaved by an earlier version does not have _persistence_get(int), so its attributes are accessed by name.
+        assertEquals("Wrong superclass attribute index", removeSuperclassIndexedMethods ? -1 : 1, nameAccessor.getAttributeIndex());
+        assertEquals("Wrong subclass attribute index", 4, priceAccessor.getAttributeIndex());
+        assertEquals("Transient attribute indexed", -1, notesAccessor.getAttributeIndex());
+        assertEquals("Class not weaved indexed", -1, unweavedAccessor.getAttributeIndex());
+        try {
+            PersistenceObject object = (PersistenceObject)weavedClasses[1].newInstance();
+            nameAccessor.setAttributeValueInObject(object, "name");
+            priceAccessor.setAttributeValueInObject(object, Double.valueOf(2.5));
+            assertEquals("Wrong superclass attribute value", "name", nameAccessor.getAttributeValueFromObject(object));
+            assertEquals("Wrong superclass attribute value by name", "name", object._persistence_get("name"));
+            assertEquals("Wrong subclass attribute value", Double.valueOf(2.5), priceAccessor.getAttributeValueFromObject(object));
+            assertEquals("Wrong subclass attribute value by name", Double.valueOf(2.5), object._persistence_get("price"));
+        } catch (Exception e) {
+            fail(getName() + " failed: " + e.toString());
+        }
+    }
+
+    /**
+     * Expose the index resolved by the accessor.
+     */
+    public static class IndexedAttributeAccessor extends PersistenceObjectAttributeAccessor {
+        public IndexedAttributeAccessor(String attributeName) {
+            super(attributeName);
+        }
+
+        public int getAttributeIndex() {
+            return this.attributeIndex;
+        }
+    }
+
     public void buildWeavedClass(byte[] weavedBytes) {
 
         Class weavedClass = null;
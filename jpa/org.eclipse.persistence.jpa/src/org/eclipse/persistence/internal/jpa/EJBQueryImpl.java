@@ -28,6 +28,9 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import javax.persistence.FlushModeType;
 import javax.persistence.LockModeType;
@@ -49,6 +52,7 @@
 import org.eclipse.persistence.internal.sessions.AbstractSession;
 import org.eclipse.persistence.jpa.JpaQuery;
 import org.eclipse.persistence.queries.Cursor;
+import org.eclipse.persistence.queries.CursoredStream;
 import org.eclipse.persistence.queries.DataReadQuery;
 import org.eclipse.persistence.queries.DatabaseQuery;
 import org.eclipse.persistence.queries.JPAQueryBuilder;
@@ -386,6 +390,192 @@ public Cursor getResultCursor() {
         }
     }
 
+    /**
+     * Non-standard method to return results of a ReadAllQuery as a Stream.
+     * Unless the query already uses a CursoredStream, a cursored clone of the query is executed,
+     * with the JDBC fetch size as its page size, so the query still returns its own container.
+     *
+     * @return Stream on results, built lazily from a CursoredStream
+     */
+    public Stream<X> getResultStream() {
+        this.entityManager.verifyOpenWithSetRollbackOnly();
+        try {
+            setAsSQLReadQuery();
+            propagateResultProperties();
+            DatabaseQuery query = getDatabaseQueryInternal();
+            if (query.isReadObjectQuery()) {
+                throw QueryException.incorrectQueryObjectFound(query, ReadAllQuery.class);
+            } else if (!query.isReadAllQuery()) {
+                throw new IllegalStateException(ExceptionLocalization.buildMessage("incorrect_query_for_get_result_collection"));
+            }
+            CursoredStream cursor = null;
+            if (((ReadAllQuery) query).getContainerPolicy().isCursoredStreamPolicy()) {
+                cursor = (CursoredStream) executeReadQuery();
+            } else {
+                // The shared query must be cloned first, as it is restored after the execution.
+                cloneSharedQuery();
+                ReadAllQuery readAllQuery = (ReadAllQuery) getDatabaseQueryInternal();
+                ReadAllQuery streamQuery = (ReadAllQuery) readAllQuery.clone();
+                int fetchSize = readAllQuery.getFetchSize();
+                if (fetchSize > 0) {
+                    streamQuery.useCursoredStream(fetchSize, fetchSize);
+                } else {
+                    streamQuery.useCursoredStream();
+                }
+                setDatabaseQuery(streamQuery);
+                try {
+                    cursor = (CursoredStream) executeReadQuery();
+                } finally {
+                    setDatabaseQuery(readAllQuery);
+                }
+            }
+            return (Stream<X>) (Stream) cursor.stream();
+        } catch (LockTimeoutException e) {
+            throw e;
+        } catch (PersistenceException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (IllegalStateException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (RuntimeException exception) {
+            setRollbackOnly();
+            throw new PersistenceException(exception);
+        }
+    }
+
+    /**
+     * Non-standard method to execute the query asynchronously and return its results as a List.
+     * A read-only query outside of a transaction is executed concurrently on its own client session,
+     * other queries use the persistence context, so are executed on the calling thread.
+     *
+     * @return stage completed with the list of results
+     */
+    public CompletionStage<List<X>> getResultListAsync() {
+        this.entityManager.verifyOpenWithSetRollbackOnly();
+        try {
+            setAsSQLReadQuery();
+            propagateResultProperties();
+            final DatabaseQuery query = getDatabaseQueryInternal();
+            if (!isIndependentOfPersistenceContext(query)) {
+                return this.entityManager.executeInPersistenceContext(new Supplier<List<X>>() {
+                    public List<X> get() {
+                        return getResultList();
+                    }
+                });
+            }
+            if (query.isReadAllQuery()) {
+                Class containerClass = ((ReadAllQuery) query).getContainerPolicy().getContainerClass();
+                if (!Helper.classImplementsInterface(containerClass, ClassConstants.List_Class)) {
+                    throw QueryException.invalidContainerClass(containerClass, ClassConstants.List_Class);
+                }
+            }
+            final List parameterValues = processParameters();
+            final AbstractSession session = this.entityManager.acquireIndependentReadSession();
+            return executeAsync(session, new Supplier<List<X>>() {
+                public List<X> get() {
+                    Object result = executeReadQuery(query, parameterValues, session);
+                    if (query.isReadObjectQuery()) {
+                        List<X> resultList = new ArrayList<X>(1);
+                        if (result != null) {
+                            resultList.add((X) result);
+                        }
+                        return resultList;
+                    }
+                    return (List<X>) result;
+                }
+            });
+        } catch (PersistenceException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (IllegalStateException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (RuntimeException exception) {
+            setRollbackOnly();
+            throw new PersistenceException(exception);
+        }
+    }
+
+    /**
+     * Non-standard method to execute the query asynchronously and return its single result.
+     *
+     * @return stage completed with the result,
+     *          or exceptionally with a NoResultException or NonUniqueResultException
+     */
+    public CompletionStage<X> getSingleResultAsync() {
+        this.entityManager.verifyOpenWithSetRollbackOnly();
+        try {
+            setAsSQLReadQuery();
+            propagateResultProperties();
+            final DatabaseQuery query = getDatabaseQueryInternal();
+            if (!isIndependentOfPersistenceContext(query)) {
+                return this.entityManager.executeInPersistenceContext(new Supplier<X>() {
+                    public X get() {
+                        return getSingleResult();
+                    }
+                });
+            }
+            final List parameterValues = processParameters();
+            final AbstractSession session = this.entityManager.acquireIndependentReadSession();
+            return executeAsync(session, new Supplier<X>() {
+                public X get() {
+                    Object result = executeReadQuery(query, parameterValues, session);
+                    if (result instanceof List) {
+                        List results = (List) result;
+                        if (results.isEmpty()) {
+                            throwNoResultException(ExceptionLocalization.buildMessage("no_entities_retrieved_for_get_single_result", (Object[]) null));
+                        } else if (results.size() > 1) {
+                            throwNonUniqueResultException(ExceptionLocalization.buildMessage("too_many_results_for_get_single_result", (Object[]) null));
+                        }
+                        return (X) results.get(0);
+                    } else if (result == null) {
+                        throwNoResultException(ExceptionLocalization.buildMessage("no_entities_retrieved_for_get_single_result", (Object[]) null));
+                    }
+                    return (X) result;
+                }
+            });
+        } catch (PersistenceException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (IllegalStateException exception) {
+            setRollbackOnly();
+            throw exception;
+        } catch (RuntimeException exception) {
+            setRollbackOnly();
+            throw new PersistenceException(exception);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Execute the read of the independent session on the asynchronous query executor.
+     * The read releases the session, if it cannot be submitted the session is released here.
+     */
+    protected <T> CompletionStage<T> executeAsync(AbstractSession session, Supplier<T> read) {
+        try {
+            return this.entityManager.executeAsync(read);
+        } catch (RuntimeException exception) {
+            session.release();
+            throw exception;
+        }
+    }
+
+    /**
+     * Non-standard method to execute an update or delete statement asynchronously.
+     * The update uses the persistence context, so is executed on the calling thread.
+     *
+     * @return stage completed with the number of entities updated or deleted
+     */
+    public CompletionStage<Integer> executeUpdateAsync() {
+        this.entityManager.verifyOpenWithSetRollbackOnly();
+        return this.entityManager.executeInPersistenceContext(new Supplier<Integer>() {
+            public Integer get() {
+                return executeUpdate();
+            }
+        });
+    }
+
     /**
      * Execute a query that returns a single result.
      *
@@ -28,6 +28,13 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.persistence.*;
 
@@ -136,6 +143,12 @@ public class EntityManagerFactoryDelegate implements EntityManagerFactory, Persi
     /** Pointer to the EntityManagerFactoryImpl that created me */
     protected JpaEntityManagerFactory owner = null;
 
+    /** Executor used for asynchronous queries, lazily initialized. */
+    protected volatile Executor asyncQueryExecutor;
+
+    /** Thread pool created by this factory for asynchronous queries, shut down on close. */
+    protected ExecutorService asyncQueryPool;
+
     /**
      * Will return an instance of the Factory. Should only be called by
      * EclipseLink.
@@ -267,9 +280,59 @@ public synchronized void close() {
             // created from the constructor no longer throws a NPE
             setupImpl.undeploy();
         }
+        if (asyncQueryPool != null) {
+            // Queued queries are still executed, but fail as the factory is closed.
+            asyncQueryPool.shutdown();
+            asyncQueryPool = null;
+        }
+        asyncQueryExecutor = null;
         owner = null;
     }
 
+    /**
+     * INTERNAL:
+     * Return the executor used to execute asynchronous queries.
+     * This is the executor configured by the "eclipselink.query.async.executor" property,
+     * or a bounded thread pool of daemon threads sized by "eclipselink.query.async.pool-size".
+     * @see PersistenceUnitProperties#QUERY_ASYNC_EXECUTOR
+     * @see PersistenceUnitProperties#QUERY_ASYNC_POOL_SIZE
+     */
+    public Executor getAsyncQueryExecutor() {
+        if (this.asyncQueryExecutor == null) {
+            AbstractSession session = getAbstractSession();
+            synchronized (this) {
+                verifyOpen();
+                if (this.asyncQueryExecutor == null) {
+                    Object executor = session.getProperty(PersistenceUnitProperties.QUERY_ASYNC_EXECUTOR);
+                    if (executor instanceof Executor) {
+                        this.asyncQueryExecutor = (Executor)executor;
+                    } else {
+                        int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+                        // The size is validated on deploy, an invalid size was reported and the default is used.
+                        Object size = session.getProperty(PersistenceUnitProperties.QUERY_ASYNC_POOL_SIZE);
+                        if (size instanceof Integer) {
+                            poolSize = (Integer)size;
+                        }
+                        final String threadName = "EclipseLink-AsyncQuery-" + session.getName() + "-";
+                        ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60L, TimeUnit.SECONDS,
+                                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                            private final AtomicInteger count = new AtomicInteger();
+                            public Thread newThread(Runnable runnable) {
+                                Thread thread = new Thread(runnable, threadName + count.incrementAndGet());
+                                thread.setDaemon(true);
+                                return thread;
+                            }
+                        });
+                        pool.allowCoreThreadTimeOut(true);
+                        this.asyncQueryPool = pool;
+                        this.asyncQueryExecutor = pool;
+                    }
+                }
+            }
+        }
+        return this.asyncQueryExecutor;
+    }
+
     /**
      * Indicates whether or not this factory is open. Returns <code>true</code>
      * until a call to {@link #close} is made.
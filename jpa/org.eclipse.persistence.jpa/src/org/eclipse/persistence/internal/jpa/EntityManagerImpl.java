@@ -45,6 +45,10 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import javax.persistence.CacheStoreMode;
 import javax.persistence.EntityExistsException;
@@ -1548,6 +1552,73 @@ public Session getReadOnlySession() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return if a read can be executed on its own client session, independent of the persistence context.
+     * This requires a server session or session broker, a database session has no client sessions.
+     */
+    public boolean hasIndependentReadSessions() {
+        return this.databaseSession.isServerSession() || this.databaseSession.isBroker();
+    }
+
+    /**
+     * INTERNAL:
+     * Return a new client session to execute a read outside of the persistence context,
+     * such as an asynchronous read-only query, it has its own connection so can be used
+     * concurrently with this EntityManager. The caller must release it.
+     * Return null if the session has no client sessions.
+     * @see #hasIndependentReadSessions()
+     */
+    public AbstractSession acquireIndependentReadSession() {
+        if (this.databaseSession.isServerSession()) {
+            return ((ServerSession)this.databaseSession).acquireClientSession(connectionPolicy, properties);
+        } else if(this.databaseSession.isBroker()) {
+            return ((SessionBroker)this.databaseSession).acquireClientSessionBroker(this.connectionPolicies, (Map)this.properties.get(EntityManagerProperties.COMPOSITE_UNIT_PROPERTIES));
+        } else {
+            // The shared database session is not isolated from other threads.
+            return null;
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Execute the operation on the factory's asynchronous query executor.
+     * The operation must not use the persistence context, as it is not thread safe.
+     */
+    public <T> CompletionStage<T> executeAsync(Supplier<T> operation) {
+        Executor executor = this.factory.getAsyncQueryExecutor();
+        return CompletableFuture.supplyAsync(operation, executor);
+    }
+
+    /**
+     * INTERNAL:
+     * Execute the operation using the persistence context on the calling thread,
+     * in its transaction, and return the stage completed with its result or error.
+     * The persistence context is not thread safe, so cannot be used by another thread.
+     */
+    public <T> CompletionStage<T> executeInPersistenceContext(Supplier<T> operation) {
+        CompletableFuture<T> stage = new CompletableFuture<T>();
+        try {
+            stage.complete(operation.get());
+        } catch (RuntimeException exception) {
+            stage.completeExceptionally(exception);
+        }
+        return stage;
+    }
+
+    /**
+     * Find by primary key asynchronously.
+     * The find uses the persistence context, so is executed on the calling thread.
+     */
+    public <T> CompletionStage<T> findAsync(final Class<T> entityClass, final Object primaryKey) {
+        verifyOpen();
+        return executeInPersistenceContext(new Supplier<T>() {
+            public T get() {
+                return find(entityClass, primaryKey);
+            }
+        });
+    }
+
     /**
      * Return the underlying database session
      */
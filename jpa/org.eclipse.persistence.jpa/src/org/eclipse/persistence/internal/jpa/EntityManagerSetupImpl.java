@@ -133,6 +133,7 @@
 import java.util.Set;
 import java.util.StringTokenizer;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import javax.persistence.OptimisticLockException;
@@ -267,11 +268,14 @@
 import org.eclipse.persistence.sessions.remote.rmi.RMIServerSessionManagerDispatcher;
 import org.eclipse.persistence.sessions.serializers.JavaSerializer;
 import org.eclipse.persistence.sessions.serializers.Serializer;
+import org.eclipse.persistence.sessions.server.ConcurrentConnectionPool;
 import org.eclipse.persistence.sessions.server.ConnectionPolicy;
 import org.eclipse.persistence.sessions.server.ConnectionPool;
 import org.eclipse.persistence.sessions.server.ExternalConnectionPool;
 import org.eclipse.persistence.sessions.server.ReadConnectionPool;
 import org.eclipse.persistence.sessions.server.ServerSession;
+import org.eclipse.persistence.tools.profiler.HistogramMonitor;
+import org.eclipse.persistence.tools.profiler.JMXHistogramExporter;
 import org.eclipse.persistence.tools.profiler.PerformanceMonitor;
 import org.eclipse.persistence.tools.profiler.PerformanceProfiler;
 import org.eclipse.persistence.tools.profiler.QueryMonitor;
@@ -1267,6 +1271,12 @@ protected void updateProfiler(Map persistenceProperties,ClassLoader loader) {
                 session.setProfiler(new PerformanceMonitor());
                 return;
             }
+            if (newProfilerClassName.equals(ProfilerType.HistogramMonitor)) {
+                HistogramMonitor monitor = new HistogramMonitor();
+                monitor.addExporter(new JMXHistogramExporter());
+                session.setProfiler(monitor);
+                return;
+            }
 
             if (newProfilerClassName.equals(ProfilerType.DMSProfiler)) {
                 newProfilerClassName = ProfilerType.DMSProfilerClassName;
@@ -1436,6 +1446,19 @@ protected void updateDescriptorCacheSettings(Map m, ClassLoader loader) {
         if ((queryCache != null) && queryCache.equalsIgnoreCase("true")) {
             session.getProject().setDefaultQueryResultsCachePolicy(new QueryResultsCachePolicy());
         }
+        String queryCacheMaxSize = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.QUERY_CACHE_MAX_SIZE, m, session);
+        if (queryCacheMaxSize != null) {
+            try {
+                session.getProject().setQueryResultsCacheMaxSize(Integer.parseInt(queryCacheMaxSize.trim()));
+            } catch (NumberFormatException exception) {
+                session.handleException(ValidationException.invalidValueForProperty(queryCacheMaxSize, PersistenceUnitProperties.QUERY_CACHE_MAX_SIZE, exception));
+            }
+        }
+
+        Map offHeapSizeMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE_, m, session);
+        if (!offHeapSizeMap.isEmpty()) {
+            updateOffHeapCacheSizes(offHeapSizeMap);
+        }
 
         Map typeMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_TYPE_, m, session);
         Map sizeMap = PropertiesHandler.getPrefixValuesLogDebug(PersistenceUnitProperties.CACHE_SIZE_, m, session);
@@ -1517,6 +1540,38 @@ protected void updateDescriptorCacheSettings(Map m, ClassLoader loader) {
         }
     }
 
+    /**
+     * Process the off-heap cache size properties, the default applies to all entities without their own size.
+     */
+    protected void updateOffHeapCacheSizes(Map offHeapSizeMap) {
+        String value = null;
+        try {
+            String defaultSizeString = (String)offHeapSizeMap.remove(PersistenceUnitProperties.DEFAULT);
+            long defaultSize = 0;
+            if (defaultSizeString != null) {
+                value = defaultSizeString;
+                defaultSize = Long.parseLong(defaultSizeString.trim());
+            }
+            for (ClassDescriptor descriptor : session.getDescriptors().values()) {
+                if (descriptor.isDescriptorTypeAggregate()) {
+                    continue;
+                }
+                String sizeString = (String)offHeapSizeMap.remove(descriptor.getAlias());
+                if (sizeString == null) {
+                    sizeString = (String)offHeapSizeMap.remove(descriptor.getJavaClass().getName());
+                }
+                if (sizeString != null) {
+                    value = sizeString;
+                    descriptor.getCachePolicy().setOffHeapCacheSize(Long.parseLong(sizeString.trim()));
+                } else if (defaultSizeString != null) {
+                    descriptor.getCachePolicy().setOffHeapCacheSize(defaultSize);
+                }
+            }
+        } catch (NumberFormatException exception) {
+            this.session.handleException(ValidationException.invalidValueForProperty(value, PersistenceUnitProperties.CACHE_OFF_HEAP_SIZE_, exception));
+        }
+    }
+
     /**
      * Process all properties under "eclipselink.connection-pool.".
      * This allows for named connection pools.
@@ -1617,6 +1672,24 @@ protected void updateConnectionSettings(ServerSession serverSession, Map propert
                         readPool.setLogin(pool.getLogin());
                         serverSession.setReadConnectionPool(readPool);
                     }
+                } else if (attribute.equals(PersistenceUnitProperties.CONNECTION_POOL_CONCURRENT)) {
+                    boolean concurrent = Boolean.parseBoolean((String)entry.getValue());
+                    // Only replace internal exclusive pools.
+                    if (concurrent && (pool.getClass() == ConnectionPool.class)) {
+                        ConcurrentConnectionPool concurrentPool = new ConcurrentConnectionPool(pool.getName(), pool.getLogin(), serverSession);
+                        concurrentPool.setInitialNumberOfConnections(pool.getInitialNumberOfConnections());
+                        concurrentPool.setMinNumberOfConnections(pool.getMinNumberOfConnections());
+                        concurrentPool.setMaxNumberOfConnections(pool.getMaxNumberOfConnections());
+                        concurrentPool.setWaitTimeout(pool.getWaitTimeout());
+                        concurrentPool.setFailoverConnectionPools(pool.getFailoverConnectionPools());
+                        if (poolName.equals("read")) {
+                            serverSession.setReadConnectionPool(concurrentPool);
+                        } else if (poolName.equals("sequence")) {
+                            getDatabaseSession().getSequencingControl().setConnectionPool(concurrentPool);
+                        } else {
+                            serverSession.addConnectionPool(concurrentPool);
+                        }
+                    }
                 }
             } catch (RuntimeException exception) {
                 this.session.handleException(ValidationException.invalidValueForProperty(entry.getValue(), entry.getKey(), exception));
@@ -2248,6 +2321,24 @@ protected void updateCacheCoordination(Map m, ClassLoader loader) {
                 if (threadPoolSize != null) {
                     this.session.getServerPlatform().setThreadPoolSize(Integer.parseInt(threadPoolSize));
                 }
+                String batchWindow = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_BATCH_WINDOW, m, this.session);
+                property = PersistenceUnitProperties.COORDINATION_BATCH_WINDOW;
+                value = batchWindow;
+                if (batchWindow != null) {
+                    rcm.setCommandBatchWindow(Long.parseLong(batchWindow));
+                }
+                String batchSize = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_BATCH_SIZE, m, this.session);
+                property = PersistenceUnitProperties.COORDINATION_BATCH_SIZE;
+                value = batchSize;
+                if (batchSize != null) {
+                    rcm.setCommandBatchSize(Integer.parseInt(batchSize));
+                }
+                String parallelMergeThreshold = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_PARALLEL_MERGE_THRESHOLD, m, this.session);
+                property = PersistenceUnitProperties.COORDINATION_PARALLEL_MERGE_THRESHOLD;
+                value = parallelMergeThreshold;
+                if (parallelMergeThreshold != null) {
+                    rcm.setParallelMergeThreshold(Integer.parseInt(parallelMergeThreshold));
+                }
                 String channel = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.COORDINATION_CHANNEL, m, this.session);
                 if (channel != null) {
                     rcm.setChannel(channel);
@@ -2648,6 +2739,11 @@ protected void updatePools(ServerSession serverSession, Map m) {
             if (sequence != null) {
                 serverSession.getSequencingControl().setShouldUseSeparateConnection(Boolean.parseBoolean(sequence));
             }
+            value = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.SEQUENCING_PREFETCH_THRESHOLD, m, serverSession);
+            if (value != null) {
+                property = PersistenceUnitProperties.SEQUENCING_PREFETCH_THRESHOLD;
+                serverSession.getSequencingControl().setPrefetchThreshold(Integer.parseInt(value));
+            }
             String sequenceDataSource = getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.JDBC_SEQUENCE_CONNECTION_POOL_DATASOURCE, m, serverSession);
             if (sequenceDataSource != null) {
                 DatasourceLogin login = this.session.getLogin().clone();
@@ -2767,6 +2863,7 @@ protected void updateSession(Map m, ClassLoader loader) {
             setExceptionHandler(m, loader);
 
             updateAllowZeroIdSetting(m);
+            updateCacheQueuedLocksSetting(m);
             updateCacheCoordination(m, loader);
             processSessionCustomizer(m, loader);
         } else {
@@ -2786,11 +2883,13 @@ protected void updateSession(Map m, ClassLoader loader) {
             updateIndexForeignKeys(m);
             if (!session.hasBroker()) {
                 updateAllowZeroIdSetting(m);
+                updateCacheQueuedLocksSetting(m);
             }
             updateIdValidation(m);
             updatePessimisticLockTimeout(m);
             updateQueryTimeout(m);
             updateQueryTimeoutUnit(m);
+            updateAsyncQueryExecutor(m, loader);
             updateLockingTimestampDefault(m);
             if (!session.hasBroker()) {
                 updateCacheCoordination(m, loader);
@@ -3105,9 +3204,13 @@ protected void updateBatchWritingSetting(Map persistenceProperties, ClassLoader
         String batchWritingSettingString = PropertiesHandler.getPropertyValueLogDebug(PersistenceUnitProperties.BATCH_WRITING, persistenceProperties, this.session);
         if (batchWritingSettingString != null) {
              this.session.getPlatform().setUsesBatchWriting(batchWritingSettingString != BatchWriting.None);
+             this.session.getPlatform().setUsesMultiRowInsertBatchWriting(batchWritingSettingString == BatchWriting.MultiRowInsert);
              if (batchWritingSettingString == BatchWriting.JDBC) {
                  this.session.getPlatform().setUsesJDBCBatchWriting(true);
                  this.session.getPlatform().setUsesNativeBatchWriting(false);
+             } else if (batchWritingSettingString == BatchWriting.MultiRowInsert) {
+                 this.session.getPlatform().setUsesJDBCBatchWriting(true);
+                 this.session.getPlatform().setUsesNativeBatchWriting(false);
              } else if (batchWritingSettingString == BatchWriting.Buffered) {
                  this.session.getPlatform().setUsesJDBCBatchWriting(false);
                  this.session.getPlatform().setUsesNativeBatchWriting(false);
@@ -3311,6 +3414,15 @@ protected void updateJPQLParser(Map m) {
         if (validation != null) {
             this.session.setProperty(PersistenceUnitProperties.JPQL_VALIDATION, validation);
         }
+        // Set JPQL parse cache size if it was specified.
+        String parseCacheSize = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.JPQL_PARSE_CACHE_SIZE, m, this.session);
+        if (parseCacheSize != null) {
+            try {
+                this.session.getProject().setJPQLParseCacheMaxSize(Integer.parseInt(parseCacheSize.trim()));
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(parseCacheSize, PersistenceUnitProperties.JPQL_PARSE_CACHE_SIZE, exception));
+            }
+        }
     }
 
     /**
@@ -3454,6 +3566,22 @@ protected void updateAllowZeroIdSetting(Map m) {
         }
     }
 
+    /**
+     * Enable or disable locking the cache keys using queued synchronizers instead of their monitors.
+     */
+    protected void updateCacheQueuedLocksSetting(Map m) {
+        String queuedLocks = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.CACHE_QUEUED_LOCKS, m, this.session);
+        if (queuedLocks != null) {
+            if (queuedLocks.equalsIgnoreCase("true")) {
+                ConcurrencyManager.setShouldUseQueuedLocks(true);
+            } else if (queuedLocks.equalsIgnoreCase("false")) {
+                ConcurrencyManager.setShouldUseQueuedLocks(false);
+            } else {
+                session.handleException(ValidationException.invalidBooleanValueForProperty(queuedLocks, PersistenceUnitProperties.CACHE_QUEUED_LOCKS));
+            }
+        }
+    }
+
     /**
      * Enable or disable default allowing 0 as an id.
      */
@@ -3549,6 +3677,42 @@ private void updateQueryTimeoutUnit(Map persistenceProperties) {
         }
     }
 
+    /**
+     * Validate the asynchronous query properties, a valid pool size is replaced in the session properties
+     * by an Integer, and an executor class name by an instance, which the factory then uses.
+     */
+    private void updateAsyncQueryExecutor(Map persistenceProperties, ClassLoader loader) {
+        String poolSize = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.QUERY_ASYNC_POOL_SIZE, persistenceProperties, session);
+        if (poolSize != null) {
+            try {
+                int size = Integer.parseInt(poolSize.trim());
+                if (size > 0) {
+                    this.session.setProperty(PersistenceUnitProperties.QUERY_ASYNC_POOL_SIZE, size);
+                } else {
+                    this.session.handleException(ValidationException.invalidValueForProperty(poolSize, PersistenceUnitProperties.QUERY_ASYNC_POOL_SIZE, null));
+                }
+            } catch (NumberFormatException exception) {
+                this.session.handleException(ValidationException.invalidValueForProperty(poolSize, PersistenceUnitProperties.QUERY_ASYNC_POOL_SIZE, exception));
+            }
+        }
+        Object executor = getConfigProperty(PersistenceUnitProperties.QUERY_ASYNC_EXECUTOR, persistenceProperties);
+        if (executor instanceof String) {
+            String executorClassName = (String)executor;
+            Class cls = findClassForProperty(executorClassName, PersistenceUnitProperties.QUERY_ASYNC_EXECUTOR, loader);
+            try {
+                executor = buildObjectForClass(cls, Executor.class);
+            } catch (Exception exception) {
+                throw EntityManagerSetupException.failedToInstantiateProperty(executorClassName, PersistenceUnitProperties.QUERY_ASYNC_EXECUTOR, exception);
+            }
+            if (executor == null) {
+                throw EntityManagerSetupException.failedToInstantiateProperty(executorClassName, PersistenceUnitProperties.QUERY_ASYNC_EXECUTOR, null);
+            }
+            this.session.setProperty(PersistenceUnitProperties.QUERY_ASYNC_EXECUTOR, executor);
+        } else if ((executor != null) && !(executor instanceof Executor)) {
+            this.session.handleException(ValidationException.invalidValueForProperty(executor, PersistenceUnitProperties.QUERY_ASYNC_EXECUTOR, null));
+        }
+    }
+
     private void updateLockingTimestampDefault(Map persistenceProperties) {
         String local = EntityManagerFactoryProvider.getConfigPropertyAsStringLogDebug(PersistenceUnitProperties.USE_LOCAL_TIMESTAMP, persistenceProperties, session);
         try {
@@ -248,6 +248,7 @@ protected static abstract class Hint {
             addHint(new BatchHint());
             addHint(new BatchTypeHint());
             addHint(new BatchSizeHint());
+            addHint(new BatchAdaptiveHint());
             addHint(new FetchHint());
             addHint(new LeftFetchHint());
             addHint(new ReadOnlyHint());
@@ -277,6 +278,7 @@ protected static abstract class Hint {
             addHint(new CursorPageSizeHint());
             addHint(new ScrollableCursorHint());
             addHint(new CursorSizeHint());
+            addHint(new CursorDetachedHint());
             addHint(new FetchGroupHint());
             addHint(new FetchGraphHint());
             addHint(new FetchGroupNameHint());
@@ -297,6 +299,7 @@ protected static abstract class Hint {
             addHint(new QueryCacheTypeHint());
             addHint(new QueryCacheIgnoreNullHint());
             addHint(new QueryCacheInvalidateOnChangeHint());
+            addHint(new QueryCacheInvalidateByPrimaryKeyHint());
             addHint(new QueryCacheRandomizedExpiryHint());
             // 325167: Make reserved # bind parameter char generic to enable native SQL pass through
             addHint(new ParameterDelimiterHint());
@@ -1271,6 +1274,32 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    /**
+     * Define the query cache invalidate by primary key hint.
+     * Only reset the query cache if unset (as other query cache properties may be set first).
+     */
+    protected static class QueryCacheInvalidateByPrimaryKeyHint extends Hint {
+        QueryCacheInvalidateByPrimaryKeyHint() {
+            super(QueryHints.QUERY_RESULTS_CACHE_INVALIDATE_BY_PRIMARY_KEY, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadQuery()) {
+                if (((ReadQuery)query).getQueryResultsCachePolicy() == null) {
+                    ((ReadQuery)query).cacheQueryResults();
+                }
+                ((ReadQuery)query).getQueryResultsCachePolicy().setInvalidateByPrimaryKey(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+            return query;
+        }
+    }
+
     /**
      * Define the query cache randomized expiry hint.
      * Only reset the query cache if unset (as other query cache properties may be set first).
@@ -1384,6 +1413,8 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
                     readQuery.getQueryResultsCachePolicy().setCacheType(ClassConstants.HardCacheWeakIdentityMap_Class);
                 } else if (valueToApply.equals(CacheType.CACHE.name())) {
                     readQuery.getQueryResultsCachePolicy().setCacheType(ClassConstants.CacheIdentityMap_Class);
+                } else if (valueToApply.equals(CacheType.CLOCK.name())) {
+                    readQuery.getQueryResultsCachePolicy().setCacheType(ClassConstants.ClockCacheIdentityMap_Class);
                 } else if (valueToApply.equals(CacheType.NONE.name())) {
                     readQuery.getQueryResultsCachePolicy().setCacheType(ClassConstants.NoIdentityMap_Class);
                 } else {
@@ -1506,6 +1537,26 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class BatchAdaptiveHint extends Hint {
+        BatchAdaptiveHint() {
+            super(QueryHints.BATCH_ADAPTIVE, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isObjectLevelReadQuery()) {
+                ((ObjectLevelReadQuery) query).setBatchFetchAdaptive(((Boolean)valueToApply).booleanValue());
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+
+            return query;
+        }
+    }
+
     protected static class FetchHint extends Hint {
         FetchHint() {
             super(QueryHints.FETCH, "");
@@ -1706,6 +1757,32 @@ DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, Cla
         }
     }
 
+    protected static class CursorDetachedHint extends Hint {
+        CursorDetachedHint() {
+            super(QueryHints.CURSOR_DETACHED, HintValues.FALSE);
+            valueArray = new Object[][] {
+                {HintValues.FALSE, Boolean.FALSE},
+                {HintValues.TRUE, Boolean.TRUE}
+            };
+        }
+
+        DatabaseQuery applyToDatabaseQuery(Object valueToApply, DatabaseQuery query, ClassLoader loader, AbstractSession activeSession) {
+            if (query.isReadAllQuery()) {
+                if (((Boolean)valueToApply).booleanValue()) {
+                    if (!((ReadAllQuery) query).getContainerPolicy().isCursoredStreamPolicy()) {
+                        ((ReadAllQuery) query).useCursoredStream();
+                    }
+                    // Not maintaining the cache also executes the query outside of the unit of work.
+                    query.setShouldMaintainCache(false);
+                }
+            } else {
+                throw new IllegalArgumentException(ExceptionLocalization.buildMessage("ejb30-wrong-type-for-query-hint",new Object[]{getQueryId(query), name, getPrintValue(valueToApply)}));
+            }
+
+            return query;
+        }
+    }
+
     protected static class CursorPageSizeHint extends Hint {
         CursorPageSizeHint() {
             super(QueryHints.CURSOR_PAGE_SIZE, "");
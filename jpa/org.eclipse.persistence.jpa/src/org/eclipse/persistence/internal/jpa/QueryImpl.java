@@ -270,6 +270,46 @@ protected Object executeReadQuery() {
         }
     }
 
+    /**
+     * INTERNAL:
+     * Return if the query can be executed without the persistence context.
+     * This is the case for a read-only object query or a data read query, without a lock mode,
+     * outside of a transaction, as its results are not registered and no flush is required,
+     * and the session can provide a client session to execute it on.
+     */
+    protected boolean isIndependentOfPersistenceContext(DatabaseQuery query) {
+        if (!this.entityManager.hasIndependentReadSessions()) {
+            return false;
+        }
+        if ((this.lockMode != null) && !this.lockMode.equals(LockModeType.NONE)) {
+            return false;
+        }
+        if (query.isObjectLevelReadQuery()) {
+            if (!((ObjectLevelReadQuery)query).isReadOnly()) {
+                return false;
+            }
+        } else if (!query.isDataReadQuery()) {
+            return false;
+        }
+        return this.entityManager.checkForTransaction(false) == null;
+    }
+
+    /**
+     * INTERNAL:
+     * Execute the read query in the client session, which must be independent of the
+     * persistence context, and release the session.
+     * This allows the query to be executed by another thread than the EntityManager's.
+     */
+    protected Object executeReadQuery(DatabaseQuery query, List parameterValues, AbstractSession session) {
+        try {
+            return session.executeQuery(query, parameterValues);
+        } catch (DatabaseException exception) {
+            throw new PersistenceException(exception);
+        } finally {
+            session.release();
+        }
+    }
+
     /**
      * Execute an update or delete statement.
      *
@@ -269,6 +269,8 @@ public void process(MetadataDescriptor descriptor, MetadataClass javaClass) {
             classDescriptor.getCachePolicy().useHardCacheWeakIdentityMap();
         } else if (m_type.equals(CacheType.CACHE.name())) {
             classDescriptor.useCacheIdentityMap();
+        } else if (m_type.equals(CacheType.CLOCK.name())) {
+            classDescriptor.useClockCacheIdentityMap();
         } else if (m_type.equals(CacheType.NONE.name())) {
             classDescriptor.getCachePolicy().useNoIdentityMap();
         }
@@ -35,6 +35,7 @@
  * @since EclipseLink 2.5.1
  */
 public class BatchFetchMetadata extends ORMetadata {
+    private Boolean m_adaptive;
     private Integer m_size;
     private String m_type;
 
@@ -55,6 +56,7 @@ public BatchFetchMetadata(MetadataAnnotation batchFetch, MetadataAccessor access
 
         m_type = batchFetch.getAttributeString("value");
         m_size = batchFetch.getAttributeInteger("size");
+        m_adaptive = batchFetch.getAttributeBooleanDefaultFalse("adaptive");
 
     }
 
@@ -67,6 +69,10 @@ public boolean equals(Object objectToCompare) {
                 return false;
             }
 
+            if (! valuesMatch(m_adaptive, batchFetch.getAdaptive())) {
+                return false;
+            }
+
             return valuesMatch(m_size, batchFetch.getSize());
         }
 
@@ -77,9 +83,18 @@ public boolean equals(Object objectToCompare) {
     public int hashCode() {
         int result = m_size != null ? m_size.hashCode() : 0;
         result = 31 * result + (m_type != null ? m_type.hashCode() : 0);
+        result = 31 * result + (m_adaptive != null ? m_adaptive.hashCode() : 0);
         return result;
     }
 
+    /**
+     * INTERNAL:
+     * Used for OX mapping.
+     */
+    public Boolean getAdaptive() {
+        return m_adaptive;
+    }
+
     /**
      * INTERNAL:
      * Used for OX mapping.
@@ -102,6 +117,17 @@ public String getType() {
      */
     public void process(ForeignReferenceMapping mapping) {
         mapping.setBatchFetchType(BatchFetchType.valueOf(getType()));
+        if (m_adaptive != null) {
+            mapping.setBatchFetchAdaptive(m_adaptive);
+        }
+    }
+
+    /**
+     * INTERNAL:
+     * Used for OX mapping.
+     */
+    public void setAdaptive(Boolean adaptive) {
+        m_adaptive = adaptive;
     }
 
     /**
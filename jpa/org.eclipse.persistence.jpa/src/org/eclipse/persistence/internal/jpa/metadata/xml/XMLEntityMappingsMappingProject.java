@@ -761,6 +761,13 @@ protected ClassDescriptor buildBatchFetchDescriptor() {
         descriptor.addMapping(getTypeAttributeMapping());
         descriptor.addMapping(getSizeAttributeMapping());
 
+        XMLDirectMapping adaptiveMapping = new XMLDirectMapping();
+        adaptiveMapping.setAttributeName("m_adaptive");
+        adaptiveMapping.setGetMethodName("getAdaptive");
+        adaptiveMapping.setSetMethodName("setAdaptive");
+        adaptiveMapping.setXPath("@adaptive");
+        descriptor.addMapping(adaptiveMapping);
+
         return descriptor;
     }
 
@@ -19,7 +19,11 @@
  ******************************************************************************/
 package org.eclipse.persistence.internal.jpa.weaving;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 
 import org.eclipse.persistence.internal.helper.Helper;
 import org.eclipse.persistence.internal.libraries.asm.ClassVisitor;
@@ -907,7 +911,7 @@ public void addPersistenceNew(ClassDetails classDetails) {
      * "address") { return this.address; } if (attribute == "city") { return
      * this.city; } return null; }
      *
-     * public void _persistence_set(int index, Object value) { if (attribute ==
+     * public void _persistence_set(String attribute, Object value) { if (attribute ==
      * "address") { this.address = (String)value; } else if (attribute ==
      * "city") { this.city = (String)city; } }
      */
@@ -1006,6 +1010,159 @@ public void addPersistenceGetSet(ClassDetails classDetails) {
 
         cv_set.visitInsn(RETURN);
         cv_set.visitMaxs(0, 0);
+
+        addPersistenceIndexedGetSet(classDetails);
+    }
+
+    /**
+     * Return the attributes declared by the class that are accessed by index, sorted by name.
+     */
+    public static List<AttributeDetails> getIndexedAttributes(ClassDetails classDetails) {
+        List<AttributeDetails> attributes = new ArrayList<AttributeDetails>();
+        for (AttributeDetails attributeDetails : classDetails.getAttributesMap().values()) {
+            if (!attributeDetails.isAttributeOnSuperClass() && !attributeDetails.isVirtualProperty()) {
+                attributes.add(attributeDetails);
+            }
+        }
+        // Sorted so the indexes do not depend on the map's order, and are the same when the superclass is weaved.
+        Collections.sort(attributes, new Comparator<AttributeDetails>() {
+            public int compare(AttributeDetails attribute, AttributeDetails otherAttribute) {
+                return attribute.getAttributeName().compareTo(otherAttribute.getAttributeName());
+            }
+        });
+        return attributes;
+    }
+
+    /**
+     * Return the names of the attributes accessed by index in the order of their index.
+     * The superclasses' attributes are first, so an attribute has the same index in all subclasses.
+     */
+    public static List<String> getIndexedAttributeNames(ClassDetails classDetails) {
+        List<String> names = new ArrayList<String>();
+        if (classDetails == null) {
+            return names;
+        }
+        names.addAll(getIndexedAttributeNames(classDetails.getSuperClassDetails()));
+        for (AttributeDetails attributeDetails : getIndexedAttributes(classDetails)) {
+            names.add(attributeDetails.getAttributeName());
+        }
+        return names;
+    }
+
+    /**
+     * Add an internal generic get and set method by attribute index, and
+     * the static method returning the attribute names in the order of their index.
+     * The index is found by the attribute accessor when the descriptor is initialized.
+     * A switch is used instead of comparing the attribute with each attribute name.
+     * Indexes below the class's own attributes are delegated to the superclass, which throws a
+     * NoSuchMethodError if the superclass was weaved by an earlier version without the indexed methods,
+     * so the accessor only uses the index of an attribute declared by a class weaved with the attribute names,
+     * and any other attribute is accessed by name.
+     *
+     * public static String[] _persistence_attributeNames() { return new String[] {"address", "city"}; }
+     *
+     * public Object _persistence_get(int index) { switch (index) { case 0: return this.address;
+     * case 1: return this.city; default: return super._persistence_get(index); } }
+     *
+     * public void _persistence_set(int index, Object value) { switch (index) {
+     * case 0: this.address = (String)value; return; case 1: this.city = (String)value; return;
+     * default: super._persistence_set(index, value); } }
+     */
+    public void addPersistenceIndexedGetSet(ClassDetails classDetails) {
+        List<String> names = getIndexedAttributeNames(classDetails);
+        List<AttributeDetails> attributes = getIndexedAttributes(classDetails);
+        int offset = names.size() - attributes.size();
+        int size = attributes.size();
+
+        // create the static _persistence_attributeNames() method
+        MethodVisitor cv_names = cv.visitMethod(ACC_PUBLIC | ACC_STATIC, Helper.PERSISTENCE_ATTRIBUTE_NAMES, "()[" + STRING_SIGNATURE, null, null);
+        cv_names.visitLdcInsn(Integer.valueOf(names.size()));
+        cv_names.visitTypeInsn(ANEWARRAY, "java/lang/String");
+        for (int index = 0; index < names.size(); index++) {
+            cv_names.visitInsn(DUP);
+            cv_names.visitLdcInsn(Integer.valueOf(index));
+            cv_names.visitLdcInsn(names.get(index));
+            cv_names.visitInsn(AASTORE);
+        }
+        cv_names.visitInsn(ARETURN);
+        cv_names.visitMaxs(0, 0);
+
+        // create the _persistence_get(int) method
+        MethodVisitor cv_get = cv.visitMethod(ACC_PUBLIC, "_persistence_get", "(I)Ljava/lang/Object;", null, null);
+        Label defaultLabel = new Label();
+        if (size > 0) {
+            Label[] labels = new Label[size];
+            for (int index = 0; index < size; index++) {
+                labels[index] = new Label();
+            }
+            // switch (index)
+            cv_get.visitVarInsn(ILOAD, 1);
+            cv_get.visitTableSwitchInsn(offset, offset + size - 1, defaultLabel, labels);
+            for (int index = 0; index < size; index++) {
+                AttributeDetails attributeDetails = attributes.get(index);
+                cv_get.visitLabel(labels[index]);
+                // return this.address
+                cv_get.visitVarInsn(ALOAD, 0);
+                cv_get.visitFieldInsn(GETFIELD, classDetails.getClassName(), attributeDetails.getAttributeName(), attributeDetails.getReferenceClassType().getDescriptor());
+                // if this is a primitive, get the wrapper class
+                String wrapper = ClassWeaver.wrapperFor(attributeDetails.getReferenceClassType().getSort());
+                if (wrapper != null) {
+                    cv_get.visitMethodInsn(INVOKESTATIC, wrapper, "valueOf", "(" + attributeDetails.getReferenceClassType().getDescriptor() + ")L" + wrapper + ";", false);
+                }
+                cv_get.visitInsn(ARETURN);
+            }
+        }
+        cv_get.visitLabel(defaultLabel);
+        // call super, or return null
+        if (classDetails.getSuperClassDetails() == null) {
+            cv_get.visitInsn(ACONST_NULL);
+        } else {
+            cv_get.visitVarInsn(ALOAD, 0);
+            cv_get.visitVarInsn(ILOAD, 1);
+            cv_get.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_get", "(I)Ljava/lang/Object;", false);
+        }
+        cv_get.visitInsn(ARETURN);
+        cv_get.visitMaxs(0, 0);
+
+        // create the _persistence_set(int, Object) method
+        MethodVisitor cv_set = cv.visitMethod(ACC_PUBLIC, "_persistence_set", "(ILjava/lang/Object;)V", null, null);
+        defaultLabel = new Label();
+        if (size > 0) {
+            Label[] labels = new Label[size];
+            for (int index = 0; index < size; index++) {
+                labels[index] = new Label();
+            }
+            // switch (index)
+            cv_set.visitVarInsn(ILOAD, 1);
+            cv_set.visitTableSwitchInsn(offset, offset + size - 1, defaultLabel, labels);
+            for (int index = 0; index < size; index++) {
+                AttributeDetails attribute = attributes.get(index);
+                cv_set.visitLabel(labels[index]);
+                // this.address = (String)value;
+                cv_set.visitVarInsn(ALOAD, 0);
+                cv_set.visitVarInsn(ALOAD, 2);
+                String wrapper = wrapperFor(attribute.getReferenceClassType().getSort());
+                if (wrapper == null) {
+                    wrapper = attribute.getReferenceClassName().replace('.', '/');
+                }
+                cv_set.visitTypeInsn(CHECKCAST, wrapper);
+                // Unwrap any primitive wrapper to its value.
+                unwrapPrimitive(attribute, cv_set);
+                cv_set.visitFieldInsn(PUTFIELD, classDetails.getClassName(), attribute.getAttributeName(), attribute.getReferenceClassType().getDescriptor());
+                // return;
+                cv_set.visitInsn(RETURN);
+            }
+        }
+        cv_set.visitLabel(defaultLabel);
+        // call super
+        if (classDetails.getSuperClassDetails() != null) {
+            cv_set.visitVarInsn(ALOAD, 0);
+            cv_set.visitVarInsn(ILOAD, 1);
+            cv_set.visitVarInsn(ALOAD, 2);
+            cv_set.visitMethodInsn(INVOKESPECIAL, classDetails.getSuperClassName(), "_persistence_set", "(ILjava/lang/Object;)V", false);
+        }
+        cv_set.visitInsn(RETURN);
+        cv_set.visitMaxs(0, 0);
     }
 
     /**
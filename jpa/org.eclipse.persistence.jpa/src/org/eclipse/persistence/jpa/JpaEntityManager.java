@@ -13,6 +13,7 @@
 package org.eclipse.persistence.jpa;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 
 import org.eclipse.persistence.queries.AttributeGroup;
 import org.eclipse.persistence.queries.Call;
@@ -152,4 +153,13 @@ public interface JpaEntityManager extends javax.persistence.EntityManager {
      * The AttributeGroup should correspond to the entity type.
      */
     public Object copy(Object entityOrEntities, AttributeGroup group);
+
+    /**
+     * PUBLIC:
+     * Find by primary key, returning a CompletionStage.
+     * As the persistence context is not thread safe, and the find must see the caller's transaction,
+     * the find is executed on the calling thread and the returned stage is already completed.
+     * @see JpaQuery#getResultListAsync()
+     */
+    public <T> CompletionStage<T> findAsync(Class<T> entityClass, Object primaryKey);
 }
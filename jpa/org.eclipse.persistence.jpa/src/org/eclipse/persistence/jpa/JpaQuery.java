@@ -13,6 +13,9 @@
 package org.eclipse.persistence.jpa;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
 
 import org.eclipse.persistence.queries.Cursor;
 import org.eclipse.persistence.queries.DatabaseQuery;
@@ -54,6 +57,57 @@
      */
     public Cursor getResultCursor();
 
+    /**
+     * PUBLIC:
+     * Non-standard method to return the results of a ReadAllQuery as a Stream.
+     * The objects are built lazily from a CursoredStream as the Stream is consumed, a page at a time,
+     * the page size being the JDBC fetch size if set, and the objects already consumed are released.
+     * The Stream keeps a live JDBC connection, close() must be called to free its resources,
+     * it is also closed once its end is reached.
+     * The "eclipselink.cursor.detached" hint avoids registering the objects in the persistence context.
+     * @return Stream on results
+     * @see org.eclipse.persistence.config.QueryHints#CURSOR_DETACHED
+     * @see org.eclipse.persistence.queries.CursoredStream#stream()
+     */
+    public Stream<X> getResultStream();
+
+    /**
+     * PUBLIC:
+     * Non-standard method to execute the query asynchronously and return its results as a List.
+     * Any error completes the returned stage exceptionally.
+     * <p>
+     * A read-only query (the "eclipselink.read-only" hint, or a native query returning data),
+     * executed outside of a transaction without a lock mode, does not use the persistence context.
+     * It is executed by the factory's asynchronous query executor on its own client session and connection,
+     * so the caller's thread is not blocked on the database, and many such queries can run concurrently.
+     * Other queries use the persistence context, which is not thread safe, and may require the caller's transaction,
+     * so they are executed on the calling thread and the returned stage is already completed.
+     * The query's parameters and hints must not be changed until the returned stage has completed.
+     * @see org.eclipse.persistence.config.QueryHints#READ_ONLY
+     * @see org.eclipse.persistence.config.PersistenceUnitProperties#QUERY_ASYNC_EXECUTOR
+     * @see org.eclipse.persistence.config.PersistenceUnitProperties#QUERY_ASYNC_POOL_SIZE
+     */
+    public CompletionStage<List<X>> getResultListAsync();
+
+    /**
+     * PUBLIC:
+     * Non-standard method to execute the query asynchronously and return its single result.
+     * The returned stage completes exceptionally with a NoResultException or NonUniqueResultException
+     * if the query does not return exactly one result.
+     * @see #getResultListAsync()
+     */
+    public CompletionStage<X> getSingleResultAsync();
+
+    /**
+     * PUBLIC:
+     * Non-standard method to execute an update or delete query asynchronously,
+     * and return the number of entities updated or deleted.
+     * The update uses the persistence context and the caller's transaction,
+     * so is executed on the calling thread and the returned stage is already completed.
+     * @see #getResultListAsync()
+     */
+    public CompletionStage<Integer> executeUpdateAsync();
+
     /**
      * PUBLIC:
      * Replace the cached query with the given query.
@@ -26,9 +26,11 @@
 import org.eclipse.persistence.testing.jaxb.json.attribute.JSONAttributePrefixOnMarshallerTestCases;
 import org.eclipse.persistence.testing.jaxb.json.attribute.SimpleBeanAttrNullTestCases;
 import org.eclipse.persistence.testing.jaxb.json.characters.EscapeCharactersTestCases;
+import org.eclipse.persistence.testing.jaxb.json.characters.JsonRecordEscapingTestCases;
 import org.eclipse.persistence.testing.jaxb.json.characters.UTF8TestCases;
 import org.eclipse.persistence.testing.jaxb.json.characters.UsAsciiTestCases;
 import org.eclipse.persistence.testing.jaxb.json.emptyroot.EmptyNullMarshalUnmarshalTestCases;
+import org.eclipse.persistence.testing.jaxb.json.memberorder.JsonMemberOrderTestCases;
 import org.eclipse.persistence.testing.jaxb.json.multiline.MultiLineStringTestCases;
 import org.eclipse.persistence.testing.jaxb.json.namespaces.DifferentNamespacesTestCases;
 import org.eclipse.persistence.testing.jaxb.json.namespaces.NamespaceInheritanceSeparatorContextTestCases;
@@ -81,6 +83,7 @@ public static Test suite() {
           suite.addTestSuite(XMLValuePropDifferentTestCases.class);
           suite.addTestSuite(NumberTestCases.class);
           suite.addTestSuite(EscapeCharactersTestCases.class);
+          suite.addTestSuite(JsonRecordEscapingTestCases.class);
           suite.addTestSuite(UsAsciiTestCases.class);
           suite.addTestSuite(UTF8TestCases.class);
           suite.addTest(RootLevelListTestCases.suite());
@@ -95,6 +98,7 @@ public static Test suite() {
           suite.addTestSuite(TypePropertyInheritanceTestCases.class);
           suite.addTestSuite(TypePropertyTestCases.class);
           suite.addTestSuite(JsonUnmappedTestCases.class);
+          suite.addTestSuite(JsonMemberOrderTestCases.class);
 
           return suite;
     }
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.characters;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlElement;
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement(name = "holder")
+@XmlAccessorType(XmlAccessType.FIELD)
+public class EscapedKeyHolder {
+    @XmlAttribute
+    public String id;
+    @XmlAttribute(name = "at\"tr")
+    public String quotedAttribute;
+    public String quotes;
+    public String controls;
+    public String deleteAndC1;
+    public String nonBmp;
+    public String loneSurrogates;
+    public String large;
+    public Long minLong;
+    public Long maxLong;
+    @XmlElement(name = "ke\"y")
+    public String quotedKey;
+    @XmlElement(name = "clé€")
+    public String nonAsciiKey;
+    @XmlElement(name = "sm😀le")
+    public String nonBmpKey;
+    public List<String> values = new ArrayList<String>();
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        EscapedKeyHolder holder = (EscapedKeyHolder) o;
+        return equals(id, holder.id) && equals(quotedAttribute, holder.quotedAttribute)
+                && equals(quotes, holder.quotes) && equals(controls, holder.controls)
+                && equals(deleteAndC1, holder.deleteAndC1) && equals(nonBmp, holder.nonBmp)
+                && equals(loneSurrogates, holder.loneSurrogates) && equals(large, holder.large)
+                && equals(minLong, holder.minLong) && equals(maxLong, holder.maxLong)
+                && equals(quotedKey, holder.quotedKey) && equals(nonAsciiKey, holder.nonAsciiKey)
+                && equals(nonBmpKey, holder.nonBmpKey) && values.equals(holder.values);
+    }
+
+    private static boolean equals(Object value, Object other) {
+        return value == null ? other == null : value.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "EscapedKeyHolder{id=" + id + ", quotedAttribute=" + quotedAttribute + ", quotes=" + quotes
+                + ", minLong=" + minLong + ", maxLong=" + maxLong + ", quotedKey=" + quotedKey
+                + ", nonAsciiKey=" + nonAsciiKey + ", nonBmpKey=" + nonBmpKey + ", values=" + values + '}';
+    }
+}
@@ -0,0 +1,130 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.characters;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.transform.stream.StreamSource;
+
+import junit.framework.TestCase;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
+import org.eclipse.persistence.jaxb.MarshallerProperties;
+
+/**
+ * Tests that marshalling JSON to an OutputStream writes the same characters as to a Writer,
+ * for the values and keys that must be escaped, and the output can be read back.
+ */
+public class JsonRecordEscapingTestCases extends TestCase {
+
+    private JAXBContext context;
+
+    public JsonRecordEscapingTestCases(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Map<String, Object> properties = new HashMap<String, Object>();
+        properties.put(JAXBContextProperties.MEDIA_TYPE, "application/json");
+        properties.put(JAXBContextProperties.JSON_ATTRIBUTE_PREFIX, "@");
+        context = JAXBContextFactory.createContext(new Class[] {EscapedKeyHolder.class}, properties);
+    }
+
+    public void testEscapedValuesAndKeys() throws Exception {
+        EscapedKeyHolder holder = getControlObject();
+        String json = assertSameOutput(holder, false);
+        JsonObject object = Json.createReader(new StringReader(json)).readObject().getJsonObject("holder");
+        assertEquals(holder.id, object.getString("@id"));
+        assertEquals(holder.quotedAttribute, object.getString("@at\"tr"));
+        assertEquals(holder.quotes, object.getString("quotes"));
+        assertEquals(holder.controls, object.getString("controls"));
+        assertEquals(holder.deleteAndC1, object.getString("deleteAndC1"));
+        assertEquals(holder.nonBmp, object.getString("nonBmp"));
+        assertEquals(holder.large, object.getString("large"));
+        assertEquals(Long.MIN_VALUE, object.getJsonNumber("minLong").longValueExact());
+        assertEquals(Long.MAX_VALUE, object.getJsonNumber("maxLong").longValueExact());
+        assertEquals(holder.quotedKey, object.getString("ke\"y"));
+        assertEquals(holder.nonAsciiKey, object.getString("clé€"));
+        assertEquals(holder.nonBmpKey, object.getString("sm😀le"));
+        assertEquals(holder.values.size(), object.getJsonArray("values").size());
+        assertEquals(holder, unmarshal(json));
+    }
+
+    public void testEscapedValuesAndKeysFormatted() throws Exception {
+        EscapedKeyHolder holder = getControlObject();
+        String json = assertSameOutput(holder, true);
+        assertEquals(holder, unmarshal(json));
+    }
+
+    public void testLoneSurrogates() throws Exception {
+        EscapedKeyHolder holder = new EscapedKeyHolder();
+        holder.loneSurrogates = "a\uD83Db\uDE00c\uDE00\uD83D";
+        assertSameOutput(holder, false);
+        assertSameOutput(holder, true);
+    }
+
+    private EscapedKeyHolder getControlObject() {
+        EscapedKeyHolder holder = new EscapedKeyHolder();
+        holder.id = "a\"1";
+        holder.quotedAttribute = "\"";
+        holder.quotes = "\"a\"\\\"/";
+        holder.controls = "\u0000\u0001\b\t\n\f\r\u001F";
+        holder.deleteAndC1 = "\u007F\u0080\u0085\u009F ";
+        holder.nonBmp = "😀𐀀";
+        StringBuilder large = new StringBuilder();
+        for (int index = 0; large.length() < 40000; index++) {
+            large.append("é€\"\\\n😀").append(index);
+        }
+        holder.large = large.toString();
+        holder.minLong = Long.MIN_VALUE;
+        holder.maxLong = Long.MAX_VALUE;
+        holder.quotedKey = "quoted";
+        holder.nonAsciiKey = "é";
+        holder.nonBmpKey = "😀";
+        holder.values.add("\"");
+        holder.values.add("\u007F");
+        holder.values.add("😀");
+        return holder;
+    }
+
+    /**
+     * Marshal the object to a Writer and to an OutputStream, assert the characters written are the same,
+     * and return them.
+     */
+    private String assertSameOutput(Object object, boolean formatted) throws Exception {
+        Marshaller marshaller = context.createMarshaller();
+        marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, formatted);
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(object, writer);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshaller.marshal(object, outputStream);
+        String streamed = new String(outputStream.toByteArray(), "UTF-8");
+        assertEquals(writer.toString(), streamed);
+        return streamed;
+    }
+
+    private Object unmarshal(String json) throws Exception {
+        return context.createUnmarshaller().unmarshal(new StreamSource(new StringReader(json)), EscapedKeyHolder.class).getValue();
+    }
+}
@@ -0,0 +1,36 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.memberorder;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+
+import org.eclipse.persistence.oxm.annotations.XmlDiscriminatorValue;
+
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlDiscriminatorValue("circle")
+public class Circle extends Shape {
+    public Double radius;
+
+    @Override
+    public boolean equals(Object o) {
+        if (!super.equals(o)) return false;
+        Circle circle = (Circle) o;
+        return radius != null ? radius.equals(circle.radius) : circle.radius == null;
+    }
+
+    @Override
+    public String toString() {
+        return super.toString() + "{radius=" + radius + '}';
+    }
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.memberorder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlRootElement;
+
+@XmlRootElement
+@XmlAccessorType(XmlAccessType.FIELD)
+public class Drawing {
+    public String title;
+    public Shape background;
+    public List<Shape> shapes = new ArrayList<Shape>();
+    public List<Integer> layers = new ArrayList<Integer>();
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Drawing drawing = (Drawing) o;
+        if (title != null ? !title.equals(drawing.title) : drawing.title != null) return false;
+        if (background != null ? !background.equals(drawing.background) : drawing.background != null) return false;
+        if (!shapes.equals(drawing.shapes)) return false;
+        return layers.equals(drawing.layers);
+    }
+
+    @Override
+    public int hashCode() {
+        return title != null ? title.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "Drawing{title=" + title + ", background=" + background + ", shapes=" + shapes + ", layers=" + layers + '}';
+    }
+}
@@ -0,0 +1,296 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.memberorder;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.json.Json;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+
+import junit.framework.TestCase;
+
+import org.eclipse.persistence.jaxb.JAXBContextFactory;
+import org.eclipse.persistence.jaxb.JAXBContextProperties;
+import org.eclipse.persistence.jaxb.UnmarshallerProperties;
+import org.eclipse.persistence.oxm.json.JsonStructureSource;
+
+/**
+ * Tests that unmarshalling JSON streamed from the parser gives the same objects as from a JsonStructure,
+ * whatever the order of the members, in particular when the type indicator follows nested content.
+ */
+public class JsonMemberOrderTestCases extends TestCase {
+
+    private JAXBContext shapeContext;
+    private JAXBContext routeContext;
+    private JAXBContext tripContext;
+
+    public JsonMemberOrderTestCases(String name) {
+        super(name);
+    }
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        Map<String, String> properties = Collections.singletonMap(JAXBContextProperties.MEDIA_TYPE, "application/json");
+        shapeContext = JAXBContextFactory.createContext(new Class[] {Drawing.class, Shape.class}, properties);
+        routeContext = JAXBContextFactory.createContext(new Class[] {Route.class}, properties);
+        tripContext = JAXBContextFactory.createContext(new Class[] {Trip.class, Drawing.class, Shape.class}, properties);
+    }
+
+    public void testIndicatorFirst() throws Exception {
+        Circle circle = circle("c", new Point(1, 2), 3.0);
+        assertUnmarshal(shapeContext, "{'kind':'circle','name':'c','origin':{'x':1,'y':2},'radius':3.0}", Shape.class, circle);
+    }
+
+    public void testIndicatorAfterNestedObject() throws Exception {
+        Circle circle = circle("c", new Point(1, 2), 3.0);
+        assertUnmarshal(shapeContext, "{'name':'c','origin':{'x':1,'y':2},'kind':'circle','radius':3.0}", Shape.class, circle);
+    }
+
+    public void testIndicatorLast() throws Exception {
+        Circle circle = circle("c", new Point(1, 2), 3.0);
+        assertUnmarshal(shapeContext, "{'origin':{'x':1,'y':2},'radius':3.0,'name':'c','kind':'circle'}", Shape.class, circle);
+    }
+
+    public void testIndicatorAfterArrayOfObjects() throws Exception {
+        Square square = new Square();
+        square.id = "s1";
+        square.points.add(new Point(1, 2));
+        square.points.add(new Point(3, 4));
+        square.side = 2;
+        square.tags.add("a");
+        square.tags.add("b");
+        assertUnmarshal(shapeContext, "{'points':[{'x':1,'y':2},{'x':3,'y':4}],'id':'s1','kind':'square','side':2,'tags':['a','b']}", Shape.class, square);
+    }
+
+    public void testNoIndicator() throws Exception {
+        Shape shape = new Shape();
+        shape.name = "plain";
+        shape.origin = new Point(5, 6);
+        assertUnmarshal(shapeContext, "{'origin':{'x':5,'y':6},'name':'plain'}", Shape.class, shape);
+    }
+
+    public void testIndicatorInNestedObjectAndArrayItems() throws Exception {
+        Drawing drawing = new Drawing();
+        drawing.title = "t";
+        drawing.background = circle("bg", new Point(0, 0), 10.0);
+        drawing.shapes.add(circle(null, new Point(1, 1), 1.5));
+        Square square = new Square();
+        square.points.add(new Point(0, 0));
+        square.side = 4;
+        drawing.shapes.add(square);
+        Shape shape = new Shape();
+        shape.name = "plain";
+        drawing.shapes.add(shape);
+        drawing.layers.add(1);
+        drawing.layers.add(2);
+        assertUnmarshal(shapeContext, "{'shapes':[{'origin':{'x':1,'y':1},'kind':'circle','radius':1.5},"
+                + "{'points':[{'x':0,'y':0}],'kind':'square','side':4},{'name':'plain'}],"
+                + "'background':{'origin':{'x':0,'y':0},'name':'bg','radius':10.0,'kind':'circle'},'title':'t','layers':[1,2]}", Drawing.class, drawing);
+    }
+
+    public void testIncludeRoot() throws Exception {
+        Circle circle = circle("c", new Point(1, 2), null);
+        String json = json("{'shape':{'origin':{'x':1,'y':2},'name':'c','kind':'circle'}}");
+        Unmarshaller unmarshaller = shapeContext.createUnmarshaller();
+        Object streamed = unmarshaller.unmarshal(new StreamSource(new StringReader(json)));
+        Object read = unmarshaller.unmarshal(new JsonStructureSource(Json.createReader(new StringReader(json)).read()));
+        assertEquals(circle, value(streamed));
+        assertEquals(value(read), value(streamed));
+    }
+
+    public void testNulls() throws Exception {
+        Circle circle = circle(null, null, null);
+        circle.id = "n";
+        circle.tags.add("a");
+        Object streamed = assertUnmarshal(shapeContext, "{'name':null,'origin':null,'tags':['a'],'points':[],'radius':null,'id':'n','kind':'circle'}", Shape.class, circle);
+        assertNull(((Circle) streamed).name);
+        assertNull(((Circle) streamed).origin);
+        // Null items of an array.
+        Drawing drawing = (Drawing) assertUnmarshal(shapeContext, "{'shapes':[null,{'origin':{'x':1,'y':1},'kind':'circle'}],'layers':[1,null,2],'background':null,'title':null}", Drawing.class, null);
+        assertNull(drawing.title);
+        assertNull(drawing.background);
+        assertEquals(Circle.class, drawing.shapes.get(drawing.shapes.size() - 1).getClass());
+    }
+
+    public void testRootArray() throws Exception {
+        String json = json("[{'origin':{'x':1,'y':1},'kind':'circle'},{'kind':'square','side':1},{'points':[{'x':2,'y':2}],'kind':'square'}]");
+        Unmarshaller unmarshaller = shapeContext.createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
+        List<?> streamed = (List<?>) value(unmarshaller.unmarshal(new StreamSource(new StringReader(json)), Shape.class));
+        List<?> read = (List<?>) value(unmarshaller.unmarshal(new JsonStructureSource(Json.createReader(new StringReader(json)).read()), Shape.class));
+        assertEquals(3, streamed.size());
+        assertEquals(Circle.class, value(streamed.get(0)).getClass());
+        assertEquals(Square.class, value(streamed.get(1)).getClass());
+        assertEquals(Square.class, value(streamed.get(2)).getClass());
+        for (int index = 0; index < streamed.size(); index++) {
+            assertEquals(value(read.get(index)), value(streamed.get(index)));
+        }
+    }
+
+    public void testScalarsAfterNestedContentWithoutInheritance() throws Exception {
+        Route route = new Route();
+        route.length = 5;
+        route.name = "r";
+        route.start = new Point(0, 0);
+        route.stops.add(new Point(1, 2));
+        assertUnmarshal(routeContext, "{'stops':[{'x':1,'y':2}],'start':{'x':0,'y':0},'name':'r','length':5}", Route.class, route);
+        assertUnmarshal(routeContext, "{'length':5,'name':'r','start':{'x':0,'y':0},'stops':[{'x':1,'y':2}]}", Route.class, route);
+    }
+
+    public void testInheritanceInsideObjectWithoutInheritance() throws Exception {
+        Trip trip = new Trip();
+        trip.name = "t";
+        trip.route = new Route();
+        trip.route.start = new Point(0, 0);
+        trip.route.name = "r";
+        Route leg = new Route();
+        leg.stops.add(new Point(1, 2));
+        leg.length = 3;
+        trip.legs.add(leg);
+        trip.marker = circle("m", new Point(4, 5), 1.0);
+        assertUnmarshal(tripContext, "{'route':{'start':{'x':0,'y':0},'name':'r'},'legs':[{'stops':[{'x':1,'y':2}],'length':3}],"
+                + "'marker':{'origin':{'x':4,'y':5},'name':'m','kind':'circle','radius':1.0},'name':'t'}", Trip.class, trip);
+    }
+
+    /**
+     * In a context with descriptors using inheritance, the nested objects of descriptors not using inheritance
+     * are unmarshalled as they are read, before the end of the object is read.
+     */
+    public void testNestedObjectWithoutInheritanceStreamed() throws Exception {
+        List<String> events = unmarshalTruncated(tripContext, "{'name':'t','route':{'name':'r','start':{'x':1,'y':2},'stops':[{'x':3,'y':4},", Trip.class);
+        assertTrue(events.toString(), events.contains("before Route"));
+        assertTrue(events.toString(), events.contains("after Point(1,2)"));
+        assertTrue(events.toString(), events.contains("after Point(3,4)"));
+        events = unmarshalTruncated(tripContext, "{'name':'t','legs':[{'name':'a','start':{'x':1,'y':2},'stops':[{'x':3,'y':4},", Trip.class);
+        assertTrue(events.toString(), events.contains("before Route"));
+        assertTrue(events.toString(), events.contains("after Point(3,4)"));
+    }
+
+    /**
+     * The nested object of a descriptor using inheritance is read ahead until its class indicator.
+     */
+    public void testNestedObjectWithInheritanceReadAhead() throws Exception {
+        List<String> events = unmarshalTruncated(tripContext, "{'name':'t','marker':{'name':'m','origin':{'x':1,'y':2},'points':[{'x':3,'y':4},", Trip.class);
+        assertFalse(events.toString(), events.contains("after Point(1,2)"));
+        events = unmarshalTruncated(tripContext, "{'name':'t','marker':{'kind':'circle','origin':{'x':1,'y':2},'points':[{'x':3,'y':4},", Trip.class);
+        assertTrue(events.toString(), events.contains("before Circle"));
+        assertTrue(events.toString(), events.contains("after Point(1,2)"));
+    }
+
+    private static Circle circle(String name, Point origin, Double radius) {
+        Circle circle = new Circle();
+        circle.name = name;
+        circle.origin = origin;
+        circle.radius = radius;
+        return circle;
+    }
+
+    private static String json(String json) {
+        return json.replace('\'', '"');
+    }
+
+    private static Object value(Object object) {
+        if (object instanceof JAXBElement) {
+            return ((JAXBElement) object).getValue();
+        }
+        return object;
+    }
+
+    /**
+     * Unmarshal the JSON without root from a stream that fails after the JSON given,
+     * and return the objects unmarshalled before the failure.
+     */
+    private static List<String> unmarshalTruncated(JAXBContext context, String json, Class type) throws Exception {
+        final List<String> events = new ArrayList<String>();
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
+        unmarshaller.setListener(new Unmarshaller.Listener() {
+            @Override
+            public void beforeUnmarshal(Object target, Object parent) {
+                events.add("before " + target.getClass().getSimpleName());
+            }
+
+            @Override
+            public void afterUnmarshal(Object target, Object parent) {
+                if (target instanceof Point) {
+                    Point point = (Point) target;
+                    events.add("after Point(" + point.x + "," + point.y + ")");
+                } else {
+                    events.add("after " + target.getClass().getSimpleName());
+                }
+            }
+        });
+        try {
+            unmarshaller.unmarshal(new StreamSource(new TruncatedReader(json(json))), type);
+            fail("The truncated JSON was unmarshalled");
+        } catch (Exception expected) {
+        }
+        return events;
+    }
+
+    /**
+     * Unmarshal the JSON without root from a stream and from a JsonStructure,
+     * assert the objects are the same, and are the expected object if given.
+     */
+    private Object assertUnmarshal(JAXBContext context, String json, Class type, Object expected) throws Exception {
+        String document = json(json);
+        Unmarshaller unmarshaller = context.createUnmarshaller();
+        unmarshaller.setProperty(UnmarshallerProperties.JSON_INCLUDE_ROOT, false);
+        Object streamed = value(unmarshaller.unmarshal(new StreamSource(new StringReader(document)), type));
+        Source source = new JsonStructureSource(Json.createReader(new StringReader(document)).read());
+        Object read = value(unmarshaller.unmarshal(source, type));
+        if (expected != null) {
+            assertEquals(expected, streamed);
+        }
+        assertEquals(read, streamed);
+        return streamed;
+    }
+
+    /**
+     * A reader of the JSON given that fails when read after its end, as a connection closed before the end of a document.
+     */
+    private static class TruncatedReader extends Reader {
+        private final String json;
+        private int index;
+
+        TruncatedReader(String json) {
+            this.json = json;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (index == json.length()) {
+                throw new IOException("Truncated");
+            }
+            int count = Math.min(length, json.length() - index);
+            json.getChars(index, index + count, buffer, offset);
+            index += count;
+            return count;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
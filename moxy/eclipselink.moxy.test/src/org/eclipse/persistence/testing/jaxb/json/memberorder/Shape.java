@@ -0,0 +1,61 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.jaxb.json.memberorder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.bind.annotation.XmlAccessType;
+import javax.xml.bind.annotation.XmlAccessorType;
+import javax.xml.bind.annotation.XmlAttribute;
+import javax.xml.bind.annotation.XmlRootElement;
+import javax.xml.bind.annotation.XmlSeeAlso;
+
+import org.eclipse.persistence.oxm.annotations.XmlDiscriminatorNode;
+import org.eclipse.persistence.oxm.annotations.XmlDiscriminatorValue;
+
+@XmlRootElement
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlDiscriminatorNode("@kind")
+@XmlDiscriminatorValue("shape")
+@XmlSeeAlso({Circle.class, Square.class})
+public class Shape {
+    @XmlAttribute
+    public String id;
+    public String name;
+    public Point origin;
+    public List<Point> points = new ArrayList<Point>();
+    public List<String> tags = new ArrayList<String>();
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Shape shape = (Shape) o;
+        if (id != null ? !id.equals(shape.id) : shape.id != null) return false;
+        if (name != null ? !name.equals(shape.name) : shape.name != null) return false;
+        if (origin != null ? !origin.equals(shape.origin) : shape.origin != null) return false;
+        if (!points.equals(shape.points)) return false;
+        return tags.equals(shape.tags);
+    }
+
+    @Override
+    public int hashCode() {
+        return name != null ? name.hashCode() : 0;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{id=" + id + ", name=" + name + ", origin=" + origin + ", points=" + points + ", tags=" + tags + '}';
+    }
+}
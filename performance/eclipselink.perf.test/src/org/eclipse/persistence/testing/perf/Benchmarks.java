@@ -13,6 +13,10 @@
 package org.eclipse.persistence.testing.perf;
 
 import org.eclipse.persistence.testing.perf.beanvalidation.MOXyValidationBenchmark;
+import org.eclipse.persistence.testing.perf.core.ConnectionPoolBenchmark;
+import org.eclipse.persistence.testing.perf.core.IdentityMapBenchmark;
+import org.eclipse.persistence.testing.perf.core.ObjectBuildingBenchmark;
+import org.eclipse.persistence.testing.perf.core.UnitOfWorkBenchmark;
 import org.eclipse.persistence.testing.perf.jpa.persistence_content_handler.PersistenceContentHandlerBenchmark;
 import org.eclipse.persistence.testing.perf.json.marshal.JsonMarshalBenchmark;
 import org.eclipse.persistence.testing.perf.json.unmarshal.JsonUnmarshalBenchmark;
@@ -54,6 +58,10 @@ public static void main(String[] args) throws RunnerException {
                 .include(getInclude(JsonUnmarshalBenchmark.class))
                 .include(getInclude(JsonWriterBenchmark.class))
                 .include(getInclude(MOXyValidationBenchmark.class))
+                .include(getInclude(IdentityMapBenchmark.class))
+                .include(getInclude(ObjectBuildingBenchmark.class))
+                .include(getInclude(UnitOfWorkBenchmark.class))
+                .include(getInclude(ConnectionPoolBenchmark.class))
                  // tests that are not part of regular test-harness
 //                .include(getInclude(JPAValidationBenchmark.class))
 //                .include(getInclude(ReferenceResolverBenchmark.class))
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.core;
+
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.server.ConcurrentConnectionPool;
+import org.eclipse.persistence.sessions.server.ConnectionPool;
+import org.eclipse.persistence.sessions.server.ServerSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures acquiring and releasing a connection, for each connection pool type, single and multi-threaded.
+ * The pool holds half as many connections as there are threads, so in the multi-threaded case threads wait.
+ */
+@State(Scope.Benchmark)
+public class ConnectionPoolBenchmark {
+
+    public static final int THREADS = 8;
+    public static final int CONNECTIONS = THREADS / 2;
+
+    @Param({"ConnectionPool", "ConcurrentConnectionPool"})
+    public String pool;
+
+    private ServerSession server;
+    private ConnectionPool connectionPool;
+
+    @Setup
+    public void prepare() throws Exception {
+        server = (ServerSession)new Project(new InMemoryLogin()).createServerSession();
+        server.setLogLevel(SessionLog.SEVERE);
+        if (pool.equals("ConcurrentConnectionPool")) {
+            connectionPool = new ConcurrentConnectionPool("benchmark", server.getDatasourceLogin(), CONNECTIONS, CONNECTIONS, CONNECTIONS, server);
+        } else {
+            connectionPool = new ConnectionPool("benchmark", server.getDatasourceLogin(), CONNECTIONS, CONNECTIONS, CONNECTIONS, server);
+        }
+        connectionPool.setWaitTimeout(0);
+        server.addConnectionPool(connectionPool);
+        server.login();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.logout();
+        server = null;
+    }
+
+    @Benchmark
+    public void testAcquireRelease(Blackhole bh) throws Exception {
+        bh.consume(acquireRelease());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testAcquireReleaseConcurrent(Blackhole bh) throws Exception {
+        bh.consume(acquireRelease());
+    }
+
+    private Accessor acquireRelease() {
+        Accessor connection = connectionPool.acquireConnection();
+        connectionPool.releaseConnection(connection);
+        return connection;
+    }
+}
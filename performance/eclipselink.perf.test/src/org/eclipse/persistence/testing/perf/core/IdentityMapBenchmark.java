@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.core;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.eclipse.persistence.queries.ReadObjectQuery;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.perf.core.model.Employee;
+import org.eclipse.persistence.testing.perf.core.model.EmployeeProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures shared cache lookups through the IdentityMapManager, directly and through a ReadObjectQuery
+ * by primary key, for each identity map type, single and multi-threaded.
+ * The identity map is sized to hold every employee, so all lookups are hits.
+ */
+@State(Scope.Benchmark)
+public class IdentityMapBenchmark {
+
+    public static final int THREADS = 8;
+    public static final int ROWS = 10000;
+
+    @Param({"SoftCacheWeakIdentityMap", "FullIdentityMap", "CacheIdentityMap", "ClockCacheIdentityMap"})
+    public String identityMap;
+
+    private Server server;
+
+    @Setup
+    public void prepare() throws Exception {
+        Class identityMapClass = Class.forName("org.eclipse.persistence.internal.identitymaps." + identityMap);
+        server = EmployeeProject.login(identityMapClass, ROWS, ROWS);
+        // Ensure the employees are cached, the cache identity maps would also relink them.
+        server.readAllObjects(Employee.class);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.logout();
+        server = null;
+    }
+
+    @Benchmark
+    public void testGetFromIdentityMap(Blackhole bh) throws Exception {
+        bh.consume(getFromIdentityMap());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testGetFromIdentityMapConcurrent(Blackhole bh) throws Exception {
+        bh.consume(getFromIdentityMap());
+    }
+
+    @Benchmark
+    public void testReadObjectCacheHit(Blackhole bh) throws Exception {
+        bh.consume(readObject());
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testReadObjectCacheHitConcurrent(Blackhole bh) throws Exception {
+        bh.consume(readObject());
+    }
+
+    private Object getFromIdentityMap() {
+        Long id = Long.valueOf(ThreadLocalRandom.current().nextInt(ROWS) + 1);
+        return server.getIdentityMapAccessor().getFromIdentityMap(id, Employee.class);
+    }
+
+    private Object readObject() {
+        ReadObjectQuery query = new ReadObjectQuery(Employee.class);
+        query.setSelectionId(Long.valueOf(ThreadLocalRandom.current().nextInt(ROWS) + 1));
+        return server.executeQuery(query);
+    }
+}
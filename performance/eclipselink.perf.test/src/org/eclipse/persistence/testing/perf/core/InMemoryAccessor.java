@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.databaseaccess.DatasourceAccessor;
+import org.eclipse.persistence.internal.databaseaccess.DatasourceCall;
+import org.eclipse.persistence.internal.helper.DatabaseField;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.internal.sessions.AbstractSession;
+import org.eclipse.persistence.queries.Call;
+import org.eclipse.persistence.queries.DatabaseQuery;
+import org.eclipse.persistence.queries.ModifyQuery;
+
+/**
+ * Accessor that executes calls against the rows of an {@link InMemoryLogin}.
+ * <ul>
+ * <li>inserts store the modify row,
+ * <li>updates replace the stored row with a copy merged with the modify row,
+ * <li>deletes remove the stored row,
+ * <li>updates and deletes only match a stored row with the translation row values, so version locking fails as on a database,
+ * <li>single row reads look up the primary key of the translation row,
+ * <li>all other reads return every row of the descriptor's table,
+ * <li>rollback restores the rows written in the transaction.
+ * </ul>
+ * Selection criteria other than the primary key are ignored, the SQL is never parsed.
+ */
+public class InMemoryAccessor extends DatasourceAccessor {
+
+    private static final Integer ONE_ROW = Integer.valueOf(1);
+    private static final Integer NO_ROWS = Integer.valueOf(0);
+
+    /** The table, primary key, old row and new row of each write in the transaction. */
+    private final List<Object[]> undoLog = new ArrayList<Object[]>();
+
+    @Override
+    protected Object basicExecuteCall(Call call, AbstractRecord translationRow, AbstractSession session) {
+        DatasourceCall datasourceCall = (DatasourceCall)call;
+        DatabaseQuery query = datasourceCall.getQuery();
+        ClassDescriptor descriptor = (query == null) ? null : query.getDescriptor();
+        incrementCallCount(session);
+        try {
+            if (descriptor == null) {
+                return datasourceCall.isNothingReturned() ? ONE_ROW : new Vector();
+            }
+            ConcurrentMap<Object, AbstractRecord> table = ((InMemoryLogin)getLogin()).getTable(descriptor);
+            if (query.isInsertObjectQuery()) {
+                AbstractRecord row = ((ModifyQuery)query).getModifyRow().clone();
+                Object primaryKey = descriptor.getObjectBuilder().extractPrimaryKeyFromRow(row, session);
+                if (table.putIfAbsent(primaryKey, row) != null) {
+                    return NO_ROWS;
+                }
+                logWrite(table, primaryKey, null, row);
+                return ONE_ROW;
+            } else if (query.isUpdateObjectQuery()) {
+                Object primaryKey = descriptor.getObjectBuilder().extractPrimaryKeyFromRow(translationRow, session);
+                AbstractRecord row = table.get(primaryKey);
+                if (!matches(row, translationRow)) {
+                    return NO_ROWS;
+                }
+                // Copy on write, readers may be building objects from the stored row.
+                AbstractRecord newRow = row.clone();
+                newRow.mergeFrom(((ModifyQuery)query).getModifyRow());
+                if (!table.replace(primaryKey, row, newRow)) {
+                    return NO_ROWS;
+                }
+                logWrite(table, primaryKey, row, newRow);
+                return ONE_ROW;
+            } else if (query.isDeleteObjectQuery()) {
+                Object primaryKey = descriptor.getObjectBuilder().extractPrimaryKeyFromRow(translationRow, session);
+                AbstractRecord row = table.get(primaryKey);
+                if (!matches(row, translationRow) || !table.remove(primaryKey, row)) {
+                    return NO_ROWS;
+                }
+                logWrite(table, primaryKey, row, null);
+                return ONE_ROW;
+            } else if (datasourceCall.isNothingReturned()) {
+                return ONE_ROW;
+            } else if (datasourceCall.isOneRowReturned()) {
+                Object primaryKey = descriptor.getObjectBuilder().extractPrimaryKeyFromRow(translationRow, session);
+                return (primaryKey == null) ? null : table.get(primaryKey);
+            }
+            return new Vector(table.values());
+        } finally {
+            decrementCallCount();
+        }
+    }
+
+    /**
+     * Return if the stored row has the values of all the fields of the translation row,
+     * i.e. the primary key and the optimistic lock values.
+     */
+    private static boolean matches(AbstractRecord row, AbstractRecord translationRow) {
+        if (row == null) {
+            return false;
+        }
+        for (int index = 0; index < translationRow.size(); index++) {
+            DatabaseField field = translationRow.getFields().get(index);
+            Object value = translationRow.getValues().get(index);
+            if ((value != null) && !value.equals(row.get(field))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void logWrite(ConcurrentMap<Object, AbstractRecord> table, Object primaryKey, AbstractRecord oldRow, AbstractRecord newRow) {
+        if (this.isInTransaction) {
+            undoLog.add(new Object[] {table, primaryKey, oldRow, newRow});
+        }
+    }
+
+    @Override
+    protected void basicBeginTransaction(AbstractSession session) {
+        undoLog.clear();
+    }
+
+    @Override
+    protected void basicCommitTransaction(AbstractSession session) {
+        undoLog.clear();
+    }
+
+    @Override
+    protected void basicRollbackTransaction(AbstractSession session) {
+        for (int index = undoLog.size() - 1; index >= 0; index--) {
+            Object[] write = undoLog.get(index);
+            ConcurrentMap<Object, AbstractRecord> table = (ConcurrentMap<Object, AbstractRecord>)write[0];
+            AbstractRecord oldRow = (AbstractRecord)write[2];
+            AbstractRecord newRow = (AbstractRecord)write[3];
+            if (newRow == null) {
+                table.put(write[1], oldRow);
+            } else if (oldRow == null) {
+                table.remove(write[1], newRow);
+            } else {
+                table.replace(write[1], newRow, oldRow);
+            }
+        }
+        undoLog.clear();
+    }
+
+    @Override
+    protected void closeDatasourceConnection() {
+    }
+
+    @Override
+    protected void buildConnectLog(AbstractSession session) {
+    }
+
+    @Override
+    protected boolean isDatasourceConnected() {
+        return this.datasourceConnection != null;
+    }
+}
@@ -0,0 +1,64 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.core;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.internal.databaseaccess.Accessor;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.sessions.DatabaseLogin;
+import org.eclipse.persistence.sessions.Session;
+
+/**
+ * Login to an in-memory stand-in for the database.
+ * The SQL is still generated by the default DatabasePlatform, but the calls are answered by
+ * {@link InMemoryAccessor} from rows held in memory, so the benchmarks measure the runtime and not JDBC.
+ * Rows are stored per descriptor class, keyed by the primary key extracted from the row.
+ */
+public class InMemoryLogin extends DatabaseLogin {
+
+    private final ConcurrentMap<Class, ConcurrentMap<Object, AbstractRecord>> tables = new ConcurrentHashMap<Class, ConcurrentMap<Object, AbstractRecord>>();
+
+    public InMemoryLogin() {
+        super();
+        setUsesExternalConnectionPooling(false);
+        setUsesExternalTransactionController(false);
+    }
+
+    @Override
+    public Accessor buildAccessor() {
+        return new InMemoryAccessor();
+    }
+
+    /**
+     * There is no driver, the connection is the in-memory tables.
+     */
+    @Override
+    public Object connectToDatasource(Accessor accessor, Session session) {
+        return tables;
+    }
+
+    /**
+     * Return the rows stored for the descriptor's class.
+     */
+    public ConcurrentMap<Object, AbstractRecord> getTable(ClassDescriptor descriptor) {
+        ConcurrentMap<Object, AbstractRecord> table = tables.get(descriptor.getJavaClass());
+        if (table == null) {
+            tables.putIfAbsent(descriptor.getJavaClass(), new ConcurrentHashMap<Object, AbstractRecord>());
+            table = tables.get(descriptor.getJavaClass());
+        }
+        return table;
+    }
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.core;
+
+import org.eclipse.persistence.internal.identitymaps.SoftCacheWeakIdentityMap;
+import org.eclipse.persistence.queries.ReadAllQuery;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.perf.core.model.Employee;
+import org.eclipse.persistence.testing.perf.core.model.EmployeeProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures ObjectBuilder.buildObject from rows returned by a ReadAllQuery,
+ * both building new objects (cache bypassed) and resolving rows to objects already in the shared cache.
+ */
+@State(Scope.Benchmark)
+public class ObjectBuildingBenchmark {
+
+    public static final int THREADS = 8;
+    public static final int ROWS = 1000;
+
+    private Server server;
+
+    @Setup
+    public void prepare() throws Exception {
+        server = EmployeeProject.login(SoftCacheWeakIdentityMap.class, ROWS, ROWS);
+        server.readAllObjects(Employee.class);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.logout();
+        server = null;
+    }
+
+    @Benchmark
+    public void testBuildNewObjects(Blackhole bh) throws Exception {
+        bh.consume(readAll(false));
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testBuildNewObjectsConcurrent(Blackhole bh) throws Exception {
+        bh.consume(readAll(false));
+    }
+
+    @Benchmark
+    public void testBuildCachedObjects(Blackhole bh) throws Exception {
+        bh.consume(readAll(true));
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testBuildCachedObjectsConcurrent(Blackhole bh) throws Exception {
+        bh.consume(readAll(true));
+    }
+
+    private Object readAll(boolean maintainCache) {
+        ReadAllQuery query = new ReadAllQuery(Employee.class);
+        if (!maintainCache) {
+            query.dontMaintainCache();
+        }
+        return server.executeQuery(query);
+    }
+}
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.core;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.persistence.exceptions.OptimisticLockException;
+import org.eclipse.persistence.internal.identitymaps.FullIdentityMap;
+import org.eclipse.persistence.internal.sessions.AbstractRecord;
+import org.eclipse.persistence.queries.ReadObjectQuery;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.sessions.server.ClientSession;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.perf.core.model.Employee;
+import org.eclipse.persistence.testing.perf.core.model.EmployeeProject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures UnitOfWorkImpl.calculateChanges and commit, and the MergeManager merges of
+ * detached objects into the unit of work and of the commit change set into the shared cache.
+ */
+@State(Scope.Benchmark)
+public class UnitOfWorkBenchmark {
+
+    public static final int THREADS = 8;
+    public static final int ROWS = 10000;
+    /** Objects registered, changed or inserted per unit of work. */
+    public static final int BATCH = 20;
+
+    private Server server;
+    private AtomicLong nextId;
+
+    @Setup
+    public void prepare() throws Exception {
+        server = EmployeeProject.login(FullIdentityMap.class, ROWS, ROWS);
+        server.readAllObjects(Employee.class);
+        nextId = new AtomicLong(ROWS);
+    }
+
+    /**
+     * Remove the inserted employees, so the in-memory table does not grow across iterations.
+     */
+    @TearDown(Level.Iteration)
+    public void removeInserted() throws Exception {
+        Map<Object, AbstractRecord> table = ((InMemoryLogin)server.getDatasourceLogin()).getTable(server.getDescriptor(Employee.class));
+        for (Iterator<Object> iterator = table.keySet().iterator(); iterator.hasNext();) {
+            if (((Number)iterator.next()).longValue() > ROWS) {
+                iterator.remove();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        server.logout();
+        server = null;
+    }
+
+    @Benchmark
+    public void testCalculateChanges(Blackhole bh) throws Exception {
+        calculateChanges(bh);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testCalculateChangesConcurrent(Blackhole bh) throws Exception {
+        calculateChanges(bh);
+    }
+
+    @Benchmark
+    public void testCommitUpdates(Blackhole bh) throws Exception {
+        commitUpdates(bh);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testCommitUpdatesConcurrent(Blackhole bh) throws Exception {
+        commitUpdates(bh);
+    }
+
+    @Benchmark
+    public void testCommitInserts(Blackhole bh) throws Exception {
+        commitInserts(bh);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testCommitInsertsConcurrent(Blackhole bh) throws Exception {
+        commitInserts(bh);
+    }
+
+    @Benchmark
+    public void testMergeDetached(Blackhole bh) throws Exception {
+        mergeDetached(bh);
+    }
+
+    @Benchmark
+    @Threads(THREADS)
+    public void testMergeDetachedConcurrent(Blackhole bh) throws Exception {
+        mergeDetached(bh);
+    }
+
+    /**
+     * Register and change employees, calculate the changes, but do not commit.
+     */
+    private void calculateChanges(Blackhole bh) {
+        ClientSession client = server.acquireClientSession();
+        try {
+            UnitOfWork uow = client.acquireUnitOfWork();
+            changeEmployees(uow);
+            bh.consume(uow.getCurrentChanges());
+            uow.release();
+        } finally {
+            client.release();
+        }
+    }
+
+    /**
+     * Register and change employees, and commit, merging the changes into the shared cache.
+     */
+    private void commitUpdates(Blackhole bh) {
+        ClientSession client = server.acquireClientSession();
+        try {
+            UnitOfWork uow = client.acquireUnitOfWork();
+            changeEmployees(uow);
+            uow.commit();
+            bh.consume(uow);
+        } catch (OptimisticLockException conflict) {
+            // Concurrent threads may change the same employee.
+            bh.consume(conflict);
+        } finally {
+            client.release();
+        }
+    }
+
+    private void commitInserts(Blackhole bh) {
+        ClientSession client = server.acquireClientSession();
+        try {
+            UnitOfWork uow = client.acquireUnitOfWork();
+            for (int index = 0; index < BATCH; index++) {
+                uow.registerNewObject(new Employee(nextId.incrementAndGet()));
+            }
+            uow.commit();
+            bh.consume(uow);
+        } finally {
+            client.release();
+        }
+    }
+
+    /**
+     * Merge detached copies of employees into a unit of work, as a JPA merge would, and commit.
+     */
+    private void mergeDetached(Blackhole bh) {
+        ClientSession client = server.acquireClientSession();
+        try {
+            UnitOfWork uow = client.acquireUnitOfWork();
+            for (int index = 0; index < BATCH; index++) {
+                // Read through the server session, as employees invalidated by conflicting commits must be refreshed.
+                ReadObjectQuery query = new ReadObjectQuery(Employee.class);
+                query.setSelectionId(randomId());
+                Employee cached = (Employee)server.executeQuery(query);
+                Employee detached = new Employee(cached.getId());
+                detached.setVersion(cached.getVersion());
+                detached.setSalary(cached.getSalary() + 1);
+                bh.consume(uow.mergeClone(detached));
+            }
+            uow.commit();
+        } catch (OptimisticLockException conflict) {
+            // Concurrent threads may change the same employee.
+            bh.consume(conflict);
+        } finally {
+            client.release();
+        }
+    }
+
+    private void changeEmployees(UnitOfWork uow) {
+        for (int index = 0; index < BATCH; index++) {
+            ReadObjectQuery query = new ReadObjectQuery(Employee.class);
+            query.setSelectionId(randomId());
+            Employee employee = (Employee)uow.executeQuery(query);
+            employee.setSalary(employee.getSalary() + 1);
+        }
+    }
+
+    private static Long randomId() {
+        return Long.valueOf(ThreadLocalRandom.current().nextInt(ROWS) + 1);
+    }
+}
@@ -0,0 +1,84 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.perf.core.model;
+
+import org.eclipse.persistence.descriptors.ClassDescriptor;
+import org.eclipse.persistence.descriptors.RelationalDescriptor;
+import org.eclipse.persistence.mappings.DirectToFieldMapping;
+import org.eclipse.persistence.logging.SessionLog;
+import org.eclipse.persistence.sessions.Project;
+import org.eclipse.persistence.sessions.UnitOfWork;
+import org.eclipse.persistence.sessions.server.ClientSession;
+import org.eclipse.persistence.sessions.server.Server;
+import org.eclipse.persistence.testing.perf.core.InMemoryLogin;
+
+/**
+ * Project for the core runtime benchmarks, mapped in code and logged in to an in-memory datasource.
+ */
+public class EmployeeProject extends Project {
+
+    public EmployeeProject() {
+        setName("Employee");
+        setDatasourceLogin(new InMemoryLogin());
+        addDescriptor(buildEmployeeDescriptor());
+    }
+
+    /**
+     * Login a server session using the identity map class for Employee,
+     * and insert the employees with ids 1 to rows through a unit of work.
+     */
+    public static Server login(Class identityMapClass, int identityMapSize, int rows) {
+        EmployeeProject project = new EmployeeProject();
+        ClassDescriptor descriptor = project.getDescriptor(Employee.class);
+        descriptor.setIdentityMapClass(identityMapClass);
+        descriptor.setIdentityMapSize(identityMapSize);
+        Server server = project.createServerSession(32, 32);
+        server.setLogLevel(SessionLog.SEVERE);
+        server.login();
+
+        ClientSession client = server.acquireClientSession();
+        UnitOfWork uow = client.acquireUnitOfWork();
+        for (long id = 1; id <= rows; id++) {
+            uow.registerNewObject(new Employee(id));
+        }
+        uow.commit();
+        client.release();
+        return server;
+    }
+
+    public ClassDescriptor buildEmployeeDescriptor() {
+        RelationalDescriptor descriptor = new RelationalDescriptor();
+        descriptor.setJavaClass(Employee.class);
+        descriptor.addTableName("EMPLOYEE");
+        descriptor.addPrimaryKeyFieldName("EMPLOYEE.ID");
+        descriptor.useVersionLocking("EMPLOYEE.VERSION", false);
+        descriptor.setAlias("Employee");
+
+        addDirectMapping(descriptor, "id", "EMPLOYEE.ID");
+        addDirectMapping(descriptor, "firstName", "EMPLOYEE.F_NAME");
+        addDirectMapping(descriptor, "lastName", "EMPLOYEE.L_NAME");
+        addDirectMapping(descriptor, "email", "EMPLOYEE.EMAIL");
+        addDirectMapping(descriptor, "city", "EMPLOYEE.CITY");
+        addDirectMapping(descriptor, "salary", "EMPLOYEE.SALARY");
+        addDirectMapping(descriptor, "version", "EMPLOYEE.VERSION");
+
+        return descriptor;
+    }
+
+    private void addDirectMapping(ClassDescriptor descriptor, String attributeName, String fieldName) {
+        DirectToFieldMapping mapping = new DirectToFieldMapping();
+        mapping.setAttributeName(attributeName);
+        mapping.setFieldName(fieldName);
+        descriptor.addMapping(mapping);
+    }
+}
@@ -13,6 +13,7 @@
 package org.eclipse.persistence.testing.perf.json.marshal;
 
 import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -45,14 +46,41 @@
 @State(Scope.Benchmark)
 public class JsonMarshalBenchmark {
 
+    private static final int EMPLOYEE_COUNT = 1000;
+
     private JAXBContext jaxbContext;
 
+    private List<Employee> employees;
+
     /*
      * Initial setup.
      */
     @Setup
     public void prepare() throws Exception {
         prepareJAXBContext();
+        prepareEmployees();
+    }
+
+    /*
+     * Marshals to an OutputStream, through the byte oriented JSON record.
+     */
+    @Benchmark
+    public void testJsonMarshalOutputStream(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        marshaller.marshal(employees, baos);
+        bh.consume(baos);
+    }
+
+    /*
+     * Marshals to a Writer, for comparison with the OutputStream.
+     */
+    @Benchmark
+    public void testJsonMarshalWriter(Blackhole bh) throws Exception {
+        Marshaller marshaller = jaxbContext.createMarshaller();
+        StringWriter writer = new StringWriter();
+        marshaller.marshal(employees, writer);
+        bh.consume(writer);
     }
 
     @Benchmark
@@ -117,6 +145,22 @@ public void testJsonMarshal(Blackhole bh) throws Exception {
         bh.consume(baos);
     }
 
+    private void prepareEmployees() {
+        employees = new ArrayList<Employee>(EMPLOYEE_COUNT);
+        for (int i = 0; i < EMPLOYEE_COUNT; i++) {
+            Employee employee = new Employee();
+            employee.setId(i);
+            employee.setFirstName("First \"" + i + "\"");
+            employee.setLastName("Last\u00e9 " + i);
+
+            PhoneNumber phoneNumber = new PhoneNumber();
+            phoneNumber.setType("work");
+            phoneNumber.setNumber("555-" + i);
+            employee.getPhoneNumbers().add(phoneNumber);
+            employees.add(employee);
+        }
+    }
+
     private void prepareJAXBContext() throws Exception {
 
         Map<String, Object> jaxbProperties = new HashMap<String, Object>(2);
@@ -12,7 +12,10 @@
  ******************************************************************************/
 package org.eclipse.persistence.testing.perf.json.unmarshal;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -45,14 +48,21 @@ public class JsonUnmarshalBenchmark {
 
     private static final String INPUT_JSON = "org/eclipse/persistence/testing/perf/json/unmarshal/input.json";
 
+    /** The number of times the employees of the input are repeated in the large document. */
+    private static final int LARGE_DOCUMENT_REPEAT = 10000;
+
     private JAXBContext jaxbContext;
 
+    /** The input's employees repeated into a document of a few megabytes. */
+    private byte[] largeDocument;
+
     /*
      * Initial setup.
      */
     @Setup
     public void prepare() throws Exception {
         prepareJAXBContext();
+        prepareLargeDocument();
     }
 
     @Benchmark
@@ -138,6 +148,31 @@ public void testJsonMOXyUnmarshal(Blackhole bh) throws Exception {
 
     }
 
+    /*
+     * Unmarshal a large document from a stream, the events are streamed from the parser.
+     */
+    @Benchmark
+    public void testJsonMOXyUnmarshalLarge(Blackhole bh) throws Exception {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        Object testObject = unmarshaller.unmarshal(new StreamSource(new ByteArrayInputStream(largeDocument)), Employee.class);
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        List<Employee> employees = (List<Employee>)(((JAXBElement)testObject).getValue());
+        bh.consume(employees);
+    }
+
+    /*
+     * Unmarshal a large document read into a JsonStructure first, for comparison with the streamed unmarshal.
+     */
+    @Benchmark
+    public void testJsonReaderUnmarshalLarge(Blackhole bh) throws Exception {
+        Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
+        JsonReader jsonReader = Json.createReader(new ByteArrayInputStream(largeDocument));
+        JsonStructureSource arraySource = new JsonStructureSource(jsonReader.readArray());
+        @SuppressWarnings("unchecked")
+        List<Employee> employees = (List<Employee>) unmarshaller.unmarshal(arraySource, Employee.class).getValue();
+        bh.consume(employees);
+    }
+
     @Benchmark
     public void testJsonParser(Blackhole bh) throws Exception {
         InputStream inputStream = null;
@@ -160,6 +195,36 @@ public void testJsonParser(Blackhole bh) throws Exception {
         }
     }
 
+    private void prepareLargeDocument() throws Exception {
+        InputStream inputStream = null;
+        try {
+            inputStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(INPUT_JSON);
+            ByteArrayOutputStream input = new ByteArrayOutputStream();
+            byte[] buffer = new byte[1024];
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                input.write(buffer, 0, read);
+            }
+            Charset utf8 = Charset.forName("UTF-8");
+            String array = new String(input.toByteArray(), utf8).trim();
+            String employees = array.substring(1, array.length() - 1);
+            StringBuilder document = new StringBuilder(employees.length() * LARGE_DOCUMENT_REPEAT);
+            document.append('[');
+            for (int index = 0; index < LARGE_DOCUMENT_REPEAT; index++) {
+                if (index > 0) {
+                    document.append(',');
+                }
+                document.append(employees);
+            }
+            document.append(']');
+            largeDocument = document.toString().getBytes(utf8);
+        } finally {
+            if (null != inputStream) {
+                inputStream.close();
+            }
+        }
+    }
+
     private void prepareJAXBContext() throws Exception {
         Map<String, Object> jaxbProperties = new HashMap<String, Object>(2);
         jaxbProperties.put(JAXBContextProperties.MEDIA_TYPE, "application/json");
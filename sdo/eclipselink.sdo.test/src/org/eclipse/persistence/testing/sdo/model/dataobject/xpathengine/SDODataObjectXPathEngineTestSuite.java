@@ -28,6 +28,7 @@ public static Test suite() {
         suite.addTest(new TestSuite(XPathExpressionTestCases.class));
         suite.addTest(new TestSuite(XPathEngineBug242108TestCases.class));
         suite.addTestSuite(XPathCharacterTestCases.class);
+        suite.addTestSuite(XPathEngineCompiledPathTestCases.class);
         return suite;
     }
 
@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.testing.sdo.model.dataobject.xpathengine;
+
+import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.textui.TestRunner;
+
+import org.eclipse.persistence.sdo.SDOConstants;
+import org.eclipse.persistence.sdo.SDOProperty;
+import org.eclipse.persistence.sdo.SDOType;
+import org.eclipse.persistence.sdo.helper.CompiledXPath;
+import org.eclipse.persistence.testing.sdo.SDOTestCase;
+
+import commonj.sdo.DataObject;
+import commonj.sdo.Type;
+
+/**
+ * Test that paths compiled and cached by Type return the same values, and make the same changes
+ * or throw the same exceptions, as the paths parsed by the XPathEngine.
+ * A path with a namespace prefix is not compiled, and the XPathEngine ignores the prefix,
+ * so prefixing a path evaluates it without the compiled path.
+ */
+public class XPathEngineCompiledPathTestCases extends SDOTestCase {
+    private static final String PREFIX = "ns0:";
+
+    private DataObject rootObject;
+
+    public XPathEngineCompiledPathTestCases(String name) {
+        super(name);
+    }
+
+    public static void main(String[] args) {
+        String[] arguments = { "-c", "org.eclipse.persistence.testing.sdo.model.dataobject.xpathengine.XPathEngineCompiledPathTestCases" };
+        TestRunner.main(arguments);
+    }
+
+    public void setUp() {
+        super.setUp();
+        try {
+            xsdHelper.define(new FileInputStream("org/eclipse/persistence/testing/sdo/model/dataobject/xpathengine/PurchaseOrderXPathEngine.xsd"), null);
+            rootObject = xmlHelper.load(new FileInputStream("org/eclipse/persistence/testing/sdo/model/dataobject/xpathengine/purchaseOrderXPathEngine.xml")).getRootObject();
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("An error occurred loading the xsd");
+        }
+    }
+
+    public void testCompile() {
+        SDOType type = (SDOType)rootObject.getType();
+        assertNotNull(type.getCompiledXPath("items/item[2]/comment.1"));
+        assertNotNull(type.getCompiledXPath("shipTo/@zip"));
+        assertSame(type.getCompiledXPath("items/item[2]/comment.1"), type.getCompiledXPath("items/item[2]/comment.1"));
+        assertNull(type.getCompiledXPath(PREFIX + "items"));
+        assertNull(type.getCompiledXPath("items/item[0]"));
+        assertNull(type.getCompiledXPath("items/item[01]"));
+        assertNull(type.getCompiledXPath("items/item[partNum='926-AA']"));
+        assertNull(type.getCompiledXPath("items/.."));
+        assertNull(type.getCompiledXPath("/items"));
+        assertNull(type.getCompiledXPath("items/"));
+        assertNull(type.getCompiledXPath(""));
+    }
+
+    public void testGetPositions() {
+        assertGet(rootObject, "items/item[1]/productName");
+        assertGet(rootObject, "items/item.0/productName");
+        assertGet(rootObject, "items/item[2]/comment[2]");
+        assertGet(rootObject, "items/item.1/comment.1");
+        assertGet(rootObject, "items/item[1]/partsList/partNumber[6]");
+        assertGet(rootObject, "items/item.3/shipDate");
+        assertGet(rootObject, "comment[1]");
+        assertGet(rootObject, "comment.1");
+        assertGet(rootObject, "comment");
+        assertGet(rootObject, "items/item");
+        assertGet(rootObject, "items");
+        assertGet(rootObject, "customer/name");
+        // The properties are resolved from the Type of each DataObject.
+        assertGet(rootObject, "shipTo/state");
+        assertGet(rootObject, "billTo/province");
+        assertGet(rootObject, "billTo/state");
+    }
+
+    public void testGetAttributes() {
+        assertGet(rootObject, "@poId");
+        assertGet(rootObject, "@orderDate");
+        assertGet(rootObject, "shipTo/@zip");
+        assertGet(rootObject, "shipTo/@country");
+        assertGet(rootObject, "billTo/@zip");
+        assertGet(rootObject, "items/item[2]/@partNum");
+        assertGet(rootObject, "items/item.3/@quantity");
+        assertGet(rootObject, "customer/@namePrefix");
+    }
+
+    public void testGetOutOfBounds() {
+        assertGet(rootObject, "items/item[5]");
+        assertGet(rootObject, "items/item.4");
+        assertGet(rootObject, "items/item[5]/productName");
+        assertGet(rootObject, "items/item.99/@partNum");
+        assertGet(rootObject, "comment[3]");
+        assertGet(rootObject, "comment.2");
+        assertGet(rootObject, "items/item[3]/comment[1]");
+        assertGet(rootObject, "items/item[1]/partsList/partNumber.99");
+        assertGet(rootObject, "items/item[0]");
+        assertGet(rootObject, "items/item[0]/productName");
+    }
+
+    public void testGetNullIntermediate() {
+        rootObject.unset("customer");
+        assertGet(rootObject, "customer/name");
+        assertGet(rootObject, "customer/@namePrefix");
+        assertGet(rootObject, "items/item[3]/partsList/partNumber[1]");
+        assertGet(rootObject, "items/item[3]/shipDate/name");
+        assertGet(rootObject, "unknown/name");
+        assertGet(rootObject, "unknown");
+        assertGet(rootObject, "items/unknown[1]");
+        assertGet(rootObject, "@unknown");
+    }
+
+    public void testSet() {
+        assertSet("items/item[1]/productName", "Mower");
+        assertSet("items/item.0/productName", "Mower");
+        assertSet("items/item.1/comment[2]", "Runs on batteries");
+        assertSet("items/item[2]/comment.0", "Runs on batteries");
+        assertSet("comment[2]", "Water the lawn");
+        assertSet("@poId", "1234");
+        assertSet("shipTo/@country", "Canada");
+        assertSet("shipTo/state", "ON");
+        assertSet("customer/name", "Sam");
+    }
+
+    public void testSetOutOfBounds() {
+        assertSet("items/item[5]/productName", "Mower");
+        assertSet("items/item.4/productName", "Mower");
+        assertSet("comment[3]", "Water the lawn");
+        assertSet("comment.2", "Water the lawn");
+        assertSet("items/item[0]", "Mower");
+        assertSet("items/item[3]/comment[1]", "Fragile");
+    }
+
+    public void testSetNullIntermediate() {
+        rootObject.unset("customer");
+        assertSet("customer/name", "Sam");
+        assertSet("customer/@namePrefix", "Dr.");
+        assertSet("items/item[3]/partsList/partNumber[1]", "1");
+        assertSet("unknown/name", "Sam");
+        assertSet("unknown", "Sam");
+    }
+
+    public void testOpenContent() {
+        DataObject addressType = defineType("my.uri", "address");
+        addProperty(addressType, "city", SDOConstants.SDO_STRING, false, false, true);
+        Type addressSDOType = typeHelper.define(addressType);
+        DataObject employeeType = defineType("my.uri", "employee");
+        addProperty(employeeType, "name", SDOConstants.SDO_STRING, false, false, true);
+        addProperty(employeeType, "address", addressSDOType, true, false, true);
+        employeeType.set("open", true);
+        Type employeeSDOType = typeHelper.define(employeeType);
+
+        DataObject employee = dataFactory.create(employeeSDOType);
+        employee.set("name", "Bob Smith");
+        DataObject homeAddress = dataFactory.create(addressSDOType);
+        homeAddress.set("city", "Ottawa");
+        employee.set("homeAddress", homeAddress);
+        List phones = new ArrayList();
+        phones.add("6131231234");
+        phones.add("6134564567");
+        employee.set("phones", phones);
+
+        assertGet(employee, "homeAddress/city");
+        assertGet(employee, "phones[2]");
+        assertGet(employee, "phones.1");
+        assertGet(employee, "phones.2");
+        assertGet(employee, "nickname");
+
+        // The open content properties are resolved from each DataObject.
+        DataObject other = dataFactory.create(employeeSDOType);
+        other.set("phones", "6137897890");
+        assertGet(other, "phones");
+        assertGet(other, "phones[1]");
+        assertGet(other, "homeAddress/city");
+
+        rootObject = employee;
+        assertSet("homeAddress/city", "Toronto");
+        assertSet("phones[1]", "6130000000");
+        assertSet("nickname", "Bobby");
+        assertSet("address/city", "Toronto");
+    }
+
+    public void testAddDeclaredPropertyClearsCompiledPaths() {
+        DataObject itemType = defineType("my.uri", "item");
+        addProperty(itemType, "name", SDOConstants.SDO_STRING, false, false, true);
+        itemType.set("open", true);
+        SDOType itemSDOType = (SDOType)typeHelper.define(itemType);
+        DataObject item = dataFactory.create(itemSDOType);
+        item.set("name", "Rake");
+        item.set("code", "555");
+        assertGet(item, "name");
+        assertGet(item, "code");
+        CompiledXPath xpath = itemSDOType.getCompiledXPath("code");
+
+        SDOProperty property = new SDOProperty(aHelperContext);
+        property.setName("size");
+        property.setType(SDOConstants.SDO_INT);
+        itemSDOType.addDeclaredProperty(property);
+        assertNotSame(xpath, itemSDOType.getCompiledXPath("code"));
+        assertGet(item, "code");
+        assertGet(item, "name");
+        DataObject sizedItem = dataFactory.create(itemSDOType);
+        sizedItem.set("name", "Rake");
+        sizedItem.set("size", new Integer(3));
+        sizedItem.set("code", "555");
+        assertGet(sizedItem, "size");
+        assertGet(sizedItem, "code");
+        assertGet(sizedItem, "name");
+    }
+
+    public void testAddBaseTypeClearsCompiledPaths() {
+        DataObject baseType = defineType("my.uri", "base");
+        addProperty(baseType, "id", SDOConstants.SDO_STRING, false, false, true);
+        SDOType baseSDOType = (SDOType)typeHelper.define(baseType);
+        DataObject itemType = defineType("my.uri", "item");
+        addProperty(itemType, "name", SDOConstants.SDO_STRING, false, false, true);
+        SDOType itemSDOType = (SDOType)typeHelper.define(itemType);
+        DataObject item = dataFactory.create(itemSDOType);
+        item.set("name", "Rake");
+        assertGet(item, "name");
+        assertGet(item, "id");
+        CompiledXPath xpath = itemSDOType.getCompiledXPath("id");
+
+        itemSDOType.addBaseType(baseSDOType);
+        assertNotSame(xpath, itemSDOType.getCompiledXPath("id"));
+        assertGet(item, "id");
+        assertGet(item, "name");
+    }
+
+    /**
+     * Assert the path returns the same value or throws the same exception when compiled as when parsed.
+     */
+    private void assertGet(DataObject dataObject, String path) {
+        Object expected = null;
+        Class expectedException = null;
+        try {
+            expected = dataObject.get(PREFIX + path);
+        } catch (RuntimeException exception) {
+            expectedException = exception.getClass();
+        }
+        // Evaluated twice to use the properties cached for the Type.
+        for (int index = 0; index < 2; index++) {
+            Object value = null;
+            Class exceptionClass = null;
+            try {
+                value = dataObject.get(path);
+            } catch (RuntimeException exception) {
+                exceptionClass = exception.getClass();
+            }
+            assertEquals(path, expectedException, exceptionClass);
+            if (expected instanceof DataObject) {
+                assertSame(path, expected, value);
+            } else {
+                assertEquals(path, expected, value);
+            }
+        }
+    }
+
+    /**
+     * Assert setting the path on a copy of the root makes the same change or throws the same exception
+     * when compiled as when parsed.
+     */
+    private void assertSet(String path, Object value) {
+        DataObject expected = copyHelper.copy(rootObject);
+        Class expectedException = null;
+        try {
+            expected.set(PREFIX + path, value);
+        } catch (RuntimeException exception) {
+            expectedException = exception.getClass();
+        }
+        DataObject actual = copyHelper.copy(rootObject);
+        Class exceptionClass = null;
+        try {
+            actual.set(path, value);
+        } catch (RuntimeException exception) {
+            exceptionClass = exception.getClass();
+        }
+        assertEquals(path, expectedException, exceptionClass);
+        assertTrue(path, equalityHelper.equal(expected, actual));
+    }
+}
@@ -23,7 +23,9 @@
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.namespace.QName;
+import org.eclipse.persistence.sdo.helper.CompiledXPath;
 import org.eclipse.persistence.sdo.helper.SDOClassLoader;
 import org.eclipse.persistence.sdo.helper.SDOTypeHelper;
 import org.eclipse.persistence.sdo.helper.SDOXMLHelper;
@@ -84,6 +86,12 @@ public class SDOType implements Type, Serializable {
     private List appInfoElements;
     private Map appInfoMap;
 
+    /** The maximum number of paths compiled for access from the DataObjects of a Type. */
+    private static final int MAX_COMPILED_XPATHS = 256;
+
+    /** The paths compiled for access from the DataObjects of this Type, by path. */
+    private transient Map<String, CompiledXPath> compiledXPaths;
+
     /** Open Content setOpen constants */
     private static final String ANY_MAPPING_ATTRIBUTE_NAME = "openContentProperties";
     private static final String ANY_MAPPING_GET_METHOD_NAME = "_getOpenContentPropertiesWithXMLRoots";
@@ -452,6 +460,7 @@ public void setBaseTypes(List bTypes) {
     public void addBaseType(SDOType type) {
         if (!this.getBaseTypes().contains(type)) {
             getBaseTypes().add(type);
+            compiledXPaths = null;
 
             updateSubtypes(type);
 
@@ -589,6 +598,7 @@ public void addDeclaredProperty(SDOProperty property, int index) {
             if ((property.getType() != null) && (property.getType().isChangeSummaryType())) {
                 changeSummaryProperty = property;
             }
+            compiledXPaths = null;
         }
     }
 
@@ -599,6 +609,32 @@ public void removeDeclaredProperties(Property p) {
         getDeclaredProperties().remove(p);
         getDeclaredPropertiesMap().remove(p.getName());
         getProperties().remove(p);
+        compiledXPaths = null;
+    }
+
+    /**
+     * INTERNAL:
+     * Return the path compiled for access from the DataObjects of this Type,
+     * or null if the path is not a simple path and must be evaluated by the XPathEngine.
+     * The compiled paths are cached by Type, and so by HelperContext,
+     * as the properties of their steps are resolved from the Type of each DataObject.
+     * @see CompiledXPath
+     */
+    public CompiledXPath getCompiledXPath(String path) {
+        Map<String, CompiledXPath> xpaths = compiledXPaths;
+        if (null == xpaths) {
+            xpaths = new ConcurrentHashMap<String, CompiledXPath>();
+            compiledXPaths = xpaths;
+        }
+        CompiledXPath xpath = xpaths.get(path);
+        if (null == xpath) {
+            xpath = CompiledXPath.compile(path);
+            // Paths built with changing positions or names are compiled each time once the cache is full.
+            if ((null != xpath) && (xpaths.size() < MAX_COMPILED_XPATHS)) {
+                xpaths.put(path, xpath);
+            }
+        }
+        return xpath;
     }
 
     /**
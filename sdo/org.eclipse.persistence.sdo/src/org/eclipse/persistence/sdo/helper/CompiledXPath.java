@@ -0,0 +1,273 @@
+/*******************************************************************************
+ * Copyright (c) 2015 Oracle and/or its affiliates. All rights reserved.
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License v1.0 and Eclipse Distribution License v. 1.0
+ * which accompanies this distribution.
+ * The Eclipse Public License is available at http://www.eclipse.org/legal/epl-v10.html
+ * and the Eclipse Distribution License is available at
+ * http://www.eclipse.org/org/documents/edl-v10.php.
+ *
+ * Contributors:
+ *     Oracle - initial API and implementation
+ ******************************************************************************/
+package org.eclipse.persistence.sdo.helper;
+
+import java.util.List;
+
+import org.eclipse.persistence.sdo.SDODataObject;
+import org.eclipse.persistence.sdo.SDOProperty;
+import org.eclipse.persistence.sdo.SDOType;
+
+/**
+ * INTERNAL:
+ * <p><b>Purpose</b>: A simple SDO path compiled into its steps, so it can be evaluated
+ * against DataObjects without parsing the path string again.
+ * <p><b>Responsibilities</b>:<ul>
+ *    <li> Parse the property name and position of each step of a path like "a/b[1]/c", "@attr" or "a.0"
+ *    <li> Cache the property resolved for each step by the Type of the DataObject it was last evaluated on
+ * </ul>
+ * Only paths of property names with optional positions are compiled, paths with namespace prefixes,
+ * queries, "..", or a leading or trailing "/" are evaluated by the XPathEngine.
+ * If a compiled path cannot be evaluated against a DataObject, for example if the value of a step is null
+ * or a position is out of bounds, {@link #NOT_EVALUATED} is returned and the XPathEngine must evaluate
+ * the path, so the same result or error is returned as before.
+ * The properties resolved from the Type are only cached once the Type is finalized,
+ * open content properties are resolved from the DataObject each time.
+ * @see XPathEngine
+ * @see SDOType#getCompiledXPath(String)
+ */
+public class CompiledXPath {
+
+    /** Returned when the path could not be evaluated, and must be evaluated by the XPathEngine. */
+    public static final Object NOT_EVALUATED = new Object();
+
+    /** Larger positions are left to the XPathEngine, so they are not parsed past an int. */
+    private static final int MAX_POSITION_DIGITS = 9;
+
+    private final String[] propertyNames;
+
+    /** The zero based position of each step, or -1 if the step has no position. */
+    private final int[] positions;
+
+    /** The last property resolved for each step and the Type it was resolved from. */
+    private final Resolution[] resolutions;
+
+    private CompiledXPath(String[] propertyNames, int[] positions) {
+        this.propertyNames = propertyNames;
+        this.positions = positions;
+        this.resolutions = new Resolution[propertyNames.length];
+    }
+
+    /**
+     * Return the compiled path, or null if the path is not a simple path that can be compiled.
+     */
+    public static CompiledXPath compile(String path) {
+        if ((path == null) || (path.length() == 0)) {
+            return null;
+        }
+        int stepCount = 1;
+        for (int index = path.indexOf('/'); index != -1; index = path.indexOf('/', index + 1)) {
+            stepCount++;
+        }
+        String[] propertyNames = new String[stepCount];
+        int[] positions = new int[stepCount];
+        int start = 0;
+        for (int step = 0; step < stepCount; step++) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = path.length();
+            }
+            if (!compileStep(path, start, end, step, propertyNames, positions)) {
+                return null;
+            }
+            start = end + 1;
+        }
+        return new CompiledXPath(propertyNames, positions);
+    }
+
+    /**
+     * Parse the step between the start and end indexes, as the XPathEngine parses a fragment.
+     * Return false if the step is not a property name, optionally prefixed by '@',
+     * followed by an optional "[n]" position starting at 1 or ".n" position starting at 0.
+     */
+    private static boolean compileStep(String path, int start, int end, int step, String[] propertyNames, int[] positions) {
+        int nameStart = start;
+        if ((nameStart < end) && (path.charAt(nameStart) == '@')) {
+            nameStart++;
+        }
+        int nameEnd = nameStart;
+        while ((nameEnd < end) && isNameCharacter(path.charAt(nameEnd))) {
+            nameEnd++;
+        }
+        if (nameEnd == nameStart) {
+            return false;
+        }
+        int position = -1;
+        if (nameEnd < end) {
+            char character = path.charAt(nameEnd);
+            if ((character == '[') && (path.charAt(end - 1) == ']')) {
+                // The XPathEngine returns the whole list for [0] or leading zeros.
+                if ((nameEnd + 1 < end) && (path.charAt(nameEnd + 1) == '0')) {
+                    return false;
+                }
+                position = parsePosition(path, nameEnd + 1, end - 1);
+                if (position < 1) {
+                    return false;
+                }
+                position--;
+            } else if (character == '.') {
+                position = parsePosition(path, nameEnd + 1, end);
+                if (position < 0) {
+                    return false;
+                }
+            } else {
+                return false;
+            }
+        }
+        propertyNames[step] = path.substring(nameStart, nameEnd);
+        positions[step] = position;
+        return true;
+    }
+
+    private static boolean isNameCharacter(char character) {
+        switch (character) {
+        case '/':
+        case '[':
+        case ']':
+        case '.':
+        case '@':
+        case ':':
+        case '=':
+        case '\'':
+        case '"':
+            return false;
+        default:
+            return !Character.isWhitespace(character);
+        }
+    }
+
+    /**
+     * Return the digits between the start and end indexes as a number, or -1.
+     */
+    private static int parsePosition(String path, int start, int end) {
+        if ((start >= end) || (end - start > MAX_POSITION_DIGITS)) {
+            return -1;
+        }
+        int position = 0;
+        for (int index = start; index < end; index++) {
+            char digit = path.charAt(index);
+            if ((digit < '0') || (digit > '9')) {
+                return -1;
+            }
+            position = (position * 10) + (digit - '0');
+        }
+        return position;
+    }
+
+    /**
+     * Return the value at the path from the DataObject, or NOT_EVALUATED.
+     */
+    public Object get(SDODataObject caller) {
+        try {
+            SDODataObject dataObject = getLastDataObject(caller);
+            if (dataObject == null) {
+                return NOT_EVALUATED;
+            }
+            return getValue(propertyNames.length - 1, dataObject);
+        } catch (RuntimeException exception) {
+            return NOT_EVALUATED;
+        }
+    }
+
+    /**
+     * Return the DataObject of the last step of the path, the caller for a single step,
+     * or null if the path could not be evaluated to a DataObject.
+     */
+    public SDODataObject getLastDataObject(SDODataObject caller) {
+        try {
+            SDODataObject dataObject = caller;
+            for (int step = 0, lastStep = propertyNames.length - 1; step < lastStep; step++) {
+                Object value = getValue(step, dataObject);
+                if (!(value instanceof SDODataObject)) {
+                    return null;
+                }
+                dataObject = (SDODataObject)value;
+            }
+            return dataObject;
+        } catch (RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Return the property of the last step of the path from its DataObject, or null if it is not defined.
+     */
+    public SDOProperty getLastProperty(SDODataObject lastDataObject) {
+        try {
+            return getProperty(propertyNames.length - 1, lastDataObject);
+        } catch (RuntimeException exception) {
+            return null;
+        }
+    }
+
+    /**
+     * Return the zero based position of the last step of the path, or -1.
+     */
+    public int getLastPosition() {
+        return positions[positions.length - 1];
+    }
+
+    /**
+     * Return the value of the step from the DataObject, as the XPathEngine does for a fragment.
+     */
+    private Object getValue(int step, SDODataObject dataObject) {
+        SDOProperty property = getProperty(step, dataObject);
+        if (property == null) {
+            return null;
+        }
+        int position = positions[step];
+        if (property.isMany() && (position > -1)) {
+            List values = dataObject.getList(property);
+            if (position >= values.size()) {
+                return NOT_EVALUATED;
+            }
+            return values.get(position);
+        }
+        return dataObject.get(property);
+    }
+
+    /**
+     * Return the property of the step for the DataObject, resolved as by getInstanceProperty.
+     */
+    private SDOProperty getProperty(int step, SDODataObject dataObject) {
+        SDOType type = dataObject.getType();
+        if (type == null) {
+            return dataObject.getInstanceProperty(propertyNames[step]);
+        }
+        Resolution resolution = resolutions[step];
+        if ((resolution != null) && (resolution.type == type)) {
+            return resolution.property;
+        }
+        SDOProperty property = type.getProperty(propertyNames[step]);
+        if (property == null) {
+            return dataObject.getInstanceProperty(propertyNames[step]);
+        }
+        if (type.isFinalized()) {
+            resolutions[step] = new Resolution(type, property);
+        }
+        return property;
+    }
+
+    /**
+     * The property resolved for a step from a Type, immutable so it can be replaced while being read.
+     */
+    private static final class Resolution {
+        final SDOType type;
+        final SDOProperty property;
+
+        Resolution(SDOType type, SDOProperty property) {
+            this.type = type;
+            this.property = property;
+        }
+    }
+}
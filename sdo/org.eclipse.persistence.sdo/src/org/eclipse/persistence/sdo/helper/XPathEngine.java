@@ -19,6 +19,8 @@
 import org.eclipse.persistence.oxm.XMLConstants;
 import org.eclipse.persistence.sdo.SDOConstants;
 import org.eclipse.persistence.sdo.SDODataObject;
+import org.eclipse.persistence.sdo.SDOProperty;
+import org.eclipse.persistence.sdo.SDOType;
 import org.eclipse.persistence.exceptions.ConversionException;
 import org.eclipse.persistence.exceptions.SDOException;
 import org.eclipse.persistence.internal.oxm.XMLConversionManager;
@@ -81,9 +83,37 @@ public void unset(String path, DataObject caller) {
      * @param convertValue     boolean used for set if we should convert the value
      */
     public void set(String path, Object value, DataObject caller, boolean convertValue) {
+        CompiledXPath xpath = getCompiledXPath(path, caller);
+        if (xpath != null) {
+            SDODataObject lastDataObject = xpath.getLastDataObject((SDODataObject)caller);
+            if (lastDataObject != null) {
+                SDOProperty lastProperty = xpath.getLastProperty(lastDataObject);
+                if (lastProperty != null) {
+                    set(lastProperty, lastDataObject, xpath.getLastPosition(), value, convertValue);
+                    return;
+                }
+            }
+        }
         processPath(path, value, caller, convertValue, SET);
     }
 
+    /**
+     * Return the path compiled for the caller's Type, or null if the path must be parsed.
+     *
+     * @param path      the String representation of path based access
+     * @param caller    the DataObject that pass path information in
+     * @return          the compiled path, or null
+     */
+    private CompiledXPath getCompiledXPath(String path, DataObject caller) {
+        if (caller instanceof SDODataObject) {
+            SDOType type = ((SDODataObject)caller).getType();
+            if (type != null) {
+                return type.getCompiledXPath(path);
+            }
+        }
+        return null;
+    }
+
     /**When accessing values corresponding to properties of DataObject by path base accessors,
      * the accessed getters will pass informations to this method to process information and
      * acquire wanted values.
@@ -93,6 +123,23 @@ public void set(String path, Object value, DataObject caller, boolean convertVal
      * @return              the value gotten by accessing through path
      */
     public Object get(String path, DataObject caller) {// path like "a/b/c"
+        CompiledXPath xpath = getCompiledXPath(path, caller);
+        if (xpath != null) {
+            Object value = xpath.get((SDODataObject)caller);
+            if (value != CompiledXPath.NOT_EVALUATED) {
+                return value;
+            }
+        }
+        return getValueForPath(path, caller);
+    }
+
+    /**Parse the path and acquire the value, a fragment at a time.
+     *
+     * @param path          the String representation of path based access
+     * @param caller        the DataObject that pass path information in
+     * @return              the value gotten by accessing through path
+     */
+    private Object getValueForPath(String path, DataObject caller) {
         if ((path == null) || path.equals(SDOConstants.EMPTY_STRING)) {
             return null;
         }
@@ -116,7 +163,7 @@ public Object get(String path, DataObject caller) {// path like "a/b/c"
             } else {
                 Object value = getValueForFragment(path.substring(0, index), caller);
                 DataObject currentDataObject = (DataObject) value;
-                return get(path.substring(index + 1, path.length()), currentDataObject);
+                return getValueForPath(path.substring(index + 1, path.length()), currentDataObject);
             }
         }
         return getValueForFragment(path, caller);